@@ -24,7 +24,6 @@ import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleUtil;
-import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetric;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
@@ -249,27 +248,27 @@ public final class GatewayRuleManager {
                 return;
             }
 
-            // Clear unused parameter metrics.
+            // Clear unused parameter metrics, and migrate the metrics of modified rules.
+            Map<String, List<ParamFlowRule>> migratedRules = new HashMap<>();
             for (Map.Entry<String, List<ParamFlowRule>> entry : CONVERTED_PARAM_RULE_MAP.entrySet()) {
                 String resource = entry.getKey();
                 if (!newRuleMap.containsKey(resource)) {
                     ParameterMetricStorage.clearParamMetricForResource(resource);
                     continue;
                 }
-                List<ParamFlowRule> newRuleList = newRuleMap.get(resource);
-                List<ParamFlowRule> oldRuleList = new ArrayList<>(entry.getValue());
-                oldRuleList.removeAll(newRuleList);
-                for (ParamFlowRule rule : oldRuleList) {
-                    ParameterMetric metric = ParameterMetricStorage.getParamMetricForResource(resource);
-                    if (null != metric) {
-                        metric.clearForRule(rule);
-                    }
+                List<ParamFlowRule> migrated = ParameterMetricStorage.migrateParamMetricsFor(resource,
+                    entry.getValue(), newRuleMap.get(resource));
+                if (!migrated.isEmpty()) {
+                    migratedRules.put(resource, migrated);
                 }
             }
 
             // Apply to converted rule map.
             CONVERTED_PARAM_RULE_MAP.clear();
             CONVERTED_PARAM_RULE_MAP.putAll(newRuleMap);
+            for (Map.Entry<String, List<ParamFlowRule>> entry : migratedRules.entrySet()) {
+                ParameterMetricStorage.releaseMigratedRulesFor(entry.getKey(), entry.getValue());
+            }
 
             RecordLog.info("[GatewayRuleManager] Converted internal param rules: {}", CONVERTED_PARAM_RULE_MAP);
         }
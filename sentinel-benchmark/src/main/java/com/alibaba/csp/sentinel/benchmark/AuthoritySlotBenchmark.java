@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRule;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRuleManager;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthoritySlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link AuthoritySlot} with a black list of various sizes. The origin of the requests
+ * is either in the middle of the list or not in the list at all, so that all requests pass in the
+ * latter case.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class AuthoritySlotBenchmark {
+
+    @Param({"1", "10", "500"})
+    private int listSize;
+
+    @Param({"true", "false"})
+    private boolean originInList;
+
+    private ResourceWrapper resource;
+    private DefaultNode node;
+    private Context context;
+    private Entry holder;
+    private AuthoritySlot slot;
+
+    @Setup
+    public void setUp() throws BlockException {
+        resource = SlotContextState.newResources("benchmark-authority", 1)[0];
+        node = SlotContextState.newNodes(new ResourceWrapper[] {resource})[0];
+        StringBuilder limitApp = new StringBuilder("app-0");
+        for (int i = 1; i < listSize; i++) {
+            limitApp.append(",app-").append(i);
+        }
+        AuthorityRule rule = new AuthorityRule().setStrategy(RuleConstant.AUTHORITY_BLACK);
+        rule.setResource(resource.getName());
+        rule.setLimitApp(limitApp.toString());
+        AuthorityRuleManager.loadRules(Collections.singletonList(rule));
+        slot = new AuthoritySlot();
+
+        // "app-<n>" of a number not in the list still hits String#indexOf for most list sizes.
+        String origin = originInList ? "app-" + listSize / 2 : "app-" + listSize / 2 + "0000";
+        context = ContextUtil.enter(SlotContextState.CONTEXT_NAME, origin);
+        holder = SphU.entry("benchmark-authority-holder");
+    }
+
+    @TearDown
+    public void tearDown() {
+        holder.exit();
+        ContextUtil.exit();
+        AuthorityRuleManager.loadRules(null);
+    }
+
+    @Benchmark
+    public boolean entryAndExit() throws Throwable {
+        try {
+            slot.entry(context, resource, node, 1, false);
+        } catch (BlockException e) {
+            return false;
+        }
+        slot.exit(context, resource, 1);
+        return true;
+    }
+}
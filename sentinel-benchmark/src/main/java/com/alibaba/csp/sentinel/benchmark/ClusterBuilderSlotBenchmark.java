@@ -0,0 +1,78 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link ClusterBuilderSlot} alone, with or without the origin of the caller,
+ * which decides whether the origin node is looked up.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ClusterBuilderSlotBenchmark {
+
+    @Param({"1", "1000"})
+    private int resourceCount;
+
+    @Param({"", "benchmark-origin"})
+    private String origin;
+
+    private ResourceWrapper[] resources;
+    private DefaultNode[] nodes;
+    private ClusterBuilderSlot[] slots;
+
+    @Setup
+    public void setUp() {
+        resources = SlotContextState.newResources("benchmark-cluster-builder-", resourceCount);
+        nodes = new DefaultNode[resourceCount];
+        slots = new ClusterBuilderSlot[resourceCount];
+        for (int i = 0; i < resourceCount; i++) {
+            nodes[i] = new DefaultNode(resources[i], null);
+            slots[i] = new ClusterBuilderSlot();
+        }
+    }
+
+    @Benchmark
+    public void entryAndExit(SlotContextState state) throws Throwable {
+        int i = state.next(resourceCount);
+        Context context = state.context();
+        context.setOrigin(origin);
+        slots[i].entry(context, resources[i], nodes[i], 1, false);
+        slots[i].exit(context, resources[i], 1);
+    }
+}
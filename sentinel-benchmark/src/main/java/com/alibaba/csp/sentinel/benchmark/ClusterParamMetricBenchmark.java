@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterParamMetric;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link ClusterParamMetric} on the token server, with the parameter rules of
+ * {@code namespaceCount} namespaces sharing a pool of {@code keyCount} parameter values.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ClusterParamMetricBenchmark {
+
+    private static final int SAMPLE_COUNT = 10;
+    private static final int INTERVAL_MS = 1000;
+
+    @Param({"1000", "100000"})
+    private int keyCount;
+
+    @Param({"20"})
+    private int namespaceCount;
+
+    /**
+     * Whether to keep a ring of bucket counters per value, rather than a map of values per bucket.
+     */
+    @Param({"false", "true"})
+    private boolean bucketCounters;
+
+    /**
+     * Each namespace sees all the values in turn.
+     */
+    private ClusterParamMetric[] metrics;
+    private Object[] values;
+
+    @Setup
+    public void setUp() {
+        values = new Object[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            values[i] = "value-" + i;
+        }
+        metrics = new ClusterParamMetric[namespaceCount];
+        for (int i = 0; i < namespaceCount; i++) {
+            // Large enough to keep all values, so that both storages keep the same values.
+            metrics[i] = new ClusterParamMetric(SAMPLE_COUNT, INTERVAL_MS, keyCount, bucketCounters);
+        }
+    }
+
+    /**
+     * A parameter token request: check the average QPS of the value and add the acquired count.
+     */
+    @Benchmark
+    public double requestParamToken(SlotContextState state) {
+        int i = state.next(keyCount * namespaceCount);
+        ClusterParamMetric metric = metrics[i % namespaceCount];
+        Object value = values[i / namespaceCount];
+        double qps = metric.getAvg(value);
+        metric.addValue(value, 1);
+        return qps;
+    }
+
+    /**
+     * Top values of a rule, as generated for the metric node of each rule every second.
+     */
+    @Benchmark
+    public Map<Object, Double> topValues(SlotContextState state) {
+        int i = state.next(keyCount * namespaceCount);
+        ClusterParamMetric metric = metrics[i % namespaceCount];
+        metric.addValue(values[i / namespaceCount], 1);
+        return metric.getTopValues(5);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeSlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link DegradeSlot} alone with each kind of circuit breaker. The thresholds are
+ * never reached, so the circuit breakers stay closed and record every completed request.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DegradeSlotBenchmark {
+
+    @Param({"" + RuleConstant.DEGRADE_GRADE_RT, "" + RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO,
+        "" + RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT})
+    private int grade;
+
+    @Param({"1", "1000"})
+    private int resourceCount;
+
+    @Param({"1", "10"})
+    private int rulesPerResource;
+
+    /**
+     * Bucket count of the circuit breakers, 1 for a single bucket which resets at once.
+     */
+    @Param({"1", "10"})
+    private int sampleCount;
+
+    private ResourceWrapper[] resources;
+    private DefaultNode[] nodes;
+    private DegradeSlot slot;
+
+    @Setup
+    public void setUp() {
+        resources = SlotContextState.newResources("benchmark-degrade-", resourceCount);
+        nodes = SlotContextState.newNodes(resources);
+        List<DegradeRule> rules = new ArrayList<>();
+        for (ResourceWrapper resource : resources) {
+            for (int i = 0; i < rulesPerResource; i++) {
+                DegradeRule rule = new DegradeRule(resource.getName())
+                    .setGrade(grade)
+                    .setCount(grade == RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO ? 1 : 1e9)
+                    .setSlowRatioThreshold(1)
+                    .setTimeWindow(10)
+                    .setStatIntervalMs(1000 + i * 10)
+                    .setSampleCount(sampleCount);
+                rules.add(rule);
+            }
+        }
+        DegradeRuleManager.loadRules(rules);
+        slot = new DegradeSlot();
+    }
+
+    @TearDown
+    public void tearDown() {
+        DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+    }
+
+    @Benchmark
+    public void entryAndExit(SlotContextState state) throws Throwable {
+        int i = state.next(resourceCount);
+        slot.entry(state.context(), resources[i], nodes[i], 1, false);
+        slot.exit(state.context(), resources[i], 1);
+    }
+}
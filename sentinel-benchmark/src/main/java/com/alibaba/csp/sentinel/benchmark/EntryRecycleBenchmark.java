@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the entry/exit path with and without entry recycling.
+ * Run with {@code -prof gc} to compare the allocation per operation.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class EntryRecycleBenchmark {
+
+    @Param({"false", "true"})
+    private boolean recycle;
+
+    @Setup
+    public void setUp() {
+        Constants.ENTRY_RECYCLE = recycle;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean entryDefaultContext() {
+        try {
+            Entry e = SphU.entry("benchmark-recycle");
+            e.exit();
+            return true;
+        } catch (BlockException ex) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean entryNestedInContext() {
+        ContextUtil.enter("benchmark-recycle-context", "origin");
+        try {
+            Entry e0 = SphU.entry("benchmark-recycle-outer");
+            Entry e1 = SphU.entry("benchmark-recycle-inner");
+            e1.exit();
+            e0.exit();
+            return true;
+        } catch (BlockException ex) {
+            return false;
+        } finally {
+            ContextUtil.exit();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleChecker;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleUtil;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowSlot;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for checking many flow rules of mixed origins and strategies on one resource, comparing
+ * the rule list walked by {@link FlowRuleChecker} for each request with the per-origin rule plan
+ * compiled by {@link FlowRuleManager} and used by {@link FlowSlot}.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FlowRuleCheckBenchmark {
+
+    private static final String RESOURCE_NAME = "benchmark-flow-check";
+    private static final String RELATED_RESOURCE_NAME = "benchmark-flow-check-related";
+
+    @Param({"1", "10", "50"})
+    private int rulesPerResource;
+
+    /**
+     * Origin of the requests, either named by some rules or not.
+     */
+    @Param({"app-3", "unknown-app"})
+    private String origin;
+
+    private ResourceWrapper resource;
+    private DefaultNode node;
+    private Context context;
+    private Entry holder;
+
+    private FlowSlot slot;
+    private FlowRuleChecker checker;
+    private Function<String, Collection<FlowRule>> ruleProvider;
+
+    @Setup
+    public void setUp() throws BlockException {
+        resource = SlotContextState.newResources(RESOURCE_NAME, 1)[0];
+        node = SlotContextState.newNodes(new ResourceWrapper[] {resource})[0];
+        // Create the cluster node of the related resource.
+        SphU.entry(RELATED_RESOURCE_NAME, EntryType.IN).exit();
+
+        List<FlowRule> rules = new ArrayList<>();
+        for (int i = 0; i < rulesPerResource; i++) {
+            FlowRule rule = new FlowRule(resource.getName())
+                .setGrade(RuleConstant.FLOW_GRADE_QPS)
+                .setCount(1e9 + i);
+            switch (i % 5) {
+                case 0:
+                    rule.setLimitApp(RuleConstant.LIMIT_APP_DEFAULT);
+                    break;
+                case 1:
+                    rule.setLimitApp(RuleConstant.LIMIT_APP_OTHER);
+                    break;
+                case 2:
+                    rule.setStrategy(RuleConstant.STRATEGY_RELATE).setRefResource(RELATED_RESOURCE_NAME);
+                    break;
+                default:
+                    rule.setLimitApp("app-" + i);
+            }
+            rules.add(rule);
+        }
+        FlowRuleManager.loadRules(rules);
+        final Map<String, List<FlowRule>> ruleMap = FlowRuleUtil.buildFlowRuleMap(rules);
+        ruleProvider = new Function<String, Collection<FlowRule>>() {
+            @Override
+            public Collection<FlowRule> apply(String resource) {
+                return ruleMap.get(resource);
+            }
+        };
+        checker = new FlowRuleChecker();
+        slot = new FlowSlot();
+
+        context = ContextUtil.enter(SlotContextState.CONTEXT_NAME, origin);
+        holder = SphU.entry("benchmark-flow-check-holder");
+    }
+
+    @TearDown
+    public void tearDown() {
+        holder.exit();
+        ContextUtil.exit();
+        FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+    }
+
+    @Benchmark
+    public void ruleList() throws BlockException {
+        checker.checkFlow(ruleProvider, resource, context, node, 1, false);
+    }
+
+    @Benchmark
+    public void rulePlan() throws Throwable {
+        slot.entry(context, resource, node, 1, false);
+        slot.exit(context, resource, 1);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowSlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link FlowSlot} alone with each kind of traffic shaping controller. The thresholds
+ * are high enough so that all requests pass, and the cost of checking the rules is measured.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class FlowSlotBenchmark {
+
+    @Param({"" + RuleConstant.CONTROL_BEHAVIOR_DEFAULT, "" + RuleConstant.CONTROL_BEHAVIOR_WARM_UP,
+        "" + RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER, "" + RuleConstant.CONTROL_BEHAVIOR_WARM_UP_RATE_LIMITER})
+    private int controlBehavior;
+
+    @Param({"1", "1000"})
+    private int resourceCount;
+
+    @Param({"1", "10", "50"})
+    private int rulesPerResource;
+
+    private ResourceWrapper[] resources;
+    private DefaultNode[] nodes;
+    private FlowSlot slot;
+
+    @Setup
+    public void setUp() {
+        resources = SlotContextState.newResources("benchmark-flow-", resourceCount);
+        nodes = SlotContextState.newNodes(resources);
+        List<FlowRule> rules = new ArrayList<>();
+        for (ResourceWrapper resource : resources) {
+            for (int i = 0; i < rulesPerResource; i++) {
+                FlowRule rule = new FlowRule(resource.getName())
+                    .setGrade(RuleConstant.FLOW_GRADE_QPS)
+                    .setCount(1e9)
+                    .setControlBehavior(controlBehavior);
+                rules.add(rule);
+            }
+        }
+        FlowRuleManager.loadRules(rules);
+        slot = new FlowSlot();
+    }
+
+    @TearDown
+    public void tearDown() {
+        FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+    }
+
+    @Benchmark
+    public void entryAndExit(SlotContextState state) throws Throwable {
+        int i = state.next(resourceCount);
+        slot.entry(state.context(), resources[i], nodes[i], 1, false);
+        slot.exit(state.context(), resources[i], 1);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.statistic.metric.BucketLeapArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Contention benchmark for window rotation of {@link BucketLeapArray}. Short windows are used
+ * so that threads keep hitting the bucket rotation. Sample time mode shows the tail latency
+ * of {@code currentWindow} at the window boundaries.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LeapArrayRotationBenchmark {
+
+    @Param({"false", "true"})
+    private boolean lockFreeRotation;
+
+    @Param({"10", "500"})
+    private int windowLengthInMs;
+
+    private BucketLeapArray leapArray;
+
+    @Setup
+    public void setUp() {
+        int sampleCount = 2;
+        leapArray = new BucketLeapArray(sampleCount, sampleCount * windowLengthInMs, lockFreeRotation);
+    }
+
+    private void addPass() {
+        leapArray.currentWindow().value().addPass(1);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void rotate16Threads() {
+        addPass();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void rotate64Threads() {
+        addPass();
+    }
+
+    @Benchmark
+    @Threads(128)
+    public void rotate128Threads() {
+        addPass();
+    }
+}
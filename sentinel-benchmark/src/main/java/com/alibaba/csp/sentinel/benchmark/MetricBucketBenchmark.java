@@ -0,0 +1,112 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucketFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the {@code LongAdder}-based {@link MetricBucket} and the padded striped bucket.
+ * Run with {@code -prof gc} to compare the allocation of creating buckets. The {@code rtHistogram}
+ * param shows the cost of recording response time histogram in {@link MetricBucket#addRT(long)}.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MetricBucketBenchmark {
+
+    @Param({SentinelConfig.METRIC_BUCKET_TYPE_DEFAULT, SentinelConfig.METRIC_BUCKET_TYPE_PADDED})
+    private String bucketType;
+
+    @Param({"false", "true"})
+    private boolean rtHistogram;
+
+    private MetricBucket bucket;
+
+    @Setup
+    public void setUp() {
+        SentinelConfig.setConfig(SentinelConfig.METRIC_BUCKET_TYPE, bucketType);
+        bucket = MetricBucketFactory.newBucket(rtHistogram);
+    }
+
+    private void addAll() {
+        bucket.addPass(1);
+        bucket.addSuccess(1);
+        bucket.addRT(5);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void add1Thread() {
+        addAll();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void add4Threads() {
+        addAll();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void add16Threads() {
+        addAll();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long addAndSum4Threads() {
+        addAll();
+        return bucket.pass() + bucket.get(MetricEvent.RT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MetricBucket resetAndSum() {
+        bucket.reset();
+        long sum = 0;
+        for (MetricEvent event : MetricEvent.values()) {
+            sum += bucket.get(event);
+        }
+        return sum > 0 ? null : bucket;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MetricBucket newBucket() {
+        return MetricBucketFactory.newBucket(rtHistogram);
+    }
+}
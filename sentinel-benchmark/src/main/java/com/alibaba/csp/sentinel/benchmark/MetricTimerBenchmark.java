@@ -0,0 +1,115 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for collecting the metrics of one second from all resources, as the metric timer
+ * does on every tick: {@code perTickMaps} mimics the way of building a map of {@link MetricNode}s
+ * from each node and aggregating them by time, {@code perTickSnapshots} fills reused snapshots via
+ * {@link ClusterNode#fillMetricsOfSecond(long, MetricNode)}. Run with {@code -prof gc} to compare
+ * the allocation per tick.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MetricTimerBenchmark {
+
+    @Param({"1000", "5000", "20000"})
+    private int resourceCount;
+
+    private ClusterNode[] nodes;
+    private long second;
+
+    private MetricNode[] snapshots;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        nodes = new ClusterNode[resourceCount];
+        snapshots = new MetricNode[resourceCount];
+        for (int i = 0; i < resourceCount; i++) {
+            nodes[i] = new ClusterNode("benchmark-metric-" + i);
+            snapshots[i] = new MetricNode();
+        }
+        // Record the requests of all resources in the same second.
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000);
+        long time = TimeUtil.currentTimeMillis();
+        second = time - time % 1000;
+        for (int i = 0; i < resourceCount; i++) {
+            nodes[i].addPassRequest(1);
+            nodes[i].addRtAndSuccess(i % 100, 1);
+        }
+    }
+
+    @Benchmark
+    public Map<Long, List<MetricNode>> perTickMaps() {
+        Map<Long, List<MetricNode>> maps = new TreeMap<>();
+        for (ClusterNode node : nodes) {
+            Map<Long, MetricNode> metrics = new ConcurrentHashMap<>();
+            for (MetricNode metricNode : node.rawMetricsInMin(null)) {
+                if (metricNode.getTimestamp() == second) {
+                    metrics.put(metricNode.getTimestamp(), metricNode);
+                }
+            }
+            for (Map.Entry<Long, MetricNode> entry : metrics.entrySet()) {
+                MetricNode metricNode = entry.getValue();
+                metricNode.setResource(node.getName());
+                metricNode.setClassification(node.getResourceType());
+                maps.computeIfAbsent(entry.getKey(), k -> new ArrayList<MetricNode>()).add(metricNode);
+            }
+        }
+        return maps;
+    }
+
+    @Benchmark
+    public int perTickSnapshots() {
+        int count = 0;
+        for (ClusterNode node : nodes) {
+            MetricNode snapshot = snapshots[count];
+            if (node.fillMetricsOfSecond(second, snapshot)) {
+                snapshot.setResource(node.getName());
+                snapshot.setClassification(node.getResourceType());
+                count++;
+            }
+        }
+        return count;
+    }
+}
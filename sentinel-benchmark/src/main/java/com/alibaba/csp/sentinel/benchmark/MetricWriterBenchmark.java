@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.LogBase;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.node.metric.MetricWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput benchmark for {@link MetricWriter}. Each operation writes the metrics of
+ * {@code resourceCount} resources for the next second, including the index entry.
+ * Metric files are written to a temporary directory, which is removed afterwards.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MetricWriterBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int resourceCount;
+
+    @Param({SentinelConfig.METRIC_FILE_FORMAT_TEXT, SentinelConfig.METRIC_FILE_FORMAT_BINARY})
+    private String format;
+
+    private File logDir;
+    private MetricWriter writer;
+    private List<MetricNode> nodes;
+    private long time;
+
+    @Setup
+    public void setUp() throws Exception {
+        // The log directory is resolved once, so it must be set before any Sentinel class is loaded.
+        logDir = Files.createTempDirectory("sentinel-benchmark").toFile();
+        System.setProperty(LogBase.LOG_DIR, logDir.getAbsolutePath());
+        SentinelConfig.setConfig(SentinelConfig.METRIC_FILE_FORMAT, format);
+        writer = new MetricWriter(SentinelConfig.singleMetricFileSize(), SentinelConfig.totalMetricFileCount());
+
+        nodes = new ArrayList<>(resourceCount);
+        for (int i = 0; i < resourceCount; i++) {
+            MetricNode node = new MetricNode();
+            node.setResource("benchmark-metric-writer-" + i);
+            node.setPassQps(i);
+            node.setSuccessQps(i);
+            node.setRt(i % 100);
+            nodes.add(node);
+        }
+        long now = System.currentTimeMillis();
+        time = now - now % 1000 + 1000;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        writer.close();
+        delete(logDir);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    @Benchmark
+    public void writeSecond() throws Exception {
+        writer.write(time, nodes);
+        time += 1000;
+    }
+}
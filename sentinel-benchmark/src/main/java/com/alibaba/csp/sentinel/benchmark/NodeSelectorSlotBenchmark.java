@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link NodeSelectorSlot} alone, with one slot per resource as in the slot chains.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class NodeSelectorSlotBenchmark {
+
+    @Param({"1", "1000"})
+    private int resourceCount;
+
+    private ResourceWrapper[] resources;
+    private NodeSelectorSlot[] slots;
+
+    @Setup
+    public void setUp() {
+        resources = SlotContextState.newResources("benchmark-node-selector-", resourceCount);
+        slots = new NodeSelectorSlot[resourceCount];
+        for (int i = 0; i < resourceCount; i++) {
+            slots[i] = new NodeSelectorSlot();
+        }
+    }
+
+    @Benchmark
+    public void entryAndExit(SlotContextState state) throws Throwable {
+        int i = state.next(resourceCount);
+        slots[i].entry(state.context(), resources[i], null, 1, false);
+        slots[i].exit(state.context(), resources[i], 1);
+    }
+}
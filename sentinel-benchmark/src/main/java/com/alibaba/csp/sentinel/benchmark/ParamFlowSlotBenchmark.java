@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowException;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowSlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link ParamFlowSlot} alone, with the hot parameter cycling over {@code keyCount}
+ * distinct values. The threshold is high enough so that all requests pass.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ParamFlowSlotBenchmark {
+
+    /**
+     * {@code qps} for QPS rule with default control behavior, {@code throttle} for QPS rule
+     * with rate limiter control behavior and {@code thread} for thread count rule.
+     */
+    @Param({"qps", "throttle", "thread"})
+    private String mode;
+
+    @Param({"1", "1000", "100000"})
+    private int keyCount;
+
+    private ResourceWrapper resource;
+    private DefaultNode node;
+    private Object[][] args;
+    private ParamFlowSlot slot;
+
+    @Setup
+    public void setUp() {
+        resource = SlotContextState.newResources("benchmark-param-", 1)[0];
+        node = SlotContextState.newNodes(new ResourceWrapper[] {resource})[0];
+        args = new Object[keyCount][];
+        for (int i = 0; i < keyCount; i++) {
+            args[i] = new Object[] {"key-" + i};
+        }
+        ParamFlowRule rule = new ParamFlowRule(resource.getName())
+            .setParamIdx(0)
+            .setCount(1e9);
+        if ("thread".equals(mode)) {
+            rule.setGrade(RuleConstant.FLOW_GRADE_THREAD);
+        } else if ("throttle".equals(mode)) {
+            rule.setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
+        }
+        ParamFlowRuleManager.loadRules(Collections.singletonList(rule));
+        slot = new ParamFlowSlot();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ParamFlowRuleManager.loadRules(new ArrayList<ParamFlowRule>());
+    }
+
+    @Benchmark
+    public boolean entryAndExit(SlotContextState state) throws Throwable {
+        Object[] params = args[state.next(keyCount)];
+        try {
+            slot.entry(state.context(), resource, node, 1, false, params);
+        } catch (ParamFlowException ex) {
+            // Concurrent requests of the same value may still be rejected in throttle mode,
+            // as the time of the last passed request can be later than the current time.
+            return false;
+        }
+        slot.exit(state.context(), resource, 1, params);
+        return true;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowChecker;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetric;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link ParameterMetric} with high-cardinality parameter values, which makes the
+ * underlying LRU cache maps keep evicting.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ParameterMetricBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int keyCount;
+
+    /**
+     * Whether to keep the token bucket of each value in one packed {@code long}.
+     */
+    @Param({"false", "true"})
+    private boolean packedTokenBucket;
+
+    /**
+     * Type of the parameter values, {@code long} and {@code string} values are kept in primitive arrays
+     * with packed token buckets, while {@code double} values are kept in cache maps.
+     */
+    @Param({"long", "string", "double"})
+    private String valueType;
+
+    private ResourceWrapper resource;
+    private ParamFlowRule qpsRule;
+    private ParameterMetric metric;
+    private Object[][] args;
+
+    @Setup
+    public void setUp() {
+        resource = SlotContextState.newResources("benchmark-param-metric-", 1)[0];
+        args = new Object[keyCount][];
+        for (int i = 0; i < keyCount; i++) {
+            args[i] = new Object[] {newValue(i)};
+        }
+        SentinelConfig.setConfig(ParamFlowConfig.PACKED_TOKEN_BUCKET_ENABLED, String.valueOf(packedTokenBucket));
+        qpsRule = new ParamFlowRule(resource.getName())
+            .setParamIdx(0)
+            .setCount(1e6);
+        ParameterMetricStorage.initParamMetricsFor(resource, qpsRule);
+
+        ParamFlowRule threadRule = new ParamFlowRule(resource.getName())
+            .setParamIdx(0)
+            .setGrade(RuleConstant.FLOW_GRADE_THREAD)
+            .setCount(1e9);
+        metric = new ParameterMetric();
+        metric.initialize(threadRule);
+    }
+
+    private Object newValue(int i) {
+        switch (valueType) {
+            case "string":
+                return "value-" + i;
+            case "double":
+                return (double)i;
+            default:
+                return (long)i;
+        }
+    }
+
+    @Benchmark
+    public void addAndDecreaseThreadCount(SlotContextState state) {
+        Object[] params = args[state.next(keyCount)];
+        metric.addThreadCount(params);
+        metric.decreaseThreadCount(params);
+    }
+
+    @Benchmark
+    public boolean passQpsCheck(SlotContextState state) {
+        return ParamFlowChecker.passCheck(resource, qpsRule, 1, args[state.next(keyCount)]);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>Runs the selected benchmarks once for each thread count, and writes the results of each run
+ * to {@code threads-<n>.json} in the result directory, so that runs on different machines
+ * or revisions can be compared by tools.</p>
+ *
+ * <p>All arguments are passed to JMH, e.g. to run the slot benchmarks with 1, 8 and 32 threads:</p>
+ *
+ * <pre>
+ * java -Dsentinel.benchmark.threads=1,8,32 -Dsentinel.benchmark.result.dir=results \
+ *     -cp target/benchmarks.jar com.alibaba.csp.sentinel.benchmark.SentinelBenchmarkRunner ".*SlotBenchmark"
+ * </pre>
+ *
+ * <p>Thread counts are given by {@code sentinel.benchmark.threads} ({@code 1,4,16} by default),
+ * and the result directory by {@code sentinel.benchmark.result.dir} ({@code target/benchmark-results}
+ * by default). Resource, rule and key counts are the {@code @Param}s of each benchmark, which can be
+ * overridden by {@code -p name=v1,v2}.</p>
+ *
+ * @since 1.8.2
+ */
+public final class SentinelBenchmarkRunner {
+
+    public static final String THREADS_PROPERTY = "sentinel.benchmark.threads";
+    public static final String RESULT_DIR_PROPERTY = "sentinel.benchmark.result.dir";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        File resultDir = new File(System.getProperty(RESULT_DIR_PROPERTY, "target/benchmark-results"));
+        if (!resultDir.exists() && !resultDir.mkdirs()) {
+            throw new IllegalStateException("Cannot create result directory: " + resultDir);
+        }
+        for (String threads : System.getProperty(THREADS_PROPERTY, "1,4,16").split(",")) {
+            int threadCount = Integer.parseInt(threads.trim());
+            Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .threads(threadCount)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(resultDir, "threads-" + threadCount + ".json").getPath())
+                .build();
+            new Runner(options).run();
+        }
+    }
+
+    private SentinelBenchmarkRunner() {}
+}
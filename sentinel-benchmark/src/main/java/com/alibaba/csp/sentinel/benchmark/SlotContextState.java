@@ -0,0 +1,99 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Per-thread invocation context for the slot benchmarks, so that a single slot can be invoked
+ * outside of the slot chain. The context holds an entry, which plays the role of the current entry
+ * for the slots that read it (e.g. {@code NodeSelectorSlot} and {@code DegradeSlot}).
+ */
+@State(Scope.Thread)
+public class SlotContextState {
+
+    public static final String CONTEXT_NAME = "benchmark-slot-context";
+
+    private Context context;
+    private Entry holder;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws BlockException {
+        context = ContextUtil.enter(CONTEXT_NAME);
+        holder = SphU.entry("benchmark-slot-holder");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        holder.exit();
+        ContextUtil.exit();
+    }
+
+    public Context context() {
+        return context;
+    }
+
+    /**
+     * Pick the next index in round robin.
+     *
+     * @param bound the exclusive upper bound
+     * @return next index in {@code [0, bound)}
+     */
+    public int next(int bound) {
+        int i = cursor + 1;
+        if (i >= bound) {
+            i = 0;
+        }
+        cursor = i;
+        return i;
+    }
+
+    public static ResourceWrapper[] newResources(String prefix, int count) {
+        ResourceWrapper[] resources = new ResourceWrapper[count];
+        for (int i = 0; i < count; i++) {
+            resources[i] = new StringResourceWrapper(prefix + i, EntryType.IN);
+        }
+        return resources;
+    }
+
+    /**
+     * Create the nodes which the rule checking slots work on, as built by {@code ClusterBuilderSlot}.
+     */
+    public static DefaultNode[] newNodes(ResourceWrapper[] resources) {
+        DefaultNode[] nodes = new DefaultNode[resources.length];
+        for (int i = 0; i < resources.length; i++) {
+            nodes[i] = new DefaultNode(resources[i], null);
+            nodes[i].setClusterNode(new ClusterNode(resources[i].getName()));
+        }
+        return nodes;
+    }
+}
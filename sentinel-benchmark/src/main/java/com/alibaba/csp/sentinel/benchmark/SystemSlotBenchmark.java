@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.system.SystemRule;
+import com.alibaba.csp.sentinel.slots.system.SystemRuleManager;
+import com.alibaba.csp.sentinel.slots.system.SystemSlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link SystemSlot} alone with each kind of system rule. The thresholds are
+ * never reached, so the cost of reading the global statistics is measured, either on every
+ * check ({@code snapshotIntervalMs=0}) or from the periodically refreshed snapshot.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SystemSlotBenchmark {
+
+    @Param({"qps", "thread", "rt", "load", "cpu"})
+    private String ruleType;
+
+    @Param({"0", "10"})
+    private long snapshotIntervalMs;
+
+    private ResourceWrapper resource;
+    private DefaultNode node;
+    private SystemSlot slot;
+
+    @Setup
+    public void setUp() {
+        SentinelConfig.setConfig(SentinelConfig.SYSTEM_STATUS_SNAPSHOT_INTERVAL, String.valueOf(snapshotIntervalMs));
+        resource = SlotContextState.newResources("benchmark-system-", 1)[0];
+        node = SlotContextState.newNodes(new ResourceWrapper[] {resource})[0];
+        SystemRule rule = new SystemRule();
+        if ("qps".equals(ruleType)) {
+            rule.setQps(1e9);
+        } else if ("thread".equals(ruleType)) {
+            rule.setMaxThread(1000000);
+        } else if ("rt".equals(ruleType)) {
+            rule.setAvgRt(100000);
+        } else if ("load".equals(ruleType)) {
+            rule.setHighestSystemLoad(1e6);
+        } else {
+            rule.setHighestCpuUsage(1);
+        }
+        SystemRuleManager.loadRules(Collections.singletonList(rule));
+        slot = new SystemSlot();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SystemRuleManager.loadRules(new ArrayList<SystemRule>());
+        SentinelConfig.removeConfig(SentinelConfig.SYSTEM_STATUS_SNAPSHOT_INTERVAL);
+    }
+
+    @Benchmark
+    public void entryAndExit(SlotContextState state) throws Throwable {
+        slot.entry(state.context(), resource, node, 1, false);
+        slot.exit(state.context(), resource, 1);
+    }
+}
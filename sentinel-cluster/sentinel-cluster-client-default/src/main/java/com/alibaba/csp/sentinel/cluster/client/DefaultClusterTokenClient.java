@@ -16,7 +16,10 @@
 package com.alibaba.csp.sentinel.cluster.client;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
@@ -29,9 +32,13 @@ import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager
 import com.alibaba.csp.sentinel.cluster.client.config.ServerChangeObserver;
 import com.alibaba.csp.sentinel.cluster.log.ClusterClientStatLogUtil;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowBatchRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowLeaseRequestData;
 import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowBatchTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowLeaseTokenResponseData;
 import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.StringUtil;
@@ -49,6 +56,8 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
 
     private final AtomicBoolean shouldStart = new AtomicBoolean(false);
 
+    private final TokenLeaseManager leaseManager = new TokenLeaseManager(this);
+
     public DefaultClusterTokenClient() {
         ClusterClientConfigManager.addServerChangeObserver(new ServerChangeObserver() {
             @Override
@@ -93,6 +102,8 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
             if (transportClient != null) {
                 transportClient.stop();
             }
+            // Tokens leased from former server are no longer valid.
+            leaseManager.clear();
             // Replace with new, even if the new client is not ready.
             this.transportClient = new NettyTransportClient(config.getServerHost(), config.getServerPort());
             this.serverDescriptor = new TokenServerDescriptor(config.getServerHost(), config.getServerPort());
@@ -131,6 +142,7 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
     @Override
     public void stop() throws Exception {
         stopClientIfStarted();
+        leaseManager.clear();
     }
 
     @Override
@@ -151,6 +163,10 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         if (notValidRequest(flowId, acquireCount)) {
             return badRequest();
         }
+        TokenResult leaseResult = tryAcquireFromLease(flowId, acquireCount, prioritized);
+        if (leaseResult != null) {
+            return leaseResult;
+        }
         FlowRequestData data = new FlowRequestData().setCount(acquireCount)
             .setFlowId(flowId).setPriority(prioritized);
         ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data);
@@ -164,6 +180,89 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    @Override
+    public CompletableFuture<TokenResult> requestTokenAsync(Long flowId, int acquireCount, boolean prioritized) {
+        if (notValidRequest(flowId, acquireCount)) {
+            return CompletableFuture.completedFuture(badRequest());
+        }
+        TokenResult leaseResult = tryAcquireFromLease(flowId, acquireCount, prioritized);
+        if (leaseResult != null) {
+            return CompletableFuture.completedFuture(leaseResult);
+        }
+        FlowRequestData data = new FlowRequestData().setCount(acquireCount)
+            .setFlowId(flowId).setPriority(prioritized);
+        return sendTokenRequestAsync(new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data));
+    }
+
+    /**
+     * @return the OK result if the tokens are taken from the lease, otherwise null
+     */
+    private TokenResult tryAcquireFromLease(long flowId, int acquireCount, boolean prioritized) {
+        int leaseCount = ClusterClientConfigManager.getLeaseCount();
+        if (leaseCount > 0 && !prioritized && acquireCount <= leaseCount) {
+            // Prioritized requests may occupy future tokens, which is only possible in token server.
+            return leaseManager.tryAcquire(flowId, acquireCount, leaseCount,
+                ClusterClientConfigManager.getLeaseTimeMs());
+        }
+        return null;
+    }
+
+    @Override
+    public TokenResult[] requestBatchToken(long[] flowIds, int[] acquireCounts, boolean prioritized) {
+        if (flowIds == null) {
+            return new TokenResult[0];
+        }
+        TokenResult[] results = new TokenResult[flowIds.length];
+        boolean validCounts = acquireCounts != null && acquireCounts.length == flowIds.length;
+        // Indexes of the flows whose tokens should be requested from token server.
+        int[] pending = new int[flowIds.length];
+        int pendingCount = 0;
+        for (int i = 0; i < flowIds.length; i++) {
+            if (!validCounts || notValidRequest(flowIds[i], acquireCounts[i])) {
+                results[i] = badRequest();
+            } else {
+                results[i] = tryAcquireFromLease(flowIds[i], acquireCounts[i], prioritized);
+                if (results[i] == null) {
+                    pending[pendingCount++] = i;
+                }
+            }
+        }
+        for (int from = 0; from < pendingCount; from += ClusterConstants.MAX_FLOW_BATCH_SIZE) {
+            int to = Math.min(pendingCount, from + ClusterConstants.MAX_FLOW_BATCH_SIZE);
+            requestBatchFromServer(flowIds, acquireCounts, prioritized, pending, from, to, results);
+        }
+        return results;
+    }
+
+    /**
+     * Request tokens of the flows at {@code indexes[from, to)} in one request, and fill in their results.
+     */
+    private void requestBatchFromServer(long[] flowIds, int[] acquireCounts, boolean prioritized, int[] indexes,
+                                        int from, int to, TokenResult[] results) {
+        int size = to - from;
+        long[] batchFlowIds = new long[size];
+        int[] batchCounts = new int[size];
+        for (int i = 0; i < size; i++) {
+            batchFlowIds[i] = flowIds[indexes[from + i]];
+            batchCounts[i] = acquireCounts[indexes[from + i]];
+        }
+        FlowBatchRequestData data = new FlowBatchRequestData().setFlowIds(batchFlowIds)
+            .setCounts(batchCounts).setPriority(prioritized);
+        ClusterRequest<FlowBatchRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW_BATCH,
+            data);
+        TokenResult[] batchResults = null;
+        try {
+            batchResults = sendBatchTokenRequest(request, size);
+        } catch (Exception ex) {
+            ClusterClientStatLogUtil.log(ex.getMessage());
+        }
+        for (int i = 0; i < size; i++) {
+            TokenResult result = batchResults == null ? clientFail() : batchResults[i];
+            logForResult(result);
+            results[indexes[from + i]] = result;
+        }
+    }
+
     @Override
     public TokenResult requestParamToken(Long flowId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(flowId, acquireCount) || params == null || params.isEmpty()) {
@@ -182,6 +281,59 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    @Override
+    public CompletableFuture<TokenResult> requestParamTokenAsync(Long flowId, int acquireCount,
+                                                                 Collection<Object> params) {
+        if (notValidRequest(flowId, acquireCount) || params == null || params.isEmpty()) {
+            return CompletableFuture.completedFuture(badRequest());
+        }
+        ParamFlowRequestData data = new ParamFlowRequestData().setCount(acquireCount)
+            .setFlowId(flowId).setParams(params);
+        return sendTokenRequestAsync(new ClusterRequest<>(ClusterConstants.MSG_TYPE_PARAM_FLOW, data));
+    }
+
+    @Override
+    public TokenResult requestLeaseToken(Long flowId, int leaseCount, int leaseTimeMs) {
+        if (notValidRequest(flowId, leaseCount) || leaseTimeMs <= 0) {
+            return badRequest();
+        }
+        FlowLeaseRequestData data = new FlowLeaseRequestData().setCount(leaseCount)
+            .setFlowId(flowId).setLeaseTimeMs(leaseTimeMs);
+        return sendLeaseRequest(new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW_LEASE, data));
+    }
+
+    @Override
+    public TokenResult returnLeaseToken(Long flowId, long leaseId, int returnCount) {
+        if (notValidRequest(flowId, returnCount) || leaseId <= 0) {
+            return badRequest();
+        }
+        FlowLeaseRequestData data = new FlowLeaseRequestData().setFlowId(flowId)
+            .setLeaseId(leaseId).setReturnCount(returnCount);
+        return sendLeaseRequest(new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW_LEASE, data));
+    }
+
+    private TokenResult sendLeaseRequest(ClusterRequest<FlowLeaseRequestData> request) {
+        if (transportClient == null) {
+            RecordLog.warn(
+                "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            return clientFail();
+        }
+        try {
+            ClusterResponse response = transportClient.sendRequest(request);
+            TokenResult result = new TokenResult(response.getStatus());
+            if (response.getData() != null) {
+                FlowLeaseTokenResponseData responseData = (FlowLeaseTokenResponseData)response.getData();
+                result.setRemaining(responseData.getLeasedCount());
+                result.setTokenId(responseData.getLeaseId());
+            }
+            logForResult(result);
+            return result;
+        } catch (Exception ex) {
+            ClusterClientStatLogUtil.log(ex.getMessage());
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+    }
+
     @Override
     public TokenResult requestConcurrentToken(String clientAddress, Long ruleId, int acquireCount) {
         return null;
@@ -209,7 +361,33 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
                 "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
             return clientFail();
         }
-        ClusterResponse response = transportClient.sendRequest(request);
+        return toTokenResult(transportClient.sendRequest(request));
+    }
+
+    private CompletableFuture<TokenResult> sendTokenRequestAsync(ClusterRequest request) {
+        if (transportClient == null) {
+            RecordLog.warn(
+                "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            return CompletableFuture.completedFuture(clientFail());
+        }
+        return transportClient.sendRequestAsync(request).handle(
+            new BiFunction<ClusterResponse, Throwable, TokenResult>() {
+                @Override
+                public TokenResult apply(ClusterResponse response, Throwable ex) {
+                    if (ex != null) {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                            ? ex.getCause() : ex;
+                        ClusterClientStatLogUtil.log(cause.getMessage());
+                        return clientFail();
+                    }
+                    TokenResult result = toTokenResult(response);
+                    logForResult(result);
+                    return result;
+                }
+            });
+    }
+
+    private TokenResult toTokenResult(ClusterResponse response) {
         TokenResult result = new TokenResult(response.getStatus());
         if (response.getData() != null) {
             FlowTokenResponseData responseData = (FlowTokenResponseData)response.getData();
@@ -219,6 +397,28 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         return result;
     }
 
+    private TokenResult[] sendBatchTokenRequest(ClusterRequest<FlowBatchRequestData> request, int size)
+        throws Exception {
+        if (transportClient == null) {
+            RecordLog.warn(
+                "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            return null;
+        }
+        ClusterResponse response = transportClient.sendRequest(request);
+        FlowBatchTokenResponseData responseData = (FlowBatchTokenResponseData)response.getData();
+        if (response.getStatus() != ClusterConstants.RESPONSE_STATUS_OK || responseData == null
+            || responseData.size() != size) {
+            return null;
+        }
+        TokenResult[] results = new TokenResult[size];
+        for (int i = 0; i < size; i++) {
+            results[i] = new TokenResult(responseData.getStatuses()[i])
+                .setRemaining(responseData.getRemainingCounts()[i])
+                .setWaitInMs(responseData.getWaitInMs()[i]);
+        }
+        return results;
+    }
+
     private boolean notValidRequest(Long id, int count) {
         return id == null || id <= 0 || count <= 0;
     }
@@ -15,10 +15,12 @@
  */
 package com.alibaba.csp.sentinel.cluster.client;
 
-import java.util.AbstractMap.SimpleEntry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -27,8 +29,8 @@ import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyRequestEncoder;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyResponseDecoder;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.handler.PendingRequestRing;
 import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientHandler;
-import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientPromiseHolder;
 import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.request.Request;
@@ -44,7 +46,6 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.ChannelPromise;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
@@ -97,7 +98,10 @@ public class NettyTransportClient implements ClusterTransportClient {
             .handler(new ChannelInitializer<SocketChannel>() {
                 @Override
                 public void initChannel(SocketChannel ch) throws Exception {
-                    clientHandler = new TokenClientHandler(currentState, disconnectCallback);
+                    // Each connection has its own pending requests.
+                    PendingRequestRing pendingRequests = new PendingRequestRing();
+                    pendingRequests.start(SCHEDULER);
+                    clientHandler = new TokenClientHandler(currentState, disconnectCallback, pendingRequests);
 
                     ChannelPipeline pipeline = ch.pipeline();
                     pipeline.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
@@ -167,6 +171,10 @@ public class NettyTransportClient implements ClusterTransportClient {
     }
 
     private void cleanUp() {
+        if (clientHandler != null) {
+            clientHandler.getPendingRequests().close(
+                new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+        }
         if (channel != null) {
             channel.close();
             channel = null;
@@ -206,34 +214,48 @@ public class NettyTransportClient implements ClusterTransportClient {
 
     @Override
     public ClusterResponse sendRequest(ClusterRequest request) throws Exception {
-        if (!isReady()) {
-            throw new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY);
+        try {
+            // Pending requests time out in the timeout wheel, the margin only guards against a stalled wheel.
+            return sendRequestAsync(request).get(ClusterClientConfigManager.getRequestTimeout()
+                + REQUEST_TIMEOUT_MARGIN_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception)cause;
+            }
+            throw ex;
+        } catch (TimeoutException ex) {
+            throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ClusterResponse> sendRequestAsync(ClusterRequest request) {
+        Channel channel = this.channel;
+        TokenClientHandler clientHandler = this.clientHandler;
+        if (channel == null || clientHandler == null || !clientHandler.hasStarted()) {
+            return failedFuture(new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
         }
         if (!validRequest(request)) {
-            throw new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST);
+            return failedFuture(new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST));
         }
         int xid = getCurrentId();
-        try {
-            request.setId(xid);
-
-            channel.writeAndFlush(request);
-
-            ChannelPromise promise = channel.newPromise();
-            TokenClientPromiseHolder.putPromise(xid, promise);
-
-            if (!promise.await(ClusterClientConfigManager.getRequestTimeout())) {
-                throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
-            }
-
-            SimpleEntry<ChannelPromise, ClusterResponse> entry = TokenClientPromiseHolder.getEntry(xid);
-            if (entry == null || entry.getValue() == null) {
-                // Should not go through here.
-                throw new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS);
-            }
-            return entry.getValue();
-        } finally {
-            TokenClientPromiseHolder.remove(xid);
+        request.setId(xid);
+        // Register before writing, so that the response cannot arrive before its request is pending.
+        CompletableFuture<ClusterResponse> future = clientHandler.getPendingRequests()
+            .register(xid, ClusterClientConfigManager.getRequestTimeout());
+        if (future == null) {
+            return failedFuture(new SentinelClusterException(ClusterErrorMessages.TOO_MANY_PENDING_REQUESTS));
         }
+        // Write failures are reported to the pipeline, and the request will time out.
+        channel.writeAndFlush(request, channel.voidPromise());
+        return future;
+    }
+
+    private static CompletableFuture<ClusterResponse> failedFuture(Throwable cause) {
+        CompletableFuture<ClusterResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(cause);
+        return future;
     }
 
     private int getCurrentId() {
@@ -245,28 +267,7 @@ public class NettyTransportClient implements ClusterTransportClient {
         return next;
     }
 
-    /*public CompletableFuture<ClusterResponse> sendRequestAsync(ClusterRequest request) {
-        // Uncomment this when min target JDK is 1.8.
-        if (!validRequest(request)) {
-            return CompletableFuture.failedFuture(new IllegalArgumentException("Bad request"));
-        }
-        int xid = getCurrentId();
-        request.setId(xid);
-
-        CompletableFuture<ClusterResponse> future = new CompletableFuture<>();
-        channel.writeAndFlush(request)
-            .addListener(f -> {
-                if (f.isSuccess()) {
-                    future.complete(someResult);
-                } else if (f.cause() != null) {
-                    future.completeExceptionally(f.cause());
-                } else {
-                    future.cancel(false);
-                }
-            });
-        return future;
-    }*/
-
     private static final int MIN_ID = 1;
     private static final int MAX_ID = 999_999_999;
+    private static final int REQUEST_TIMEOUT_MARGIN_MS = 100;
 }
@@ -0,0 +1,266 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.TokenService;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Keeps the tokens leased from token server for each flow, so that token requests can be served
+ * locally without a round trip to token server.</p>
+ *
+ * <p>When the leased tokens of a flow run low or run out, a new batch is leased asynchronously, and
+ * requests which cannot be served locally meanwhile are left to the caller (i.e. request tokens one by one).
+ * Each batch keeps its own expiry, which is never extended by a later batch, as token server only takes
+ * back the unused tokens of a batch while the bucket where they were counted is still in its sliding window.
+ * Unused tokens of an expired batch are returned to token server by a separate request.</p>
+ *
+ * <p>Leases are only modified in the lease thread, except that tokens are taken by the requesting threads.</p>
+ *
+ * @since 1.8.2
+ */
+final class TokenLeaseManager {
+
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    private static final ScheduledExecutorService LEASE_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+        new NamedThreadFactory("sentinel-cluster-token-lease", true));
+
+    private final TokenService leaseService;
+    private final ScheduledExecutorService executor;
+
+    private final ConcurrentMap<Long, TokenLease> leases = new ConcurrentHashMap<>();
+
+    TokenLeaseManager(TokenService leaseService) {
+        this(leaseService, LEASE_EXECUTOR);
+    }
+
+    TokenLeaseManager(TokenService leaseService, ScheduledExecutorService executor) {
+        AssertUtil.notNull(leaseService, "leaseService cannot be null");
+        AssertUtil.notNull(executor, "executor cannot be null");
+        this.leaseService = leaseService;
+        this.executor = executor;
+    }
+
+    /**
+     * Try to take tokens from the lease of given flow, and lease a new batch of tokens asynchronously
+     * if the lease runs low.
+     *
+     * @param flowId       the flow ID
+     * @param acquireCount token count to acquire
+     * @param leaseCount   token count to lease in a batch
+     * @param leaseTimeMs  time to live of leased tokens
+     * @return the OK result if the tokens are taken, or null if the lease has no enough tokens
+     */
+    TokenResult tryAcquire(long flowId, int acquireCount, int leaseCount, int leaseTimeMs) {
+        TokenLease lease = leases.get(flowId);
+        if (lease == null) {
+            TokenLease newLease = new TokenLease(flowId);
+            lease = leases.putIfAbsent(flowId, newLease);
+            if (lease == null) {
+                lease = newLease;
+            }
+        }
+        long now = TimeUtil.currentTimeMillis();
+        boolean acquired = lease.tryAcquire(acquireCount, now);
+        // At most two batches are kept, so that a batch can be prefetched while the current one runs low.
+        if (lease.next == null && (!acquired || lease.available(now) * 2 < leaseCount)
+            && now >= lease.nextLeaseTime) {
+            leaseAsync(lease, leaseCount, leaseTimeMs);
+        }
+        if (!acquired) {
+            return null;
+        }
+        return new TokenResult(TokenResultStatus.OK)
+            .setRemaining(lease.available(now))
+            .setWaitInMs(0);
+    }
+
+    /**
+     * Drop all leases without returning tokens, e.g. when token server has changed.
+     */
+    void clear() {
+        leases.clear();
+    }
+
+    int availableCount(long flowId) {
+        TokenLease lease = leases.get(flowId);
+        return lease == null ? 0 : lease.available(TimeUtil.currentTimeMillis());
+    }
+
+    private void leaseAsync(final TokenLease lease, final int leaseCount, final int leaseTimeMs) {
+        if (!lease.leasing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        lease(lease, leaseCount, leaseTimeMs);
+                    } finally {
+                        lease.leasing.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            lease.leasing.set(false);
+        }
+    }
+
+    private void lease(final TokenLease lease, int leaseCount, final int leaseTimeMs) {
+        // The batch expires relative to the time when it is requested, which is no later than
+        // the time when token server counts the leased tokens.
+        long now = TimeUtil.currentTimeMillis();
+        TokenResult result = requestLease(lease.flowId, leaseCount, leaseTimeMs);
+        if (result == null || result.getStatus() != TokenResultStatus.OK || result.getRemaining() <= 0) {
+            // Do not lease again until the lease time passes, requests will be served by token server one by one.
+            lease.nextLeaseTime = now + leaseTimeMs;
+            return;
+        }
+        retireBatches(lease, TimeUtil.currentTimeMillis());
+        LeaseBatch batch = new LeaseBatch(result.getTokenId(), result.getRemaining(), now + leaseTimeMs);
+        if (lease.current == null) {
+            lease.current = batch;
+        } else if (lease.next == null) {
+            lease.next = batch;
+        } else {
+            returnTokens(lease, batch);
+            return;
+        }
+        scheduleRetire(lease, leaseTimeMs);
+    }
+
+    private void scheduleRetire(final TokenLease lease, long delayMs) {
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                retireBatches(lease, TimeUtil.currentTimeMillis());
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retire the expired or used up batches at the head of the lease, and return their unused tokens.
+     */
+    private void retireBatches(TokenLease lease, long now) {
+        LeaseBatch current = lease.current;
+        while (current != null && (now >= current.expireTime || current.available.get() <= 0)) {
+            returnTokens(lease, current);
+            lease.current = current = lease.next;
+            lease.next = null;
+        }
+    }
+
+    private void returnTokens(TokenLease lease, LeaseBatch batch) {
+        int returnCount = batch.drain();
+        if (returnCount > 0) {
+            try {
+                leaseService.returnLeaseToken(lease.flowId, batch.leaseId, returnCount);
+            } catch (Throwable ex) {
+                RecordLog.warn("[TokenLeaseManager] Failed to return tokens of flow " + lease.flowId, ex);
+            }
+        }
+    }
+
+    private TokenResult requestLease(long flowId, int leaseCount, int leaseTimeMs) {
+        try {
+            return leaseService.requestLeaseToken(flowId, leaseCount, leaseTimeMs);
+        } catch (Throwable ex) {
+            RecordLog.warn("[TokenLeaseManager] Failed to lease tokens of flow " + flowId, ex);
+            return null;
+        }
+    }
+
+    static final class TokenLease {
+
+        private final long flowId;
+        private final AtomicBoolean leasing = new AtomicBoolean(false);
+
+        private volatile LeaseBatch current;
+        /**
+         * The batch prefetched while the current one is still in use.
+         */
+        private volatile LeaseBatch next;
+        private volatile long nextLeaseTime;
+
+        TokenLease(long flowId) {
+            this.flowId = flowId;
+        }
+
+        boolean tryAcquire(int count, long now) {
+            LeaseBatch batch = current;
+            if (batch != null && batch.tryAcquire(count, now)) {
+                return true;
+            }
+            batch = next;
+            return batch != null && batch.tryAcquire(count, now);
+        }
+
+        int available(long now) {
+            return available(current, now) + available(next, now);
+        }
+
+        private static int available(LeaseBatch batch, long now) {
+            return batch == null || now >= batch.expireTime ? 0 : batch.available.get();
+        }
+    }
+
+    static final class LeaseBatch {
+
+        private final long leaseId;
+        private final long expireTime;
+        private final AtomicInteger available;
+
+        LeaseBatch(long leaseId, int count, long expireTime) {
+            this.leaseId = leaseId;
+            this.expireTime = expireTime;
+            this.available = new AtomicInteger(count);
+        }
+
+        boolean tryAcquire(int count, long now) {
+            if (now >= expireTime) {
+                return false;
+            }
+            while (true) {
+                int current = available.get();
+                if (current < count) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current - count)) {
+                    return true;
+                }
+            }
+        }
+
+        int drain() {
+            return available.getAndSet(0);
+        }
+    }
+}
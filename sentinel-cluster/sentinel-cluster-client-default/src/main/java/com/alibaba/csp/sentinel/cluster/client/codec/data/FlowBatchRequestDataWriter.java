@@ -0,0 +1,43 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowBatchRequestData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * +------------------+---------------+----------------+---------------+-----+
+ * | PriorityFlag (1) | Size (4 byte) | FlowID(8 byte) | Count(4 byte) | ... |
+ * +------------------+---------------+----------------+---------------+-----+
+ *
+ * @since 1.8.2
+ */
+public class FlowBatchRequestDataWriter implements EntityWriter<FlowBatchRequestData, ByteBuf> {
+
+    @Override
+    public void writeTo(FlowBatchRequestData entity, ByteBuf target) {
+        long[] flowIds = entity.getFlowIds();
+        int[] counts = entity.getCounts();
+        target.writeBoolean(entity.isPriority());
+        target.writeInt(flowIds.length);
+        for (int i = 0; i < flowIds.length; i++) {
+            target.writeLong(flowIds[i]);
+            target.writeInt(counts[i]);
+        }
+    }
+}
@@ -23,6 +23,21 @@ public class ClusterClientConfig {
 
     private Integer requestTimeout;
 
+    /**
+     * Count of tokens to lease from token server in a batch for each flow, no tokens will be leased if absent
+     * or not positive. Leased tokens are consumed locally without a round trip to token server.
+     *
+     * @since 1.8.2
+     */
+    private Integer leaseCount;
+    /**
+     * Time to live of leased tokens. It must be less than the statistic interval of token server,
+     * which rejects longer leases, so that the unused tokens can be returned to the window they are counted in.
+     *
+     * @since 1.8.2
+     */
+    private Integer leaseTimeMs;
+
     public Integer getRequestTimeout() {
         return requestTimeout;
     }
@@ -32,10 +47,30 @@ public class ClusterClientConfig {
         return this;
     }
 
+    public Integer getLeaseCount() {
+        return leaseCount;
+    }
+
+    public ClusterClientConfig setLeaseCount(Integer leaseCount) {
+        this.leaseCount = leaseCount;
+        return this;
+    }
+
+    public Integer getLeaseTimeMs() {
+        return leaseTimeMs;
+    }
+
+    public ClusterClientConfig setLeaseTimeMs(Integer leaseTimeMs) {
+        this.leaseTimeMs = leaseTimeMs;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ClusterClientConfig{" +
             "requestTimeout=" + requestTimeout +
+            ", leaseCount=" + leaseCount +
+            ", leaseTimeMs=" + leaseTimeMs +
             '}';
     }
 }
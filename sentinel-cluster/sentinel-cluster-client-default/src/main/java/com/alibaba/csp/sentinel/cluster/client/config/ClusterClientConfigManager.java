@@ -40,6 +40,8 @@ public final class ClusterClientConfigManager {
 
     private static volatile int requestTimeout = ClusterConstants.DEFAULT_REQUEST_TIMEOUT;
     private static volatile int connectTimeout = ClusterConstants.DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private static volatile int leaseCount = 0;
+    private static volatile int leaseTimeMs = ClusterConstants.DEFAULT_LEASE_TIME_MS;
 
     private static final PropertyListener<ClusterClientConfig> CONFIG_PROPERTY_LISTENER
         = new ClientConfigPropertyListener();
@@ -170,6 +172,13 @@ public final class ClusterClientConfigManager {
         if (config.getRequestTimeout() != requestTimeout) {
             requestTimeout = config.getRequestTimeout();
         }
+        // Lease config is optional, keep current value if absent.
+        if (config.getLeaseCount() != null) {
+            leaseCount = config.getLeaseCount();
+        }
+        if (config.getLeaseTimeMs() != null) {
+            leaseTimeMs = config.getLeaseTimeMs();
+        }
     }
 
     private static void updateServerAssignment(/*@Valid*/ ClusterClientAssignConfig config) {
@@ -191,7 +200,8 @@ public final class ClusterClientConfigManager {
     }
 
     public static boolean isValidClientConfig(ClusterClientConfig config) {
-        return config != null && config.getRequestTimeout() > 0;
+        return config != null && config.getRequestTimeout() > 0
+            && (config.getLeaseTimeMs() == null || config.getLeaseTimeMs() > 0);
     }
 
     public static String getServerHost() {
@@ -210,5 +220,21 @@ public final class ClusterClientConfigManager {
         return connectTimeout;
     }
 
+    /**
+     * @return count of tokens to lease in a batch for each flow, not positive if leasing is disabled
+     * @since 1.8.2
+     */
+    public static int getLeaseCount() {
+        return leaseCount;
+    }
+
+    /**
+     * @return time to live of leased tokens in milliseconds
+     * @since 1.8.2
+     */
+    public static int getLeaseTimeMs() {
+        return leaseTimeMs;
+    }
+
     private ClusterClientConfigManager() {}
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
+import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Pending requests of one connection, which correlates responses with requests by xid.</p>
+ *
+ * <p>Requests are kept in a preallocated ring of slots indexed by xid, so that a response finds its request
+ * without any lookup structure. A slot holds at most one request, a new request whose slot is still occupied
+ * (i.e. too many requests are pending) fails immediately. Timeouts are handled by a {@link RequestTimeoutWheel}
+ * advanced periodically, rather than by each waiting thread.</p>
+ *
+ * @since 1.8.2
+ */
+public final class PendingRequestRing {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final long TICK_MS = 5;
+    private static final int WHEEL_SIZE = 256;
+
+    private final int mask;
+    private final AtomicReferenceArray<ResponseFuture> slots;
+    private final RequestTimeoutWheel timeoutWheel;
+
+    private final RequestTimeoutWheel.Expirer timeoutExpirer = new RequestTimeoutWheel.Expirer() {
+        @Override
+        public void expire(ResponseFuture future) {
+            fail(future, new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT));
+        }
+    };
+
+    private volatile ScheduledFuture<?> tickTask;
+    private volatile Throwable closeCause;
+
+    public PendingRequestRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity max amount of pending requests, should be a positive power of 2
+     */
+    public PendingRequestRing(int capacity) {
+        AssertUtil.isTrue(capacity > 0 && (capacity & (capacity - 1)) == 0,
+            "capacity should be a positive power of 2");
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.timeoutWheel = new RequestTimeoutWheel(TICK_MS, WHEEL_SIZE, TimeUtil.currentTimeMillis());
+    }
+
+    /**
+     * Start expiring timed out requests periodically in given scheduler.
+     *
+     * @param scheduler the scheduler to run the timeout wheel
+     */
+    public void start(ScheduledExecutorService scheduler) {
+        this.tickTask = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                expireTimeouts(TimeUtil.currentTimeMillis());
+            }
+        }, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Register a request to wait for its response.
+     *
+     * @param xid       ID of the request
+     * @param timeoutMs timeout of the request in milliseconds
+     * @return future of the response, which fails with {@link SentinelClusterException} if the request timed out,
+     * or null if there are too many pending requests
+     */
+    public CompletableFuture<ClusterResponse> register(int xid, long timeoutMs) {
+        ResponseFuture future = new ResponseFuture(xid, TimeUtil.currentTimeMillis() + timeoutMs);
+        if (!slots.compareAndSet(xid & mask, null, future)) {
+            return null;
+        }
+        timeoutWheel.add(future);
+        if (closeCause != null) {
+            // No more expiring, fail it now rather than waiting forever.
+            failAll(closeCause);
+        }
+        return future;
+    }
+
+    /**
+     * Complete the pending request of given xid with the response.
+     *
+     * @return true if the request is completed, false if it's absent (e.g. timed out)
+     */
+    public boolean complete(int xid, ClusterResponse response) {
+        int index = xid & mask;
+        ResponseFuture future = slots.get(index);
+        if (future == null || future.xid != xid || !slots.compareAndSet(index, future, null)) {
+            return false;
+        }
+        return future.complete(response);
+    }
+
+    /**
+     * Fail all pending requests and stop expiring, e.g. when the connection is closed.
+     *
+     * @param cause the failure
+     */
+    public void close(Throwable cause) {
+        AssertUtil.notNull(cause, "cause cannot be null");
+        this.closeCause = cause;
+        ScheduledFuture<?> task = this.tickTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+        failAll(cause);
+    }
+
+    void expireTimeouts(long currentMs) {
+        try {
+            timeoutWheel.advance(currentMs, timeoutExpirer);
+            Throwable cause = this.closeCause;
+            if (cause != null) {
+                // Requests put back by the advance above may be missed by the close.
+                failAll(cause);
+            }
+        } catch (Throwable ex) {
+            // Keep the periodic task alive.
+            RecordLog.warn("[PendingRequestRing] Failed to expire timed out requests", ex);
+        }
+    }
+
+    private void failAll(final Throwable cause) {
+        timeoutWheel.clear(new RequestTimeoutWheel.Expirer() {
+            @Override
+            public void expire(ResponseFuture future) {
+                fail(future, cause);
+            }
+        });
+    }
+
+    private void fail(ResponseFuture future, Throwable cause) {
+        if (slots.compareAndSet(future.xid & mask, future, null)) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    int pendingCount() {
+        int count = 0;
+        for (int i = 0; i <= mask; i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
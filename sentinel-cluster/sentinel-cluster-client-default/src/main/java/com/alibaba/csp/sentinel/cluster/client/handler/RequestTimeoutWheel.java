@@ -0,0 +1,141 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A hashed timing wheel of pending requests. The futures are hashed into buckets by the tick of their
+ * deadline, and each bucket is a lock-free stack linked through {@link ResponseFuture#next}, so adding a
+ * request allocates nothing.</p>
+ *
+ * <p>Requests can be added by any thread, while {@link #advance(long, Expirer)} should be called by one thread
+ * periodically. Requests whose deadline is more than one round away are kept in the wheel for later rounds.</p>
+ *
+ * @since 1.8.2
+ */
+final class RequestTimeoutWheel {
+
+    private final long tickMs;
+    private final int mask;
+    private final AtomicReferenceArray<ResponseFuture> buckets;
+
+    /**
+     * The last tick which has been expired, only written by the advancing thread
+     * before the bucket of the tick is drained.
+     */
+    private volatile long expiredTick;
+
+    /**
+     * @param tickMs     duration of a tick in milliseconds
+     * @param wheelSize  amount of buckets, should be a positive power of 2
+     * @param currentMs  current time in milliseconds
+     */
+    RequestTimeoutWheel(long tickMs, int wheelSize, long currentMs) {
+        this.tickMs = tickMs;
+        this.mask = wheelSize - 1;
+        this.buckets = new AtomicReferenceArray<>(wheelSize);
+        this.expiredTick = currentMs / tickMs;
+    }
+
+    void add(ResponseFuture future) {
+        // Requests of an expired tick go to the next tick, so that they won't wait for a whole round.
+        long tick = Math.max(future.deadline / tickMs, expiredTick + 1);
+        int index = (int)tick & mask;
+        push(index, future);
+        if (tick <= expiredTick) {
+            // The tick has been expired while pushing, so the bucket may have been drained before the push.
+            // Take the bucket back and add its requests again, rather than leaving them for a whole round.
+            readd(index);
+        }
+    }
+
+    private void readd(int index) {
+        ResponseFuture future = buckets.getAndSet(index, null);
+        while (future != null) {
+            ResponseFuture next = future.next;
+            future.next = null;
+            if (!future.isDone()) {
+                add(future);
+            }
+            future = next;
+        }
+    }
+
+    private void push(int index, ResponseFuture future) {
+        ResponseFuture head;
+        do {
+            head = buckets.get(index);
+            future.next = head;
+        } while (!buckets.compareAndSet(index, head, future));
+    }
+
+    /**
+     * Expire the requests of all ticks until given time.
+     *
+     * @param currentMs current time in milliseconds
+     * @param expirer   callback of expired requests which have not been completed
+     */
+    void advance(long currentMs, Expirer expirer) {
+        long currentTick = currentMs / tickMs;
+        // No need to walk more than one round.
+        long tick = Math.max(expiredTick + 1, currentTick - mask);
+        for (; tick <= currentTick; tick++) {
+            // Publish the tick before draining, so that a request pushed into the bucket after draining
+            // will see the tick expired and add itself again.
+            expiredTick = tick;
+            int index = (int)tick & mask;
+            ResponseFuture future = buckets.getAndSet(index, null);
+            while (future != null) {
+                ResponseFuture next = future.next;
+                future.next = null;
+                if (!future.isDone()) {
+                    if (future.deadline <= currentMs) {
+                        expirer.expire(future);
+                    } else {
+                        // Deadline is in a later round (or later in current tick).
+                        push(future.deadline / tickMs > currentTick ? (int)(future.deadline / tickMs) & mask
+                            : (int)(currentTick + 1) & mask, future);
+                    }
+                }
+                future = next;
+            }
+        }
+    }
+
+    /**
+     * Remove all requests from the wheel.
+     *
+     * @param expirer callback of the removed requests which have not been completed
+     */
+    void clear(Expirer expirer) {
+        for (int i = 0; i <= mask; i++) {
+            ResponseFuture future = buckets.getAndSet(i, null);
+            while (future != null) {
+                ResponseFuture next = future.next;
+                future.next = null;
+                if (!future.isDone()) {
+                    expirer.expire(future);
+                }
+                future = next;
+            }
+        }
+    }
+
+    interface Expirer {
+        void expire(ResponseFuture future);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+
+/**
+ * Future of the response of a pending request, which is also the node of {@link RequestTimeoutWheel}.
+ *
+ * @since 1.8.2
+ */
+final class ResponseFuture extends CompletableFuture<ClusterResponse> {
+
+    final int xid;
+    final long deadline;
+
+    /**
+     * Next future in the same bucket of the timeout wheel.
+     */
+    ResponseFuture next;
+
+    ResponseFuture(int xid, long deadline) {
+        this.xid = xid;
+        this.deadline = deadline;
+    }
+}
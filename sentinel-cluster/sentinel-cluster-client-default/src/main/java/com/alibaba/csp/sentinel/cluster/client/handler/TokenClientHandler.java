@@ -38,10 +38,16 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
 
     private final AtomicInteger currentState;
     private final Runnable disconnectCallback;
+    private final PendingRequestRing pendingRequests;
 
-    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback) {
+    /**
+     * @param pendingRequests pending requests of the connection, completed when their responses arrive
+     */
+    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback,
+                              PendingRequestRing pendingRequests) {
         this.currentState = currentState;
         this.disconnectCallback = disconnectCallback;
+        this.pendingRequests = pendingRequests;
     }
 
     @Override
@@ -61,7 +67,7 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
                 return;
             }
 
-            TokenClientPromiseHolder.completePromise(response.getId(), response);
+            pendingRequests.complete(response.getId(), response);
         }
     }
 
@@ -109,6 +115,10 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
         return inetAddress.getAddress().getHostAddress() + ":" + inetAddress.getPort();
     }
 
+    public PendingRequestRing getPendingRequests() {
+        return pendingRequests;
+    }
+
     public int getCurrentState() {
         return currentState.get();
     }
@@ -26,7 +26,10 @@ import io.netty.channel.ChannelPromise;
 /**
  * @author Eric Zhao
  * @since 1.4.0
+ * @deprecated pending requests are now kept per connection by {@link PendingRequestRing},
+ * this holder is no longer used by the cluster client and will be removed in later versions
  */
+@Deprecated
 public final class TokenClientPromiseHolder {
 
     private static final Map<Integer, SimpleEntry<ChannelPromise, ClusterResponse>> PROMISE_MAP = new ConcurrentHashMap<>();
@@ -31,6 +31,12 @@ public class ClusterClientStateEntity {
 
     private Integer requestTimeout;
 
+    /**
+     * @since 1.8.2
+     */
+    private Integer leaseCount;
+    private Integer leaseTimeMs;
+
     public String getServerHost() {
         return serverHost;
     }
@@ -58,6 +64,24 @@ public class ClusterClientStateEntity {
         return this;
     }
 
+    public Integer getLeaseCount() {
+        return leaseCount;
+    }
+
+    public ClusterClientStateEntity setLeaseCount(Integer leaseCount) {
+        this.leaseCount = leaseCount;
+        return this;
+    }
+
+    public Integer getLeaseTimeMs() {
+        return leaseTimeMs;
+    }
+
+    public ClusterClientStateEntity setLeaseTimeMs(Integer leaseTimeMs) {
+        this.leaseTimeMs = leaseTimeMs;
+        return this;
+    }
+
     public Integer getClientState() {
         return clientState;
     }
@@ -68,7 +92,9 @@ public class ClusterClientStateEntity {
     }
 
     public ClusterClientConfig toClientConfig() {
-        return new ClusterClientConfig().setRequestTimeout(requestTimeout);
+        return new ClusterClientConfig().setRequestTimeout(requestTimeout)
+            .setLeaseCount(leaseCount)
+            .setLeaseTimeMs(leaseTimeMs);
     }
 
     public ClusterClientAssignConfig toAssignConfig() {
@@ -84,6 +110,8 @@ public class ClusterClientStateEntity {
             ", serverPort=" + serverPort +
             ", clientState=" + clientState +
             ", requestTimeout=" + requestTimeout +
+            ", leaseCount=" + leaseCount +
+            ", leaseTimeMs=" + leaseTimeMs +
             '}';
     }
 }
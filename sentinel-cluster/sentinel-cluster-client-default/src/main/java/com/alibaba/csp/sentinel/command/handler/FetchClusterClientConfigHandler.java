@@ -37,7 +37,9 @@ public class FetchClusterClientConfigHandler implements CommandHandler<String> {
         ClusterClientStateEntity stateVO = new ClusterClientStateEntity()
             .setServerHost(ClusterClientConfigManager.getServerHost())
             .setServerPort(ClusterClientConfigManager.getServerPort())
-            .setRequestTimeout(ClusterClientConfigManager.getRequestTimeout());
+            .setRequestTimeout(ClusterClientConfigManager.getRequestTimeout())
+            .setLeaseCount(ClusterClientConfigManager.getLeaseCount())
+            .setLeaseTimeMs(ClusterClientConfigManager.getLeaseTimeMs());
         if (TokenClientProvider.isClientSpiAvailable()) {
             stateVO.setClientState(TokenClientProvider.getClient().getState());
         } else {
@@ -0,0 +1,118 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.TokenService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @since 1.8.2
+ */
+public class TokenLeaseManagerTest {
+
+    private static final long FLOW_ID = 1234L;
+    private static final int LEASE_COUNT = 10;
+
+    private ScheduledExecutorService executor;
+    private TokenService leaseService;
+    private TokenLeaseManager leaseManager;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        leaseService = mock(TokenService.class);
+        leaseManager = new TokenLeaseManager(leaseService, executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAcquireFromLeaseAndReturnOnExpiry() throws Exception {
+        int leaseTimeMs = 300;
+        when(leaseService.requestLeaseToken(FLOW_ID, LEASE_COUNT, leaseTimeMs))
+            .thenReturn(leaseResult(1L), leaseResult(2L));
+        when(leaseService.returnLeaseToken(eq(FLOW_ID), anyLong(), anyInt()))
+            .thenReturn(new TokenResult(TokenResultStatus.OK));
+
+        // No tokens leased yet, so the request is left to token server.
+        assertNull(leaseManager.tryAcquire(FLOW_ID, 1, LEASE_COUNT, leaseTimeMs));
+        verify(leaseService, timeout(1000)).requestLeaseToken(FLOW_ID, LEASE_COUNT, leaseTimeMs);
+        waitForAvailable(LEASE_COUNT);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(TokenResultStatus.OK, (int) leaseManager.tryAcquire(FLOW_ID, 1, LEASE_COUNT, leaseTimeMs)
+                .getStatus());
+        }
+        verify(leaseService, times(1)).requestLeaseToken(anyLong(), anyInt(), anyInt());
+        Thread.sleep(leaseTimeMs / 2);
+        // Less than half of the batch is left, so a new batch is leased.
+        assertNotNull(leaseManager.tryAcquire(FLOW_ID, 1, LEASE_COUNT, leaseTimeMs));
+        verify(leaseService, timeout(1000).times(2)).requestLeaseToken(FLOW_ID, LEASE_COUNT, leaseTimeMs);
+        waitForAvailable(LEASE_COUNT + 4);
+
+        // The former batch expires at its own expiry, which is not extended by the new batch.
+        verify(leaseService, timeout(leaseTimeMs)).returnLeaseToken(FLOW_ID, 1L, 4);
+        assertEquals(LEASE_COUNT, leaseManager.availableCount(FLOW_ID));
+        verify(leaseService, timeout(leaseTimeMs + 1000)).returnLeaseToken(FLOW_ID, 2L, LEASE_COUNT);
+        assertEquals(0, leaseManager.availableCount(FLOW_ID));
+    }
+
+    @Test
+    public void testLeaseRejected() throws Exception {
+        int leaseTimeMs = 60 * 1000;
+        when(leaseService.requestLeaseToken(anyLong(), anyInt(), anyInt()))
+            .thenReturn(new TokenResult(TokenResultStatus.BLOCKED));
+
+        assertNull(leaseManager.tryAcquire(FLOW_ID, 1, LEASE_COUNT, leaseTimeMs));
+        verify(leaseService, timeout(1000)).requestLeaseToken(FLOW_ID, LEASE_COUNT, leaseTimeMs);
+        Thread.sleep(50);
+
+        // No more lease requests until the lease time passes.
+        for (int i = 0; i < 10; i++) {
+            assertNull(leaseManager.tryAcquire(FLOW_ID, 1, LEASE_COUNT, leaseTimeMs));
+        }
+        Thread.sleep(50);
+        verify(leaseService, times(1)).requestLeaseToken(anyLong(), anyInt(), anyInt());
+        verify(leaseService, never()).returnLeaseToken(anyLong(), anyLong(), anyInt());
+    }
+
+    private TokenResult leaseResult(long leaseId) {
+        TokenResult result = new TokenResult(TokenResultStatus.OK).setRemaining(LEASE_COUNT);
+        result.setTokenId(leaseId);
+        return result;
+    }
+
+    private void waitForAvailable(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && leaseManager.availableCount(FLOW_ID) != count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, leaseManager.availableCount(FLOW_ID));
+    }
+}
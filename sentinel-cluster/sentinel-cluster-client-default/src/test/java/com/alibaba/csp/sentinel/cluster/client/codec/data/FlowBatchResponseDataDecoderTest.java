@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.response.data.FlowBatchTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @since 1.8.2
+ */
+public class FlowBatchResponseDataDecoderTest {
+
+    @Test
+    public void testDecode() {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeInt(2);
+        buf.writeByte(0);
+        buf.writeInt(12);
+        buf.writeInt(0);
+        buf.writeByte(-4);
+        buf.writeInt(0);
+        buf.writeInt(13);
+        FlowBatchTokenResponseData data = new FlowBatchTokenResponseData()
+            .setStatuses(new int[] {0, -4})
+            .setRemainingCounts(new int[] {12, 0})
+            .setWaitInMs(new int[] {0, 13});
+        Assert.assertEquals(data, new FlowBatchResponseDataDecoder().decode(buf));
+    }
+
+    @Test
+    public void testDecodeTruncated() {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeInt(2);
+        buf.writeByte(0);
+        buf.writeInt(12);
+        buf.writeInt(0);
+        Assert.assertNull(new FlowBatchResponseDataDecoder().decode(buf));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
+import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 1.8.2
+ */
+public class PendingRequestRingTest {
+
+    @Test
+    public void testCompleteRequest() throws Exception {
+        PendingRequestRing ring = new PendingRequestRing(4);
+        CompletableFuture<ClusterResponse> future = ring.register(1, 1000);
+        assertNotNull(future);
+        assertEquals(1, ring.pendingCount());
+
+        ClusterResponse response = response(1);
+        assertTrue(ring.complete(1, response));
+        assertSame(response, future.get());
+        assertEquals(0, ring.pendingCount());
+        // Duplicate response is ignored.
+        assertFalse(ring.complete(1, response(1)));
+    }
+
+    @Test
+    public void testIgnoreResponseOfOtherXid() {
+        PendingRequestRing ring = new PendingRequestRing(4);
+        CompletableFuture<ClusterResponse> future = ring.register(1, 1000);
+
+        // Same slot, but a different request.
+        assertFalse(ring.complete(5, response(5)));
+        assertFalse(ring.complete(2, response(2)));
+        assertFalse(future.isDone());
+        assertEquals(1, ring.pendingCount());
+    }
+
+    @Test
+    public void testRejectWhenSlotOccupied() {
+        PendingRequestRing ring = new PendingRequestRing(4);
+        assertNotNull(ring.register(1, 1000));
+        assertNull(ring.register(5, 1000));
+
+        assertTrue(ring.complete(1, response(1)));
+        assertNotNull(ring.register(5, 1000));
+    }
+
+    @Test
+    public void testExpireTimedOutRequests() throws Exception {
+        PendingRequestRing ring = new PendingRequestRing(4);
+        long now = TimeUtil.currentTimeMillis();
+        CompletableFuture<ClusterResponse> shortFuture = ring.register(1, 20);
+        CompletableFuture<ClusterResponse> longFuture = ring.register(2, 5000);
+
+        ring.expireTimeouts(now + 100);
+        assertRequestFailed(shortFuture, ClusterErrorMessages.REQUEST_TIME_OUT);
+        assertFalse(longFuture.isDone());
+        // Late response of the timed out request is dropped.
+        assertFalse(ring.complete(1, response(1)));
+        assertEquals(1, ring.pendingCount());
+
+        ring.expireTimeouts(now + 6000);
+        assertRequestFailed(longFuture, ClusterErrorMessages.REQUEST_TIME_OUT);
+        assertEquals(0, ring.pendingCount());
+    }
+
+    @Test
+    public void testCompletedRequestNotExpired() throws Exception {
+        PendingRequestRing ring = new PendingRequestRing(4);
+        long now = TimeUtil.currentTimeMillis();
+        CompletableFuture<ClusterResponse> future = ring.register(3, 20);
+        ClusterResponse response = response(3);
+        assertTrue(ring.complete(3, response));
+
+        ring.expireTimeouts(now + 100);
+        assertSame(response, future.get());
+        // The slot can be reused by a new request.
+        assertNotNull(ring.register(7, 20));
+    }
+
+    @Test
+    public void testCloseFailsPendingRequests() throws Exception {
+        PendingRequestRing ring = new PendingRequestRing(4);
+        CompletableFuture<ClusterResponse> future = ring.register(1, 5000);
+
+        ring.close(new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+        assertRequestFailed(future, ClusterErrorMessages.CLIENT_NOT_READY);
+        assertEquals(0, ring.pendingCount());
+
+        CompletableFuture<ClusterResponse> lateFuture = ring.register(2, 5000);
+        assertRequestFailed(lateFuture, ClusterErrorMessages.CLIENT_NOT_READY);
+    }
+
+    private void assertRequestFailed(CompletableFuture<ClusterResponse> future, String message) throws Exception {
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.get();
+            fail("The request should fail");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof SentinelClusterException);
+            assertEquals(message, ex.getCause().getMessage());
+        }
+    }
+
+    private ClusterResponse response(int xid) {
+        return new ClusterResponse<>(xid, ClusterConstants.MSG_TYPE_FLOW, ClusterConstants.RESPONSE_STATUS_OK, null);
+    }
+}
@@ -26,6 +26,8 @@ public final class ClusterConstants {
     public static final int MSG_TYPE_PARAM_FLOW = 2;
     public static final int MSG_TYPE_CONCURRENT_FLOW_ACQUIRE = 3;
     public static final int MSG_TYPE_CONCURRENT_FLOW_RELEASE = 4;
+    public static final int MSG_TYPE_FLOW_LEASE = 5;
+    public static final int MSG_TYPE_FLOW_BATCH = 6;
 
 
     public static final int RESPONSE_STATUS_BAD = -1;
@@ -43,6 +45,11 @@ public final class ClusterConstants {
     public static final int DEFAULT_CLUSTER_SERVER_PORT = 18730;
     public static final int DEFAULT_REQUEST_TIMEOUT = 20;
     public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10 * 1000;
+    public static final int DEFAULT_LEASE_TIME_MS = 100;
+    /**
+     * Max amount of flows in one batch token request, so that the request and response fit in a frame.
+     */
+    public static final int MAX_FLOW_BATCH_SIZE = 64;
 
     private ClusterConstants() {}
 }
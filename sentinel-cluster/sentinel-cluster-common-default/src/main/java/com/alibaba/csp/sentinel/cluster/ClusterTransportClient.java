@@ -15,11 +15,13 @@
  */
 package com.alibaba.csp.sentinel.cluster;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
 
 /**
- * Synchronous transport client for distributed flow control.
+ * Transport client for distributed flow control.
  *
  * @author Eric Zhao
  * @since 1.4.0
@@ -49,6 +51,24 @@ public interface ClusterTransportClient {
      */
     ClusterResponse sendRequest(ClusterRequest request) throws Exception;
 
+    /**
+     * Send request to remote server without waiting for the response.
+     * By default the request is sent by {@link #sendRequest(ClusterRequest)}, which blocks current thread.
+     *
+     * @param request Sentinel cluster request
+     * @return future of the response from remote server, which fails if the request cannot be sent or times out
+     * @since 1.8.2
+     */
+    default CompletableFuture<ClusterResponse> sendRequestAsync(ClusterRequest request) {
+        CompletableFuture<ClusterResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(sendRequest(request));
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
     /**
      * Check whether the client has been started and ready for sending requests.
      *
@@ -0,0 +1,67 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.request.data;
+
+import java.util.Arrays;
+
+/**
+ * Request data of tokens of several flows, the {@code i}-th count is the token count to acquire
+ * for the {@code i}-th flow.
+ *
+ * @since 1.8.2
+ */
+public class FlowBatchRequestData {
+
+    private long[] flowIds;
+    private int[] counts;
+    private boolean priority;
+
+    public long[] getFlowIds() {
+        return flowIds;
+    }
+
+    public FlowBatchRequestData setFlowIds(long[] flowIds) {
+        this.flowIds = flowIds;
+        return this;
+    }
+
+    public int[] getCounts() {
+        return counts;
+    }
+
+    public FlowBatchRequestData setCounts(int[] counts) {
+        this.counts = counts;
+        return this;
+    }
+
+    public boolean isPriority() {
+        return priority;
+    }
+
+    public FlowBatchRequestData setPriority(boolean priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowBatchRequestData{" +
+            "flowIds=" + Arrays.toString(flowIds) +
+            ", counts=" + Arrays.toString(counts) +
+            ", priority=" + priority +
+            '}';
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.request.data;
+
+/**
+ * Request data of a token lease, which either leases a batch of tokens of a flow (count is positive),
+ * or returns the unused tokens of an expired lease.
+ *
+ * @since 1.8.2
+ */
+public class FlowLeaseRequestData {
+
+    private long flowId;
+    private int count;
+    private int leaseTimeMs;
+    private long leaseId;
+    private int returnCount;
+
+    public long getFlowId() {
+        return flowId;
+    }
+
+    public FlowLeaseRequestData setFlowId(long flowId) {
+        this.flowId = flowId;
+        return this;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public FlowLeaseRequestData setCount(int count) {
+        this.count = count;
+        return this;
+    }
+
+    public int getLeaseTimeMs() {
+        return leaseTimeMs;
+    }
+
+    public FlowLeaseRequestData setLeaseTimeMs(int leaseTimeMs) {
+        this.leaseTimeMs = leaseTimeMs;
+        return this;
+    }
+
+    public long getLeaseId() {
+        return leaseId;
+    }
+
+    public FlowLeaseRequestData setLeaseId(long leaseId) {
+        this.leaseId = leaseId;
+        return this;
+    }
+
+    public int getReturnCount() {
+        return returnCount;
+    }
+
+    public FlowLeaseRequestData setReturnCount(int returnCount) {
+        this.returnCount = returnCount;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowLeaseRequestData{" +
+            "flowId=" + flowId +
+            ", count=" + count +
+            ", leaseTimeMs=" + leaseTimeMs +
+            ", leaseId=" + leaseId +
+            ", returnCount=" + returnCount +
+            '}';
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.response.data;
+
+import java.util.Arrays;
+
+/**
+ * Response data of a batch token request, the {@code i}-th status, remaining count and wait time
+ * belong to the {@code i}-th flow of the request.
+ *
+ * @since 1.8.2
+ */
+public class FlowBatchTokenResponseData {
+
+    private int[] statuses;
+    private int[] remainingCounts;
+    private int[] waitInMs;
+
+    public FlowBatchTokenResponseData() {}
+
+    public FlowBatchTokenResponseData(int size) {
+        this.statuses = new int[size];
+        this.remainingCounts = new int[size];
+        this.waitInMs = new int[size];
+    }
+
+    public int size() {
+        return statuses == null ? 0 : statuses.length;
+    }
+
+    public int[] getStatuses() {
+        return statuses;
+    }
+
+    public FlowBatchTokenResponseData setStatuses(int[] statuses) {
+        this.statuses = statuses;
+        return this;
+    }
+
+    public int[] getRemainingCounts() {
+        return remainingCounts;
+    }
+
+    public FlowBatchTokenResponseData setRemainingCounts(int[] remainingCounts) {
+        this.remainingCounts = remainingCounts;
+        return this;
+    }
+
+    public int[] getWaitInMs() {
+        return waitInMs;
+    }
+
+    public FlowBatchTokenResponseData setWaitInMs(int[] waitInMs) {
+        this.waitInMs = waitInMs;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FlowBatchTokenResponseData)) {
+            return false;
+        }
+        FlowBatchTokenResponseData that = (FlowBatchTokenResponseData) o;
+        return Arrays.equals(statuses, that.statuses) && Arrays.equals(remainingCounts, that.remainingCounts)
+            && Arrays.equals(waitInMs, that.waitInMs);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(statuses);
+        result = 31 * result + Arrays.hashCode(remainingCounts);
+        result = 31 * result + Arrays.hashCode(waitInMs);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowBatchTokenResponseData{" +
+            "statuses=" + Arrays.toString(statuses) +
+            ", remainingCounts=" + Arrays.toString(remainingCounts) +
+            ", waitInMs=" + Arrays.toString(waitInMs) +
+            '}';
+    }
+}
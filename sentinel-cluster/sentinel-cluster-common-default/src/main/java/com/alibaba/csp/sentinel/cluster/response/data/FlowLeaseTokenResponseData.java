@@ -0,0 +1,53 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.response.data;
+
+/**
+ * Response data of a token lease. The lease ID identifies the lease when its unused tokens are returned.
+ *
+ * @since 1.8.2
+ */
+public class FlowLeaseTokenResponseData {
+
+    private int leasedCount;
+    private long leaseId;
+
+    public int getLeasedCount() {
+        return leasedCount;
+    }
+
+    public FlowLeaseTokenResponseData setLeasedCount(int leasedCount) {
+        this.leasedCount = leasedCount;
+        return this;
+    }
+
+    public long getLeaseId() {
+        return leaseId;
+    }
+
+    public FlowLeaseTokenResponseData setLeaseId(long leaseId) {
+        this.leaseId = leaseId;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowLeaseTokenResponseData{" +
+            "leasedCount=" + leasedCount +
+            ", leaseId=" + leaseId +
+            '}';
+    }
+}
@@ -26,6 +26,7 @@ import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
 import com.alibaba.csp.sentinel.cluster.server.log.ClusterServerStatLogUtil;
 import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * Flow checker for cluster flow rules.
@@ -111,6 +112,77 @@ final class ClusterFlowChecker {
         }
     }
 
+    /**
+     * Lease a batch of tokens, which are counted as passed at once. Fewer tokens than requested may be leased
+     * when the remaining quota is not enough. The time when the tokens are counted serves as the lease ID,
+     * with which the unused tokens can be returned later (see {@link #returnClusterToken(FlowRule, long, int)}).
+     *
+     * @param rule        valid cluster flow rule
+     * @param leaseCount  token count to lease
+     * @param leaseTimeMs time to live of leased tokens, which should be less than the interval of the metric
+     * @return the result, the remaining count of which is the count of leased tokens, and the token ID of which
+     * is the lease ID
+     * @since 1.8.2
+     */
+    static TokenResult leaseClusterToken(/*@Valid*/ FlowRule rule, int leaseCount, int leaseTimeMs) {
+        Long id = rule.getClusterConfig().getFlowId();
+
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(id);
+        if (metric == null) {
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+        if (leaseTimeMs >= metric.getIntervalInMs()) {
+            // Unused tokens could not be returned before they slide out of the window.
+            return new TokenResult(TokenResultStatus.BAD_REQUEST);
+        }
+        if (!allowProceed(id)) {
+            return new TokenResult(TokenResultStatus.TOO_MANY_REQUEST);
+        }
+
+        double latestQps = metric.getAvg(ClusterFlowEvent.PASS);
+        double globalThreshold = calcGlobalThreshold(rule) * ClusterServerConfigManager.getExceedCount();
+        int leased = (int) Math.min(leaseCount, globalThreshold - latestQps);
+        if (leased <= 0) {
+            // No request is blocked yet, the client will fall back to requesting tokens one by one.
+            ClusterServerStatLogUtil.log("flow|lease_reject|" + id);
+            return blockedResult();
+        }
+        long leaseId = TimeUtil.currentTimeMillis();
+        metric.add(ClusterFlowEvent.PASS, leased, leaseId);
+        metric.add(ClusterFlowEvent.PASS_REQUEST, 1, leaseId);
+        TokenResult result = new TokenResult(TokenResultStatus.OK)
+            .setRemaining(leased)
+            .setWaitInMs(0);
+        result.setTokenId(leaseId);
+        return result;
+    }
+
+    /**
+     * Take back the unused tokens of a lease. The tokens are only taken back if the bucket where they were
+     * counted is still in the sliding window, otherwise they have already been released by the window,
+     * and the returned tokens are dropped.
+     *
+     * @param rule        valid cluster flow rule
+     * @param leaseId     ID of the lease, i.e. the time when the leased tokens were counted
+     * @param returnCount unused token count to return
+     * @return the OK result, or the FAIL result if the metric of the flow does not exist
+     * @since 1.8.2
+     */
+    static TokenResult returnClusterToken(/*@Valid*/ FlowRule rule, long leaseId, int returnCount) {
+        Long id = rule.getClusterConfig().getFlowId();
+
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(id);
+        if (metric == null) {
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+        if (!metric.takeBack(ClusterFlowEvent.PASS, returnCount, leaseId)) {
+            ClusterServerStatLogUtil.log("flow|lease_return_drop|" + id, returnCount);
+        }
+        return new TokenResult(TokenResultStatus.OK)
+            .setRemaining(0)
+            .setWaitInMs(0);
+    }
+
     private static TokenResult blockedResult() {
         return new TokenResult(TokenResultStatus.BLOCKED)
             .setRemaining(0)
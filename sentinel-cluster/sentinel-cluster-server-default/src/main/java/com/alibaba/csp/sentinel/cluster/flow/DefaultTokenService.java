@@ -49,6 +49,19 @@ public class DefaultTokenService implements TokenService {
         return ClusterFlowChecker.acquireClusterToken(rule, acquireCount, prioritized);
     }
 
+    @Override
+    public TokenResult[] requestBatchToken(long[] ruleIds, int[] acquireCounts, boolean prioritized) {
+        if (ruleIds == null) {
+            return new TokenResult[0];
+        }
+        boolean validCounts = acquireCounts != null && acquireCounts.length == ruleIds.length;
+        TokenResult[] results = new TokenResult[ruleIds.length];
+        for (int i = 0; i < ruleIds.length; i++) {
+            results[i] = validCounts ? requestToken(ruleIds[i], acquireCounts[i], prioritized) : badRequest();
+        }
+        return results;
+    }
+
     @Override
     public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(ruleId, acquireCount) || params == null || params.isEmpty()) {
@@ -63,6 +76,34 @@ public class DefaultTokenService implements TokenService {
         return ClusterParamFlowChecker.acquireClusterToken(rule, acquireCount, params);
     }
 
+    @Override
+    public TokenResult requestLeaseToken(Long ruleId, int leaseCount, int leaseTimeMs) {
+        if (notValidRequest(ruleId, leaseCount) || leaseTimeMs <= 0) {
+            return badRequest();
+        }
+        // The rule should be valid.
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(ruleId);
+        if (rule == null) {
+            return new TokenResult(TokenResultStatus.NO_RULE_EXISTS);
+        }
+
+        return ClusterFlowChecker.leaseClusterToken(rule, leaseCount, leaseTimeMs);
+    }
+
+    @Override
+    public TokenResult returnLeaseToken(Long ruleId, long leaseId, int returnCount) {
+        if (notValidRequest(ruleId, returnCount) || leaseId <= 0) {
+            return badRequest();
+        }
+        // The rule should be valid.
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(ruleId);
+        if (rule == null) {
+            return new TokenResult(TokenResultStatus.NO_RULE_EXISTS);
+        }
+
+        return ClusterFlowChecker.returnClusterToken(rule, leaseId, returnCount);
+    }
+
     @Override
     public TokenResult requestConcurrentToken(String clientAddress, Long ruleId, int acquireCount) {
         if (notValidRequest(clientAddress, ruleId, acquireCount)) {
@@ -20,6 +20,7 @@ import java.util.List;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterMetricBucket;
 import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * @author Eric Zhao
@@ -40,6 +41,55 @@ public class ClusterMetric {
         metric.currentWindow().value().add(event, count);
     }
 
+    /**
+     * Add the count of provided event to the bucket of given time.
+     *
+     * @param event       event to add
+     * @param count       count to add
+     * @param timeMillis  time of the event, which should be the current time
+     * @since 1.8.2
+     */
+    public void add(ClusterFlowEvent event, long count, long timeMillis) {
+        metric.currentWindow(timeMillis).value().add(event, count);
+    }
+
+    /**
+     * Take back the count of provided event added at given time, only if the bucket of that time
+     * is still in the sliding window. Otherwise the count has already slid out of the window,
+     * and taking it back from the current buckets would allow more than the threshold.
+     *
+     * @param event      event to take back
+     * @param count      count to take back
+     * @param timeMillis time when the count was added
+     * @return true if the count is taken back; otherwise false
+     * @since 1.8.2
+     */
+    public boolean takeBack(ClusterFlowEvent event, long count, long timeMillis) {
+        long now = TimeUtil.currentTimeMillis();
+        // Conservatively require the whole bucket of given time to be in the window.
+        if (timeMillis > now || now - timeMillis >= metric.getIntervalInMs() - windowLengthInMs()) {
+            return false;
+        }
+        ClusterMetricBucket bucket = metric.getWindowValue(timeMillis);
+        if (bucket == null) {
+            return false;
+        }
+        bucket.add(event, -Math.min(count, bucket.get(event)));
+        return true;
+    }
+
+    /**
+     * @return the interval of the sliding window in milliseconds
+     * @since 1.8.2
+     */
+    public int getIntervalInMs() {
+        return metric.getIntervalInMs();
+    }
+
+    private int windowLengthInMs() {
+        return metric.getIntervalInMs() / metric.getSampleCount();
+    }
+
     public long getCurrentCount(ClusterFlowEvent event) {
         return metric.currentWindow().value().get(event);
     }
@@ -0,0 +1,302 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.metric;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
+import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWrapper;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Sliding window counters of parameter values on the token server. Rather than a map of all values
+ * per bucket (see {@link ClusterParameterLeapArray}), each value keeps a small ring of per-bucket counters
+ * together with their running sum, in one LRU map of at most {@code maxCapacity} values. So the sum (and
+ * the average) of a value takes one map lookup, and the expired buckets are subtracted from the sum
+ * when the ring is rolled forward.</p>
+ *
+ * <p>The values of the largest sums are kept as candidates of top values in a bounded min-heap of
+ * {@code topCapacity}. A value enters the heap when its sum exceeds the smallest one in the heap, so
+ * querying the top values only re-sorts the candidates. As the sums of candidates decrease when buckets
+ * expire, the heap is refreshed in every bucket, as well as on every query and every replacement of a candidate.
+ * Querying more top values than {@code topCapacity} falls back to scanning all values.</p>
+ *
+ * <p>Note that the top values of at most {@code topCapacity} are approximate: only the candidates are
+ * looked at, and a value is offered to the heap only when it is counted. So a value which has not been
+ * counted since a candidate of larger sum took its place may be missing from the result, even if its sum
+ * becomes larger than that of a candidate after the buckets of the candidate expire.</p>
+ *
+ * @since 1.8.2
+ */
+final class ClusterParamBucketCounters {
+
+    static final int DEFAULT_TOP_CAPACITY = 16;
+
+    private static final Comparator<Entry<Object, Long>> DESCENDING_ORDER = new Comparator<Entry<Object, Long>>() {
+        @Override
+        public int compare(Entry<Object, Long> a, Entry<Object, Long> b) {
+            return Long.compare(b.getValue(), a.getValue());
+        }
+    };
+
+    private final int sampleCount;
+    private final int windowLengthInMs;
+    private final double intervalInSecond;
+    private final CacheMap<Object, ValueCounter> counters;
+
+    private final Object heapLock = new Object();
+    private final ValueCounter[] heap;
+    private int heapSize;
+    /**
+     * Smallest sum in the heap when the heap is full, otherwise {@code Long.MIN_VALUE}.
+     */
+    private volatile long heapThreshold = Long.MIN_VALUE;
+    /**
+     * Start of the bucket in which the threshold is taken. The sums of the candidates only decrease
+     * when a bucket expires, so the threshold is refreshed once in each bucket.
+     */
+    private volatile long heapThresholdWindowStart;
+
+    ClusterParamBucketCounters(int sampleCount, int intervalInMs, int maxCapacity) {
+        this(sampleCount, intervalInMs, maxCapacity, DEFAULT_TOP_CAPACITY);
+    }
+
+    ClusterParamBucketCounters(int sampleCount, int intervalInMs, int maxCapacity, int topCapacity) {
+        AssertUtil.isTrue(sampleCount > 0, "sampleCount should be positive");
+        AssertUtil.isTrue(intervalInMs > 0, "interval should be positive");
+        AssertUtil.isTrue(intervalInMs % sampleCount == 0, "time span needs to be evenly divided");
+        AssertUtil.isTrue(maxCapacity > 0, "maxCapacity of LRU map should be positive");
+        AssertUtil.isTrue(topCapacity > 0, "topCapacity should be positive");
+        this.sampleCount = sampleCount;
+        this.windowLengthInMs = intervalInMs / sampleCount;
+        this.intervalInSecond = intervalInMs / 1000.0;
+        this.counters = new ConcurrentLinkedHashMapWrapper<>(maxCapacity);
+        this.heap = new ValueCounter[topCapacity];
+    }
+
+    void addValue(Object value, int count) {
+        long now = TimeUtil.currentTimeMillis();
+        ValueCounter counter = counters.get(value);
+        if (counter == null) {
+            ValueCounter newCounter = new ValueCounter(value, sampleCount, windowStartOf(now));
+            counter = counters.putIfAbsent(value, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        long sum = counter.add(now, count);
+        if (!counter.candidate && (sum > heapThreshold || windowStartOf(now) != heapThresholdWindowStart)) {
+            offerTop(counter, sum, now);
+        }
+    }
+
+    long getSum(Object value) {
+        ValueCounter counter = counters.get(value);
+        return counter == null ? 0 : counter.sum(TimeUtil.currentTimeMillis());
+    }
+
+    double getAvg(Object value) {
+        return getSum(value) / intervalInSecond;
+    }
+
+    Map<Object, Double> getTopValues(int number) {
+        AssertUtil.isTrue(number > 0, "number must be positive");
+        long now = TimeUtil.currentTimeMillis();
+        List<Entry<Object, Long>> list = new ArrayList<>();
+        if (number <= heap.length) {
+            synchronized (heapLock) {
+                refreshHeap(now);
+                for (int i = 0; i < heapSize; i++) {
+                    if (heap[i].heapSum != Long.MIN_VALUE) {
+                        list.add(new SimpleEntry<>(heap[i].value, heap[i].heapSum));
+                    }
+                }
+            }
+        } else {
+            for (Object value : counters.keySet(true)) {
+                ValueCounter counter = counters.get(value);
+                if (counter != null) {
+                    list.add(new SimpleEntry<>(value, counter.sum(now)));
+                }
+            }
+        }
+        Collections.sort(list, DESCENDING_ORDER);
+
+        Map<Object, Double> result = new HashMap<>();
+        int size = Math.min(list.size(), number);
+        for (int i = 0; i < size; i++) {
+            Entry<Object, Long> e = list.get(i);
+            if (e.getValue() == 0) {
+                break;
+            }
+            result.put(e.getKey(), e.getValue() / intervalInSecond);
+        }
+        return result;
+    }
+
+    private long windowStartOf(long time) {
+        return time - time % windowLengthInMs;
+    }
+
+    private void offerTop(ValueCounter counter, long sum, long now) {
+        synchronized (heapLock) {
+            if (counter.candidate
+                || (sum <= heapThreshold && windowStartOf(now) == heapThresholdWindowStart)) {
+                // Taken by another thread, or the threshold has just been refreshed by another thread.
+                return;
+            }
+            if (heapSize < heap.length) {
+                // The sum may be taken in an earlier bucket than the candidates, but it's only a small deviation.
+                counter.heapSum = sum;
+                counter.candidate = true;
+                heap[heapSize] = counter;
+                siftUp(heapSize++);
+            } else {
+                refreshHeap(now);
+                if (sum > heap[0].heapSum) {
+                    heap[0].candidate = false;
+                    counter.heapSum = sum;
+                    counter.candidate = true;
+                    heap[0] = counter;
+                    siftDown(0);
+                }
+            }
+            heapThreshold = heapSize < heap.length ? Long.MIN_VALUE : heap[0].heapSum;
+        }
+    }
+
+    /**
+     * Take the current sums of the candidates and rebuild the heap. Should be called with the heap lock held.
+     */
+    private void refreshHeap(long now) {
+        for (int i = 0; i < heapSize; i++) {
+            ValueCounter counter = heap[i];
+            // A counter evicted from the LRU map will never be updated again.
+            counter.heapSum = counters.get(counter.value) == counter ? counter.sum(now) : Long.MIN_VALUE;
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        heapThreshold = heapSize < heap.length ? Long.MIN_VALUE : heap[0].heapSum;
+        heapThresholdWindowStart = windowStartOf(now);
+    }
+
+    private void siftUp(int i) {
+        ValueCounter counter = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent].heapSum <= counter.heapSum) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = counter;
+    }
+
+    private void siftDown(int i) {
+        ValueCounter counter = heap[i];
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < heapSize && heap[right].heapSum < heap[child].heapSum) {
+                child = right;
+            }
+            if (counter.heapSum <= heap[child].heapSum) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = counter;
+    }
+
+    /**
+     * Get the amount of values counted. Package-private for test.
+     */
+    long size() {
+        return counters.size();
+    }
+
+    private final class ValueCounter {
+
+        private final Object value;
+        private final long[] counts;
+        /**
+         * Start time of the latest bucket.
+         */
+        private long latestWindowStart;
+        private long sum;
+
+        /**
+         * Whether in the heap of top values, and its sum when the heap was ordered, guarded by the heap lock.
+         */
+        private volatile boolean candidate;
+        private long heapSum;
+
+        private ValueCounter(Object value, int sampleCount, long windowStart) {
+            this.value = value;
+            this.counts = new long[sampleCount];
+            this.latestWindowStart = windowStart;
+        }
+
+        private synchronized long add(long now, int count) {
+            roll(now);
+            counts[indexOf(latestWindowStart)] += count;
+            sum += count;
+            return sum;
+        }
+
+        private synchronized long sum(long now) {
+            roll(now);
+            return sum;
+        }
+
+        private void roll(long now) {
+            long windowStart = windowStartOf(now);
+            if (windowStart <= latestWindowStart) {
+                // The time may go back a little across threads, just count in the latest bucket.
+                return;
+            }
+            long steps = (windowStart - latestWindowStart) / windowLengthInMs;
+            if (steps >= counts.length) {
+                Arrays.fill(counts, 0);
+                sum = 0;
+            } else {
+                for (long i = 1; i <= steps; i++) {
+                    int idx = indexOf(latestWindowStart + i * windowLengthInMs);
+                    sum -= counts[idx];
+                    counts[idx] = 0;
+                }
+            }
+            latestWindowStart = windowStart;
+        }
+
+        private int indexOf(long windowStart) {
+            return (int)((windowStart / windowLengthInMs) % counts.length);
+        }
+    }
+}
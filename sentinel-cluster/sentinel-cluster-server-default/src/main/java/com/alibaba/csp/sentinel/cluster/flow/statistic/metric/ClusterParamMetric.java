@@ -25,6 +25,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.atomic.LongAdder;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 
@@ -36,23 +37,57 @@ public class ClusterParamMetric {
 
     public static final int DEFAULT_CLUSTER_MAX_CAPACITY = 4000;
 
+    /**
+     * Whether to keep a ring of bucket counters per parameter value rather than a map of values per bucket,
+     * see {@link ClusterParamBucketCounters}. The {@code maxCapacity} then limits the amount of values
+     * in all buckets rather than in each bucket. Disabled by default.
+     *
+     * @since 1.8.2
+     */
+    public static final String BUCKET_COUNTERS_ENABLED = "csp.sentinel.cluster.server.param.bucket.counters.enabled";
+
     private final ClusterParameterLeapArray<LongAdder> metric;
+    /**
+     * @since 1.8.2
+     */
+    private final ClusterParamBucketCounters bucketCounters;
 
     public ClusterParamMetric(int sampleCount, int intervalInMs) {
         this(sampleCount, intervalInMs, DEFAULT_CLUSTER_MAX_CAPACITY);
     }
 
     public ClusterParamMetric(int sampleCount, int intervalInMs, int maxCapacity) {
+        this(sampleCount, intervalInMs, maxCapacity,
+            "true".equalsIgnoreCase(SentinelConfig.getConfig(BUCKET_COUNTERS_ENABLED)));
+    }
+
+    /**
+     * @param sampleCount    amount of buckets
+     * @param intervalInMs   total time span of the buckets
+     * @param maxCapacity    max amount of parameter values to keep
+     * @param bucketCounters whether to keep a ring of bucket counters per parameter value
+     * @since 1.8.2
+     */
+    public ClusterParamMetric(int sampleCount, int intervalInMs, int maxCapacity, boolean bucketCounters) {
         AssertUtil.isTrue(sampleCount > 0, "sampleCount should be positive");
         AssertUtil.isTrue(intervalInMs > 0, "interval should be positive");
         AssertUtil.isTrue(intervalInMs % sampleCount == 0, "time span needs to be evenly divided");
-        this.metric = new ClusterParameterLeapArray<>(sampleCount, intervalInMs, maxCapacity);
+        if (bucketCounters) {
+            this.metric = null;
+            this.bucketCounters = new ClusterParamBucketCounters(sampleCount, intervalInMs, maxCapacity);
+        } else {
+            this.metric = new ClusterParameterLeapArray<>(sampleCount, intervalInMs, maxCapacity);
+            this.bucketCounters = null;
+        }
     }
 
     public long getSum(Object value) {
         if (value == null) {
             return 0;
         }
+        if (bucketCounters != null) {
+            return bucketCounters.getSum(value);
+        }
 
         metric.currentWindow();
         long sum = 0;
@@ -73,6 +108,10 @@ public class ClusterParamMetric {
         if (value == null) {
             return;
         }
+        if (bucketCounters != null) {
+            bucketCounters.addValue(value, count);
+            return;
+        }
         CacheMap<Object, LongAdder> data = metric.currentWindow().value();
         LongAdder newCounter = new LongAdder();
         LongAdder currentCounter = data.putIfAbsent(value, newCounter);
@@ -84,11 +123,17 @@ public class ClusterParamMetric {
     }
 
     public double getAvg(Object value) {
+        if (bucketCounters != null) {
+            return value == null ? 0 : bucketCounters.getAvg(value);
+        }
         return getSum(value) / metric.getIntervalInSecond();
     }
 
     public Map<Object, Double> getTopValues(int number) {
         AssertUtil.isTrue(number > 0, "number must be positive");
+        if (bucketCounters != null) {
+            return bucketCounters.getTopValues(number);
+        }
         metric.currentWindow();
         List<CacheMap<Object, LongAdder>> buckets = metric.values();
 
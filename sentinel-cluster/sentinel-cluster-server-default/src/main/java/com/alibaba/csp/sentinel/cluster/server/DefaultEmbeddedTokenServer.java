@@ -51,6 +51,18 @@ public class DefaultEmbeddedTokenServer implements EmbeddedClusterTokenServer {
         return new TokenResult(TokenResultStatus.FAIL);
     }
 
+    @Override
+    public TokenResult[] requestBatchToken(long[] ruleIds, int[] acquireCounts, boolean prioritized) {
+        if (tokenService != null) {
+            return tokenService.requestBatchToken(ruleIds, acquireCounts, prioritized);
+        }
+        TokenResult[] results = new TokenResult[ruleIds == null ? 0 : ruleIds.length];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new TokenResult(TokenResultStatus.FAIL);
+        }
+        return results;
+    }
+
     @Override
     public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
         if (tokenService != null) {
@@ -59,6 +71,22 @@ public class DefaultEmbeddedTokenServer implements EmbeddedClusterTokenServer {
         return new TokenResult(TokenResultStatus.FAIL);
     }
 
+    @Override
+    public TokenResult requestLeaseToken(Long ruleId, int leaseCount, int leaseTimeMs) {
+        if (tokenService != null) {
+            return tokenService.requestLeaseToken(ruleId, leaseCount, leaseTimeMs);
+        }
+        return new TokenResult(TokenResultStatus.FAIL);
+    }
+
+    @Override
+    public TokenResult returnLeaseToken(Long ruleId, long leaseId, int returnCount) {
+        if (tokenService != null) {
+            return tokenService.returnLeaseToken(ruleId, leaseId, returnCount);
+        }
+        return new TokenResult(TokenResultStatus.FAIL);
+    }
+
     @Override
     public TokenResult requestConcurrentToken(String clientAddress, Long ruleId, int acquireCount) {
         return null;
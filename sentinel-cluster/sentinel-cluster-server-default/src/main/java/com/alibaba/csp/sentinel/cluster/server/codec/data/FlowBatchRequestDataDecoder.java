@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowBatchRequestData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>
+ * Decoder for {@link FlowBatchRequestData} from {@code ByteBuf} stream. The layout:
+ * </p>
+ * <pre>
+ * | priority flag (1) | size (4) | flow ID (8) | count (4) | ... | flow ID (8) | count (4) |
+ * </pre>
+ *
+ * @since 1.8.2
+ */
+public class FlowBatchRequestDataDecoder implements EntityDecoder<ByteBuf, FlowBatchRequestData> {
+
+    @Override
+    public FlowBatchRequestData decode(ByteBuf source) {
+        if (source.readableBytes() < 5) {
+            return null;
+        }
+        boolean priority = source.readBoolean();
+        int size = source.readInt();
+        if (size <= 0 || source.readableBytes() < size * 12L) {
+            return null;
+        }
+        long[] flowIds = new long[size];
+        int[] counts = new int[size];
+        for (int i = 0; i < size; i++) {
+            flowIds[i] = source.readLong();
+            counts[i] = source.readInt();
+        }
+        return new FlowBatchRequestData()
+            .setFlowIds(flowIds)
+            .setCounts(counts)
+            .setPriority(priority);
+    }
+}
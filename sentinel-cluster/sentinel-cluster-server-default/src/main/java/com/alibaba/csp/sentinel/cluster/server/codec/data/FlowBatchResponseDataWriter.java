@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowBatchTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>
+ * Writer of {@link FlowBatchTokenResponseData}. The layout:
+ * </p>
+ * <pre>
+ * | size (4) | status (1) | remaining count (4) | wait in ms (4) | ... |
+ * </pre>
+ *
+ * @since 1.8.2
+ */
+public class FlowBatchResponseDataWriter implements EntityWriter<FlowBatchTokenResponseData, ByteBuf> {
+
+    @Override
+    public void writeTo(FlowBatchTokenResponseData entity, ByteBuf out) {
+        int size = entity.size();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeByte(entity.getStatuses()[i]);
+            out.writeInt(entity.getRemainingCounts()[i]);
+            out.writeInt(entity.getWaitInMs()[i]);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenService;
+import com.alibaba.csp.sentinel.cluster.annotation.RequestType;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowBatchRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowBatchTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.TokenServiceProvider;
+
+/**
+ * Processor of batch token requests, which acquires tokens of all flows of the request in one pass
+ * and responds with the result of each flow.
+ *
+ * @since 1.8.2
+ */
+@RequestType(ClusterConstants.MSG_TYPE_FLOW_BATCH)
+public class FlowBatchRequestProcessor implements RequestProcessor<FlowBatchRequestData, FlowBatchTokenResponseData> {
+
+    @Override
+    public ClusterResponse<FlowBatchTokenResponseData> processRequest(ClusterRequest<FlowBatchRequestData> request) {
+        TokenService tokenService = TokenServiceProvider.getService();
+
+        FlowBatchRequestData data = request.getData();
+        TokenResult[] results = tokenService.requestBatchToken(data.getFlowIds(), data.getCounts(),
+            data.isPriority());
+
+        FlowBatchTokenResponseData responseData = new FlowBatchTokenResponseData(results.length);
+        for (int i = 0; i < results.length; i++) {
+            responseData.getStatuses()[i] = results[i].getStatus();
+            responseData.getRemainingCounts()[i] = results[i].getRemaining();
+            responseData.getWaitInMs()[i] = results[i].getWaitInMs();
+        }
+        return new ClusterResponse<>(request.getId(), request.getType(), ClusterConstants.RESPONSE_STATUS_OK,
+            responseData);
+    }
+}
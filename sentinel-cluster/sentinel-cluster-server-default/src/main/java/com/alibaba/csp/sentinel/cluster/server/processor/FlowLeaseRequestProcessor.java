@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenService;
+import com.alibaba.csp.sentinel.cluster.annotation.RequestType;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowLeaseRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowLeaseTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.TokenServiceProvider;
+
+/**
+ * Processor of token lease requests, which either lease a batch of tokens (if the count is positive)
+ * or return the unused tokens of an expired lease.
+ *
+ * @since 1.8.2
+ */
+@RequestType(ClusterConstants.MSG_TYPE_FLOW_LEASE)
+public class FlowLeaseRequestProcessor implements RequestProcessor<FlowLeaseRequestData, FlowLeaseTokenResponseData> {
+
+    @Override
+    public ClusterResponse<FlowLeaseTokenResponseData> processRequest(ClusterRequest<FlowLeaseRequestData> request) {
+        TokenService tokenService = TokenServiceProvider.getService();
+
+        FlowLeaseRequestData data = request.getData();
+        TokenResult result;
+        if (data.getCount() > 0) {
+            result = tokenService.requestLeaseToken(data.getFlowId(), data.getCount(), data.getLeaseTimeMs());
+        } else {
+            result = tokenService.returnLeaseToken(data.getFlowId(), data.getLeaseId(), data.getReturnCount());
+        }
+        return new ClusterResponse<>(request.getId(), request.getType(), result.getStatus(),
+            new FlowLeaseTokenResponseData()
+                .setLeasedCount(result.getRemaining())
+                .setLeaseId(result.getTokenId())
+        );
+    }
+}
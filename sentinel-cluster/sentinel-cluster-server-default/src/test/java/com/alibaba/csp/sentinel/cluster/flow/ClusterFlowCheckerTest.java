@@ -15,8 +15,13 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow;
 
+import java.util.Collections;
+
 import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.metric.ClusterMetric;
 import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
@@ -72,6 +77,69 @@ public class ClusterFlowCheckerTest {
         ClusterMetricStatistics.removeMetric(flowId);
     }
 
+    @Test
+    public void testLeaseClusterToken() {
+        String namespace = "testLeaseClusterToken";
+        long flowId = 98766L;
+        FlowRule clusterRule = newLeaseRule(flowId);
+        ClusterFlowRuleManager.register2Property(namespace);
+        ClusterFlowRuleManager.loadRules(namespace, Collections.singletonList(clusterRule));
+        try {
+            TokenResult lease = ClusterFlowChecker.leaseClusterToken(clusterRule, 4, 100);
+            assertLeased(4, lease);
+            // Only the remaining quota is leased.
+            assertLeased(6, ClusterFlowChecker.leaseClusterToken(clusterRule, 8, 100));
+            assertResultBlock(ClusterFlowChecker.leaseClusterToken(clusterRule, 1, 100));
+            // Returned tokens can be leased again.
+            assertResultPass(ClusterFlowChecker.returnClusterToken(clusterRule, lease.getTokenId(), 3));
+            assertLeased(3, ClusterFlowChecker.leaseClusterToken(clusterRule, 5, 100));
+            assertEquals(10, ClusterMetricStatistics.getMetric(flowId).getSum(ClusterFlowEvent.PASS));
+
+            // Leased tokens should be returned within the interval of the metric.
+            assertEquals(TokenResultStatus.BAD_REQUEST,
+                (int) ClusterFlowChecker.leaseClusterToken(clusterRule, 1, 1000).getStatus());
+        } finally {
+            ClusterFlowRuleManager.removeProperty(namespace);
+        }
+    }
+
+    @Test
+    public void testReturnLeasedTokensOfExpiredBucket() {
+        String namespace = "testReturnLeasedTokensOfExpiredBucket";
+        long flowId = 98767L;
+        FlowRule clusterRule = newLeaseRule(flowId);
+        ClusterFlowRuleManager.register2Property(namespace);
+        ClusterFlowRuleManager.loadRules(namespace, Collections.singletonList(clusterRule));
+        try {
+            TokenResult expiredLease = ClusterFlowChecker.leaseClusterToken(clusterRule, 10, 100);
+            assertLeased(10, expiredLease);
+            // The bucket where the leased tokens were counted slides out of the window.
+            sleep(1100);
+            assertLeased(10, ClusterFlowChecker.leaseClusterToken(clusterRule, 10, 100));
+
+            // Returned tokens of the expired bucket are dropped, rather than taken from the live window.
+            assertResultPass(ClusterFlowChecker.returnClusterToken(clusterRule, expiredLease.getTokenId(), 10));
+            assertEquals(10, ClusterMetricStatistics.getMetric(flowId).getSum(ClusterFlowEvent.PASS));
+            assertResultBlock(ClusterFlowChecker.leaseClusterToken(clusterRule, 1, 100));
+        } finally {
+            ClusterFlowRuleManager.removeProperty(namespace);
+        }
+    }
+
+    private FlowRule newLeaseRule(long flowId) {
+        return new FlowRule("abc")
+            .setCount(10)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(flowId)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+    }
+
+    private void assertLeased(int leased, TokenResult result) {
+        assertResultPass(result);
+        assertEquals(leased, result.getRemaining());
+    }
+
     private TokenResult tryAcquire(FlowRule clusterRule, boolean occupy) {
         return ClusterFlowChecker.acquireClusterToken(clusterRule, 1, occupy);
     }
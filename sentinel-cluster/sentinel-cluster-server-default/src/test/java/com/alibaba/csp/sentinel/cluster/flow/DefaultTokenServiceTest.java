@@ -0,0 +1,69 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow;
+
+import java.util.Arrays;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 1.8.2
+ */
+public class DefaultTokenServiceTest {
+
+    @Test
+    public void testRequestBatchToken() {
+        String namespace = "testRequestBatchToken";
+        ClusterFlowRuleManager.register2Property(namespace);
+        ClusterFlowRuleManager.loadRules(namespace, Arrays.asList(clusterRule(98771L, 10), clusterRule(98772L, 2)));
+        try {
+            DefaultTokenService tokenService = new DefaultTokenService();
+            TokenResult[] results = tokenService.requestBatchToken(new long[] {98771L, 98772L, 98773L, -1L},
+                new int[] {2, 3, 1, 1}, false);
+
+            assertEquals(4, results.length);
+            assertEquals(TokenResultStatus.OK, (int) results[0].getStatus());
+            assertEquals(TokenResultStatus.BLOCKED, (int) results[1].getStatus());
+            assertEquals(TokenResultStatus.NO_RULE_EXISTS, (int) results[2].getStatus());
+            assertEquals(TokenResultStatus.BAD_REQUEST, (int) results[3].getStatus());
+
+            results = tokenService.requestBatchToken(new long[] {98771L, 98772L}, new int[] {1}, false);
+            assertEquals(2, results.length);
+            assertEquals(TokenResultStatus.BAD_REQUEST, (int) results[0].getStatus());
+            assertEquals(TokenResultStatus.BAD_REQUEST, (int) results[1].getStatus());
+        } finally {
+            ClusterFlowRuleManager.removeProperty(namespace);
+        }
+    }
+
+    private static FlowRule clusterRule(long flowId, double count) {
+        return new FlowRule("testRequestBatchToken_" + flowId)
+            .setCount(count)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(flowId)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+    }
+}
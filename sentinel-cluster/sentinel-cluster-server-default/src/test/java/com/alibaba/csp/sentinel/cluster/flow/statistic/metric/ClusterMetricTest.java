@@ -43,4 +43,31 @@ public class ClusterMetricTest extends AbstractTimeBasedTest {
         metric.add(ClusterFlowEvent.PASS, 1);
         Assert.assertEquals(0, metric.tryOccupyNext(ClusterFlowEvent.PASS, 333, 900));
     }
+
+    @Test
+    public void testTakeBack() {
+        setCurrentMillis(1000);
+        ClusterMetric metric = new ClusterMetric(10, 1000);
+        long addTime = 1050;
+        setCurrentMillis(addTime);
+        metric.add(ClusterFlowEvent.PASS, 5, addTime);
+        sleep(500);
+        metric.add(ClusterFlowEvent.PASS, 5);
+        Assert.assertTrue(metric.takeBack(ClusterFlowEvent.PASS, 2, addTime));
+        Assert.assertEquals(8, metric.getSum(ClusterFlowEvent.PASS));
+        // No more than the count of the bucket is taken back.
+        Assert.assertTrue(metric.takeBack(ClusterFlowEvent.PASS, 5, addTime));
+        Assert.assertEquals(5, metric.getSum(ClusterFlowEvent.PASS));
+
+        metric.add(ClusterFlowEvent.PASS, 3, addTime);
+        // The bucket of the add time is about to slide out of the window.
+        sleep(400);
+        Assert.assertFalse(metric.takeBack(ClusterFlowEvent.PASS, 3, addTime));
+        Assert.assertEquals(8, metric.getSum(ClusterFlowEvent.PASS));
+        sleep(100);
+        Assert.assertFalse(metric.takeBack(ClusterFlowEvent.PASS, 3, addTime));
+        Assert.assertEquals(5, metric.getSum(ClusterFlowEvent.PASS));
+        // Count of future is never taken back.
+        Assert.assertFalse(metric.takeBack(ClusterFlowEvent.PASS, 5, addTime + 10000));
+    }
 }
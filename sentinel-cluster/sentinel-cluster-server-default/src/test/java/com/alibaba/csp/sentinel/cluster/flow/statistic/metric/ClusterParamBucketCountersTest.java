@@ -0,0 +1,113 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.metric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.alibaba.csp.sentinel.cluster.test.AbstractTimeBasedTest;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for {@link ClusterParamBucketCounters}.
+ *
+ * @since 1.8.2
+ */
+public class ClusterParamBucketCountersTest extends AbstractTimeBasedTest {
+
+    @Test
+    public void testSlidingBuckets() {
+        setCurrentMillis(100000);
+        ClusterParamBucketCounters counters = new ClusterParamBucketCounters(2, 1000, 100);
+        counters.addValue("a", 3);
+        sleep(500);
+        counters.addValue("a", 4);
+        assertEquals(7, counters.getSum("a"));
+        assertEquals(7, counters.getAvg("a"), 0.01);
+        assertEquals(0, counters.getSum("b"));
+
+        // The first bucket expires.
+        sleep(500);
+        assertEquals(4, counters.getSum("a"));
+        counters.addValue("a", 1);
+        assertEquals(5, counters.getSum("a"));
+
+        // All buckets expire.
+        sleep(3000);
+        assertEquals(0, counters.getSum("a"));
+        counters.addValue("a", 2);
+        assertEquals(2, counters.getSum("a"));
+    }
+
+    @Test
+    public void testTopValuesFollowExpiration() {
+        setCurrentMillis(100000);
+        ClusterParamBucketCounters counters = new ClusterParamBucketCounters(2, 1000, 100, 2);
+        counters.addValue("a", 100);
+        counters.addValue("b", 50);
+        counters.addValue("c", 10);
+        Map<Object, Double> expected = new HashMap<>();
+        expected.put("a", 100d);
+        expected.put("b", 50d);
+        assertEquals(expected, counters.getTopValues(2));
+
+        // The candidates expire, and "c" should replace them even if it's smaller than the stale sums.
+        sleep(1000);
+        counters.addValue("c", 10);
+        counters.addValue("d", 5);
+        expected.clear();
+        expected.put("c", 10d);
+        expected.put("d", 5d);
+        assertEquals(expected, counters.getTopValues(2));
+
+        // More top values than the heap falls back to scanning all values.
+        counters.addValue("e", 1);
+        expected.put("e", 1d);
+        assertEquals(expected, counters.getTopValues(5));
+    }
+
+    @Test
+    public void testTopValuesAgainstExactCounting() {
+        setCurrentMillis(100000);
+        ClusterParamBucketCounters counters = new ClusterParamBucketCounters(10, 1000, 10000);
+        Random random = new Random(7);
+        Map<Object, Long> sums = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            // Skewed values: the smaller the more frequent.
+            Integer value = (int)(Math.pow(random.nextDouble(), 3) * 1000);
+            counters.addValue(value, 1);
+            Long sum = sums.get(value);
+            sums.put(value, sum == null ? 1 : sum + 1);
+        }
+
+        List<Long> sortedSums = new ArrayList<>(sums.values());
+        Collections.sort(sortedSums, Collections.<Long>reverseOrder());
+        Map<Object, Double> top = counters.getTopValues(5);
+        assertEquals(5, top.size());
+        for (Map.Entry<Object, Double> e : top.entrySet()) {
+            assertEquals(sums.get(e.getKey()), e.getValue(), 0.01);
+            assertTrue(e.getValue() >= sortedSums.get(4));
+        }
+    }
+}
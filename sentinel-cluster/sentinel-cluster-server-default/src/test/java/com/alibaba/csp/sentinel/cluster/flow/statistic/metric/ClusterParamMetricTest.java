@@ -26,9 +26,18 @@ public class ClusterParamMetricTest extends AbstractTimeBasedTest {
 
     @Test
     public void testClusterParamMetric() {
+        testClusterParamMetric(false);
+    }
+
+    @Test
+    public void testClusterParamMetricWithBucketCounters() {
+        testClusterParamMetric(true);
+    }
+
+    private void testClusterParamMetric(boolean bucketCounters) {
         setCurrentMillis(System.currentTimeMillis());
         Map<Object, Double> topMap = new HashMap<Object, Double>();
-        ClusterParamMetric metric = new ClusterParamMetric(5, 25, 100);
+        ClusterParamMetric metric = new ClusterParamMetric(5, 25, 100, bucketCounters);
         metric.addValue("e1", -1);
         metric.addValue("e1", -2);
         metric.addValue("e2", 100);
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
@@ -70,6 +71,12 @@ public final class Constants {
      */
     public static volatile boolean ON = true;
 
+    /**
+     * Whether entry and context objects are recycled per thread (since 1.8.2),
+     * see {@link SentinelConfig#ENTRY_RECYCLE_ENABLED}.
+     */
+    public static volatile boolean ENTRY_RECYCLE = SentinelConfig.entryRecycleEnabled();
+
     /**
      * Order of default processor slots
      */
@@ -41,10 +41,35 @@ class CtEntry extends Entry {
     protected Context context;
     protected LinkedList<BiConsumer<Context, Entry>> exitHandlers;
 
+    /**
+     * The pool this entry returns to when it exits, or null if the entry is not recyclable.
+     */
+    private final CtEntryRecycler recycler;
+
     CtEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        this(resourceWrapper, chain, context, null);
+    }
+
+    CtEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context,
+            CtEntryRecycler recycler) {
         super(resourceWrapper);
         this.chain = chain;
         this.context = context;
+        this.recycler = recycler;
+
+        setUpEntryFor(context);
+    }
+
+    /**
+     * Set up a recycled entry for a new invocation.
+     */
+    void reuse(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        resetEntry(resourceWrapper);
+        this.parent = null;
+        this.child = null;
+        this.chain = chain;
+        this.context = context;
+        this.exitHandlers = null;
 
         setUpEntryFor(context);
     }
@@ -124,6 +149,9 @@ class CtEntry extends Entry {
                 }
                 // Clean the reference of context in current entry to avoid duplicate exit.
                 clearEntryContext();
+                if (recycler != null) {
+                    recycler.release(this);
+                }
             }
         }
     }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+
+/**
+ * <p>Per-thread pool of {@link CtEntry} used when {@link Constants#ENTRY_RECYCLE} is enabled.</p>
+ *
+ * <p>Each thread keeps up to {@link #MAX_POOLED_ENTRIES} exited entries (i.e. the depth of nested entries),
+ * and a small direct-mapped cache of {@link StringResourceWrapper}, so that entering a resource by name
+ * does not allocate in the steady state. Entries are only pooled and reused by the thread which created them.</p>
+ *
+ * @since 1.8.2
+ */
+final class CtEntryRecycler {
+
+    static final int MAX_POOLED_ENTRIES = 16;
+    static final int RESOURCE_CACHE_SIZE = 64;
+
+    private static final ThreadLocal<CtEntryRecycler> RECYCLERS = new ThreadLocal<CtEntryRecycler>() {
+        @Override
+        protected CtEntryRecycler initialValue() {
+            return new CtEntryRecycler();
+        }
+    };
+
+    private final Thread owner = Thread.currentThread();
+    private final CtEntry[] entries = new CtEntry[MAX_POOLED_ENTRIES];
+    private int size = 0;
+
+    private final StringResourceWrapper[] resources = new StringResourceWrapper[RESOURCE_CACHE_SIZE];
+
+    private CtEntryRecycler() {}
+
+    /**
+     * Get a recyclable entry of current thread. The entry will be returned to the pool when it exits.
+     *
+     * @param resourceWrapper resource of the invocation
+     * @param chain           slot chain of the resource, may be null
+     * @param context         context of the invocation
+     * @return an entry set up for the invocation
+     */
+    static CtEntry obtain(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        CtEntryRecycler recycler = RECYCLERS.get();
+        if (recycler.size == 0) {
+            return new CtEntry(resourceWrapper, chain, context, recycler);
+        }
+        CtEntry entry = recycler.entries[--recycler.size];
+        recycler.entries[recycler.size] = null;
+        entry.reuse(resourceWrapper, chain, context);
+        return entry;
+    }
+
+    /**
+     * Return an exited entry to the pool. Entries exited in other threads are simply dropped.
+     */
+    void release(CtEntry entry) {
+        if (size < MAX_POOLED_ENTRIES && Thread.currentThread() == owner) {
+            entries[size++] = entry;
+        }
+    }
+
+    /**
+     * Get a cached resource wrapper of given name and types in current thread, or create one if absent.
+     *
+     * @param name         resource name
+     * @param entryType    entry type of the resource
+     * @param resourceType classification of the resource
+     * @return resource wrapper of given name and types
+     */
+    static StringResourceWrapper resourceOf(String name, EntryType entryType, int resourceType) {
+        StringResourceWrapper[] cache = RECYCLERS.get().resources;
+        int idx = (name.hashCode() * 31 + entryType.ordinal()) & (RESOURCE_CACHE_SIZE - 1);
+        StringResourceWrapper resource = cache[idx];
+        if (resource == null || resource.getEntryType() != entryType
+            || resource.getResourceType() != resourceType || !resource.getName().equals(name)) {
+            resource = new StringResourceWrapper(name, entryType, resourceType);
+            cache[idx] = resource;
+        }
+        return resource;
+    }
+
+    int pooledSize() {
+        return size;
+    }
+
+    static CtEntryRecycler current() {
+        return RECYCLERS.get();
+    }
+}
@@ -16,8 +16,8 @@
 package com.alibaba.csp.sentinel;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.context.Context;
@@ -48,11 +48,13 @@ public class CtSph implements Sph {
      * Same resource({@link ResourceWrapper#equals(Object)}) will share the same
      * {@link ProcessorSlotChain}, no matter in which {@link Context}.
      */
-    private static volatile Map<ResourceWrapper, ProcessorSlotChain> chainMap
-        = new HashMap<ResourceWrapper, ProcessorSlotChain>();
+    private static final Map<ResourceWrapper, ProcessorSlotChain> chainMap
+        = new ConcurrentHashMap<ResourceWrapper, ProcessorSlotChain>();
 
     private static final Object LOCK = new Object();
 
+    private static volatile boolean chainSizeExceededWarned = false;
+
     private AsyncEntry asyncEntryWithNoChain(ResourceWrapper resourceWrapper, Context context) {
         AsyncEntry entry = new AsyncEntry(resourceWrapper, null, context);
         entry.initAsyncContext();
@@ -63,6 +65,11 @@ public class CtSph implements Sph {
 
     private AsyncEntry asyncEntryWithPriorityInternal(ResourceWrapper resourceWrapper, int count, boolean prioritized,
                                                       Object... args) throws BlockException {
+        return asyncEntryWithPriorityInternal(resourceWrapper, count, prioritized, false, args);
+    }
+
+    private AsyncEntry asyncEntryWithPriorityInternal(ResourceWrapper resourceWrapper, int count, boolean prioritized,
+                                                      boolean nonBlocking, Object... args) throws BlockException {
         Context context = ContextUtil.getContext();
         if (context instanceof NullContext) {
             // The {@link NullContext} indicates that the amount of context has exceeded the threshold,
@@ -87,6 +94,7 @@ public class CtSph implements Sph {
         }
 
         AsyncEntry asyncEntry = new AsyncEntry(resourceWrapper, chain, context);
+        asyncEntry.setNonBlocking(nonBlocking);
         try {
             chain.entry(context, resourceWrapper, null, count, prioritized, args);
             // Initiate the async context only when the entry successfully passed the slot chain.
@@ -114,6 +122,24 @@ public class CtSph implements Sph {
         return asyncEntryWithPriorityInternal(resourceWrapper, count, false, args);
     }
 
+    private static CtEntry newEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        if (Constants.ENTRY_RECYCLE) {
+            return CtEntryRecycler.obtain(resourceWrapper, chain, context);
+        }
+        return new CtEntry(resourceWrapper, chain, context);
+    }
+
+    private static StringResourceWrapper newResource(String name, EntryType type) {
+        return newResource(name, type, ResourceTypeConstants.COMMON);
+    }
+
+    private static StringResourceWrapper newResource(String name, EntryType type, int resourceType) {
+        if (Constants.ENTRY_RECYCLE) {
+            return CtEntryRecycler.resourceOf(name, type, resourceType);
+        }
+        return new StringResourceWrapper(name, type, resourceType);
+    }
+
     private Entry entryWithPriority(ResourceWrapper resourceWrapper, int count, boolean prioritized, Object... args)
         throws BlockException {
         Context context = ContextUtil.getContext();
@@ -130,7 +156,7 @@ public class CtSph implements Sph {
 
         // Global switch is close, no rule checking will do.
         if (!Constants.ON) {
-            return new CtEntry(resourceWrapper, null, context);
+            return newEntry(resourceWrapper, null, context);
         }
 
         ProcessorSlot<Object> chain = lookProcessChain(resourceWrapper);
@@ -140,10 +166,10 @@ public class CtSph implements Sph {
          * so no rule checking will be done.
          */
         if (chain == null) {
-            return new CtEntry(resourceWrapper, null, context);
+            return newEntry(resourceWrapper, null, context);
         }
 
-        Entry e = new CtEntry(resourceWrapper, chain, context);
+        Entry e = newEntry(resourceWrapper, chain, context);
         try {
             chain.entry(context, resourceWrapper, null, count, prioritized, args);
         } catch (BlockException e1) {
@@ -185,7 +211,8 @@ public class CtSph implements Sph {
      *
      * <p>
      * Note that total {@link ProcessorSlot} count must not exceed {@link Constants#MAX_SLOT_CHAIN_SIZE},
-     * otherwise null will return.
+     * otherwise null will return. The limit won't be applied if idle resource eviction is enabled
+     * (see {@link IdleResourceEvictor}), as the slot chains of idle resources will be freed instead.
      * </p>
      *
      * @param resourceWrapper target resource
@@ -198,22 +225,36 @@ public class CtSph implements Sph {
                 chain = chainMap.get(resourceWrapper);
                 if (chain == null) {
                     // Entry size limit.
-                    if (chainMap.size() >= Constants.MAX_SLOT_CHAIN_SIZE) {
+                    if (chainMap.size() >= Constants.MAX_SLOT_CHAIN_SIZE && !IdleResourceEvictor.isEnabled()) {
+                        if (!chainSizeExceededWarned) {
+                            chainSizeExceededWarned = true;
+                            RecordLog.warn("[CtSph] Amount of slot chains exceeds {}, no rule checking will be done "
+                                + "for new resources such as <{}>", Constants.MAX_SLOT_CHAIN_SIZE,
+                                resourceWrapper.getName());
+                        }
                         return null;
                     }
 
                     chain = SlotChainProvider.newSlotChain();
-                    Map<ResourceWrapper, ProcessorSlotChain> newMap = new HashMap<ResourceWrapper, ProcessorSlotChain>(
-                        chainMap.size() + 1);
-                    newMap.putAll(chainMap);
-                    newMap.put(resourceWrapper, chain);
-                    chainMap = newMap;
+                    chainMap.put(resourceWrapper, chain);
                 }
             }
         }
         return chain;
     }
 
+    /**
+     * Remove the slot chain of given resource if it's still mapped to given chain.
+     *
+     * @param resourceWrapper target resource
+     * @param chain           the slot chain expected to be removed
+     * @return true if the slot chain has been removed
+     * @since 1.8.2
+     */
+    static boolean removeChain(ResourceWrapper resourceWrapper, ProcessorSlotChain chain) {
+        return chainMap.remove(resourceWrapper, chain);
+    }
+
     /**
      * Get current size of created slot chains.
      *
@@ -231,6 +272,7 @@ public class CtSph implements Sph {
      */
     static void resetChainMap() {
         chainMap.clear();
+        chainSizeExceededWarned = false;
     }
 
     /**
@@ -257,7 +299,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, EntryType.OUT);
+        StringResourceWrapper resource = newResource(name, EntryType.OUT);
         return entry(resource, 1, OBJECTS0);
     }
 
@@ -275,7 +317,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, EntryType type) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = newResource(name, type);
         return entry(resource, 1, OBJECTS0);
     }
 
@@ -287,7 +329,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, EntryType type, int count) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = newResource(name, type);
         return entry(resource, count, OBJECTS0);
     }
 
@@ -299,7 +341,7 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, int count) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, EntryType.OUT);
+        StringResourceWrapper resource = newResource(name, EntryType.OUT);
         return entry(resource, count, OBJECTS0);
     }
 
@@ -311,26 +353,26 @@ public class CtSph implements Sph {
 
     @Override
     public Entry entry(String name, EntryType type, int count, Object... args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = newResource(name, type);
         return entry(resource, count, args);
     }
 
     @Override
     public AsyncEntry asyncEntry(String name, EntryType type, int count, Object... args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = newResource(name, type);
         return asyncEntryInternal(resource, count, args);
     }
 
     @Override
     public Entry entryWithPriority(String name, EntryType type, int count, boolean prioritized) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = newResource(name, type);
         return entryWithPriority(resource, count, prioritized);
     }
 
     @Override
     public Entry entryWithPriority(String name, EntryType type, int count, boolean prioritized, Object... args)
         throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, type);
+        StringResourceWrapper resource = newResource(name, type);
         return entryWithPriority(resource, count, prioritized, args);
     }
 
@@ -343,14 +385,21 @@ public class CtSph implements Sph {
     @Override
     public Entry entryWithType(String name, int resourceType, EntryType entryType, int count, boolean prioritized,
                                Object[] args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
+        StringResourceWrapper resource = newResource(name, entryType, resourceType);
         return entryWithPriority(resource, count, prioritized, args);
     }
 
     @Override
     public AsyncEntry asyncEntryWithType(String name, int resourceType, EntryType entryType, int count,
                                          boolean prioritized, Object[] args) throws BlockException {
-        StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
+        StringResourceWrapper resource = newResource(name, entryType, resourceType);
         return asyncEntryWithPriorityInternal(resource, count, prioritized, args);
     }
+
+    @Override
+    public AsyncEntry asyncEntryNonBlocking(String name, int resourceType, EntryType entryType, int count,
+                                            Object[] args) throws BlockException {
+        StringResourceWrapper resource = newResource(name, entryType, resourceType);
+        return asyncEntryWithPriorityInternal(resource, count, false, true, args);
+    }
 }
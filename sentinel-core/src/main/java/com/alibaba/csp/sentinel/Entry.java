@@ -55,7 +55,7 @@ public abstract class Entry implements AutoCloseable {
 
     private static final Object[] OBJECTS0 = new Object[0];
 
-    private final long createTimestamp;
+    private long createTimestamp;
     private long completeTimestamp;
 
     private Node curNode;
@@ -67,13 +67,40 @@ public abstract class Entry implements AutoCloseable {
     private Throwable error;
     private BlockException blockError;
 
-    protected final ResourceWrapper resourceWrapper;
+    /**
+     * Whether pacing rules reserve a pass for this entry rather than blocking the current thread.
+     */
+    private boolean nonBlocking;
+    /**
+     * Time (in milliseconds) the caller should wait before processing the request of a non-blocking entry.
+     */
+    private long waitInMs;
+
+    protected ResourceWrapper resourceWrapper;
 
     public Entry(ResourceWrapper resourceWrapper) {
         this.resourceWrapper = resourceWrapper;
         this.createTimestamp = TimeUtil.currentTimeMillis();
     }
 
+    /**
+     * Reset the state of this entry so that it can be reused for a new invocation.
+     *
+     * @param resourceWrapper resource of the new invocation
+     * @since 1.8.2
+     */
+    void resetEntry(ResourceWrapper resourceWrapper) {
+        this.resourceWrapper = resourceWrapper;
+        this.createTimestamp = TimeUtil.currentTimeMillis();
+        this.completeTimestamp = 0;
+        this.curNode = null;
+        this.originNode = null;
+        this.error = null;
+        this.blockError = null;
+        this.nonBlocking = false;
+        this.waitInMs = 0;
+    }
+
     public ResourceWrapper getResourceWrapper() {
         return resourceWrapper;
     }
@@ -165,6 +192,44 @@ public abstract class Entry implements AutoCloseable {
         this.error = error;
     }
 
+    /**
+     * Whether this entry is non-blocking. For non-blocking entries, pacing rules (e.g. flow rules with rate
+     * limiter control behavior) don't make the current thread wait, but record the time to wait in
+     * {@link #getWaitInMs()}.
+     *
+     * @return true if this entry is non-blocking
+     * @since 1.8.2
+     */
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
+    void setNonBlocking(boolean nonBlocking) {
+        this.nonBlocking = nonBlocking;
+    }
+
+    /**
+     * Get the time the caller should wait before processing the request of this entry. It's always 0
+     * for entries which are not {@linkplain #isNonBlocking() non-blocking}, as they have waited in the slot chain.
+     *
+     * @return time to wait in milliseconds
+     * @since 1.8.2
+     */
+    public long getWaitInMs() {
+        return waitInMs;
+    }
+
+    /**
+     * Set the time the caller should wait before processing the request, used by the slots of
+     * non-blocking entries.
+     *
+     * @param waitInMs time to wait in milliseconds
+     * @since 1.8.2
+     */
+    public void setWaitInMs(long waitInMs) {
+        this.waitInMs = waitInMs;
+    }
+
     /**
      * Get origin {@link Node} of the this {@link Entry}.
      *
@@ -0,0 +1,166 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.init.InitFunc;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Frees the slot chains, {@link ClusterNode}s and {@link DefaultNode}s of resources which have no traffic
+ * for a configurable period ({@link SentinelConfig#RESOURCE_IDLE_TIMEOUT_SEC}, disabled by default).
+ * When it's enabled, the {@link Constants#MAX_SLOT_CHAIN_SIZE} limit won't be applied to new resources.</p>
+ *
+ * <p>The resources are checked every {@link #CHECK_INTERVAL_SEC} seconds. A resource is regarded as idle
+ * when it has no thread in process and no request in the last minute. An idle resource is evicted once it has
+ * been observed idle for the whole timeout, so the resource will be recreated on its next entry, with clean
+ * statistics.</p>
+ *
+ * @since 1.8.2
+ */
+public class IdleResourceEvictor implements InitFunc {
+
+    static final long CHECK_INTERVAL_SEC = 10;
+
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(1,
+        new NamedThreadFactory("sentinel-idle-resource-evict-task", true));
+
+    /**
+     * The time when a resource is first observed idle. Only accessed by the evict task.
+     */
+    private final Map<ResourceWrapper, Long> idleSince = new HashMap<ResourceWrapper, Long>();
+
+    @Override
+    public void init() throws Exception {
+        final long timeoutSec = SentinelConfig.resourceIdleTimeoutSec();
+        if (timeoutSec <= 0) {
+            return;
+        }
+        SCHEDULER.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    evictIdleResources(TimeUtil.currentTimeMillis(), timeoutSec * 1000);
+                } catch (Throwable e) {
+                    RecordLog.warn("[IdleResourceEvictor] Failed to evict idle resources", e);
+                }
+            }
+        }, CHECK_INTERVAL_SEC, CHECK_INTERVAL_SEC, TimeUnit.SECONDS);
+        RecordLog.info("[IdleResourceEvictor] Idle resource eviction enabled, idle timeout: {}s", timeoutSec);
+    }
+
+    /**
+     * Check whether idle resource eviction is enabled.
+     *
+     * @return true if idle resource eviction is enabled
+     */
+    public static boolean isEnabled() {
+        return SentinelConfig.resourceIdleTimeoutSec() > 0;
+    }
+
+    /**
+     * Evict the resources which have been observed idle for at least {@code timeoutMs}.
+     *
+     * @param now       current time in milliseconds
+     * @param timeoutMs idle timeout in milliseconds
+     * @return amount of evicted resources
+     */
+    int evictIdleResources(long now, long timeoutMs) {
+        Map<ResourceWrapper, ProcessorSlotChain> chainMap = CtSph.getChainMap();
+        Map<ResourceWrapper, ClusterNode> clusterNodeMap = ClusterBuilderSlot.getClusterNodeMap();
+        List<ResourceWrapper> evictList = new ArrayList<ResourceWrapper>();
+
+        for (ResourceWrapper resource : chainMap.keySet()) {
+            ClusterNode node = clusterNodeMap.get(resource);
+            if (node == null || isActive(node)) {
+                idleSince.remove(resource);
+                continue;
+            }
+            Long since = idleSince.get(resource);
+            if (since == null) {
+                idleSince.put(resource, now);
+            } else if (now - since >= timeoutMs) {
+                evictList.add(resource);
+            }
+        }
+        idleSince.keySet().retainAll(chainMap.keySet());
+
+        Map<ClusterNode, ResourceWrapper> evictedNodes = new IdentityHashMap<ClusterNode, ResourceWrapper>();
+        for (ResourceWrapper resource : evictList) {
+            idleSince.remove(resource);
+            ProcessorSlotChain chain = chainMap.get(resource);
+            ClusterNode node = clusterNodeMap.get(resource);
+            // Remove only the chain and node observed idle, in case the resource has just been recreated.
+            if (chain == null || node == null || isActive(node) || !CtSph.removeChain(resource, chain)) {
+                continue;
+            }
+            ClusterBuilderSlot.removeClusterNode(resource, node);
+            evictedNodes.put(node, resource);
+        }
+        if (!evictedNodes.isEmpty()) {
+            removeDefaultNodes(Constants.ROOT, evictedNodes);
+            RecordLog.info("[IdleResourceEvictor] Evicted {} idle resources, {} resources remaining",
+                evictedNodes.size(), chainMap.size());
+        }
+        return evictedNodes.size();
+    }
+
+    private static boolean isActive(ClusterNode node) {
+        return node.curThreadNum() > 0 || node.totalRequest() > 0;
+    }
+
+    /**
+     * Remove the {@link DefaultNode}s of evicted resources from the invocation tree. Children of a removed
+     * node belong to other resources, so they are moved to the parent of the removed node.
+     */
+    private static void removeDefaultNodes(DefaultNode parent, Map<ClusterNode, ResourceWrapper> evictedNodes) {
+        List<Node> pending = new ArrayList<Node>(parent.getChildList());
+        while (!pending.isEmpty()) {
+            Node child = pending.remove(pending.size() - 1);
+            if (!(child instanceof DefaultNode)) {
+                continue;
+            }
+            DefaultNode node = (DefaultNode)child;
+            if (node.getClusterNode() != null && evictedNodes.containsKey(node.getClusterNode())) {
+                parent.removeChild(node);
+                for (Node grandChild : node.getChildList()) {
+                    parent.addChild(grandChild);
+                    pending.add(grandChild);
+                }
+            } else {
+                removeDefaultNodes(node, evictedNodes);
+            }
+        }
+    }
+}
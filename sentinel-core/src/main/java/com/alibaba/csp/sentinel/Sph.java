@@ -161,6 +161,32 @@ public interface Sph extends SphResourceTypeSupport {
      */
     AsyncEntry asyncEntry(String name, EntryType trafficType, int batchCount, Object... args) throws BlockException;
 
+    /**
+     * Create a protected asynchronous resource, which never blocks the current thread for pacing rules
+     * (e.g. flow rules with rate limiter control behavior). Such rules reserve a pass for the request,
+     * and the time to wait before processing the request is given by {@link Entry#getWaitInMs()}.
+     * The caller should schedule the request after the wait rather than sleeping.
+     *
+     * <p>Implementations which don't support non-blocking entries fall back to
+     * {@link #asyncEntryWithType(String, int, EntryType, int, boolean, Object[])}, which may block
+     * for pacing rules.</p>
+     *
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param trafficType  the traffic type (inbound, outbound or internal). This is used
+     *                     to mark whether it can be blocked when the system is unstable,
+     *                     only inbound traffic could be blocked by {@link SystemRule}
+     * @param batchCount   the amount of calls within the invocation (e.g. batchCount=2 means request for 2 tokens)
+     * @param args         args for parameter flow control or customized slots
+     * @return created asynchronous entry
+     * @throws BlockException if the block criteria is met
+     * @since 1.8.2
+     */
+    default AsyncEntry asyncEntryNonBlocking(String name, int resourceType, EntryType trafficType, int batchCount,
+                                             Object[] args) throws BlockException {
+        return asyncEntryWithType(name, resourceType, trafficType, batchCount, false, args);
+    }
+
     /**
      * Create a protected resource with priority.
      *
@@ -365,4 +365,44 @@ public class SphU {
                                         Object[] args) throws BlockException {
         return Env.sph.asyncEntryWithType(name, resourceType, trafficType, batchCount, false, args);
     }
+
+    /**
+     * Record statistics and perform rule checking for the given resource that indicates an async invocation,
+     * without blocking the current thread for pacing rules (e.g. flow rules with rate limiter control behavior).
+     * The request should be processed after {@link Entry#getWaitInMs()}, which is scheduled by the caller
+     * (e.g. on the event loop) rather than sleeping.
+     *
+     * @param name        the unique name for the protected resource
+     * @param trafficType the traffic type (inbound, outbound or internal). This is used
+     *                    to mark whether it can be blocked when the system is unstable,
+     *                    only inbound traffic could be blocked by {@link SystemRule}
+     * @return the {@link Entry} of this invocation (used for mark the invocation complete and get context data)
+     * @throws BlockException if the block criteria is met (e.g. metric exceeded the threshold of any rules)
+     * @since 1.8.2
+     */
+    public static AsyncEntry asyncEntryNonBlocking(String name, EntryType trafficType) throws BlockException {
+        return Env.sph.asyncEntryNonBlocking(name, ResourceTypeConstants.COMMON, trafficType, 1, OBJECTS0);
+    }
+
+    /**
+     * Record statistics and perform rule checking for the given resource that indicates an async invocation,
+     * without blocking the current thread for pacing rules (e.g. flow rules with rate limiter control behavior).
+     * The request should be processed after {@link Entry#getWaitInMs()}, which is scheduled by the caller
+     * (e.g. on the event loop) rather than sleeping.
+     *
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param trafficType  the traffic type (inbound, outbound or internal). This is used
+     *                     to mark whether it can be blocked when the system is unstable,
+     *                     only inbound traffic could be blocked by {@link SystemRule}
+     * @param batchCount   the amount of calls within the invocation (e.g. batchCount=2 means request for 2 tokens)
+     * @param args         args for parameter flow control or customized slots
+     * @return the {@link Entry} of this invocation (used for mark the invocation complete and get context data)
+     * @throws BlockException if the block criteria is met (e.g. metric exceeded the threshold of any rules)
+     * @since 1.8.2
+     */
+    public static AsyncEntry asyncEntryNonBlocking(String name, int resourceType, EntryType trafficType,
+                                                   int batchCount, Object[] args) throws BlockException {
+        return Env.sph.asyncEntryNonBlocking(name, resourceType, trafficType, batchCount, args);
+    }
 }
@@ -35,6 +35,24 @@ public interface TokenService {
      */
     TokenResult requestToken(Long ruleId, int acquireCount, boolean prioritized);
 
+    /**
+     * Request tokens of several rules from remote token server in one round trip.
+     * By default the tokens of each rule are requested one by one.
+     *
+     * @param ruleIds the unique rule IDs
+     * @param acquireCounts token count to acquire for each rule
+     * @param prioritized whether the request is prioritized
+     * @return result of each rule, in the order of {@code ruleIds}
+     * @since 1.8.2
+     */
+    default TokenResult[] requestBatchToken(long[] ruleIds, int[] acquireCounts, boolean prioritized) {
+        TokenResult[] results = new TokenResult[ruleIds.length];
+        for (int i = 0; i < ruleIds.length; i++) {
+            results[i] = requestToken(ruleIds[i], acquireCounts[i], prioritized);
+        }
+        return results;
+    }
+
     /**
      * Request tokens for a specific parameter from remote token server.
      *
@@ -60,4 +78,34 @@ public interface TokenService {
      * @param tokenId the unique token ID
      */
     void releaseConcurrentToken(Long tokenId);
+
+    /**
+     * Lease a batch of tokens from remote token server, so that the tokens can be consumed locally
+     * without a round trip for each request. By default leasing is not supported and the request fails,
+     * so that tokens are requested one by one.
+     *
+     * @param ruleId the unique rule ID
+     * @param leaseCount token count to lease
+     * @param leaseTimeMs time to live of leased tokens, which should be less than the statistic interval of the server
+     * @return result of the lease request, the remaining count of which is the count of leased tokens,
+     * and the token ID of which is the lease ID
+     * @since 1.8.2
+     */
+    default TokenResult requestLeaseToken(Long ruleId, int leaseCount, int leaseTimeMs) {
+        return new TokenResult(TokenResultStatus.FAIL);
+    }
+
+    /**
+     * Return the unused tokens of an expired lease to remote token server.
+     * By default leasing is not supported and the request fails.
+     *
+     * @param ruleId the unique rule ID
+     * @param leaseId the lease ID, i.e. the token ID of the lease result
+     * @param returnCount unused token count to return
+     * @return result of the return request
+     * @since 1.8.2
+     */
+    default TokenResult returnLeaseToken(Long ruleId, long leaseId, int returnCount) {
+        return new TokenResult(TokenResultStatus.FAIL);
+    }
 }
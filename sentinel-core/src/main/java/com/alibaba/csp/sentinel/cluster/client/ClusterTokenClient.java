@@ -15,6 +15,11 @@
  */
 package com.alibaba.csp.sentinel.cluster.client;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
 import com.alibaba.csp.sentinel.cluster.TokenService;
 
@@ -33,6 +38,46 @@ public interface ClusterTokenClient extends TokenService {
      */
     TokenServerDescriptor currentServer();
 
+    /**
+     * Request tokens from remote token server without blocking current thread.
+     * By default the tokens are requested by {@link #requestToken(Long, int, boolean)}, which blocks current thread.
+     *
+     * @param ruleId the unique rule ID
+     * @param acquireCount token count to acquire
+     * @param prioritized whether the request is prioritized
+     * @return future of the result, which is completed with a {@code FAIL} result rather than exceptionally
+     * if the request fails
+     * @since 1.8.2
+     */
+    default CompletableFuture<TokenResult> requestTokenAsync(Long ruleId, int acquireCount, boolean prioritized) {
+        try {
+            return CompletableFuture.completedFuture(requestToken(ruleId, acquireCount, prioritized));
+        } catch (Throwable ex) {
+            return CompletableFuture.completedFuture(new TokenResult(TokenResultStatus.FAIL));
+        }
+    }
+
+    /**
+     * Request tokens for a specific parameter from remote token server without blocking current thread.
+     * By default the tokens are requested by {@link #requestParamToken(Long, int, Collection)},
+     * which blocks current thread.
+     *
+     * @param ruleId the unique rule ID
+     * @param acquireCount token count to acquire
+     * @param params parameter list
+     * @return future of the result, which is completed with a {@code FAIL} result rather than exceptionally
+     * if the request fails
+     * @since 1.8.2
+     */
+    default CompletableFuture<TokenResult> requestParamTokenAsync(Long ruleId, int acquireCount,
+                                                                  Collection<Object> params) {
+        try {
+            return CompletableFuture.completedFuture(requestParamToken(ruleId, acquireCount, params));
+        } catch (Throwable ex) {
+            return CompletableFuture.completedFuture(new TokenResult(TokenResultStatus.FAIL));
+        }
+    }
+
     /**
      * Start the token client.
      *
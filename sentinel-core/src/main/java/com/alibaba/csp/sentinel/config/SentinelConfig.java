@@ -61,6 +61,80 @@ public final class SentinelConfig {
     public static final String STATISTIC_MAX_RT = "csp.sentinel.statistic.max.rt";
     public static final String SPI_CLASSLOADER = "csp.sentinel.spi.classloader";
     public static final String METRIC_FLUSH_INTERVAL = "csp.sentinel.metric.flush.interval";
+    public static final String METRIC_BUCKET_TYPE = "csp.sentinel.statistic.bucket.type";
+    public static final String METRIC_BUCKET_STRIPE_COUNT = "csp.sentinel.statistic.bucket.stripe.count";
+    public static final String STATISTIC_LOCK_FREE_ROTATION = "csp.sentinel.statistic.lock.free.rotation";
+    public static final String TIME_TICK_MODE = "csp.sentinel.time.tick.mode";
+    public static final String RESOURCE_IDLE_TIMEOUT_SEC = "csp.sentinel.resource.idle.timeout.sec";
+    public static final String TIME_TICK_ADAPTIVE_THRESHOLD = "csp.sentinel.time.tick.adaptive.threshold";
+    public static final String ENTRY_RECYCLE_ENABLED = "csp.sentinel.entry.recycle.enabled";
+    public static final String METRIC_FILE_FORMAT = "csp.sentinel.metric.file.format";
+    public static final String RT_HISTOGRAM_ENABLED = "csp.sentinel.statistic.rt.histogram.enabled";
+    public static final String ORIGIN_NODE_MAX_COUNT = "csp.sentinel.statistic.origin.max.count";
+    public static final String ORIGIN_NODE_COMPACT_ENABLED = "csp.sentinel.statistic.origin.compact.enabled";
+    public static final String SYSTEM_STATUS_SNAPSHOT_INTERVAL = "csp.sentinel.system.status.snapshot.interval.ms";
+    public static final String SYSTEM_STATUS_SOURCE = "csp.sentinel.system.status.source";
+    public static final String SYSTEM_STATUS_SAMPLE_INTERVAL = "csp.sentinel.system.status.sample.interval.ms";
+    public static final String CLUSTER_FLOW_BATCH_ENABLED = "csp.sentinel.flow.cluster.batch.enabled";
+
+    /**
+     * Cache the system time in a tick thread every millisecond.
+     *
+     * @since 1.8.2
+     */
+    public static final String TIME_TICK_MODE_TICK = "tick";
+    /**
+     * Always read the system time directly.
+     *
+     * @since 1.8.2
+     */
+    public static final String TIME_TICK_MODE_SYSTEM = "system";
+    /**
+     * Switch between the tick thread and the system time according to the read QPS.
+     *
+     * @since 1.8.2
+     */
+    public static final String TIME_TICK_MODE_ADAPTIVE = "adaptive";
+
+    /**
+     * Metric bucket with one {@code LongAdder} per metric event.
+     *
+     * @since 1.8.2
+     */
+    public static final String METRIC_BUCKET_TYPE_DEFAULT = "default";
+    /**
+     * Metric bucket with all event counters in one cache-line-padded striped array.
+     *
+     * @since 1.8.2
+     */
+    public static final String METRIC_BUCKET_TYPE_PADDED = "padded";
+
+    /**
+     * Metric log in text lines, readable by humans.
+     *
+     * @since 1.8.2
+     */
+    public static final String METRIC_FILE_FORMAT_TEXT = "text";
+    /**
+     * Metric log in fixed-width binary records, with resource names stored once per file.
+     *
+     * @since 1.8.2
+     */
+    public static final String METRIC_FILE_FORMAT_BINARY = "binary";
+    /**
+     * System load and CPU usage of the host from {@code OperatingSystemMXBean}.
+     *
+     * @since 1.8.2
+     */
+    public static final String SYSTEM_STATUS_SOURCE_JMX = "jmx";
+    /**
+     * System load and CPU usage of the cgroup of current process, only available on Linux.
+     * The load estimated from cgroup is at most twice the CPUs the cgroup may use, so the
+     * {@code highestSystemLoad} of system rules should be lower than that.
+     *
+     * @since 1.8.2
+     */
+    public static final String SYSTEM_STATUS_SOURCE_CGROUP = "cgroup";
 
     public static final String DEFAULT_CHARSET = "UTF-8";
     public static final long DEFAULT_SINGLE_METRIC_FILE_SIZE = 1024 * 1024 * 50;
@@ -68,6 +142,14 @@ public final class SentinelConfig {
     public static final int DEFAULT_COLD_FACTOR = 3;
     public static final int DEFAULT_STATISTIC_MAX_RT = 5000;
     public static final long DEFAULT_METRIC_FLUSH_INTERVAL = 1L;
+    public static final int MAX_METRIC_BUCKET_STRIPE_COUNT = 64;
+    public static final long DEFAULT_TIME_TICK_ADAPTIVE_THRESHOLD = 1000;
+    public static final int DEFAULT_ORIGIN_NODE_MAX_COUNT = 1000;
+    public static final long DEFAULT_SYSTEM_STATUS_SNAPSHOT_INTERVAL = 10;
+    public static final long MAX_SYSTEM_STATUS_SNAPSHOT_INTERVAL = 1000;
+    public static final long DEFAULT_SYSTEM_STATUS_SAMPLE_INTERVAL = 1000;
+    public static final long DEFAULT_CGROUP_SYSTEM_STATUS_SAMPLE_INTERVAL = 200;
+    public static final long MIN_SYSTEM_STATUS_SAMPLE_INTERVAL = 10;
 
     static {
         try {
@@ -106,6 +188,9 @@ public final class SentinelConfig {
         setConfig(COLD_FACTOR, String.valueOf(DEFAULT_COLD_FACTOR));
         setConfig(STATISTIC_MAX_RT, String.valueOf(DEFAULT_STATISTIC_MAX_RT));
         setConfig(METRIC_FLUSH_INTERVAL, String.valueOf(DEFAULT_METRIC_FLUSH_INTERVAL));
+        setConfig(METRIC_BUCKET_TYPE, METRIC_BUCKET_TYPE_DEFAULT);
+        setConfig(TIME_TICK_MODE, TIME_TICK_MODE_TICK);
+        setConfig(TIME_TICK_ADAPTIVE_THRESHOLD, String.valueOf(DEFAULT_TIME_TICK_ADAPTIVE_THRESHOLD));
     }
 
     private static void loadProps() {
@@ -259,6 +344,286 @@ public final class SentinelConfig {
         }
     }
 
+    /**
+     * Get the type of metric bucket used by the sliding windows.
+     *
+     * @return the metric bucket type, {@link #METRIC_BUCKET_TYPE_DEFAULT} by default
+     * @since 1.8.2
+     */
+    public static String metricBucketType() {
+        String type = props.get(METRIC_BUCKET_TYPE);
+        if (StringUtil.isBlank(type)) {
+            return METRIC_BUCKET_TYPE_DEFAULT;
+        }
+        return type.trim();
+    }
+
+    /**
+     * <p>Get the stripe count of the padded metric bucket. The value is rounded up to a power of 2
+     * and limited to {@link #MAX_METRIC_BUCKET_STRIPE_COUNT}.</p>
+     * <p>By default it is the available processor count (rounded up to a power of 2) but no more than 4,
+     * as each stripe costs a cache line per bucket.</p>
+     *
+     * @return the stripe count of the padded metric bucket
+     * @since 1.8.2
+     */
+    public static int metricBucketStripeCount() {
+        String v = props.get(METRIC_BUCKET_STRIPE_COUNT);
+        int count = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+        if (StringUtil.isNotBlank(v)) {
+            try {
+                count = Integer.parseInt(v.trim());
+            } catch (Throwable throwable) {
+                RecordLog.warn("[SentinelConfig] Invalid metricBucketStripeCount value: {}, using the default value instead",
+                    v, throwable);
+            }
+        }
+        if (count <= 1) {
+            return 1;
+        }
+        if (count >= MAX_METRIC_BUCKET_STRIPE_COUNT) {
+            return MAX_METRIC_BUCKET_STRIPE_COUNT;
+        }
+        return Integer.highestOneBit(count - 1) << 1;
+    }
+
+    /**
+     * Whether the sliding windows replace deprecated buckets via CAS rather than resetting them under a lock.
+     *
+     * @return true if lock-free window rotation is enabled, false by default
+     * @since 1.8.2
+     */
+    public static boolean statisticLockFreeRotation() {
+        return Boolean.parseBoolean(props.get(STATISTIC_LOCK_FREE_ROTATION));
+    }
+
+    /**
+     * Get the clock source mode of {@code TimeUtil}.
+     *
+     * @return the time tick mode, {@link #TIME_TICK_MODE_TICK} by default
+     * @since 1.8.2
+     */
+    public static String timeTickMode() {
+        String mode = props.get(TIME_TICK_MODE);
+        if (StringUtil.isBlank(mode)) {
+            return TIME_TICK_MODE_TICK;
+        }
+        mode = mode.trim();
+        if (TIME_TICK_MODE_SYSTEM.equals(mode) || TIME_TICK_MODE_ADAPTIVE.equals(mode)) {
+            return mode;
+        }
+        if (!TIME_TICK_MODE_TICK.equals(mode)) {
+            RecordLog.warn("[SentinelConfig] Invalid timeTickMode value: {}, using the default value instead: "
+                + TIME_TICK_MODE_TICK, mode);
+        }
+        return TIME_TICK_MODE_TICK;
+    }
+
+    /**
+     * Get the read QPS from which the adaptive clock switches to the tick thread.
+     *
+     * @return the read QPS threshold of the adaptive clock
+     * @since 1.8.2
+     */
+    public static long timeTickAdaptiveThreshold() {
+        String v = props.get(TIME_TICK_ADAPTIVE_THRESHOLD);
+        try {
+            long threshold = Long.parseLong(v);
+            if (threshold > 0) {
+                return threshold;
+            }
+        } catch (Throwable throwable) {
+            // Use the default value.
+        }
+        RecordLog.warn("[SentinelConfig] Invalid timeTickAdaptiveThreshold value: {}, using the default value instead: "
+            + DEFAULT_TIME_TICK_ADAPTIVE_THRESHOLD, v);
+        return DEFAULT_TIME_TICK_ADAPTIVE_THRESHOLD;
+    }
+
+    /**
+     * Get the idle period (in seconds) after which resources with no traffic will be evicted.
+     *
+     * @return the idle timeout of resources in seconds, or 0 if idle resource eviction is disabled (by default)
+     * @since 1.8.2
+     */
+    public static long resourceIdleTimeoutSec() {
+        String v = props.get(RESOURCE_IDLE_TIMEOUT_SEC);
+        if (StringUtil.isBlank(v)) {
+            return 0;
+        }
+        try {
+            return Math.max(Long.parseLong(v.trim()), 0);
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Invalid resourceIdleTimeoutSec value: {}, idle resource eviction "
+                + "will be disabled", v, throwable);
+            return 0;
+        }
+    }
+
+    /**
+     * Whether entry and context objects are reused within each thread rather than created for every invocation.
+     * When enabled, an {@code Entry} must not be accessed any more once it has exited.
+     *
+     * @return true if entry recycling is enabled, false by default
+     * @since 1.8.2
+     */
+    public static boolean entryRecycleEnabled() {
+        return Boolean.parseBoolean(props.get(ENTRY_RECYCLE_ENABLED));
+    }
+
+    /**
+     * Whether the tokens of all cluster flow rules of a resource are requested in one round trip.
+     * Note that the tokens of all cluster rules are taken at once, so when a rule blocks the request,
+     * the tokens of the other rules are still counted by the token server.
+     *
+     * @return true if cluster flow tokens are requested in batch, false by default
+     * @since 1.8.2
+     */
+    public static boolean clusterFlowBatchEnabled() {
+        return Boolean.parseBoolean(props.get(CLUSTER_FLOW_BATCH_ENABLED));
+    }
+
+    /**
+     * Whether resource nodes keep a response time histogram in each statistic window, which provides
+     * the RT percentiles of resources. Each window of the histogram takes a few hundred bytes.
+     *
+     * @return true if RT histogram is enabled, false by default
+     * @since 1.8.2
+     */
+    public static boolean rtHistogramEnabled() {
+        return Boolean.parseBoolean(props.get(RT_HISTOGRAM_ENABLED));
+    }
+
+    /**
+     * Get the max amount of origin nodes kept by each resource. When there are more origins,
+     * the least frequently visited origin nodes will be evicted.
+     *
+     * @return the max amount of origin nodes per resource, {@link #DEFAULT_ORIGIN_NODE_MAX_COUNT} by default
+     * @since 1.8.2
+     */
+    public static int originNodeMaxCount() {
+        String v = props.get(ORIGIN_NODE_MAX_COUNT);
+        if (StringUtil.isBlank(v)) {
+            return DEFAULT_ORIGIN_NODE_MAX_COUNT;
+        }
+        try {
+            int count = Integer.parseInt(v.trim());
+            if (count > 0) {
+                return count;
+            }
+            RecordLog.warn("[SentinelConfig] Invalid originNodeMaxCount value: {}, using the default value instead: {}",
+                v, DEFAULT_ORIGIN_NODE_MAX_COUNT);
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Invalid originNodeMaxCount value: {}, using the default value instead: {}",
+                v, DEFAULT_ORIGIN_NODE_MAX_COUNT, throwable);
+        }
+        return DEFAULT_ORIGIN_NODE_MAX_COUNT;
+    }
+
+    /**
+     * Whether origin nodes only count passed and blocked requests. Compact origin nodes take much less memory,
+     * but report no RT, success or exception statistics, and don't support occupying future tokens.
+     *
+     * @return true if compact origin nodes are enabled, false by default
+     * @since 1.8.2
+     */
+    public static boolean originNodeCompactEnabled() {
+        return Boolean.parseBoolean(props.get(ORIGIN_NODE_COMPACT_ENABLED));
+    }
+
+    /**
+     * Get the interval (in milliseconds) at which system rules refresh their snapshot of the inbound statistics
+     * (QPS, thread count and RT). The system check may thus see inbound statistics that are up to one interval old.
+     * The value is limited to {@link #MAX_SYSTEM_STATUS_SNAPSHOT_INTERVAL}, and takes effect when system rules
+     * are updated.
+     *
+     * @return the snapshot interval of system status in milliseconds, {@link #DEFAULT_SYSTEM_STATUS_SNAPSHOT_INTERVAL}
+     * by default, or 0 if the statistics are read on every check
+     * @since 1.8.2
+     */
+    public static long systemStatusSnapshotIntervalMs() {
+        String v = props.get(SYSTEM_STATUS_SNAPSHOT_INTERVAL);
+        if (StringUtil.isBlank(v)) {
+            return DEFAULT_SYSTEM_STATUS_SNAPSHOT_INTERVAL;
+        }
+        try {
+            long interval = Long.parseLong(v.trim());
+            return Math.min(Math.max(interval, 0), MAX_SYSTEM_STATUS_SNAPSHOT_INTERVAL);
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Invalid systemStatusSnapshotInterval value: {}, using the default value "
+                + "instead: {}", v, DEFAULT_SYSTEM_STATUS_SNAPSHOT_INTERVAL, throwable);
+            return DEFAULT_SYSTEM_STATUS_SNAPSHOT_INTERVAL;
+        }
+    }
+
+    /**
+     * Get the source of system load and CPU usage checked by system rules.
+     *
+     * @return the system status source, {@link #SYSTEM_STATUS_SOURCE_JMX} by default
+     * @since 1.8.2
+     */
+    public static String systemStatusSource() {
+        String source = props.get(SYSTEM_STATUS_SOURCE);
+        if (StringUtil.isBlank(source)) {
+            return SYSTEM_STATUS_SOURCE_JMX;
+        }
+        source = source.trim();
+        if (SYSTEM_STATUS_SOURCE_CGROUP.equals(source)) {
+            return source;
+        }
+        if (!SYSTEM_STATUS_SOURCE_JMX.equals(source)) {
+            RecordLog.warn("[SentinelConfig] Invalid systemStatusSource value: {}, using the default value instead: "
+                + SYSTEM_STATUS_SOURCE_JMX, source);
+        }
+        return SYSTEM_STATUS_SOURCE_JMX;
+    }
+
+    /**
+     * Get the interval (in milliseconds) of sampling system load and CPU usage, which is no less than
+     * {@link #MIN_SYSTEM_STATUS_SAMPLE_INTERVAL}.
+     *
+     * @return the sample interval of system status in milliseconds, {@link #DEFAULT_SYSTEM_STATUS_SAMPLE_INTERVAL}
+     * by default, or {@link #DEFAULT_CGROUP_SYSTEM_STATUS_SAMPLE_INTERVAL} if sampled from cgroup
+     * @since 1.8.2
+     */
+    public static long systemStatusSampleIntervalMs() {
+        long defaultInterval = SYSTEM_STATUS_SOURCE_CGROUP.equals(systemStatusSource())
+            ? DEFAULT_CGROUP_SYSTEM_STATUS_SAMPLE_INTERVAL : DEFAULT_SYSTEM_STATUS_SAMPLE_INTERVAL;
+        String v = props.get(SYSTEM_STATUS_SAMPLE_INTERVAL);
+        if (StringUtil.isBlank(v)) {
+            return defaultInterval;
+        }
+        try {
+            return Math.max(Long.parseLong(v.trim()), MIN_SYSTEM_STATUS_SAMPLE_INTERVAL);
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Invalid systemStatusSampleInterval value: {}, using the default value "
+                + "instead: {}", v, defaultInterval, throwable);
+            return defaultInterval;
+        }
+    }
+
+    /**
+     * Get the format of metric log files written by {@code MetricWriter}.
+     *
+     * @return the metric file format, {@link #METRIC_FILE_FORMAT_TEXT} by default
+     * @since 1.8.2
+     */
+    public static String metricFileFormat() {
+        String format = props.get(METRIC_FILE_FORMAT);
+        if (StringUtil.isBlank(format)) {
+            return METRIC_FILE_FORMAT_TEXT;
+        }
+        format = format.trim();
+        if (METRIC_FILE_FORMAT_BINARY.equals(format)) {
+            return format;
+        }
+        if (!METRIC_FILE_FORMAT_TEXT.equals(format)) {
+            RecordLog.warn("[SentinelConfig] Invalid metricFileFormat value: {}, using the default value instead: "
+                + METRIC_FILE_FORMAT_TEXT, format);
+        }
+        return METRIC_FILE_FORMAT_TEXT;
+    }
+
     /**
      * Function for resolving project name. The order is elaborated below:
      *
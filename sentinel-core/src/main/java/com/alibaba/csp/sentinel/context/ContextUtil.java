@@ -49,6 +49,12 @@ public class ContextUtil {
      */
     private static ThreadLocal<Context> contextHolder = new ThreadLocal<>();
 
+    /**
+     * The last exited context of current thread, which could be reused when entering the same context again.
+     * Only used when {@link Constants#ENTRY_RECYCLE} is enabled.
+     */
+    private static final ThreadLocal<Context> spareContextHolder = new ThreadLocal<>();
+
     /**
      * Holds all {@link EntranceNode}. Each {@link EntranceNode} is associated with a distinct context name.
      */
@@ -150,7 +156,10 @@ public class ContextUtil {
                     }
                 }
             }
-            context = new Context(node, name);
+            context = Constants.ENTRY_RECYCLE ? takeSpareContext(node, name) : null;
+            if (context == null) {
+                context = new Context(node, name);
+            }
             context.setOrigin(origin);
             contextHolder.set(context);
         }
@@ -158,6 +167,19 @@ public class ContextUtil {
         return context;
     }
 
+    private static Context takeSpareContext(DefaultNode node, String name) {
+        Context spare = spareContextHolder.get();
+        if (spare == null) {
+            return null;
+        }
+        // The spare context should never be shared, even if it can't be reused this time.
+        spareContextHolder.set(null);
+        if (spare.getEntranceNode() == node && spare.getName().equals(name)) {
+            return spare;
+        }
+        return null;
+    }
+
     private static boolean shouldWarn = true;
 
     private static void setNullContext() {
@@ -195,12 +217,17 @@ public class ContextUtil {
 
     /**
      * Exit context of current thread, that is removing {@link Context} in the
-     * ThreadLocal.
+     * ThreadLocal. If {@link Constants#ENTRY_RECYCLE} is enabled, the exited context
+     * may be reused by the next {@code enter} of current thread, so it should not be
+     * accessed any more.
      */
     public static void exit() {
         Context context = contextHolder.get();
         if (context != null && context.getCurEntry() == null) {
             contextHolder.set(null);
+            if (Constants.ENTRY_RECYCLE && !(context instanceof NullContext) && !context.isAsync()) {
+                spareContextHolder.set(context);
+            }
         }
     }
 
@@ -15,11 +15,16 @@
  */
 package com.alibaba.csp.sentinel.node;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.util.AssertUtil;
@@ -38,12 +43,24 @@ import com.alibaba.csp.sentinel.util.AssertUtil;
  * origin.<br/>
  * Note that 'origin' usually is Service Consumer's app name.
  * </p>
+ * <p>
+ * The amount of origin nodes of a resource is limited by {@link SentinelConfig#ORIGIN_NODE_MAX_COUNT}.
+ * When it's exceeded, the least frequently visited origin nodes (by requests in the last minute) will be
+ * evicted, and recreated with clean statistics on their next visit. With
+ * {@link SentinelConfig#ORIGIN_NODE_COMPACT_ENABLED}, origin nodes will be {@link CompactStatisticNode}s
+ * which only count passed and blocked requests.
+ * </p>
  *
  * @author qinan.qn
  * @author jialiang.linjl
  */
 public class ClusterNode extends StatisticNode {
 
+    /**
+     * When the origin nodes exceed the limit, evict an extra {@code 1/EVICT_BATCH_DIVISOR} of the limit.
+     */
+    private static final int EVICT_BATCH_DIVISOR = 10;
+
     private final String name;
     private final int resourceType;
 
@@ -52,6 +69,7 @@ public class ClusterNode extends StatisticNode {
     }
 
     public ClusterNode(String name, int resourceType) {
+        super(SentinelConfig.rtHistogramEnabled());
         AssertUtil.notEmpty(name, "name cannot be empty");
         this.name = name;
         this.resourceType = resourceType;
@@ -60,15 +78,17 @@ public class ClusterNode extends StatisticNode {
     /**
      * <p>The origin map holds the pair: (origin, originNode) for one specific resource.</p>
      * <p>
-     * The longer the application runs, the more stable this mapping will become.
-     * So we didn't use concurrent map here, but a lock, as this lock only happens
-     * at the very beginning while concurrent map will hold the lock all the time.
+     * The longer the application runs, the more stable this mapping will become, so reading is lock-free
+     * and the lock is only held for evicting origin nodes.
      * </p>
      */
-    private Map<String, StatisticNode> originCountMap = new HashMap<>();
+    private final ConcurrentMap<String, StatisticNode> originCountMap = new ConcurrentHashMap<>();
 
     private final ReentrantLock lock = new ReentrantLock();
 
+    private final int maxOriginCount = SentinelConfig.originNodeMaxCount();
+    private final boolean compactOriginNode = SentinelConfig.originNodeCompactEnabled();
+
     /**
      * Get resource name of the resource node.
      *
@@ -101,26 +121,82 @@ public class ClusterNode extends StatisticNode {
     public Node getOrCreateOriginNode(String origin) {
         StatisticNode statisticNode = originCountMap.get(origin);
         if (statisticNode == null) {
-            lock.lock();
-            try {
-                statisticNode = originCountMap.get(origin);
-                if (statisticNode == null) {
-                    // The node is absent, create a new node for the origin.
-                    statisticNode = new StatisticNode();
-                    HashMap<String, StatisticNode> newMap = new HashMap<>(originCountMap.size() + 1);
-                    newMap.putAll(originCountMap);
-                    newMap.put(origin, statisticNode);
-                    originCountMap = newMap;
+            // The node is absent, create a new node for the origin.
+            StatisticNode newNode = compactOriginNode ? new CompactStatisticNode() : new StatisticNode();
+            statisticNode = originCountMap.putIfAbsent(origin, newNode);
+            if (statisticNode == null) {
+                statisticNode = newNode;
+                if (originCountMap.size() > maxOriginCount) {
+                    evictOriginNodes(origin);
                 }
-            } finally {
-                lock.unlock();
             }
         }
         return statisticNode;
     }
 
+    /**
+     * Evict the least frequently visited origin nodes, so that the amount of origin nodes goes below the limit.
+     * A batch of nodes are evicted at once, so the nodes won't be scanned for each new origin. Nodes with
+     * threads in process and the node just created are never evicted. If another thread is evicting,
+     * this is skipped.
+     *
+     * @param newOrigin the origin just created
+     */
+    private void evictOriginNodes(String newOrigin) {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            int overflow = originCountMap.size() - maxOriginCount;
+            if (overflow <= 0) {
+                return;
+            }
+            int evictCount = overflow + maxOriginCount / EVICT_BATCH_DIVISOR;
+            List<OriginFrequency> candidates = new ArrayList<>(originCountMap.size());
+            for (Map.Entry<String, StatisticNode> e : originCountMap.entrySet()) {
+                StatisticNode node = e.getValue();
+                if (!e.getKey().equals(newOrigin) && node.curThreadNum() <= 0) {
+                    candidates.add(new OriginFrequency(e.getKey(), node, node.totalRequest()));
+                }
+            }
+            Collections.sort(candidates);
+            for (int i = 0; i < evictCount && i < candidates.size(); i++) {
+                OriginFrequency candidate = candidates.get(i);
+                originCountMap.remove(candidate.origin, candidate.node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the origin nodes of this resource. The map is backed by the resource, so it reflects
+     * newly created and evicted origins.
+     *
+     * @return unmodifiable map of origin nodes
+     */
     public Map<String, StatisticNode> getOriginCountMap() {
-        return originCountMap;
+        return Collections.unmodifiableMap(originCountMap);
     }
 
+    /**
+     * Amount of requests of an origin in the last minute, snapshot for sorting.
+     */
+    private static class OriginFrequency implements Comparable<OriginFrequency> {
+
+        private final String origin;
+        private final StatisticNode node;
+        private final long totalRequest;
+
+        OriginFrequency(String origin, StatisticNode node, long totalRequest) {
+            this.origin = origin;
+            this.node = node;
+            this.totalRequest = totalRequest;
+        }
+
+        @Override
+        public int compareTo(OriginFrequency o) {
+            return Long.compare(totalRequest, o.totalRequest);
+        }
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
+import com.alibaba.csp.sentinel.slots.statistic.metric.CompactBucketLeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.metric.Metric;
+
+/**
+ * <p>A {@link StatisticNode} which only counts passed and blocked requests (and the thread count),
+ * see {@link com.alibaba.csp.sentinel.slots.statistic.data.CompactMetricBucket}. Each bucket holds two
+ * longs instead of a counter per metric event, so the node takes much less memory than a full
+ * statistic node. It's used for origin nodes when
+ * {@link com.alibaba.csp.sentinel.config.SentinelConfig#ORIGIN_NODE_COMPACT_ENABLED} is on.</p>
+ *
+ * <p>RT, success and exception statistics are always 0, and occupying future tokens is not supported.</p>
+ *
+ * @since 1.8.2
+ */
+public class CompactStatisticNode extends StatisticNode {
+
+    @Override
+    protected Metric newRollingCounterInSecond() {
+        return new ArrayMetric(new CompactBucketLeapArray(SampleCountProperty.SAMPLE_COUNT,
+            IntervalProperty.INTERVAL));
+    }
+
+    @Override
+    protected Metric newRollingCounterInMinute() {
+        return new ArrayMetric(new CompactBucketLeapArray(60, 60 * 1000));
+    }
+
+    @Override
+    public long tryOccupyNext(long currentTime, int acquireCount, double threshold) {
+        // Waiting requests are not recorded, so never occupy.
+        return OccupyTimeoutProperty.getOccupyTimeout();
+    }
+}
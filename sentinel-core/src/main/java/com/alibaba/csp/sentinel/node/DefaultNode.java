@@ -95,6 +95,28 @@ public class DefaultNode extends StatisticNode {
         }
     }
 
+    /**
+     * Remove the child node from this node.
+     *
+     * @param node the child node to remove
+     * @return true if the child node has been removed
+     * @since 1.8.2
+     */
+    public boolean removeChild(Node node) {
+        if (node == null || !childList.contains(node)) {
+            return false;
+        }
+        synchronized (this) {
+            if (!childList.contains(node)) {
+                return false;
+            }
+            Set<Node> newSet = new HashSet<>(childList);
+            newSet.remove(node);
+            childList = newSet;
+        }
+        return true;
+    }
+
     /**
      * Reset the child node list.
      */
@@ -124,6 +124,57 @@ public interface Node extends OccupySupport, DebugSupport {
      */
     double minRt();
 
+    /**
+     * Get the response time percentile of recent statistic window, e.g. {@code rtPercentile(0.99)} for p99.
+     *
+     * @param percentile the percentile in (0, 1]
+     * @return the RT percentile, or 0 if not recorded
+     * @since 1.8.2
+     */
+    default long rtPercentile(double percentile) {
+        return 0;
+    }
+
+    /**
+     * Get the median response time.
+     *
+     * @return p50 response time, or 0 if not recorded
+     * @since 1.8.2
+     */
+    default long p50Rt() {
+        return rtPercentile(0.5);
+    }
+
+    /**
+     * Get the 90th percentile response time.
+     *
+     * @return p90 response time, or 0 if not recorded
+     * @since 1.8.2
+     */
+    default long p90Rt() {
+        return rtPercentile(0.9);
+    }
+
+    /**
+     * Get the 99th percentile response time.
+     *
+     * @return p99 response time, or 0 if not recorded
+     * @since 1.8.2
+     */
+    default long p99Rt() {
+        return rtPercentile(0.99);
+    }
+
+    /**
+     * Get the 99.9th percentile response time.
+     *
+     * @return p999 response time, or 0 if not recorded
+     * @since 1.8.2
+     */
+    default long p999Rt() {
+        return rtPercentile(0.999);
+    }
+
     /**
      * Get current active thread count.
      *
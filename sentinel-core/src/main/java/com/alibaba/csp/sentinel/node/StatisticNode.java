@@ -93,14 +93,18 @@ public class StatisticNode implements Node {
      * Holds statistics of the recent {@code INTERVAL} milliseconds. The {@code INTERVAL} is divided into time spans
      * by given {@code sampleCount}.
      */
-    private transient volatile Metric rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT,
-        IntervalProperty.INTERVAL);
+    private transient volatile Metric rollingCounterInSecond;
 
     /**
      * Holds statistics of the recent 60 seconds. The windowLengthInMs is deliberately set to 1000 milliseconds,
      * meaning each bucket per second, in this way we can get accurate statistics of each second.
      */
-    private transient Metric rollingCounterInMinute = new ArrayMetric(60, 60 * 1000, false);
+    private transient Metric rollingCounterInMinute;
+
+    /**
+     * Whether the rolling counters record RT histogram (for RT percentiles).
+     */
+    private final boolean rtHistogramEnabled;
 
     /**
      * The counter for thread count.
@@ -112,6 +116,42 @@ public class StatisticNode implements Node {
      */
     private long lastFetchTime = -1;
 
+    public StatisticNode() {
+        this(false);
+    }
+
+    /**
+     * @param rtHistogramEnabled whether to record RT histogram, which provides the RT percentiles
+     * @since 1.8.2
+     */
+    protected StatisticNode(boolean rtHistogramEnabled) {
+        this.rtHistogramEnabled = rtHistogramEnabled;
+        this.rollingCounterInSecond = newRollingCounterInSecond();
+        this.rollingCounterInMinute = newRollingCounterInMinute();
+    }
+
+    /**
+     * Create the counter of the recent {@code INTERVAL} milliseconds. Subclasses may use a lighter metric.
+     * Note that this is called in the constructor, before the fields of subclasses are initialized.
+     *
+     * @return new counter of the recent {@code INTERVAL} milliseconds
+     * @since 1.8.2
+     */
+    protected Metric newRollingCounterInSecond() {
+        return new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL, true, rtHistogramEnabled);
+    }
+
+    /**
+     * Create the counter of the recent 60 seconds, with one bucket per second. Subclasses may use a lighter metric.
+     * Note that this is called in the constructor, before the fields of subclasses are initialized.
+     *
+     * @return new counter of the recent 60 seconds
+     * @since 1.8.2
+     */
+    protected Metric newRollingCounterInMinute() {
+        return new ArrayMetric(60, 60 * 1000, false, rtHistogramEnabled);
+    }
+
     @Override
     public Map<Long, MetricNode> metrics() {
         // The fetch operation is thread-safe under a single-thread scheduler pool.
@@ -137,6 +177,19 @@ public class StatisticNode implements Node {
         return rollingCounterInMinute.detailsOnCondition(timePredicate);
     }
 
+    /**
+     * Fill the metrics of the second starting at given time into given node, without creating new objects.
+     * Unlike {@link #metrics()}, this does not track the last fetch time.
+     *
+     * @param secondStart start time of the second, in milliseconds
+     * @param node        the node to fill
+     * @return true if there are valid metrics in that second
+     * @since 1.8.2
+     */
+    public boolean fillMetricsOfSecond(long secondStart, MetricNode node) {
+        return rollingCounterInMinute.fillDetail(secondStart, node) && isValidMetricNode(node);
+    }
+
     private boolean isNodeInTime(MetricNode node, long currentTime) {
         return node.getTimestamp() > lastFetchTime && node.getTimestamp() < currentTime;
     }
@@ -148,7 +201,7 @@ public class StatisticNode implements Node {
 
     @Override
     public void reset() {
-        rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL);
+        rollingCounterInSecond = newRollingCounterInSecond();
     }
 
     @Override
@@ -237,6 +290,31 @@ public class StatisticNode implements Node {
         return rollingCounterInSecond.minRt();
     }
 
+    @Override
+    public long rtPercentile(double percentile) {
+        return rollingCounterInSecond.rtPercentile(percentile);
+    }
+
+    @Override
+    public long p50Rt() {
+        return rtPercentile(0.5);
+    }
+
+    @Override
+    public long p90Rt() {
+        return rtPercentile(0.9);
+    }
+
+    @Override
+    public long p99Rt() {
+        return rtPercentile(0.99);
+    }
+
+    @Override
+    public long p999Rt() {
+        return rtPercentile(0.999);
+    }
+
     @Override
     public int curThreadNum() {
         return (int)curThreadNum.sum();
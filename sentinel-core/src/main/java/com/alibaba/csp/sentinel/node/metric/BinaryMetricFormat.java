@@ -0,0 +1,151 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+/**
+ * <p>Layout of the binary metric files ({@link SentinelConfig#METRIC_FILE_FORMAT_BINARY}):</p>
+ * <ul>
+ * <li>metric file: a header ({@link #MAGIC} and {@link #VERSION}), then fixed-width records of
+ * {@link #RECORD_SIZE} bytes: {@code timestamp, nameId, classification, passQps, blockQps, successQps,
+ * exceptionQps, rt, occupiedPassQps, concurrency, p50Rt, p90Rt, p99Rt, p999Rt};</li>
+ * <li>names file ({@code ${metricFileName}.names}): resource names in modified UTF-8, the {@code nameId}
+ * of a record is the position of its resource name in this file. Each name is written once per metric file,
+ * and always flushed before the records that refer to it;</li>
+ * <li>index file: same as the text format, {@code (second, offset)} pairs of 16 bytes.</li>
+ * </ul>
+ *
+ * @since 1.8.2
+ */
+final class BinaryMetricFormat {
+
+    static final int MAGIC = 0x534D4246;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 84;
+
+    static final String NAMES_FILE_SUFFIX = ".names";
+
+    static String formNamesFileName(String metricFileName) {
+        return metricFileName + NAMES_FILE_SUFFIX;
+    }
+
+    static void writeHeader(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    static void writeRecord(DataOutput out, MetricNode node, int nameId) throws IOException {
+        out.writeLong(node.getTimestamp());
+        out.writeInt(nameId);
+        out.writeInt(node.getClassification());
+        out.writeLong(node.getPassQps());
+        out.writeLong(node.getBlockQps());
+        out.writeLong(node.getSuccessQps());
+        out.writeLong(node.getExceptionQps());
+        out.writeLong(node.getRt());
+        out.writeLong(node.getOccupiedPassQps());
+        out.writeInt(node.getConcurrency());
+        out.writeInt((int)node.getP50Rt());
+        out.writeInt((int)node.getP90Rt());
+        out.writeInt((int)node.getP99Rt());
+        out.writeInt((int)node.getP999Rt());
+    }
+
+    static long timestampAt(ByteBuffer buf, int pos) {
+        return buf.getLong(pos);
+    }
+
+    static int nameIdAt(ByteBuffer buf, int pos) {
+        return buf.getInt(pos + 8);
+    }
+
+    static MetricNode readRecord(ByteBuffer buf, int pos, String resource) {
+        MetricNode node = new MetricNode();
+        node.setTimestamp(buf.getLong(pos));
+        node.setResource(resource);
+        node.setClassification(buf.getInt(pos + 12));
+        node.setPassQps(buf.getLong(pos + 16));
+        node.setBlockQps(buf.getLong(pos + 24));
+        node.setSuccessQps(buf.getLong(pos + 32));
+        node.setExceptionQps(buf.getLong(pos + 40));
+        node.setRt(buf.getLong(pos + 48));
+        node.setOccupiedPassQps(buf.getLong(pos + 56));
+        node.setConcurrency(buf.getInt(pos + 64));
+        node.setP50Rt(buf.getInt(pos + 68));
+        node.setP90Rt(buf.getInt(pos + 72));
+        node.setP99Rt(buf.getInt(pos + 76));
+        node.setP999Rt(buf.getInt(pos + 80));
+        return node;
+    }
+
+    /**
+     * Check whether given metric file is in binary format, according to the file header.
+     */
+    static boolean isBinaryFile(String fileName) {
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(fileName, "r");
+            return file.length() >= HEADER_SIZE && file.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the resource names of given metric file, indexed by name id.
+     */
+    static List<String> readNames(String metricFileName) throws IOException {
+        List<String> names = new ArrayList<String>();
+        File namesFile = new File(formNamesFileName(metricFileName));
+        if (!namesFile.exists()) {
+            return names;
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(namesFile)));
+        try {
+            while (true) {
+                names.add(in.readUTF());
+            }
+        } catch (EOFException ignore) {
+            // A name may be partially written at the end, which will be read next time.
+        } finally {
+            in.close();
+        }
+        return names;
+    }
+
+    private BinaryMetricFormat() {}
+}
@@ -19,6 +19,8 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
 /**
  * Metrics data for a specific resource at given {@code timestamp}.
  *
@@ -50,6 +52,15 @@ public class MetricNode {
      */
     private int concurrency;
 
+    /**
+     * RT percentiles of the second, only available when RT histogram is enabled.
+     * @since 1.8.2
+     */
+    private long p50Rt;
+    private long p90Rt;
+    private long p99Rt;
+    private long p999Rt;
+
     public long getTimestamp() {
         return timestamp;
     }
@@ -132,6 +143,38 @@ public class MetricNode {
         return this;
     }
 
+    public long getP50Rt() {
+        return p50Rt;
+    }
+
+    public void setP50Rt(long p50Rt) {
+        this.p50Rt = p50Rt;
+    }
+
+    public long getP90Rt() {
+        return p90Rt;
+    }
+
+    public void setP90Rt(long p90Rt) {
+        this.p90Rt = p90Rt;
+    }
+
+    public long getP99Rt() {
+        return p99Rt;
+    }
+
+    public void setP99Rt(long p99Rt) {
+        this.p99Rt = p99Rt;
+    }
+
+    public long getP999Rt() {
+        return p999Rt;
+    }
+
+    public void setP999Rt(long p999Rt) {
+        this.p999Rt = p999Rt;
+    }
+
     @Override
     public String toString() {
         return "MetricNode{" +
@@ -145,6 +188,10 @@ public class MetricNode {
             ", rt=" + rt +
             ", concurrency=" + concurrency +
             ", occupiedPassQps=" + occupiedPassQps +
+            ", p50Rt=" + p50Rt +
+            ", p90Rt=" + p90Rt +
+            ", p99Rt=" + p99Rt +
+            ", p999Rt=" + p999Rt +
             '}';
     }
 
@@ -158,6 +205,18 @@ public class MetricNode {
      * @return string format of this.
      */
     public String toThinString() {
+        return toThinString(false);
+    }
+
+    /**
+     * To formatting string, see {@link #toThinString()}. If {@code withRtPercentiles} is true,
+     * {@code |p50Rt|p90Rt|p99Rt|p999Rt} will be appended.
+     *
+     * @param withRtPercentiles whether to append the RT percentiles
+     * @return string format of this.
+     * @since 1.8.2
+     */
+    public String toThinString(boolean withRtPercentiles) {
         StringBuilder sb = new StringBuilder();
         sb.append(timestamp).append("|");
         String legalName = resource.replaceAll("\\|", "_");
@@ -170,6 +229,9 @@ public class MetricNode {
         sb.append(occupiedPassQps).append("|");
         sb.append(concurrency).append("|");
         sb.append(classification);
+        if (withRtPercentiles) {
+            appendRtPercentiles(sb);
+        }
         return sb.toString();
     }
 
@@ -195,9 +257,12 @@ public class MetricNode {
         if (strs.length >= 9) {
             node.setConcurrency(Integer.parseInt(strs[8]));
         }
-        if (strs.length == 10) {
+        if (strs.length >= 10) {
             node.setClassification(Integer.parseInt(strs[9]));
         }
+        if (strs.length >= 14) {
+            parseRtPercentiles(node, strs, 10);
+        }
         return node;
     }
 
@@ -205,19 +270,35 @@ public class MetricNode {
      * To formatting string. All "|" in {@link MetricNode#resource} will be
      * replaced with "_", format is: <br/>
      * <code>
-     * timestamp|yyyy-MM-dd HH:mm:ss|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps\n
+     * timestamp|yyyy-MM-dd HH:mm:ss|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps
+     * |concurrency|classification\n
      * </code>
+     * If RT histogram is enabled (see {@link SentinelConfig#rtHistogramEnabled()}),
+     * {@code |p50Rt|p90Rt|p99Rt|p999Rt} will be appended before the line break.
      *
      * @return string format of this.
      */
     public String toFatString() {
         DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         StringBuilder sb = new StringBuilder(32);
-        sb.delete(0, sb.length());
+        appendFatString(sb, df.format(new Date(getTimestamp())), SentinelConfig.rtHistogramEnabled());
+        return sb.toString();
+    }
+
+    /**
+     * Append the fat string of this node to given builder, see {@link #toFatString()}.
+     * The formatted time is given by caller, so it can be shared by all nodes of the same second.
+     *
+     * @param sb                the builder to append to
+     * @param dateTime          timestamp of this node in the format of {@code yyyy-MM-dd HH:mm:ss}
+     * @param withRtPercentiles whether to append the RT percentiles
+     * @since 1.8.2
+     */
+    void appendFatString(StringBuilder sb, String dateTime, boolean withRtPercentiles) {
         sb.append(getTimestamp()).append("|");
-        sb.append(df.format(new Date(getTimestamp()))).append("|");
-        String legalName = getResource().replaceAll("\\|", "_");
-        sb.append(legalName).append("|");
+        sb.append(dateTime).append("|");
+        String name = getResource();
+        sb.append(name.indexOf('|') < 0 ? name : name.replace('|', '_')).append("|");
         sb.append(getPassQps()).append("|");
         sb.append(getBlockQps()).append("|");
         sb.append(getSuccessQps()).append("|");
@@ -226,8 +307,10 @@ public class MetricNode {
         sb.append(getOccupiedPassQps()).append("|");
         sb.append(concurrency).append("|");
         sb.append(classification);
+        if (withRtPercentiles) {
+            appendRtPercentiles(sb);
+        }
         sb.append('\n');
-        return sb.toString();
     }
 
     /**
@@ -253,10 +336,27 @@ public class MetricNode {
         if (strs.length >= 10) {
             node.setConcurrency(Integer.parseInt(strs[9]));
         }
-        if (strs.length == 11) {
+        if (strs.length >= 11) {
             node.setClassification(Integer.parseInt(strs[10]));
         }
+        if (strs.length >= 15) {
+            parseRtPercentiles(node, strs, 11);
+        }
         return node;
     }
 
+    private void appendRtPercentiles(StringBuilder sb) {
+        sb.append("|").append(p50Rt);
+        sb.append("|").append(p90Rt);
+        sb.append("|").append(p99Rt);
+        sb.append("|").append(p999Rt);
+    }
+
+    private static void parseRtPercentiles(MetricNode node, String[] strs, int from) {
+        node.setP50Rt(Long.parseLong(strs[from]));
+        node.setP90Rt(Long.parseLong(strs[from + 1]));
+        node.setP99Rt(Long.parseLong(strs[from + 2]));
+        node.setP999Rt(Long.parseLong(strs[from + 3]));
+    }
+
 }
@@ -16,9 +16,11 @@
 package com.alibaba.csp.sentinel.node.metric;
 
 import java.io.DataInputStream;
-import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.List;
 
@@ -27,13 +29,17 @@ import com.alibaba.csp.sentinel.config.SentinelConfig;
 /**
  * 从指定目录下找出所有的metric文件，并按照指定时间戳进行检索，参考{@link MetricSearcher#find(long, int)}。
  * 会借助索引以提高检索效率，参考{@link MetricWriter}；还会在内部缓存上一次检索的文件指针，以便下一次顺序检索时
- * 减少读盘次数。
+ * 减少读盘次数。索引文件通过内存映射读取，并对索引项进行二分查找。文本和二进制格式的metric文件均可检索。
  *
  * @author leyou
  */
 public class MetricSearcher {
 
     private static final Charset defaultCharset = Charset.forName(SentinelConfig.charset());
+    /**
+     * Each index entry is a pair of (second, offset).
+     */
+    private static final int INDEX_ENTRY_SIZE = 16;
     private final MetricsReader metricsReader;
 
     private String baseDir;
@@ -190,6 +196,11 @@ public class MetricSearcher {
         }
     }
 
+    /**
+     * Find the offset of the first second which is not earlier than {@code beginTime} in given metric file.
+     * The index file is memory-mapped, and the index entries are binary searched, as the seconds are
+     * written in ascending order.
+     */
     private long findOffset(long beginTime, String metricFileName,
                             String idxFileName, long offsetInIndex) throws Exception {
         lastPosition.metricFileName = null;
@@ -198,26 +209,37 @@ public class MetricSearcher {
             return -1;
         }
         long beginSecond = beginTime / 1000;
-        FileInputStream in = new FileInputStream(idxFileName);
-        in.getChannel().position(offsetInIndex);
-        DataInputStream indexIn = new DataInputStream(in);
-        long offset;
+        RandomAccessFile in = new RandomAccessFile(idxFileName, "r");
         try {
-            long second;
-            lastPosition.offsetInIndex = in.getChannel().position();
-            while ((second = indexIn.readLong()) < beginSecond) {
-                offset = indexIn.readLong();
-                lastPosition.offsetInIndex = in.getChannel().position();
+            FileChannel channel = in.getChannel();
+            // Ignore the entry being written, if any.
+            long count = (channel.size() - offsetInIndex) / INDEX_ENTRY_SIZE;
+            if (count <= 0) {
+                return -1;
             }
-            offset = indexIn.readLong();
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, offsetInIndex,
+                count * INDEX_ENTRY_SIZE);
+            int low = 0;
+            int high = (int)count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (index.getLong(mid * INDEX_ENTRY_SIZE) < beginSecond) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == count) {
+                return -1;
+            }
+            int pos = low * INDEX_ENTRY_SIZE;
+            lastPosition.offsetInIndex = offsetInIndex + pos;
             lastPosition.metricFileName = metricFileName;
             lastPosition.indexFileName = idxFileName;
-            lastPosition.second = second;
-            return offset;
-        } catch (EOFException ignore) {
-            return -1;
+            lastPosition.second = index.getLong(pos);
+            return index.getLong(pos + 8);
         } finally {
-            indexIn.close();
+            in.close();
         }
     }
 }
@@ -15,20 +15,22 @@
  */
 package com.alibaba.csp.sentinel.node.metric;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.TreeMap;
 
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.ClusterNode;
-import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
+ * <p>Writes the metrics of every second to the metric log.</p>
+ *
+ * <p>Each run iterates the cluster nodes only once, filling the metrics of the seconds not yet written
+ * into snapshot buffers which are reused across runs, then writes the snapshots second by second.</p>
+ *
  * @author jialiang.linjl
  */
 public class MetricTimerListener implements Runnable {
@@ -36,36 +38,100 @@ public class MetricTimerListener implements Runnable {
     private static final MetricWriter metricWriter = new MetricWriter(SentinelConfig.singleMetricFileSize(),
         SentinelConfig.totalMetricFileCount());
 
+    /**
+     * The rolling counter of nodes keeps metrics of the recent 60 seconds, including the current one.
+     */
+    private static final int MAX_PENDING_SECONDS = 59;
+
+    private final MetricWriter writer;
+
+    /**
+     * Snapshot buffers of the pending seconds, the first {@code snapshotCounts[i]} nodes of
+     * {@code snapshots[i]} are valid.
+     */
+    private final MetricNode[][] snapshots = new MetricNode[MAX_PENDING_SECONDS][];
+    private final int[] snapshotCounts = new int[MAX_PENDING_SECONDS];
+
+    /**
+     * Start time of the last second written.
+     */
+    private long lastWrittenTime = -1;
+
+    public MetricTimerListener() {
+        this(metricWriter);
+    }
+
+    /**
+     * @param writer the writer which the metrics are written to
+     * @since 1.8.2
+     */
+    public MetricTimerListener(MetricWriter writer) {
+        this.writer = writer;
+        for (int i = 0; i < MAX_PENDING_SECONDS; i++) {
+            snapshots[i] = new MetricNode[16];
+        }
+    }
+
     @Override
     public void run() {
-        Map<Long, List<MetricNode>> maps = new TreeMap<>();
-        for (Entry<ResourceWrapper, ClusterNode> e : ClusterBuilderSlot.getClusterNodeMap().entrySet()) {
-            ClusterNode node = e.getValue();
-            Map<Long, MetricNode> metrics = node.metrics();
-            aggregate(maps, metrics, node);
+        long currentTime = TimeUtil.currentTimeMillis();
+        writeMetricsBefore(currentTime - currentTime % 1000);
+    }
+
+    /**
+     * Write the metrics of all seconds before given time which have not been written.
+     *
+     * @param currentSecond start time of the current second, whose metrics are still in progress
+     * @since 1.8.2
+     */
+    public void writeMetricsBefore(long currentSecond) {
+        long firstSecond = Math.max(lastWrittenTime + 1000, currentSecond - MAX_PENDING_SECONDS * 1000);
+        int pendingSeconds = (int)((currentSecond - firstSecond) / 1000);
+        if (pendingSeconds <= 0) {
+            return;
         }
-        aggregate(maps, Constants.ENTRY_NODE.metrics(), Constants.ENTRY_NODE);
-        if (!maps.isEmpty()) {
-            for (Entry<Long, List<MetricNode>> entry : maps.entrySet()) {
-                try {
-                    metricWriter.write(entry.getKey(), entry.getValue());
-                } catch (Exception e) {
-                    RecordLog.warn("[MetricTimerListener] Write metric error", e);
-                }
+        for (ClusterNode node : ClusterBuilderSlot.getClusterNodeMap().values()) {
+            snapshot(node, firstSecond, pendingSeconds);
+        }
+        snapshot(Constants.ENTRY_NODE, firstSecond, pendingSeconds);
+
+        for (int i = 0; i < pendingSeconds; i++) {
+            int count = snapshotCounts[i];
+            if (count == 0) {
+                continue;
+            }
+            snapshotCounts[i] = 0;
+            List<MetricNode> nodes = Arrays.asList(snapshots[i]).subList(0, count);
+            try {
+                writer.write(firstSecond + i * 1000, nodes);
+            } catch (Exception e) {
+                RecordLog.warn("[MetricTimerListener] Write metric error", e);
             }
         }
+        lastWrittenTime = currentSecond - 1000;
     }
 
-    private void aggregate(Map<Long, List<MetricNode>> maps, Map<Long, MetricNode> metrics, ClusterNode node) {
-        for (Entry<Long, MetricNode> entry : metrics.entrySet()) {
-            long time = entry.getKey();
-            MetricNode metricNode = entry.getValue();
-            metricNode.setResource(node.getName());
-            metricNode.setClassification(node.getResourceType());
-            maps.computeIfAbsent(time, k -> new ArrayList<MetricNode>());
-            List<MetricNode> nodes = maps.get(time);
-            nodes.add(entry.getValue());
+    private void snapshot(ClusterNode node, long firstSecond, int pendingSeconds) {
+        for (int i = 0; i < pendingSeconds; i++) {
+            MetricNode snapshot = nextSnapshot(i);
+            if (node.fillMetricsOfSecond(firstSecond + i * 1000, snapshot)) {
+                snapshot.setResource(node.getName());
+                snapshot.setClassification(node.getResourceType());
+                snapshotCounts[i]++;
+            }
         }
     }
 
+    private MetricNode nextSnapshot(int second) {
+        MetricNode[] buffer = snapshots[second];
+        int count = snapshotCounts[second];
+        if (count == buffer.length) {
+            buffer = Arrays.copyOf(buffer, count * 2);
+            snapshots[second] = buffer;
+        }
+        if (buffer[count] == null) {
+            buffer[count] = new MetricNode();
+        }
+        return buffer[count];
+    }
 }
@@ -19,13 +19,16 @@ import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.alibaba.csp.sentinel.log.LogBase;
 import com.alibaba.csp.sentinel.util.PidUtil;
@@ -41,6 +44,9 @@ import com.alibaba.csp.sentinel.log.RecordLog;
  * <li>metric of different day should in different file;</li>
  * <li>every metric file is accompanied with an index file, which file name is {@code ${metricFileName}.idx}</li>
  * </ol>
+ * <p>The metric files are written as text lines by default, or as fixed-width binary records if
+ * {@link SentinelConfig#METRIC_FILE_FORMAT} is {@link SentinelConfig#METRIC_FILE_FORMAT_BINARY}.
+ * Binary metric files are accompanied with a names file as well, see {@link BinaryMetricFormat}.</p>
  *
  * @author Carpenter Lee
  */
@@ -74,11 +80,25 @@ public class MetricWriter {
     private FileOutputStream outMetric;
     private DataOutputStream outIndex;
     private BufferedOutputStream outMetricBuf;
+    private OutputStreamWriter outMetricText;
+    /**
+     * Reusable buffers for encoding text lines.
+     */
+    private final StringBuilder lineBuilder = new StringBuilder(256);
+    private char[] lineChars = new char[256];
     private long singleFileSize;
     private int totalFileCount;
     private boolean append = false;
     private final int pid = PidUtil.getPid();
 
+    private final boolean binary;
+    private DataOutputStream outMetricData;
+    private DataOutputStream outNames;
+    /**
+     * Ids of the resource names written to current binary metric file.
+     */
+    private final Map<String, Integer> nameIds = new HashMap<String, Integer>();
+
     /**
      * 秒级统计，忽略毫秒数。
      */
@@ -89,12 +109,17 @@ public class MetricWriter {
     }
 
     public MetricWriter(long singleFileSize, int totalFileCount) {
+        this(METRIC_BASE_DIR, singleFileSize, totalFileCount, SentinelConfig.metricFileFormat());
+    }
+
+    MetricWriter(String baseDir, long singleFileSize, int totalFileCount, String format) {
         if (singleFileSize <= 0 || totalFileCount <= 0) {
             throw new IllegalArgumentException();
         }
-        RecordLog.info("[MetricWriter] Creating new MetricWriter, singleFileSize={}, totalFileCount={}",
-            singleFileSize, totalFileCount);
-        this.baseDir = METRIC_BASE_DIR;
+        RecordLog.info("[MetricWriter] Creating new MetricWriter, singleFileSize={}, totalFileCount={}, format={}",
+            singleFileSize, totalFileCount, format);
+        this.baseDir = baseDir.endsWith(File.separator) ? baseDir : baseDir + File.separator;
+        this.binary = SentinelConfig.METRIC_FILE_FORMAT_BINARY.equals(format);
         File dir = new File(baseDir);
         if (!dir.exists()) {
             dir.mkdirs();
@@ -142,10 +167,7 @@ public class MetricWriter {
         if (second < lastSecond) {
             // 时间靠前的直接忽略，不应该发生。
         } else if (second == lastSecond) {
-            for (MetricNode node : nodes) {
-                outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-            }
-            outMetricBuf.flush();
+            writeNodes(time, nodes);
             if (!validSize()) {
                 closeAndNewFile(nextFileNameOfDay(time));
             }
@@ -153,18 +175,12 @@ public class MetricWriter {
             writeIndex(second, outMetric.getChannel().position());
             if (isNewDay(lastSecond, second)) {
                 closeAndNewFile(nextFileNameOfDay(time));
-                for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-                }
-                outMetricBuf.flush();
+                writeNodes(time, nodes);
                 if (!validSize()) {
                     closeAndNewFile(nextFileNameOfDay(time));
                 }
             } else {
-                for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-                }
-                outMetricBuf.flush();
+                writeNodes(time, nodes);
                 if (!validSize()) {
                     closeAndNewFile(nextFileNameOfDay(time));
                 }
@@ -180,6 +196,44 @@ public class MetricWriter {
         if (outIndex != null) {
             outIndex.close();
         }
+        if (outNames != null) {
+            outNames.close();
+        }
+    }
+
+    private void writeNodes(long time, List<MetricNode> nodes) throws Exception {
+        if (!binary) {
+            String dateTime = df.format(new Date(time));
+            boolean withRtPercentiles = SentinelConfig.rtHistogramEnabled();
+            for (MetricNode node : nodes) {
+                lineBuilder.setLength(0);
+                node.appendFatString(lineBuilder, dateTime, withRtPercentiles);
+                int length = lineBuilder.length();
+                if (lineChars.length < length) {
+                    lineChars = new char[length * 2];
+                }
+                lineBuilder.getChars(0, length, lineChars, 0);
+                outMetricText.write(lineChars, 0, length);
+            }
+            outMetricText.flush();
+            return;
+        }
+        for (MetricNode node : nodes) {
+            BinaryMetricFormat.writeRecord(outMetricData, node, nameIdOf(node.getResource()));
+        }
+        // Names must be visible to readers before the records referring to them.
+        outNames.flush();
+        outMetricData.flush();
+    }
+
+    private int nameIdOf(String resource) throws Exception {
+        Integer id = nameIds.get(resource);
+        if (id == null) {
+            id = nameIds.size();
+            outNames.writeUTF(resource);
+            nameIds.put(resource, id);
+        }
+        return id;
     }
 
     private void writeIndex(long time, long offset) throws Exception {
@@ -198,6 +252,7 @@ public class MetricWriter {
             String fileName = file.getName();
             if (fileName.contains(fileNameModel)
                 && !fileName.endsWith(METRIC_FILE_INDEX_SUFFIX)
+                && !fileName.endsWith(BinaryMetricFormat.NAMES_FILE_SUFFIX)
                 && !fileName.endsWith(".lck")) {
                 list.add(file.getAbsolutePath());
             }
@@ -330,6 +385,11 @@ public class MetricWriter {
             RecordLog.info("[MetricWriter] Removing metric file: {}", fileName);
             new File(indexFile).delete();
             RecordLog.info("[MetricWriter] Removing metric index file: {}", indexFile);
+            File namesFile = new File(BinaryMetricFormat.formNamesFileName(fileName));
+            if (namesFile.exists()) {
+                namesFile.delete();
+                RecordLog.info("[MetricWriter] Removing metric names file: {}", namesFile.getPath());
+            }
         }
     }
 
@@ -341,8 +401,22 @@ public class MetricWriter {
         if (outIndex != null) {
             outIndex.close();
         }
+        if (outNames != null) {
+            outNames.close();
+            outNames = null;
+        }
         outMetric = new FileOutputStream(fileName, append);
         outMetricBuf = new BufferedOutputStream(outMetric);
+        if (binary) {
+            outMetricData = new DataOutputStream(outMetricBuf);
+            BinaryMetricFormat.writeHeader(outMetricData);
+            outMetricData.flush();
+            outNames = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(BinaryMetricFormat.formNamesFileName(fileName), append)));
+            nameIds.clear();
+        } else {
+            outMetricText = new OutputStreamWriter(outMetricBuf, CHARSET);
+        }
         curMetricFile = new File(fileName);
         String idxFile = formIndexFileName(fileName);
         curMetricIndexFile = new File(idxFile);
@@ -18,12 +18,16 @@ package com.alibaba.csp.sentinel.node.metric;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Reads metrics data from log file.
+ * Reads metrics data from log file. Both text and binary metric files are supported,
+ * the format of each file is detected by its header.
  */
 class MetricsReader {
 
@@ -32,6 +36,11 @@ class MetricsReader {
      */
     private static final int MAX_LINES_RETURN = 100000;
 
+    /**
+     * Amount of binary records read from disk at a time.
+     */
+    private static final int BINARY_RECORDS_PER_READ = 1024;
+
     private final Charset charset;
 
     public MetricsReader(Charset charset) {
@@ -43,6 +52,9 @@ class MetricsReader {
      */
     boolean readMetricsInOneFileByEndTime(List<MetricNode> list, String fileName, long offset,
                                           long beginTimeMs, long endTimeMs, String identity) throws Exception {
+        if (BinaryMetricFormat.isBinaryFile(fileName)) {
+            return readBinaryMetricsInOneFile(list, fileName, offset, beginTimeMs, endTimeMs, identity, -1);
+        }
         FileInputStream in = null;
         long beginSecond = beginTimeMs / 1000;
         long endSecond = endTimeMs / 1000;
@@ -85,6 +97,10 @@ class MetricsReader {
         //if(list.size() >= recommendLines){
         //    return;
         //}
+        if (BinaryMetricFormat.isBinaryFile(fileName)) {
+            readBinaryMetricsInOneFile(list, fileName, offset, 0, Long.MAX_VALUE, null, recommendLines);
+            return;
+        }
         long lastSecond = -1;
         if (list.size() > 0) {
             lastSecond = list.get(list.size() - 1).getTimestamp() / 1000;
@@ -115,6 +131,69 @@ class MetricsReader {
         }
     }
 
+    /**
+     * Read binary metric records from {@code offset} of the file. Records are read either until
+     * {@code endTimeMs} (when {@code recommendLines} is negative), or until {@code recommendLines} records
+     * are read and the second of the last record is complete.
+     *
+     * @return if should continue read next file, return true, else false.
+     */
+    boolean readBinaryMetricsInOneFile(List<MetricNode> list, String fileName, long offset, long beginTimeMs,
+                                       long endTimeMs, String identity, int recommendLines) throws Exception {
+        long beginSecond = beginTimeMs / 1000;
+        long endSecond = endTimeMs / 1000;
+        long lastSecond = -1;
+        if (list.size() > 0) {
+            lastSecond = list.get(list.size() - 1).getTimestamp() / 1000;
+        }
+        List<String> names = BinaryMetricFormat.readNames(fileName);
+        int identityId = identity == null ? -1 : names.indexOf(identity);
+
+        RandomAccessFile in = new RandomAccessFile(fileName, "r");
+        try {
+            FileChannel channel = in.getChannel();
+            channel.position(Math.max(offset, BinaryMetricFormat.HEADER_SIZE));
+            ByteBuffer buf = ByteBuffer.allocate(BinaryMetricFormat.RECORD_SIZE * BINARY_RECORDS_PER_READ);
+            while (channel.read(buf) > 0) {
+                buf.flip();
+                int pos = 0;
+                // An incomplete record at the end is being written, ignore it.
+                for (; pos + BinaryMetricFormat.RECORD_SIZE <= buf.limit(); pos += BinaryMetricFormat.RECORD_SIZE) {
+                    long currentSecond = BinaryMetricFormat.timestampAt(buf, pos) / 1000;
+                    if (recommendLines < 0) {
+                        if (currentSecond < beginSecond || currentSecond > endSecond) {
+                            return false;
+                        }
+                    } else if (list.size() >= recommendLines && currentSecond != lastSecond) {
+                        return false;
+                    }
+                    lastSecond = currentSecond;
+                    int nameId = BinaryMetricFormat.nameIdAt(buf, pos);
+                    if (nameId >= names.size()) {
+                        // The name of the record may be written after the names are read.
+                        names = BinaryMetricFormat.readNames(fileName);
+                        identityId = identity == null ? -1 : names.indexOf(identity);
+                        if (nameId >= names.size()) {
+                            continue;
+                        }
+                    }
+                    if (identity != null && nameId != identityId) {
+                        continue;
+                    }
+                    list.add(BinaryMetricFormat.readRecord(buf, pos, names.get(nameId)));
+                    if (recommendLines < 0 && list.size() >= MAX_LINES_RETURN) {
+                        return false;
+                    }
+                }
+                buf.position(pos);
+                buf.compact();
+            }
+        } finally {
+            in.close();
+        }
+        return true;
+    }
+
     /**
      * When identity is null, all metric between the time intervalMs will be read, otherwise, only the specific
      * identity will be read.
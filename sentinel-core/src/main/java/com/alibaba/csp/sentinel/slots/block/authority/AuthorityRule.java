@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.slots.block.authority;
 
+import java.util.Set;
+
 import com.alibaba.csp.sentinel.slots.block.AbstractRule;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 
@@ -30,6 +32,13 @@ public class AuthorityRule extends AbstractRule {
      */
     private int strategy = RuleConstant.AUTHORITY_WHITE;
 
+    /**
+     * Origins in {@code limitApp}, parsed when the rule is loaded.
+     *
+     * @since 1.8.2
+     */
+    private Set<String> limitAppSet;
+
     public int getStrategy() {
         return strategy;
     }
@@ -39,6 +48,22 @@ public class AuthorityRule extends AbstractRule {
         return this;
     }
 
+    @Override
+    public AbstractRule setLimitApp(String limitApp) {
+        // The parsed origins no longer match.
+        this.limitAppSet = null;
+        return super.setLimitApp(limitApp);
+    }
+
+    AuthorityRule setLimitAppSet(Set<String> limitAppSet) {
+        this.limitAppSet = limitAppSet;
+        return this;
+    }
+
+    Set<String> getLimitAppSet() {
+        return limitAppSet;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
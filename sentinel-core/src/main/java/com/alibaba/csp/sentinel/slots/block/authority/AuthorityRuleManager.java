@@ -118,6 +118,7 @@ public final class AuthorityRuleManager {
                 if (StringUtil.isBlank(rule.getLimitApp())) {
                     rule.setLimitApp(RuleConstant.LIMIT_APP_DEFAULT);
                 }
+                rule.setLimitAppSet(AuthorityRuleChecker.parseLimitApp(rule.getLimitApp()));
 
                 String identity = rule.getResource();
                 Set<AuthorityRule> ruleSet = newRuleMap.get(identity);
@@ -83,6 +83,15 @@ public class DegradeRule extends AbstractRule {
 
     private int statIntervalMs = 1000;
 
+    /**
+     * Bucket count of the sliding window within {@code statIntervalMs}, which should evenly divide
+     * {@code statIntervalMs}. With a single bucket, the statistics of the whole interval are dropped
+     * at once when the interval passes; with more buckets, they slide out one bucket at a time.
+     *
+     * @since 1.8.2
+     */
+    private int sampleCount = 1;
+
     public int getGrade() {
         return grade;
     }
@@ -137,6 +146,15 @@ public class DegradeRule extends AbstractRule {
         return this;
     }
 
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public DegradeRule setSampleCount(int sampleCount) {
+        this.sampleCount = sampleCount;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -148,13 +166,14 @@ public class DegradeRule extends AbstractRule {
             grade == rule.grade &&
             minRequestAmount == rule.minRequestAmount &&
             Double.compare(rule.slowRatioThreshold, slowRatioThreshold) == 0 &&
-            statIntervalMs == rule.statIntervalMs;
+            statIntervalMs == rule.statIntervalMs &&
+            sampleCount == rule.sampleCount;
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), count, timeWindow, grade, minRequestAmount,
-            slowRatioThreshold, statIntervalMs);
+            slowRatioThreshold, statIntervalMs, sampleCount);
     }
 
     @Override
@@ -168,6 +187,7 @@ public class DegradeRule extends AbstractRule {
             ", minRequestAmount=" + minRequestAmount +
             ", slowRatioThreshold=" + slowRatioThreshold +
             ", statIntervalMs=" + statIntervalMs +
+            ", sampleCount=" + sampleCount +
             '}';
     }
 }
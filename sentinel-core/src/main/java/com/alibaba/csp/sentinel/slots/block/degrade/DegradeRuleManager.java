@@ -189,6 +189,9 @@ public final class DegradeRuleManager {
         if (rule.getMinRequestAmount() <= 0 || rule.getStatIntervalMs() <= 0) {
             return false;
         }
+        if (rule.getSampleCount() <= 0 || rule.getStatIntervalMs() % rule.getSampleCount() != 0) {
+            return false;
+        }
         switch (rule.getGrade()) {
             case RuleConstant.DEGRADE_GRADE_RT:
                 return rule.getSlowRatioThreshold() >= 0 && rule.getSlowRatioThreshold() <= 1;
@@ -15,7 +15,6 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
 
-import java.util.List;
 import java.util.concurrent.atomic.LongAdder;
 
 import com.alibaba.csp.sentinel.Entry;
@@ -24,6 +23,7 @@ import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 import static com.alibaba.csp.sentinel.slots.block.RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT;
 import static com.alibaba.csp.sentinel.slots.block.RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO;
@@ -38,13 +38,13 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
     private final int minRequestAmount;
     private final double threshold;
 
-    private final LeapArray<SimpleErrorCounter> stat;
+    private final SimpleErrorCounterLeapArray stat;
 
     public ExceptionCircuitBreaker(DegradeRule rule) {
-        this(rule, new SimpleErrorCounterLeapArray(1, rule.getStatIntervalMs()));
+        this(rule, new SimpleErrorCounterLeapArray(rule.getSampleCount(), rule.getStatIntervalMs()));
     }
 
-    ExceptionCircuitBreaker(DegradeRule rule, LeapArray<SimpleErrorCounter> stat) {
+    ExceptionCircuitBreaker(DegradeRule rule, SimpleErrorCounterLeapArray stat) {
         super(rule);
         this.strategy = rule.getGrade();
         boolean modeOk = strategy == DEGRADE_GRADE_EXCEPTION_RATIO || strategy == DEGRADE_GRADE_EXCEPTION_COUNT;
@@ -57,8 +57,7 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
 
     @Override
     protected void resetStat() {
-        // Reset current bucket (bucket count = 1).
-        stat.currentWindow().value().reset();
+        stat.resetAll();
     }
 
     @Override
@@ -69,10 +68,7 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
         }
         Throwable error = entry.getError();
         SimpleErrorCounter counter = stat.currentWindow().value();
-        if (error != null) {
-            counter.getErrorCount().add(1);
-        }
-        counter.getTotalCount().add(1);
+        counter.add(error != null);
 
         handleStateChangeWhenThresholdExceeded(error);
     }
@@ -92,13 +88,9 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
             return;
         }
         
-        List<SimpleErrorCounter> counters = stat.values();
-        long errCount = 0;
-        long totalCount = 0;
-        for (SimpleErrorCounter counter : counters) {
-            errCount += counter.errorCount.sum();
-            totalCount += counter.totalCount.sum();
-        }
+        long counts = stat.sumCounts(TimeUtil.currentTimeMillis());
+        long errCount = SimpleErrorCounter.errorCount(counts);
+        long totalCount = SimpleErrorCounter.totalCount(counts);
         if (totalCount < minRequestAmount) {
             return;
         }
@@ -112,34 +104,55 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
         }
     }
 
+    /**
+     * Counts of error requests and total requests packed in one {@link LongAdder}, in the same way as
+     * {@link ResponseTimeCircuitBreaker.SlowRequestCounter}.
+     */
     static class SimpleErrorCounter {
-        private LongAdder errorCount;
-        private LongAdder totalCount;
+        private static final long ERROR_UNIT = 1L << 32;
+        private static final long TOTAL_MASK = ERROR_UNIT - 1;
+
+        private final LongAdder counts;
 
         public SimpleErrorCounter() {
-            this.errorCount = new LongAdder();
-            this.totalCount = new LongAdder();
+            this.counts = new LongAdder();
+        }
+
+        void add(boolean error) {
+            counts.add(error ? ERROR_UNIT + 1 : 1);
+        }
+
+        long packedCounts() {
+            return counts.sum();
+        }
+
+        public long getErrorCount() {
+            return errorCount(packedCounts());
         }
 
-        public LongAdder getErrorCount() {
-            return errorCount;
+        public long getTotalCount() {
+            return totalCount(packedCounts());
         }
 
-        public LongAdder getTotalCount() {
-            return totalCount;
+        static long errorCount(long packedCounts) {
+            return packedCounts >>> 32;
+        }
+
+        static long totalCount(long packedCounts) {
+            return packedCounts & TOTAL_MASK;
         }
 
         public SimpleErrorCounter reset() {
-            errorCount.reset();
-            totalCount.reset();
+            counts.reset();
             return this;
         }
 
         @Override
         public String toString() {
+            long packedCounts = packedCounts();
             return "SimpleErrorCounter{" +
-                "errorCount=" + errorCount +
-                ", totalCount=" + totalCount +
+                "errorCount=" + errorCount(packedCounts) +
+                ", totalCount=" + totalCount(packedCounts) +
                 '}';
         }
     }
@@ -150,6 +163,29 @@ public class ExceptionCircuitBreaker extends AbstractCircuitBreaker {
             super(sampleCount, intervalInMs);
         }
 
+        /**
+         * Sum up the packed counts of valid buckets without creating the value list.
+         */
+        long sumCounts(long timeMillis) {
+            long sum = 0;
+            for (int i = 0; i < array.length(); i++) {
+                WindowWrap<SimpleErrorCounter> windowWrap = array.get(i);
+                if (windowWrap != null && !isWindowDeprecated(timeMillis, windowWrap)) {
+                    sum += windowWrap.value().packedCounts();
+                }
+            }
+            return sum;
+        }
+
+        void resetAll() {
+            for (int i = 0; i < array.length(); i++) {
+                WindowWrap<SimpleErrorCounter> windowWrap = array.get(i);
+                if (windowWrap != null) {
+                    windowWrap.value().reset();
+                }
+            }
+        }
+
         @Override
         public SimpleErrorCounter newEmptyBucket(long timeMillis) {
             return new SimpleErrorCounter();
@@ -15,7 +15,6 @@
  */
 package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
 
-import java.util.List;
 import java.util.concurrent.atomic.LongAdder;
 
 import com.alibaba.csp.sentinel.Entry;
@@ -39,13 +38,13 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
     private final double maxSlowRequestRatio;
     private final int minRequestAmount;
 
-    private final LeapArray<SlowRequestCounter> slidingCounter;
+    private final SlowRequestLeapArray slidingCounter;
 
     public ResponseTimeCircuitBreaker(DegradeRule rule) {
-        this(rule, new SlowRequestLeapArray(1, rule.getStatIntervalMs()));
+        this(rule, new SlowRequestLeapArray(rule.getSampleCount(), rule.getStatIntervalMs()));
     }
 
-    ResponseTimeCircuitBreaker(DegradeRule rule, LeapArray<SlowRequestCounter> stat) {
+    ResponseTimeCircuitBreaker(DegradeRule rule, SlowRequestLeapArray stat) {
         super(rule);
         AssertUtil.isTrue(rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT, "rule metric type should be RT");
         AssertUtil.notNull(stat, "stat cannot be null");
@@ -57,8 +56,7 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
 
     @Override
     public void resetStat() {
-        // Reset current bucket (bucket count = 1).
-        slidingCounter.currentWindow().value().reset();
+        slidingCounter.resetAll();
     }
 
     @Override
@@ -73,10 +71,7 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
             completeTime = TimeUtil.currentTimeMillis();
         }
         long rt = completeTime - entry.getCreateTimestamp();
-        if (rt > maxAllowedRt) {
-            counter.slowCount.add(1);
-        }
-        counter.totalCount.add(1);
+        counter.add(rt > maxAllowedRt);
 
         handleStateChangeWhenThresholdExceeded(rt);
     }
@@ -97,13 +92,9 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
             return;
         }
 
-        List<SlowRequestCounter> counters = slidingCounter.values();
-        long slowCount = 0;
-        long totalCount = 0;
-        for (SlowRequestCounter counter : counters) {
-            slowCount += counter.slowCount.sum();
-            totalCount += counter.totalCount.sum();
-        }
+        long counts = slidingCounter.sumCounts(TimeUtil.currentTimeMillis());
+        long slowCount = SlowRequestCounter.slowCount(counts);
+        long totalCount = SlowRequestCounter.totalCount(counts);
         if (totalCount < minRequestAmount) {
             return;
         }
@@ -117,34 +108,57 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
         }
     }
 
+    /**
+     * Counts of slow requests and total requests packed in one {@link LongAdder}, so that a completed request
+     * is recorded by a single update and the two counts are always read consistently. Slow count takes the high
+     * 32 bits and total count takes the low 32 bits, which won't overflow unless there are more than
+     * {@code 2^32} requests in a statistic interval.
+     */
     static class SlowRequestCounter {
-        private LongAdder slowCount;
-        private LongAdder totalCount;
+        private static final long SLOW_UNIT = 1L << 32;
+        private static final long TOTAL_MASK = SLOW_UNIT - 1;
+
+        private final LongAdder counts;
 
         public SlowRequestCounter() {
-            this.slowCount = new LongAdder();
-            this.totalCount = new LongAdder();
+            this.counts = new LongAdder();
+        }
+
+        void add(boolean slow) {
+            counts.add(slow ? SLOW_UNIT + 1 : 1);
+        }
+
+        long packedCounts() {
+            return counts.sum();
+        }
+
+        public long getSlowCount() {
+            return slowCount(packedCounts());
         }
 
-        public LongAdder getSlowCount() {
-            return slowCount;
+        public long getTotalCount() {
+            return totalCount(packedCounts());
         }
 
-        public LongAdder getTotalCount() {
-            return totalCount;
+        static long slowCount(long packedCounts) {
+            return packedCounts >>> 32;
+        }
+
+        static long totalCount(long packedCounts) {
+            return packedCounts & TOTAL_MASK;
         }
 
         public SlowRequestCounter reset() {
-            slowCount.reset();
-            totalCount.reset();
+            counts.reset();
             return this;
         }
 
         @Override
         public String toString() {
+            long packedCounts = packedCounts();
             return "SlowRequestCounter{" +
-                "slowCount=" + slowCount +
-                ", totalCount=" + totalCount +
+                "slowCount=" + slowCount(packedCounts) +
+                ", totalCount=" + totalCount(packedCounts) +
                 '}';
         }
     }
@@ -155,6 +169,29 @@ public class ResponseTimeCircuitBreaker extends AbstractCircuitBreaker {
             super(sampleCount, intervalInMs);
         }
 
+        /**
+         * Sum up the packed counts of valid buckets without creating the value list.
+         */
+        long sumCounts(long timeMillis) {
+            long sum = 0;
+            for (int i = 0; i < array.length(); i++) {
+                WindowWrap<SlowRequestCounter> windowWrap = array.get(i);
+                if (windowWrap != null && !isWindowDeprecated(timeMillis, windowWrap)) {
+                    sum += windowWrap.value().packedCounts();
+                }
+            }
+            return sum;
+        }
+
+        void resetAll() {
+            for (int i = 0; i < array.length(); i++) {
+                WindowWrap<SlowRequestCounter> windowWrap = array.get(i);
+                if (windowWrap != null) {
+                    windowWrap.value().reset();
+                }
+            }
+        }
+
         @Override
         public SlowRequestCounter newEmptyBucket(long timeMillis) {
             return new SlowRequestCounter();
@@ -15,14 +15,17 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow;
 
+import java.util.Arrays;
 import java.util.Collection;
 
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
 import com.alibaba.csp.sentinel.cluster.server.EmbeddedClusterTokenServerProvider;
 import com.alibaba.csp.sentinel.cluster.client.TokenClientProvider;
 import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.TokenResult;
 import com.alibaba.csp.sentinel.cluster.TokenService;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.DefaultNode;
@@ -56,6 +59,59 @@ public class FlowRuleChecker {
         }
     }
 
+    /**
+     * Check the compiled flow rules of a resource which take effect for the origin of current context.
+     *
+     * @param plan evaluation plan of the flow rules of the resource, null if the resource has no flow rules
+     * @since 1.8.2
+     */
+    void checkFlow(FlowRulePlan plan, Context context, DefaultNode node, int count, boolean prioritized)
+        throws BlockException {
+        if (plan == null) {
+            return;
+        }
+        // Tokens of several cluster rules are requested from token service in one round trip if enabled.
+        TokenService clusterService = plan.clusterFlowIds().length > 1 && SentinelConfig.clusterFlowBatchEnabled()
+            ? pickClusterService() : null;
+        checkFlow(plan, clusterService, context, node, count, prioritized);
+    }
+
+    /**
+     * @param clusterService the token service to request tokens of all cluster rules from in one batch,
+     *                       or null to check the cluster rules one by one
+     */
+    void checkFlow(/*@NonNull*/ FlowRulePlan plan, TokenService clusterService, Context context, DefaultNode node,
+                   int count, boolean prioritized) throws BlockException {
+        TokenResult[] clusterResults = null;
+        for (FlowRulePlan.CompiledFlowRule compiled : plan.rulesOf(context.getOrigin())) {
+            FlowRule rule = compiled.getRule();
+            int clusterIndex = compiled.getClusterIndex();
+            boolean pass;
+            if (clusterService != null && clusterIndex >= 0) {
+                if (clusterResults == null) {
+                    // Requested when the first cluster rule is reached. Unlike checking the rules one by one,
+                    // the tokens of the later cluster rules are taken even if this or a later rule blocks.
+                    clusterResults = requestClusterTokens(clusterService, plan.clusterFlowIds(), count, prioritized);
+                }
+                pass = applyTokenResult(clusterResults[clusterIndex], rule, context, node, count, prioritized);
+            } else {
+                pass = canPassCheck(compiled, context, node, count, prioritized);
+            }
+            if (!pass) {
+                throw new FlowException(rule.getLimitApp(), rule);
+            }
+        }
+    }
+
+    boolean canPassCheck(FlowRulePlan.CompiledFlowRule compiled, Context context, DefaultNode node, int acquireCount,
+                         boolean prioritized) {
+        FlowRule rule = compiled.getRule();
+        if (rule.isClusterMode()) {
+            return passClusterCheck(rule, context, node, acquireCount, prioritized);
+        }
+        return passLocalCheck(rule, compiled.selectNode(context, node), context, acquireCount, prioritized);
+    }
+
     public boolean canPassCheck(/*@NonNull*/ FlowRule rule, Context context, DefaultNode node,
                                                     int acquireCount) {
         return canPassCheck(rule, context, node, acquireCount, false);
@@ -77,12 +133,35 @@ public class FlowRuleChecker {
 
     private static boolean passLocalCheck(FlowRule rule, Context context, DefaultNode node, int acquireCount,
                                           boolean prioritized) {
-        Node selectedNode = selectNodeByRequesterAndStrategy(rule, context, node);
+        return passLocalCheck(rule, selectNodeByRequesterAndStrategy(rule, context, node), context, acquireCount,
+            prioritized);
+    }
+
+    private static boolean passLocalCheck(FlowRule rule, Node selectedNode, Context context, int acquireCount,
+                                          boolean prioritized) {
         if (selectedNode == null) {
             return true;
         }
 
-        return rule.getRater().canPass(selectedNode, acquireCount, prioritized);
+        TrafficShapingController rater = rule.getRater();
+        Entry curEntry = context.getCurEntry();
+        if (rater instanceof PacingTrafficShapingController && curEntry != null && curEntry.isNonBlocking()) {
+            // Reserve the pass and let the caller wait, rather than blocking current thread.
+            long waitInMs = ((PacingTrafficShapingController)rater).reserve(selectedNode, acquireCount, prioritized);
+            if (waitInMs < 0) {
+                return false;
+            }
+            waitAtLeast(curEntry, waitInMs);
+            return true;
+        }
+        return rater.canPass(selectedNode, acquireCount, prioritized);
+    }
+
+    private static void waitAtLeast(Entry entry, long waitInMs) {
+        // The request can be processed only when all rules are satisfied.
+        if (waitInMs > entry.getWaitInMs()) {
+            entry.setWaitInMs(waitInMs);
+        }
     }
 
     static Node selectReferenceNode(FlowRule rule, Context context, DefaultNode node) {
@@ -163,6 +242,31 @@ public class FlowRuleChecker {
         return fallbackToLocalOrPass(rule, context, node, acquireCount, prioritized);
     }
 
+    /**
+     * Request tokens of the cluster rules in one batch. Results of the rules will be {@code FAIL} if the
+     * request failed, so that the rules fall back to local flow control or pass as configured.
+     */
+    private static TokenResult[] requestClusterTokens(TokenService clusterService, long[] flowIds, int acquireCount,
+                                                      boolean prioritized) {
+        int[] acquireCounts = new int[flowIds.length];
+        Arrays.fill(acquireCounts, acquireCount);
+        TokenResult[] results = null;
+        try {
+            results = clusterService.requestBatchToken(flowIds, acquireCounts, prioritized);
+        } catch (Throwable ex) {
+            RecordLog.warn("[FlowRuleChecker] Request cluster token unexpected failed", ex);
+        }
+        if (results == null || results.length != flowIds.length) {
+            results = new TokenResult[flowIds.length];
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = new TokenResult(TokenResultStatus.FAIL);
+            }
+        }
+        return results;
+    }
+
     private static boolean fallbackToLocalOrPass(FlowRule rule, Context context, DefaultNode node, int acquireCount,
                                                  boolean prioritized) {
         if (rule.getClusterConfig().isFallbackToLocalWhenFail()) {
@@ -190,6 +294,11 @@ public class FlowRuleChecker {
             case TokenResultStatus.OK:
                 return true;
             case TokenResultStatus.SHOULD_WAIT:
+                Entry curEntry = context.getCurEntry();
+                if (curEntry != null && curEntry.isNonBlocking()) {
+                    waitAtLeast(curEntry, result.getWaitInMs());
+                    return true;
+                }
                 // Wait for next tick.
                 try {
                     Thread.sleep(result.getWaitInMs());
@@ -49,6 +49,12 @@ import com.alibaba.csp.sentinel.property.SentinelProperty;
 public class FlowRuleManager {
 
     private static volatile Map<String, List<FlowRule>> flowRules = new HashMap<>();
+    /**
+     * Evaluation plans of the rules in {@link #flowRules}, keyed by resource name.
+     *
+     * @since 1.8.2
+     */
+    private static volatile Map<String, FlowRulePlan> flowRulePlans = new HashMap<>();
 
     private static final FlowPropertyListener LISTENER = new FlowPropertyListener();
     private static SentinelProperty<List<FlowRule>> currentProperty = new DynamicSentinelProperty<List<FlowRule>>();
@@ -124,6 +130,25 @@ public class FlowRuleManager {
         return flowRules;
     }
 
+    /**
+     * Get the evaluation plan of the flow rules of given resource.
+     *
+     * @param resource resource name
+     * @return the evaluation plan, or null if the resource has no flow rules
+     * @since 1.8.2
+     */
+    static FlowRulePlan getFlowRulePlan(String resource) {
+        return flowRulePlans.get(resource);
+    }
+
+    private static Map<String, FlowRulePlan> compileFlowRulePlans(Map<String, List<FlowRule>> rules) {
+        Map<String, FlowRulePlan> plans = new HashMap<>(rules.size() * 2);
+        for (Map.Entry<String, List<FlowRule>> entry : rules.entrySet()) {
+            plans.put(entry.getKey(), FlowRulePlan.compile(entry.getValue()));
+        }
+        return plans;
+    }
+
     public static boolean hasConfig(String resource) {
         return flowRules.containsKey(resource);
     }
@@ -152,6 +177,7 @@ public class FlowRuleManager {
         public synchronized void configUpdate(List<FlowRule> value) {
             Map<String, List<FlowRule>> rules = FlowRuleUtil.buildFlowRuleMap(value);
             if (rules != null) {
+                flowRulePlans = compileFlowRulePlans(rules);
                 flowRules = rules;
             }
             RecordLog.info("[FlowRuleManager] Flow rules received: {}", rules);
@@ -161,6 +187,7 @@ public class FlowRuleManager {
         public synchronized void configLoad(List<FlowRule> conf) {
             Map<String, List<FlowRule>> rules = FlowRuleUtil.buildFlowRuleMap(conf);
             if (rules != null) {
+                flowRulePlans = compileFlowRulePlans(rules);
                 flowRules = rules;
             }
             RecordLog.info("[FlowRuleManager] Flow rules loaded: {}", rules);
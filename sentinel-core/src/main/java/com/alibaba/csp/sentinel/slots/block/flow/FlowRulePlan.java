@@ -0,0 +1,253 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>Immutable evaluation plan of the flow rules of one resource, compiled when rules are loaded.</p>
+ *
+ * <p>The rules which take effect for a request depend only on its origin, so the plan holds one array of
+ * rules for each origin named by {@code limitApp} of the rules, one for the empty origin and one for all
+ * other origins. Rules keep their order in the rule list, and rules which would always pass for an origin
+ * (e.g. rules of other specific origins) are left out of the array of the origin. Cluster rules are kept for
+ * all origins, as they request tokens no matter the origin.</p>
+ *
+ * <p>How to select the node of a local rule is also resolved in advance, see {@link CompiledFlowRule}.
+ * Flow IDs of the cluster rules are collected as well, so that tokens of all cluster rules can be requested
+ * in one batch.</p>
+ *
+ * @since 1.8.2
+ */
+final class FlowRulePlan {
+
+    private final CompiledFlowRule[] emptyOriginRules;
+    private final CompiledFlowRule[] otherOriginRules;
+    private final Map<String, CompiledFlowRule[]> namedOriginRules;
+    /**
+     * Flow IDs of the cluster rules in order, indexed by {@link CompiledFlowRule#getClusterIndex()}.
+     */
+    private final long[] clusterFlowIds;
+
+    private FlowRulePlan(CompiledFlowRule[] emptyOriginRules, CompiledFlowRule[] otherOriginRules,
+                         Map<String, CompiledFlowRule[]> namedOriginRules, long[] clusterFlowIds) {
+        this.emptyOriginRules = emptyOriginRules;
+        this.otherOriginRules = otherOriginRules;
+        this.namedOriginRules = namedOriginRules;
+        this.clusterFlowIds = clusterFlowIds;
+    }
+
+    /**
+     * Compile the rules of one resource, which have been sorted by {@link FlowRuleComparator}.
+     *
+     * @param rules valid flow rules of the resource
+     * @return the evaluation plan of the rules
+     */
+    static FlowRulePlan compile(List<FlowRule> rules) {
+        List<CompiledFlowRule> compiledRules = new ArrayList<>(rules.size());
+        Set<String> namedOrigins = new HashSet<>();
+        List<Long> clusterFlowIds = new ArrayList<>();
+        for (FlowRule rule : rules) {
+            if (rule.getLimitApp() == null) {
+                // Never takes effect, see FlowRuleChecker#canPassCheck.
+                continue;
+            }
+            int clusterIndex = -1;
+            if (rule.isClusterMode()) {
+                clusterIndex = clusterFlowIds.size();
+                clusterFlowIds.add(rule.getClusterConfig().getFlowId());
+            }
+            compiledRules.add(new CompiledFlowRule(rule, clusterIndex));
+            namedOrigins.add(rule.getLimitApp());
+        }
+        Map<String, CompiledFlowRule[]> namedOriginRules = new HashMap<>(namedOrigins.size() * 2);
+        for (String origin : namedOrigins) {
+            namedOriginRules.put(origin, rulesFor(compiledRules, origin, namedOrigins));
+        }
+        long[] flowIds = new long[clusterFlowIds.size()];
+        for (int i = 0; i < flowIds.length; i++) {
+            flowIds[i] = clusterFlowIds.get(i);
+        }
+        return new FlowRulePlan(rulesFor(compiledRules, "", namedOrigins),
+            rulesFor(compiledRules, null, namedOrigins), namedOriginRules, flowIds);
+    }
+
+    /**
+     * @param origin the origin, or null for origins not named by any rule
+     */
+    private static CompiledFlowRule[] rulesFor(List<CompiledFlowRule> compiledRules, String origin,
+                                               Set<String> namedOrigins) {
+        List<CompiledFlowRule> list = new ArrayList<>();
+        for (CompiledFlowRule compiled : compiledRules) {
+            if (compiled.rule.isClusterMode() || takesEffect(compiled.rule.getLimitApp(), origin, namedOrigins)) {
+                list.add(compiled);
+            }
+        }
+        return list.toArray(new CompiledFlowRule[0]);
+    }
+
+    /**
+     * Same as how {@link FlowRuleChecker#selectNodeByRequesterAndStrategy} matches {@code limitApp} and origin.
+     */
+    private static boolean takesEffect(String limitApp, String origin, Set<String> namedOrigins) {
+        if (RuleConstant.LIMIT_APP_DEFAULT.equals(limitApp)) {
+            return true;
+        }
+        if (origin == null) {
+            // Origins not named by any rule are "other" origins.
+            return RuleConstant.LIMIT_APP_OTHER.equals(limitApp);
+        }
+        if (limitApp.equals(origin) && !RuleConstant.LIMIT_APP_OTHER.equals(origin)) {
+            return true;
+        }
+        return RuleConstant.LIMIT_APP_OTHER.equals(limitApp) && StringUtil.isNotEmpty(origin)
+            && !namedOrigins.contains(origin);
+    }
+
+    /**
+     * Get the rules which take effect for requests from given origin, in the order of checking.
+     *
+     * @param origin origin of the request
+     * @return the compiled rules, never null
+     */
+    CompiledFlowRule[] rulesOf(String origin) {
+        if (StringUtil.isEmpty(origin)) {
+            return emptyOriginRules;
+        }
+        CompiledFlowRule[] rules = namedOriginRules.get(origin);
+        return rules == null ? otherOriginRules : rules;
+    }
+
+    /**
+     * Get the flow IDs of all cluster rules of the resource. Cluster rules take effect for all origins,
+     * so the IDs are shared by the rules of all origins.
+     *
+     * @return the flow IDs, never null
+     */
+    long[] clusterFlowIds() {
+        return clusterFlowIds;
+    }
+
+    /**
+     * A flow rule with its node selection resolved in advance.
+     */
+    static final class CompiledFlowRule {
+
+        private static final int NODE_ORIGIN = 0;
+        private static final int NODE_CLUSTER = 1;
+        private static final int NODE_RELATE = 2;
+        private static final int NODE_CHAIN = 3;
+        private static final int NODE_NONE = 4;
+
+        private static final EntryType[] ENTRY_TYPES = EntryType.values();
+
+        private final FlowRule rule;
+        private final int clusterIndex;
+        private final int nodeType;
+        private final String refResource;
+        /**
+         * Keys of the related resource in {@link ClusterBuilderSlot#getClusterNodeMap()}, one per {@link EntryType}.
+         */
+        private final StringResourceWrapper[] refResourceKeys;
+
+        CompiledFlowRule(FlowRule rule, int clusterIndex) {
+            this.rule = rule;
+            this.clusterIndex = clusterIndex;
+            this.refResource = rule.getRefResource();
+            int strategy = rule.getStrategy();
+            if (strategy == RuleConstant.STRATEGY_DIRECT) {
+                this.nodeType = RuleConstant.LIMIT_APP_DEFAULT.equals(rule.getLimitApp()) ? NODE_CLUSTER : NODE_ORIGIN;
+            } else if (StringUtil.isEmpty(refResource)) {
+                this.nodeType = NODE_NONE;
+            } else if (strategy == RuleConstant.STRATEGY_RELATE) {
+                this.nodeType = NODE_RELATE;
+            } else if (strategy == RuleConstant.STRATEGY_CHAIN) {
+                this.nodeType = NODE_CHAIN;
+            } else {
+                this.nodeType = NODE_NONE;
+            }
+            if (nodeType == NODE_RELATE) {
+                this.refResourceKeys = new StringResourceWrapper[ENTRY_TYPES.length];
+                for (int i = 0; i < ENTRY_TYPES.length; i++) {
+                    refResourceKeys[i] = new StringResourceWrapper(refResource, ENTRY_TYPES[i]);
+                }
+            } else {
+                this.refResourceKeys = null;
+            }
+        }
+
+        FlowRule getRule() {
+            return rule;
+        }
+
+        /**
+         * @return index of the flow ID in {@link FlowRulePlan#clusterFlowIds()}, or -1 if not a cluster rule
+         */
+        int getClusterIndex() {
+            return clusterIndex;
+        }
+
+        /**
+         * Select the node to check for a request which this rule takes effect on.
+         * Same as {@link FlowRuleChecker#selectNodeByRequesterAndStrategy}, without the matching of origin.
+         *
+         * @return the selected node, or null if the rule should not be checked
+         */
+        Node selectNode(Context context, DefaultNode node) {
+            switch (nodeType) {
+                case NODE_ORIGIN:
+                    return context.getOriginNode();
+                case NODE_CLUSTER:
+                    return node.getClusterNode();
+                case NODE_RELATE:
+                    return relatedClusterNode();
+                case NODE_CHAIN:
+                    return refResource.equals(context.getName()) ? node : null;
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Same as {@link ClusterBuilderSlot#getClusterNode(String)}, but with the keys created in advance.
+         */
+        private ClusterNode relatedClusterNode() {
+            Map<?, ClusterNode> clusterNodeMap = ClusterBuilderSlot.getClusterNodeMap();
+            for (StringResourceWrapper key : refResourceKeys) {
+                ClusterNode clusterNode = clusterNodeMap.get(key);
+                if (clusterNode != null) {
+                    return clusterNode;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.alibaba.csp.sentinel.slots.block.flow;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.AdaptiveConcurrencyController;
 import com.alibaba.csp.sentinel.slots.block.flow.controller.DefaultController;
 import com.alibaba.csp.sentinel.slots.block.flow.controller.RateLimiterController;
 import com.alibaba.csp.sentinel.slots.block.flow.controller.WarmUpController;
@@ -144,6 +145,8 @@ public final class FlowRuleUtil {
                 default:
                     // Default mode or unknown mode: default traffic shaping controller (fast-reject).
             }
+        } else if (rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY) {
+            return new AdaptiveConcurrencyController(rule.getCount());
         }
         return new DefaultController(rule.getCount(), rule.getGrade());
     }
@@ -174,6 +177,10 @@ public final class FlowRuleUtil {
             // Check strategy and control (shaping) behavior.
             return checkClusterField(rule) && checkStrategyField(rule) && checkControlBehaviorField(rule);
         } else if (rule.getGrade() == RuleConstant.FLOW_GRADE_THREAD) {
+            if (rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY) {
+                // The adaptive limit is estimated from local statistics, so it cannot be shared in cluster.
+                return !rule.isClusterMode() && rule.getCount() >= 1;
+            }
             return checkClusterConcurrentField(rule);
         } else {
             return false;
@@ -245,6 +252,9 @@ public final class FlowRuleUtil {
                 return rule.getMaxQueueingTimeMs() > 0;
             case RuleConstant.CONTROL_BEHAVIOR_WARM_UP_RATE_LIMITER:
                 return rule.getWarmUpPeriodSec() > 0 && rule.getMaxQueueingTimeMs() > 0;
+            case RuleConstant.CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY:
+                // Only available for thread-grade rules.
+                return false;
             default:
                 return true;
         }
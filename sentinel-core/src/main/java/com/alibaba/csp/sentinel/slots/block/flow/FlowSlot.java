@@ -23,11 +23,6 @@ import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.spi.Spi;
 import com.alibaba.csp.sentinel.util.AssertUtil;
-import com.alibaba.csp.sentinel.util.function.Function;
-
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
 
 /**
  * <p>
@@ -133,6 +128,14 @@ import java.util.Map;
  * at the same time, the system using this strategy will handle requests and its
  * fixed rate until all the requests have been processed or time out.
  * </p>
+ *
+ * <li>Adaptive Concurrency ({@code RuleConstant.CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY})</li>
+ * <p>
+ * Only for flow rules of thread grade. Instead of a fixed threshold, the concurrency limit is adjusted
+ * according to the response time and throughput of the resource: it grows while the response time
+ * stays stable, and shrinks when requests start queueing. The {@code count} of the rule is the
+ * upper bound of the limit.
+ * </p>
  * </ol>
  *
  * @author jialiang.linjl
@@ -168,20 +171,11 @@ public class FlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
     void checkFlow(ResourceWrapper resource, Context context, DefaultNode node, int count, boolean prioritized)
         throws BlockException {
-        checker.checkFlow(ruleProvider, resource, context, node, count, prioritized);
+        checker.checkFlow(FlowRuleManager.getFlowRulePlan(resource.getName()), context, node, count, prioritized);
     }
 
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
         fireExit(context, resourceWrapper, count, args);
     }
-
-    private final Function<String, Collection<FlowRule>> ruleProvider = new Function<String, Collection<FlowRule>>() {
-        @Override
-        public Collection<FlowRule> apply(String resource) {
-            // Flow rule map should not be null.
-            Map<String, List<FlowRule>> flowRules = FlowRuleManager.getFlowRuleMap();
-            return flowRules.get(resource);
-        }
-    };
 }
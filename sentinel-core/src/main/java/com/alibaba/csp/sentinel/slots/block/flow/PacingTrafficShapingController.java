@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import com.alibaba.csp.sentinel.node.Node;
+
+/**
+ * <p>A {@link TrafficShapingController} that paces requests by queueing them, e.g. the rate limiter.</p>
+ *
+ * <p>{@link #canPass(Node, int, boolean)} of a pacing controller makes the current thread wait until
+ * the pass time of the request. For non-blocking entries (see {@code SphU#asyncEntryNonBlocking}),
+ * {@link #reserve(Node, int, boolean)} is used instead, which reserves the pass time and returns the
+ * time to wait, so that the caller can schedule the request without occupying a thread.</p>
+ *
+ * @since 1.8.2
+ */
+public interface PacingTrafficShapingController extends TrafficShapingController {
+
+    /**
+     * Reserve a pass for given resource entry with provided count, without waiting for it.
+     *
+     * @param node resource node
+     * @param acquireCount count to acquire
+     * @param prioritized whether the request is prioritized
+     * @return time to wait in milliseconds before the request is processed (0 for no waiting),
+     * or a negative value if the request should be blocked
+     */
+    long reserve(Node node, int acquireCount, boolean prioritized);
+}
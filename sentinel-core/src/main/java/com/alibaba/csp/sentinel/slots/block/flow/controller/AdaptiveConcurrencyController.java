@@ -0,0 +1,150 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>
+ * Concurrency limiter that adjusts its limit automatically according to the response time
+ * and throughput observed in the resource node, rather than relying on a fixed threshold.
+ * </p>
+ *
+ * <p>
+ * The algorithm is a gradient one, similar to TCP Vegas and the Gradient limiter of Netflix
+ * concurrency-limits. The average RT of the latest second is compared with the no-load RT of the
+ * resource. While the RT stays within {@code tolerance} times the no-load RT, the limit keeps growing
+ * by its square root (the allowed queue); once requests start queueing and the RT rises, the limit
+ * shrinks by the ratio of the two RTs, so it settles where the queue is about the square root of the limit.
+ * </p>
+ *
+ * <p>
+ * The no-load RT follows the lowest RT ever observed, and is re-learned whenever the resource is
+ * underused (less than half of the limit is in flight), as requests won't queue in that case.
+ * The limit itself is left unchanged while the resource is underused, since a low RT under low
+ * concurrency says nothing about the capacity.
+ * </p>
+ *
+ * <p>
+ * The limit is re-estimated at most once per {@code updateIntervalMs} in the request thread.
+ * The {@code count} of the flow rule is the upper bound of the limit.
+ * </p>
+ *
+ * @since 1.8.2
+ */
+public class AdaptiveConcurrencyController implements TrafficShapingController {
+
+    private static final int DEFAULT_MIN_LIMIT = 1;
+    private static final int DEFAULT_INITIAL_LIMIT = 20;
+    private static final long DEFAULT_UPDATE_INTERVAL_MS = 100;
+
+    private static final double TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double NO_LOAD_RT_SMOOTHING = 0.1;
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final long updateIntervalMs;
+
+    private final AtomicBoolean updating = new AtomicBoolean(false);
+
+    private volatile double limit;
+    private volatile long lastUpdateTime = 0;
+
+    /**
+     * Estimated RT without queueing, only accessed by the updating thread.
+     */
+    private double noLoadRt = 0;
+
+    public AdaptiveConcurrencyController(double maxLimit) {
+        this(DEFAULT_MIN_LIMIT, maxLimit, Math.min(maxLimit, DEFAULT_INITIAL_LIMIT), DEFAULT_UPDATE_INTERVAL_MS);
+    }
+
+    public AdaptiveConcurrencyController(double minLimit, double maxLimit, double initialLimit,
+                                         long updateIntervalMs) {
+        AssertUtil.isTrue(minLimit > 0, "minLimit should be positive");
+        AssertUtil.isTrue(maxLimit >= minLimit, "maxLimit should not be smaller than minLimit");
+        AssertUtil.isTrue(updateIntervalMs > 0, "updateIntervalMs should be positive");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.updateIntervalMs = updateIntervalMs;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    @Override
+    public boolean canPass(Node node, int acquireCount) {
+        return canPass(node, acquireCount, false);
+    }
+
+    @Override
+    public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        if (node == null) {
+            return true;
+        }
+        long currentTime = TimeUtil.currentTimeMillis();
+        if (currentTime - lastUpdateTime >= updateIntervalMs && updating.compareAndSet(false, true)) {
+            try {
+                if (currentTime - lastUpdateTime >= updateIntervalMs) {
+                    updateLimit(node);
+                    lastUpdateTime = currentTime;
+                }
+            } finally {
+                updating.set(false);
+            }
+        }
+        return node.curThreadNum() + acquireCount <= (int)limit;
+    }
+
+    private void updateLimit(Node node) {
+        double successQps = node.successQps();
+        if (successQps <= 0) {
+            return;
+        }
+        double rt = Math.max(node.avgRt(), 1);
+        if (noLoadRt <= 0 || rt < noLoadRt) {
+            noLoadRt = rt;
+        }
+
+        double currentLimit = limit;
+        // Little's law: concurrency = throughput * latency.
+        double inflight = Math.max(node.curThreadNum(), successQps * rt / 1000);
+        if (inflight < currentLimit / 2) {
+            // Requests won't queue when the resource is underused, so the RT is the no-load one.
+            noLoadRt += (rt - noLoadRt) * NO_LOAD_RT_SMOOTHING;
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * noLoadRt / rt));
+        double newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+        newLimit = currentLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    /**
+     * Get the current estimated concurrency limit.
+     *
+     * @return the current concurrency limit
+     */
+    public int getLimit() {
+        return (int)limit;
+    }
+}
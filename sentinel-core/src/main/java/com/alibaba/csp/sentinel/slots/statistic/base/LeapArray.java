@@ -17,9 +17,11 @@ package com.alibaba.csp.sentinel.slots.statistic.base;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
@@ -32,6 +34,13 @@ import com.alibaba.csp.sentinel.util.TimeUtil;
  * and the total time span is {@link #intervalInMs}, so the total bucket amount is:
  * {@code sampleCount = intervalInMs / windowLengthInMs}.
  * </p>
+ * <p>
+ * Deprecated buckets are reset under a conditional update lock by default. In lock-free rotation mode,
+ * a deprecated bucket is replaced instead: the rotating thread prepares a clean bucket privately and publishes
+ * it via CAS, so no thread ever yields or blocks while the bucket is being reset. Published buckets are never
+ * reused, as other threads may still hold and add to them; only the private bucket of a failed CAS is kept
+ * for the next rotation.
+ * </p>
  *
  * @param <T> type of statistic data
  * @author jialiang.linjl
@@ -52,13 +61,37 @@ public abstract class LeapArray<T> {
      */
     private final ReentrantLock updateLock = new ReentrantLock();
 
+    /**
+     * Whether deprecated buckets are replaced via CAS rather than reset under the update lock.
+     */
+    private final boolean lockFreeRotation;
+
+    /**
+     * A clean bucket prepared by a thread which lost the lock-free rotation, which will be reused by the next
+     * rotation. It has never been published to the array, so no other thread can hold it.
+     */
+    private final AtomicReference<WindowWrap<T>> spareWindow = new AtomicReference<WindowWrap<T>>();
+
     /**
      * The total bucket count is: {@code sampleCount = intervalInMs / windowLengthInMs}.
+     * The rotation mode is resolved from {@link SentinelConfig#statisticLockFreeRotation()}.
      *
      * @param sampleCount  bucket count of the sliding window
      * @param intervalInMs the total time interval of this {@link LeapArray} in milliseconds
      */
     public LeapArray(int sampleCount, int intervalInMs) {
+        this(sampleCount, intervalInMs, SentinelConfig.statisticLockFreeRotation());
+    }
+
+    /**
+     * The total bucket count is: {@code sampleCount = intervalInMs / windowLengthInMs}.
+     *
+     * @param sampleCount      bucket count of the sliding window
+     * @param intervalInMs     the total time interval of this {@link LeapArray} in milliseconds
+     * @param lockFreeRotation whether to replace deprecated buckets via CAS instead of the update lock
+     * @since 1.8.2
+     */
+    public LeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
         AssertUtil.isTrue(sampleCount > 0, "bucket count is invalid: " + sampleCount);
         AssertUtil.isTrue(intervalInMs > 0, "total time interval of the sliding window should be positive");
         AssertUtil.isTrue(intervalInMs % sampleCount == 0, "time span needs to be evenly divided");
@@ -68,6 +101,8 @@ public abstract class LeapArray<T> {
         this.intervalInSecond = intervalInMs / 1000.0;
         this.sampleCount = sampleCount;
 
+        this.lockFreeRotation = lockFreeRotation;
+
         this.array = new AtomicReferenceArray<>(sampleCount);
     }
 
@@ -148,7 +183,7 @@ public abstract class LeapArray<T> {
                 if (array.compareAndSet(idx, null, window)) {
                     // Successfully updated, return the created bucket.
                     return window;
-                } else {
+                } else if (!lockFreeRotation) {
                     // Contention failed, the thread will yield its time slice to wait for bucket available.
                     Thread.yield();
                 }
@@ -182,8 +217,16 @@ public abstract class LeapArray<T> {
                  *
                  * The update lock is conditional (tiny scope) and will take effect only when
                  * bucket is deprecated, so in most cases it won't lead to performance loss.
+                 *
+                 * In lock-free rotation mode, the deprecated bucket is replaced by a clean one via CAS.
+                 * The thread which fails the CAS just reads the bucket installed by the winner.
                  */
-                if (updateLock.tryLock()) {
+                if (lockFreeRotation) {
+                    WindowWrap<T> window = rotateWindow(idx, old, windowStart, timeMillis);
+                    if (window != null) {
+                        return window;
+                    }
+                } else if (updateLock.tryLock()) {
                     try {
                         // Successfully get the update lock, now we reset the bucket.
                         return resetWindowTo(old, windowStart);
@@ -201,6 +244,33 @@ public abstract class LeapArray<T> {
         }
     }
 
+    /**
+     * Replace the deprecated bucket at given index with a clean bucket at {@code windowStart} via CAS.
+     * The clean bucket is prepared privately before being published, so that other threads never observe
+     * a bucket which is being reset. Buckets which have ever been published are never reused, as other
+     * threads may still hold and add to them; only the private bucket of a failed CAS is kept for reuse.
+     *
+     * @param idx         index of the bucket
+     * @param old         the deprecated bucket
+     * @param windowStart start time of the new bucket
+     * @param timeMillis  current time in milliseconds
+     * @return the new bucket if this thread has replaced the deprecated one; otherwise null
+     */
+    private WindowWrap<T> rotateWindow(int idx, WindowWrap<T> old, long windowStart, long timeMillis) {
+        WindowWrap<T> window = spareWindow.getAndSet(null);
+        if (window == null) {
+            window = new WindowWrap<T>(windowLengthInMs, windowStart, newEmptyBucket(timeMillis));
+        } else {
+            window = resetWindowTo(window, windowStart);
+        }
+        if (array.compareAndSet(idx, old, window)) {
+            return window;
+        }
+        // Another thread has replaced the bucket, so keep the unpublished bucket for the next rotation.
+        spareWindow.compareAndSet(null, window);
+        return null;
+    }
+
     /**
      * Get the previous bucket item before provided timestamp.
      *
@@ -371,6 +441,16 @@ public abstract class LeapArray<T> {
         return getValidHead(TimeUtil.currentTimeMillis());
     }
 
+    /**
+     * Check whether deprecated buckets are replaced via CAS rather than reset under the update lock.
+     *
+     * @return true if lock-free rotation mode is enabled
+     * @since 1.8.2
+     */
+    public boolean isLockFreeRotation() {
+        return lockFreeRotation;
+    }
+
     /**
      * Get sample count (total amount of buckets).
      *
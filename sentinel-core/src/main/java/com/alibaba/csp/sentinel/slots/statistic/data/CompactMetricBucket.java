@@ -0,0 +1,84 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+/**
+ * <p>A {@link MetricBucket} that only counts {@link MetricEvent#PASS} and {@link MetricEvent#BLOCK} events,
+ * in two plain fields rather than one {@link java.util.concurrent.atomic.LongAdder} per event.
+ * Other events and response time are ignored, so they are always 0 in this bucket.</p>
+ *
+ * <p>It's used for statistics which need only the pass and block counts, e.g. compact origin nodes.</p>
+ *
+ * @since 1.8.2
+ */
+public class CompactMetricBucket extends MetricBucket {
+
+    private static final AtomicLongFieldUpdater<CompactMetricBucket> PASS_UPDATER =
+        AtomicLongFieldUpdater.newUpdater(CompactMetricBucket.class, "pass");
+    private static final AtomicLongFieldUpdater<CompactMetricBucket> BLOCK_UPDATER =
+        AtomicLongFieldUpdater.newUpdater(CompactMetricBucket.class, "block");
+
+    private volatile long pass;
+    private volatile long block;
+
+    public CompactMetricBucket() {
+        super(false, false);
+    }
+
+    @Override
+    public MetricBucket reset(MetricBucket bucket) {
+        this.pass = bucket.pass();
+        this.block = bucket.block();
+        return this;
+    }
+
+    @Override
+    public MetricBucket reset() {
+        this.pass = 0;
+        this.block = 0;
+        return this;
+    }
+
+    @Override
+    public long get(MetricEvent event) {
+        if (event == MetricEvent.PASS) {
+            return pass;
+        }
+        if (event == MetricEvent.BLOCK) {
+            return block;
+        }
+        return 0;
+    }
+
+    @Override
+    public MetricBucket add(MetricEvent event, long n) {
+        if (event == MetricEvent.PASS) {
+            PASS_UPDATER.addAndGet(this, n);
+        } else if (event == MetricEvent.BLOCK) {
+            BLOCK_UPDATER.addAndGet(this, n);
+        }
+        return this;
+    }
+
+    @Override
+    public void addRT(long rt) {
+        // Response time is not recorded.
+    }
+}
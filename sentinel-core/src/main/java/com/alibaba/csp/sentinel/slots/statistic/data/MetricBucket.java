@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.slots.statistic.data;
 
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
@@ -31,12 +32,46 @@ public class MetricBucket {
 
     private volatile long minRt;
 
+    private static final AtomicReferenceFieldUpdater<MetricBucket, RtHistogram> RT_HISTOGRAM_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(MetricBucket.class, RtHistogram.class, "rtHistogram");
+
+    private final boolean withRtHistogram;
+    /**
+     * Created on the first recorded RT, so that buckets of idle resources take no memory for it.
+     */
+    private volatile RtHistogram rtHistogram;
+
     public MetricBucket() {
-        MetricEvent[] events = MetricEvent.values();
-        this.counters = new LongAdder[events.length];
-        for (MetricEvent event : events) {
-            counters[event.ordinal()] = new LongAdder();
+        this(true);
+    }
+
+    /**
+     * Constructor for subclasses which keep the event counters in their own storage
+     * (e.g. {@link PaddedMetricBucket}), so the {@link LongAdder}s need not be created.
+     *
+     * @param createAdders whether to create the default {@link LongAdder} counters
+     * @since 1.8.2
+     */
+    protected MetricBucket(boolean createAdders) {
+        this(createAdders, false);
+    }
+
+    /**
+     * @param createAdders    whether to create the default {@link LongAdder} counters
+     * @param withRtHistogram whether to record response time in a {@link RtHistogram}
+     * @since 1.8.2
+     */
+    protected MetricBucket(boolean createAdders, boolean withRtHistogram) {
+        if (createAdders) {
+            MetricEvent[] events = MetricEvent.values();
+            this.counters = new LongAdder[events.length];
+            for (MetricEvent event : events) {
+                counters[event.ordinal()] = new LongAdder();
+            }
+        } else {
+            this.counters = null;
         }
+        this.withRtHistogram = withRtHistogram;
         initMinRt();
     }
 
@@ -46,13 +81,21 @@ public class MetricBucket {
             counters[event.ordinal()].add(bucket.get(event));
         }
         initMinRt();
+        resetRtHistogram();
         return this;
     }
 
-    private void initMinRt() {
+    protected void initMinRt() {
         this.minRt = SentinelConfig.statisticMaxRt();
     }
 
+    protected void resetRtHistogram() {
+        RtHistogram histogram = rtHistogram;
+        if (histogram != null) {
+            histogram.reset();
+        }
+    }
+
     /**
      * Reset the adders.
      *
@@ -63,6 +106,7 @@ public class MetricBucket {
             counters[event.ordinal()].reset();
         }
         initMinRt();
+        resetRtHistogram();
         return this;
     }
 
@@ -99,6 +143,16 @@ public class MetricBucket {
         return minRt;
     }
 
+    /**
+     * Get the response time histogram of this bucket.
+     *
+     * @return the RT histogram, or null if the bucket does not record RT histogram or no RT has been recorded
+     * @since 1.8.2
+     */
+    public RtHistogram rtHistogram() {
+        return rtHistogram;
+    }
+
     public long success() {
         return get(MetricEvent.SUCCESS);
     }
@@ -130,6 +184,14 @@ public class MetricBucket {
         if (rt < minRt) {
             minRt = rt;
         }
+        if (withRtHistogram) {
+            RtHistogram histogram = rtHistogram;
+            if (histogram == null) {
+                RT_HISTOGRAM_UPDATER.compareAndSet(this, null, new RtHistogram());
+                histogram = rtHistogram;
+            }
+            histogram.add(rt);
+        }
     }
 
     @Override
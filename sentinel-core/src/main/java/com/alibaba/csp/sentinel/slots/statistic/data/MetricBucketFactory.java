@@ -0,0 +1,50 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+/**
+ * Creates {@link MetricBucket} of the type configured by {@link SentinelConfig#METRIC_BUCKET_TYPE}.
+ *
+ * @since 1.8.2
+ */
+public final class MetricBucketFactory {
+
+    /**
+     * Create a new empty metric bucket of the configured type.
+     *
+     * @return new empty metric bucket
+     */
+    public static MetricBucket newBucket() {
+        return newBucket(false);
+    }
+
+    /**
+     * Create a new empty metric bucket of the configured type.
+     *
+     * @param withRtHistogram whether the bucket records response time in a {@link RtHistogram}
+     * @return new empty metric bucket
+     */
+    public static MetricBucket newBucket(boolean withRtHistogram) {
+        if (SentinelConfig.METRIC_BUCKET_TYPE_PADDED.equals(SentinelConfig.metricBucketType())) {
+            return new PaddedMetricBucket(SentinelConfig.metricBucketStripeCount(), withRtHistogram);
+        }
+        return new MetricBucket(true, withRtHistogram);
+    }
+
+    private MetricBucketFactory() {}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A {@link MetricBucket} that keeps all event counters in one striped primitive array
+ * instead of one {@link java.util.concurrent.atomic.LongAdder} per {@link MetricEvent}.</p>
+ *
+ * <p>The array is split into {@code stripeCount} stripes, each stripe occupies its own cache line
+ * and holds one slot per event (indexed by {@link MetricEvent#ordinal()}). An extra cache line is
+ * left at both ends of the array, so that the stripes won't share cache lines with the array header
+ * or neighbouring objects. A writer picks its stripe by the current thread id, and readers sum up
+ * the slot of the event in all stripes.</p>
+ *
+ * <p>Each bucket is a single array object, so resetting and summing a bucket walk a contiguous memory
+ * region rather than dozens of separate heap objects.</p>
+ *
+ * @since 1.8.2
+ */
+public class PaddedMetricBucket extends MetricBucket {
+
+    private static final MetricEvent[] EVENTS = MetricEvent.values();
+    private static final int EVENT_COUNT = EVENTS.length;
+
+    /**
+     * Amount of longs in one 64-byte cache line.
+     */
+    private static final int LONGS_PER_CACHE_LINE = 8;
+
+    /**
+     * Amount of slots per stripe, rounded up to whole cache lines.
+     */
+    private static final int STRIPE_LENGTH = (EVENT_COUNT + LONGS_PER_CACHE_LINE - 1)
+        / LONGS_PER_CACHE_LINE * LONGS_PER_CACHE_LINE;
+
+    private static final int PADDING = LONGS_PER_CACHE_LINE;
+
+    private final AtomicLongArray cells;
+    private final int stripeMask;
+
+    /**
+     * @param stripeCount amount of stripes, should be a positive power of 2
+     */
+    public PaddedMetricBucket(int stripeCount) {
+        this(stripeCount, false);
+    }
+
+    /**
+     * @param stripeCount     amount of stripes, should be a positive power of 2
+     * @param withRtHistogram whether to record response time in a {@link RtHistogram}
+     */
+    public PaddedMetricBucket(int stripeCount, boolean withRtHistogram) {
+        super(false, withRtHistogram);
+        AssertUtil.isTrue(stripeCount > 0 && (stripeCount & (stripeCount - 1)) == 0,
+            "stripeCount should be a positive power of 2");
+        this.stripeMask = stripeCount - 1;
+        this.cells = new AtomicLongArray(PADDING + stripeCount * STRIPE_LENGTH + PADDING);
+    }
+
+    private static int indexOf(int stripe, MetricEvent event) {
+        return PADDING + stripe * STRIPE_LENGTH + event.ordinal();
+    }
+
+    private int currentStripe() {
+        return (int)Thread.currentThread().getId() & stripeMask;
+    }
+
+    @Override
+    public MetricBucket reset(MetricBucket bucket) {
+        clearCells();
+        for (MetricEvent event : EVENTS) {
+            cells.set(indexOf(0, event), bucket.get(event));
+        }
+        initMinRt();
+        resetRtHistogram();
+        return this;
+    }
+
+    @Override
+    public MetricBucket reset() {
+        clearCells();
+        initMinRt();
+        resetRtHistogram();
+        return this;
+    }
+
+    private void clearCells() {
+        int end = cells.length() - PADDING;
+        for (int i = PADDING; i < end; i++) {
+            cells.lazySet(i, 0);
+        }
+    }
+
+    @Override
+    public long get(MetricEvent event) {
+        long sum = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            sum += cells.get(indexOf(stripe, event));
+        }
+        return sum;
+    }
+
+    @Override
+    public MetricBucket add(MetricEvent event, long n) {
+        cells.getAndAdd(indexOf(currentStripe(), event), n);
+        return this;
+    }
+
+    /**
+     * Get the amount of stripes of this bucket.
+     *
+     * @return the amount of stripes
+     */
+    public int stripeCount() {
+        return stripeMask + 1;
+    }
+}
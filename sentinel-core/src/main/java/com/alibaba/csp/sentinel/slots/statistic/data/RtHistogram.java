@@ -0,0 +1,171 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+/**
+ * <p>A fixed-size, log-bucketed histogram of response time (in milliseconds) within a statistic window.</p>
+ *
+ * <p>Response time less than {@link #SUB_BUCKET_COUNT} has its own bucket. Above that, each power of 2
+ * is divided into {@link #SUB_BUCKET_COUNT} buckets of equal width, so a recorded value is off by at most
+ * 1/{@link #SUB_BUCKET_COUNT} of itself. The buckets cover values up to
+ * {@link SentinelConfig#statisticMaxRt()}, larger values are counted in the last bucket.
+ * Recording a value is a few bit operations and one atomic increment.</p>
+ *
+ * @since 1.8.2
+ */
+public class RtHistogram {
+
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    private static final long MAX_RT = SentinelConfig.statisticMaxRt();
+    private static final int BUCKET_COUNT = indexOf(MAX_RT) + 1;
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKET_COUNT);
+
+    /**
+     * Get the index of the bucket which holds given response time.
+     *
+     * @param rt response time in milliseconds
+     * @return index of the bucket
+     */
+    static int indexOf(long rt) {
+        if (rt < SUB_BUCKET_COUNT) {
+            return rt < 0 ? 0 : (int)rt;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(rt);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int)((rt >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    /**
+     * Get the largest response time which falls in given bucket.
+     *
+     * @param index index of the bucket
+     * @return the largest value of the bucket, no more than the max statistic RT
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long)(SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK)) << shift;
+        return Math.min(lowest + (1L << shift) - 1, MAX_RT);
+    }
+
+    /**
+     * Get the amount of buckets in each histogram.
+     *
+     * @return amount of buckets
+     */
+    public static int bucketCount() {
+        return BUCKET_COUNT;
+    }
+
+    /**
+     * Get the percentile of given bucket counts.
+     *
+     * @param counts     counts of each bucket, with the length of {@link #bucketCount()}
+     * @param percentile the percentile in (0, 1], e.g. 0.99
+     * @return the response time that given percentile of the recorded values are no more than,
+     * or 0 if there are no recorded values
+     */
+    public static long percentileOf(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max((long)Math.ceil(percentile * total), 1);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(counts.length - 1);
+    }
+
+    public void add(long rt) {
+        int index = indexOf(rt);
+        counts.getAndIncrement(index < BUCKET_COUNT ? index : BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Add the counts of this histogram to given array.
+     *
+     * @param target array with the length of {@link #bucketCount()}
+     */
+    public void addTo(long[] target) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            target[i] += counts.get(i);
+        }
+    }
+
+    /**
+     * Get the amount of recorded values.
+     *
+     * @return amount of recorded values
+     */
+    public long totalCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public long percentile(double percentile) {
+        return percentile(percentile, totalCount());
+    }
+
+    /**
+     * Get the percentile of the recorded values, without copying the counts.
+     *
+     * @param percentile the percentile in (0, 1], e.g. 0.99
+     * @param total      amount of recorded values, see {@link #totalCount()}
+     * @return the response time that given percentile of the recorded values are no more than,
+     * or 0 if there are no recorded values
+     */
+    public long percentile(double percentile, long total) {
+        if (total <= 0) {
+            return 0;
+        }
+        long rank = Math.max((long)Math.ceil(percentile * total), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(BUCKET_COUNT - 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.lazySet(i, 0);
+        }
+    }
+}
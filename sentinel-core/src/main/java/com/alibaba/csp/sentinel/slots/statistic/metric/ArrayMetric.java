@@ -23,6 +23,7 @@ import com.alibaba.csp.sentinel.node.metric.MetricNode;
 import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.RtHistogram;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.OccupiableBucketLeapArray;
 import com.alibaba.csp.sentinel.util.function.Predicate;
@@ -49,6 +50,22 @@ public class ArrayMetric implements Metric {
         }
     }
 
+    /**
+     * @param sampleCount       bucket count of the sliding window
+     * @param intervalInMs      the total time interval in milliseconds
+     * @param enableOccupy      whether to support occupying the future buckets
+     * @param enableRtHistogram whether to record RT histogram, which provides the RT percentiles
+     * @since 1.8.2
+     */
+    public ArrayMetric(int sampleCount, int intervalInMs, boolean enableOccupy, boolean enableRtHistogram) {
+        if (enableOccupy) {
+            this.data = new OccupiableBucketLeapArray(sampleCount, intervalInMs, enableRtHistogram);
+        } else {
+            this.data = new BucketLeapArray(sampleCount, intervalInMs,
+                SentinelConfig.statisticLockFreeRotation(), enableRtHistogram);
+        }
+    }
+
     /**
      * For unit test.
      */
@@ -152,6 +169,24 @@ public class ArrayMetric implements Metric {
         return Math.max(1, rt);
     }
 
+    @Override
+    public long rtPercentile(double percentile) {
+        data.currentWindow();
+        long[] counts = null;
+        List<MetricBucket> list = data.values();
+        for (MetricBucket window : list) {
+            RtHistogram histogram = window.rtHistogram();
+            if (histogram == null) {
+                continue;
+            }
+            if (counts == null) {
+                counts = new long[RtHistogram.bucketCount()];
+            }
+            histogram.addTo(counts);
+        }
+        return counts == null ? 0 : RtHistogram.percentileOf(counts, percentile);
+    }
+
     @Override
     public List<MetricNode> details() {
         List<MetricNode> details = new ArrayList<>();
@@ -187,21 +222,41 @@ public class ArrayMetric implements Metric {
         return details;
     }
 
+    @Override
+    public boolean fillDetail(long timeMillis, MetricNode node) {
+        MetricBucket bucket = data.getWindowValue(timeMillis);
+        if (bucket == null) {
+            return false;
+        }
+        fillNode(node, bucket, timeMillis);
+        return true;
+    }
+
     private MetricNode fromBucket(WindowWrap<MetricBucket> wrap) {
         MetricNode node = new MetricNode();
-        node.setBlockQps(wrap.value().block());
-        node.setExceptionQps(wrap.value().exception());
-        node.setPassQps(wrap.value().pass());
-        long successQps = wrap.value().success();
+        fillNode(node, wrap.value(), wrap.windowStart());
+        return node;
+    }
+
+    private static void fillNode(MetricNode node, MetricBucket bucket, long windowStart) {
+        node.setBlockQps(bucket.block());
+        node.setExceptionQps(bucket.exception());
+        node.setPassQps(bucket.pass());
+        long successQps = bucket.success();
         node.setSuccessQps(successQps);
         if (successQps != 0) {
-            node.setRt(wrap.value().rt() / successQps);
+            node.setRt(bucket.rt() / successQps);
         } else {
-            node.setRt(wrap.value().rt());
+            node.setRt(bucket.rt());
         }
-        node.setTimestamp(wrap.windowStart());
-        node.setOccupiedPassQps(wrap.value().occupiedPass());
-        return node;
+        node.setTimestamp(windowStart);
+        node.setOccupiedPassQps(bucket.occupiedPass());
+        RtHistogram histogram = bucket.rtHistogram();
+        long total = histogram == null ? 0 : histogram.totalCount();
+        node.setP50Rt(total == 0 ? 0 : histogram.percentile(0.5, total));
+        node.setP90Rt(total == 0 ? 0 : histogram.percentile(0.9, total));
+        node.setP99Rt(total == 0 ? 0 : histogram.percentile(0.99, total));
+        node.setP999Rt(total == 0 ? 0 : histogram.percentile(0.999, total));
     }
 
     @Override
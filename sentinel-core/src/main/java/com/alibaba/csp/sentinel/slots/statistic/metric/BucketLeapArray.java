@@ -18,6 +18,7 @@ package com.alibaba.csp.sentinel.slots.statistic.metric;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucketFactory;
 
 /**
  * The fundamental data structure for metric statistics in a time span.
@@ -28,13 +29,38 @@ import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
  */
 public class BucketLeapArray extends LeapArray<MetricBucket> {
 
+    private final boolean rtHistogram;
+
     public BucketLeapArray(int sampleCount, int intervalInMs) {
         super(sampleCount, intervalInMs);
+        this.rtHistogram = false;
+    }
+
+    /**
+     * @param sampleCount      bucket count of the sliding window
+     * @param intervalInMs     the total time interval in milliseconds
+     * @param lockFreeRotation whether to replace deprecated buckets via CAS instead of the update lock
+     * @since 1.8.2
+     */
+    public BucketLeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation) {
+        this(sampleCount, intervalInMs, lockFreeRotation, false);
+    }
+
+    /**
+     * @param sampleCount      bucket count of the sliding window
+     * @param intervalInMs     the total time interval in milliseconds
+     * @param lockFreeRotation whether to replace deprecated buckets via CAS instead of the update lock
+     * @param rtHistogram      whether the buckets record response time histogram
+     * @since 1.8.2
+     */
+    public BucketLeapArray(int sampleCount, int intervalInMs, boolean lockFreeRotation, boolean rtHistogram) {
+        super(sampleCount, intervalInMs, lockFreeRotation);
+        this.rtHistogram = rtHistogram;
     }
 
     @Override
     public MetricBucket newEmptyBucket(long time) {
-        return new MetricBucket();
+        return MetricBucketFactory.newBucket(rtHistogram);
     }
 
     @Override
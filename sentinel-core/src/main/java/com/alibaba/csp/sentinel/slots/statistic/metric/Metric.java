@@ -78,6 +78,17 @@ public interface Metric extends DebugSupport {
      */
     long minRt();
 
+    /**
+     * Get the RT percentile, e.g. {@code rtPercentile(0.99)} for p99 RT.
+     *
+     * @param percentile the percentile in (0, 1]
+     * @return the RT percentile, or 0 if there is no RT recorded or RT histogram is not enabled
+     * @since 1.8.2
+     */
+    default long rtPercentile(double percentile) {
+        return 0;
+    }
+
     /**
      * Get aggregated metric nodes of all resources.
      *
@@ -94,6 +105,40 @@ public interface Metric extends DebugSupport {
      */
     List<MetricNode> detailsOnCondition(Predicate<Long> timePredicate);
 
+    /**
+     * Fill the statistics of the window at given time into given node, without creating new objects.
+     * By default it falls back to {@link #detailsOnCondition(Predicate)}, which creates the nodes.
+     *
+     * @param timeMillis start time of the window
+     * @param node       the node to fill, whose statistic fields are all overwritten
+     * @return false if the window of given time is absent or deprecated, in which case the node is not touched
+     * @since 1.8.2
+     */
+    default boolean fillDetail(final long timeMillis, MetricNode node) {
+        List<MetricNode> details = detailsOnCondition(new Predicate<Long>() {
+            @Override
+            public boolean test(Long windowStart) {
+                return windowStart == timeMillis;
+            }
+        });
+        if (details == null || details.isEmpty()) {
+            return false;
+        }
+        MetricNode detail = details.get(0);
+        node.setTimestamp(detail.getTimestamp());
+        node.setPassQps(detail.getPassQps());
+        node.setBlockQps(detail.getBlockQps());
+        node.setSuccessQps(detail.getSuccessQps());
+        node.setExceptionQps(detail.getExceptionQps());
+        node.setRt(detail.getRt());
+        node.setOccupiedPassQps(detail.getOccupiedPassQps());
+        node.setP50Rt(detail.getP50Rt());
+        node.setP90Rt(detail.getP90Rt());
+        node.setP99Rt(detail.getP99Rt());
+        node.setP999Rt(detail.getP999Rt());
+        return true;
+    }
+
     /**
      * Get the raw window array.
      *
@@ -21,6 +21,7 @@ import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucketFactory;
 
 /**
  * @author jialiang.linjl
@@ -29,16 +30,28 @@ import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
 public class OccupiableBucketLeapArray extends LeapArray<MetricBucket> {
 
     private final FutureBucketLeapArray borrowArray;
+    private final boolean rtHistogram;
 
     public OccupiableBucketLeapArray(int sampleCount, int intervalInMs) {
+        this(sampleCount, intervalInMs, false);
+    }
+
+    /**
+     * @param sampleCount  bucket count of the sliding window
+     * @param intervalInMs the total time interval in milliseconds
+     * @param rtHistogram  whether the buckets record response time histogram
+     * @since 1.8.2
+     */
+    public OccupiableBucketLeapArray(int sampleCount, int intervalInMs, boolean rtHistogram) {
         // This class is the original "CombinedBucketArray".
         super(sampleCount, intervalInMs);
         this.borrowArray = new FutureBucketLeapArray(sampleCount, intervalInMs);
+        this.rtHistogram = rtHistogram;
     }
 
     @Override
     public MetricBucket newEmptyBucket(long time) {
-        MetricBucket newBucket = new MetricBucket();
+        MetricBucket newBucket = MetricBucketFactory.newBucket(rtHistogram);
 
         MetricBucket borrowBucket = borrowArray.getWindowValue(time);
         if (borrowBucket != null) {
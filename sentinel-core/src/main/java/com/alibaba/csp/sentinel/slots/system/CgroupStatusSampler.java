@@ -0,0 +1,300 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.system;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>Samples CPU usage and load of the cgroup which current process belongs to, rather than of the host,
+ * from the cgroup (v1 or v2) and PSI (pressure stall information) files of Linux.</p>
+ *
+ * <ul>
+ * <li>CPU usage is the CPU time consumed by the cgroup since last sample, divided by the CPU quota of the
+ * cgroup ({@code cpu.max} in v2, {@code cpu.cfs_quota_us / cpu.cfs_period_us} in v1), or by the available
+ * processors if there's no quota.</li>
+ * <li>Load is estimated as the amount of busy CPUs plus the amount of CPUs that runnable tasks are stalled for,
+ * i.e. {@code cpus * (cpuUsage + cpuPressure)}, where {@code cpuPressure} is the {@code some avg10} share
+ * in the {@code cpu.pressure} file of the cgroup (or {@code /proc/pressure/cpu} if absent).
+ * Without PSI, load is the amount of busy CPUs.</li>
+ * </ul>
+ *
+ * <p>As both the usage and the pressure are shares in [0, 1], the estimated load never exceeds
+ * {@code 2 * cpus}, unlike the load average of the host which grows with the run queue. So the
+ * {@code highestSystemLoad} of system rules should be set below {@code 2 * cpus} (e.g. {@code 1.5 * cpus})
+ * when sampled from cgroup, otherwise the load rule never takes effect.</p>
+ *
+ * <p>Only the quota of the cgroup itself is taken into account, not the quota of its ancestors.</p>
+ *
+ * @since 1.8.2
+ */
+final class CgroupStatusSampler {
+
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    private static final String V2_USAGE_KEY = "usage_usec";
+    private static final String PRESSURE_SOME_PREFIX = "some ";
+    private static final String PRESSURE_AVG10_KEY = "avg10=";
+
+    private final boolean v2;
+    /**
+     * {@code cpu.stat} in v2, or {@code cpuacct.usage} in v1.
+     */
+    private final File usageFile;
+    /**
+     * {@code cpu.max} in v2, or {@code cpu.cfs_quota_us} in v1.
+     */
+    private final File quotaFile;
+    /**
+     * Only used in v1: {@code cpu.cfs_period_us}.
+     */
+    private final File periodFile;
+    private final File pressureFile;
+    private final int availableProcessors;
+
+    private long lastUsageNanos = -1;
+    private long lastSampleNanos;
+
+    private volatile double cpuUsage = -1;
+    private volatile double load = -1;
+
+    private CgroupStatusSampler(boolean v2, File usageFile, File quotaFile, File periodFile, File pressureFile,
+                                int availableProcessors) {
+        this.v2 = v2;
+        this.usageFile = usageFile;
+        this.quotaFile = quotaFile;
+        this.periodFile = periodFile;
+        this.pressureFile = pressureFile;
+        this.availableProcessors = availableProcessors;
+    }
+
+    /**
+     * Detect the cgroup of current process.
+     *
+     * @return the sampler of current cgroup, or null if cgroup is not available
+     */
+    static CgroupStatusSampler detect() {
+        return detect(new File("/proc"), new File("/sys/fs/cgroup"), Runtime.getRuntime().availableProcessors());
+    }
+
+    static CgroupStatusSampler detect(File procDir, File cgroupDir, int availableProcessors) {
+        try {
+            List<String> cgroups = readLines(new File(procDir, "self/cgroup"));
+            if (new File(cgroupDir, "cgroup.controllers").exists()) {
+                return detectV2(procDir, cgroupDir, cgroups, availableProcessors);
+            }
+            return detectV1(procDir, cgroupDir, cgroups, availableProcessors);
+        } catch (Throwable ex) {
+            RecordLog.warn("[CgroupStatusSampler] Failed to detect cgroup of current process", ex);
+            return null;
+        }
+    }
+
+    private static CgroupStatusSampler detectV2(File procDir, File cgroupDir, List<String> cgroups,
+                                                int availableProcessors) {
+        String path = null;
+        for (String line : cgroups) {
+            if (line.startsWith("0::")) {
+                path = line.substring(3);
+            }
+        }
+        if (path == null) {
+            return null;
+        }
+        File dir = resolveCgroupDir(cgroupDir, path);
+        File usageFile = new File(dir, "cpu.stat");
+        if (!usageFile.exists()) {
+            return null;
+        }
+        return new CgroupStatusSampler(true, usageFile, new File(dir, "cpu.max"), null,
+            pressureFile(new File(dir, "cpu.pressure"), procDir), availableProcessors);
+    }
+
+    private static CgroupStatusSampler detectV1(File procDir, File cgroupDir, List<String> cgroups,
+                                                int availableProcessors) {
+        File cpuDir = null;
+        File cpuacctDir = null;
+        for (String line : cgroups) {
+            // Format: hierarchy-ID:controller-list:cgroup-path
+            String[] parts = line.split(":", 3);
+            if (parts.length < 3) {
+                continue;
+            }
+            for (String controller : parts[1].split(",")) {
+                if ("cpu".equals(controller)) {
+                    cpuDir = resolveCgroupDir(new File(cgroupDir, "cpu"), parts[2]);
+                } else if ("cpuacct".equals(controller)) {
+                    cpuacctDir = resolveCgroupDir(new File(cgroupDir, "cpuacct"), parts[2]);
+                }
+            }
+        }
+        if (cpuDir == null || cpuacctDir == null) {
+            return null;
+        }
+        File usageFile = new File(cpuacctDir, "cpuacct.usage");
+        if (!usageFile.exists()) {
+            return null;
+        }
+        return new CgroupStatusSampler(false, usageFile, new File(cpuDir, "cpu.cfs_quota_us"),
+            new File(cpuDir, "cpu.cfs_period_us"), pressureFile(null, procDir), availableProcessors);
+    }
+
+    /**
+     * In a container, the cgroup of the container is usually mounted as the root,
+     * while the path in {@code /proc/self/cgroup} is the path in the host.
+     */
+    private static File resolveCgroupDir(File mountDir, String path) {
+        File dir = new File(mountDir, path);
+        return dir.isDirectory() ? dir : mountDir;
+    }
+
+    private static File pressureFile(File cgroupPressureFile, File procDir) {
+        if (cgroupPressureFile != null && cgroupPressureFile.exists()) {
+            return cgroupPressureFile;
+        }
+        File systemPressureFile = new File(procDir, "pressure/cpu");
+        return systemPressureFile.exists() ? systemPressureFile : null;
+    }
+
+    /**
+     * Sample the cgroup status, should be called by one thread periodically.
+     *
+     * @param currentNanos current time in nanoseconds
+     */
+    void sample(long currentNanos) throws IOException {
+        long usageNanos = readUsageNanos();
+        double cpus = readCpuLimit();
+        if (lastUsageNanos >= 0 && currentNanos > lastSampleNanos) {
+            double usage = (double)(usageNanos - lastUsageNanos) / (currentNanos - lastSampleNanos) / cpus;
+            usage = Math.min(Math.max(usage, 0), 1);
+            this.cpuUsage = usage;
+            this.load = cpus * (usage + readCpuPressure());
+        }
+        this.lastUsageNanos = usageNanos;
+        this.lastSampleNanos = currentNanos;
+    }
+
+    /**
+     * @return CPU usage of the cgroup between [0, 1], or -1 if not sampled yet
+     */
+    double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    /**
+     * @return estimated load of the cgroup, or -1 if not sampled yet
+     */
+    double getLoad() {
+        return load;
+    }
+
+    private long readUsageNanos() throws IOException {
+        if (!v2) {
+            return Long.parseLong(readFirstLine(usageFile));
+        }
+        for (String line : readLines(usageFile)) {
+            if (line.startsWith(V2_USAGE_KEY + " ")) {
+                return Long.parseLong(line.substring(V2_USAGE_KEY.length() + 1).trim()) * 1000;
+            }
+        }
+        throw new IOException("No " + V2_USAGE_KEY + " in " + usageFile);
+    }
+
+    /**
+     * @return amount of CPUs the cgroup may use
+     */
+    private double readCpuLimit() {
+        try {
+            long quota;
+            long period;
+            if (v2) {
+                // Format: $MAX $PERIOD, where $MAX may be "max".
+                String[] parts = readFirstLine(quotaFile).split("\\s+");
+                if (parts.length < 2 || "max".equals(parts[0])) {
+                    return availableProcessors;
+                }
+                quota = Long.parseLong(parts[0]);
+                period = Long.parseLong(parts[1]);
+            } else {
+                quota = Long.parseLong(readFirstLine(quotaFile));
+                period = Long.parseLong(readFirstLine(periodFile));
+            }
+            if (quota <= 0 || period <= 0) {
+                return availableProcessors;
+            }
+            return Math.min((double)quota / period, availableProcessors);
+        } catch (Throwable ex) {
+            // No quota file, e.g. the cpu controller is not enabled.
+            return availableProcessors;
+        }
+    }
+
+    /**
+     * @return share of time during which some runnable tasks are stalled in last 10 seconds, between [0, 1]
+     */
+    private double readCpuPressure() {
+        if (pressureFile == null) {
+            return 0;
+        }
+        try {
+            // Format: some avg10=0.00 avg60=0.00 avg300=0.00 total=0
+            for (String line : readLines(pressureFile)) {
+                if (!line.startsWith(PRESSURE_SOME_PREFIX)) {
+                    continue;
+                }
+                for (String field : line.split("\\s+")) {
+                    if (field.startsWith(PRESSURE_AVG10_KEY)) {
+                        double avg10 = Double.parseDouble(field.substring(PRESSURE_AVG10_KEY.length()));
+                        return Math.min(Math.max(avg10 / 100, 0), 1);
+                    }
+                }
+            }
+        } catch (Throwable ex) {
+            // PSI may be disabled in kernel.
+        }
+        return 0;
+    }
+
+    private static String readFirstLine(File file) throws IOException {
+        List<String> lines = readLines(file);
+        if (lines.isEmpty()) {
+            throw new IOException("Empty file: " + file);
+        }
+        return lines.get(0).trim();
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
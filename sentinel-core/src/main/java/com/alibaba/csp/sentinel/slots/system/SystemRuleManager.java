@@ -25,12 +25,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.property.SimplePropertyListener;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * <p>
@@ -39,6 +41,12 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
  * provides a measurement of system's load, but only available on Linux.
  * </p>
  * <p>
+ * By default the system load and cpu usage of the host are sampled from JMX every second. In containers,
+ * set {@link SentinelConfig#SYSTEM_STATUS_SOURCE} to {@link SentinelConfig#SYSTEM_STATUS_SOURCE_CGROUP}
+ * to sample them from the cgroup of current process instead. Note that the load estimated from cgroup
+ * never exceeds twice the CPUs of the cgroup, so the highest system load should be set below that.
+ * </p>
+ * <p>
  * rt, qps, thread count is easy to understand. If the incoming requests'
  * rt,qps, thread count exceeds its threshold, the requests will be
  * rejected.however, we use a different method to calculate the load.
@@ -59,6 +67,11 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
  * Note that {@link SystemRule} only effect on inbound requests, outbound traffic
  * will not limit by {@link SystemRule}
  * </p>
+ * <p>
+ * The inbound qps, thread count and rt are read from a snapshot refreshed at most once per
+ * {@link SentinelConfig#systemStatusSnapshotIntervalMs()} (10ms by default) by the checking threads,
+ * so a burst may be noticed one interval later. Set the interval to 0 to read them on every check.
+ * </p>
  *
  * @author jialiang.linjl
  * @author leyou
@@ -84,6 +97,10 @@ public final class SystemRuleManager {
 
     private static AtomicBoolean checkSystemStatus = new AtomicBoolean(false);
 
+    private static volatile long statusSnapshotIntervalMs = SentinelConfig.systemStatusSnapshotIntervalMs();
+    private static volatile SystemStatusSnapshot statusSnapshot = null;
+    private static final AtomicBoolean statusSnapshotRefreshing = new AtomicBoolean(false);
+
     private static SystemStatusListener statusListener = null;
     private final static SystemPropertyListener listener = new SystemPropertyListener();
     private static SentinelProperty<List<SystemRule>> currentProperty = new DynamicSentinelProperty<List<SystemRule>>();
@@ -94,11 +111,24 @@ public final class SystemRuleManager {
 
     static {
         checkSystemStatus.set(false);
-        statusListener = new SystemStatusListener();
-        scheduler.scheduleAtFixedRate(statusListener, 0, 1, TimeUnit.SECONDS);
+        statusListener = new SystemStatusListener(resolveCgroupSampler());
+        scheduler.scheduleAtFixedRate(statusListener, 0, SentinelConfig.systemStatusSampleIntervalMs(),
+            TimeUnit.MILLISECONDS);
         currentProperty.addListener(listener);
     }
 
+    private static CgroupStatusSampler resolveCgroupSampler() {
+        if (!SentinelConfig.SYSTEM_STATUS_SOURCE_CGROUP.equals(SentinelConfig.systemStatusSource())) {
+            return null;
+        }
+        CgroupStatusSampler sampler = CgroupStatusSampler.detect();
+        if (sampler == null) {
+            RecordLog.warn("[SystemRuleManager] cgroup of current process is not available, "
+                + "system status will be sampled from JMX instead");
+        }
+        return sampler;
+    }
+
     /**
      * Listen to the {@link SentinelProperty} for {@link SystemRule}s. The property is the source
      * of {@link SystemRule}s. System rules can also be set by {@link #loadRules(List)} directly.
@@ -185,6 +215,8 @@ public final class SystemRuleManager {
         @Override
         public synchronized void configUpdate(List<SystemRule> rules) {
             restoreSetting();
+            statusSnapshotIntervalMs = SentinelConfig.systemStatusSnapshotIntervalMs();
+            statusSnapshot = null;
             // systemRules = rules;
             if (rules != null && rules.size() >= 1) {
                 for (SystemRule rule : rules) {
@@ -301,19 +333,20 @@ public final class SystemRuleManager {
             return;
         }
 
+        SystemStatusSnapshot status = currentStatus();
         // total qps
-        double currentQps = Constants.ENTRY_NODE == null ? 0.0 : Constants.ENTRY_NODE.successQps();
+        double currentQps = status.successQps;
         if (currentQps > qps) {
             throw new SystemBlockException(resourceWrapper.getName(), "qps");
         }
 
         // total thread
-        int currentThread = Constants.ENTRY_NODE == null ? 0 : Constants.ENTRY_NODE.curThreadNum();
+        int currentThread = status.curThreadNum;
         if (currentThread > maxThread) {
             throw new SystemBlockException(resourceWrapper.getName(), "thread");
         }
 
-        double rt = Constants.ENTRY_NODE == null ? 0 : Constants.ENTRY_NODE.avgRt();
+        double rt = status.avgRt;
         if (rt > maxRt) {
             throw new SystemBlockException(resourceWrapper.getName(), "rt");
         }
@@ -331,6 +364,32 @@ public final class SystemRuleManager {
         }
     }
 
+    /**
+     * Get the snapshot of inbound statistics, which is refreshed by one of the checking threads
+     * when it's older than the snapshot interval. Other threads keep using the old one meanwhile.
+     */
+    static SystemStatusSnapshot currentStatus() {
+        long interval = statusSnapshotIntervalMs;
+        if (interval <= 0) {
+            return SystemStatusSnapshot.capture(Constants.ENTRY_NODE, 0);
+        }
+        SystemStatusSnapshot snapshot = statusSnapshot;
+        long currentTime = TimeUtil.currentTimeMillis();
+        if (snapshot != null && currentTime - snapshot.timestamp < interval) {
+            return snapshot;
+        }
+        if (!statusSnapshotRefreshing.compareAndSet(false, true)) {
+            return snapshot == null ? SystemStatusSnapshot.capture(Constants.ENTRY_NODE, currentTime) : snapshot;
+        }
+        try {
+            snapshot = SystemStatusSnapshot.capture(Constants.ENTRY_NODE, currentTime);
+            statusSnapshot = snapshot;
+            return snapshot;
+        } finally {
+            statusSnapshotRefreshing.set(false);
+        }
+    }
+
     private static boolean checkBbr(int currentThread) {
         if (currentThread > 1 &&
             currentThread > Constants.ENTRY_NODE.maxSuccessQps() * Constants.ENTRY_NODE.minRt() / 1000) {
@@ -38,6 +38,24 @@ public class SystemStatusListener implements Runnable {
     volatile long processCpuTime = 0;
     volatile long processUpTime = 0;
 
+    /**
+     * The cgroup sampler if the status is sampled from cgroup rather than JMX.
+     * @since 1.8.2
+     */
+    private final CgroupStatusSampler cgroupSampler;
+
+    public SystemStatusListener() {
+        this(null);
+    }
+
+    /**
+     * @param cgroupSampler sampler of the status from cgroup, or null to sample the status from JMX
+     * @since 1.8.2
+     */
+    SystemStatusListener(CgroupStatusSampler cgroupSampler) {
+        this.cgroupSampler = cgroupSampler;
+    }
+
     public double getSystemAverageLoad() {
         return currentLoad;
     }
@@ -48,6 +66,10 @@ public class SystemStatusListener implements Runnable {
 
     @Override
     public void run() {
+        if (cgroupSampler != null) {
+            sampleFromCgroup();
+            return;
+        }
         try {
             OperatingSystemMXBean osBean = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
             currentLoad = osBean.getSystemLoadAverage();
@@ -84,6 +106,20 @@ public class SystemStatusListener implements Runnable {
         }
     }
 
+    private void sampleFromCgroup() {
+        try {
+            cgroupSampler.sample(System.nanoTime());
+            currentLoad = cgroupSampler.getLoad();
+            currentCpuUsage = cgroupSampler.getCpuUsage();
+
+            if (currentLoad > SystemRuleManager.getSystemLoadThreshold()) {
+                writeSystemStatusLog();
+            }
+        } catch (Throwable e) {
+            RecordLog.warn("[SystemStatusListener] Failed to get system metrics from cgroup", e);
+        }
+    }
+
     private void writeSystemStatusLog() {
         StringBuilder sb = new StringBuilder();
         sb.append("Load exceeds the threshold: ");
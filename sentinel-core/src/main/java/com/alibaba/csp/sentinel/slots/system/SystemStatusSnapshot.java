@@ -0,0 +1,49 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.system;
+
+import com.alibaba.csp.sentinel.node.ClusterNode;
+
+/**
+ * An immutable snapshot of the inbound statistics checked by system rules, so that the sliding windows
+ * of the entry node are not walked for every inbound request.
+ *
+ * @since 1.8.2
+ */
+final class SystemStatusSnapshot {
+
+    static final SystemStatusSnapshot EMPTY = new SystemStatusSnapshot(0, 0, 0, 0);
+
+    final long timestamp;
+    final double successQps;
+    final int curThreadNum;
+    final double avgRt;
+
+    private SystemStatusSnapshot(long timestamp, double successQps, int curThreadNum, double avgRt) {
+        this.timestamp = timestamp;
+        this.successQps = successQps;
+        this.curThreadNum = curThreadNum;
+        this.avgRt = avgRt;
+    }
+
+    static SystemStatusSnapshot capture(ClusterNode entryNode, long timestamp) {
+        if (entryNode == null) {
+            return EMPTY;
+        }
+        return new SystemStatusSnapshot(timestamp, entryNode.successQps(), entryNode.curThreadNum(),
+            entryNode.avgRt());
+    }
+}
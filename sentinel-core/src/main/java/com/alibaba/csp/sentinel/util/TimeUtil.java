@@ -15,38 +15,213 @@
  */
 package com.alibaba.csp.sentinel.util;
 
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
 
 /**
- * Provides millisecond-level time of OS.
+ * <p>Provides millisecond-level time of OS.</p>
+ *
+ * <p>The clock source is resolved from {@link SentinelConfig#TIME_TICK_MODE}:</p>
+ * <ul>
+ * <li>{@code tick} (default): a daemon thread caches {@link System#currentTimeMillis()} every millisecond;</li>
+ * <li>{@code system}: always read {@link System#currentTimeMillis()} directly, no tick thread;</li>
+ * <li>{@code adaptive}: read the system clock directly while the read QPS is low, and switch to the
+ * tick thread once the read QPS reaches {@link SentinelConfig#TIME_TICK_ADAPTIVE_THRESHOLD}.
+ * The tick thread is parked (no wakeups at all) until the read QPS reaches the threshold, and switches back
+ * when the read QPS drops below half of the threshold. The read QPS is checked every second.</li>
+ * </ul>
+ *
+ * <p>In adaptive mode, the amount of reads served by the tick thread and by the system clock are recorded,
+ * see {@link #getTickReadCount()} and {@link #getSystemReadCount()}. To avoid writing a shared counter
+ * on every read, only a random sample of the reads (down to one in 16) is counted, so the recorded amounts
+ * and the read QPS are estimates.</p>
  *
  * @author qinan.qn
  */
-public final class TimeUtil {
+public final class TimeUtil implements Runnable {
+
+    private static final long CHECK_INTERVAL_MS = 1000;
+    /**
+     * Max amount of reads represented by each counted read. The rate is lowered for small thresholds,
+     * so that at least {@link #MIN_SAMPLES_PER_THRESHOLD} reads are counted in a second at the threshold.
+     */
+    static final int MAX_READ_SAMPLE_RATE = 16;
+    private static final int MIN_SAMPLES_PER_THRESHOLD = 64;
+
+    private static final TimeUtil INSTANCE = new TimeUtil(SentinelConfig.timeTickMode(),
+        SentinelConfig.timeTickAdaptiveThreshold());
+
+    private final boolean adaptive;
+    private final boolean systemClock;
+    private final long tickThreshold;
+    /**
+     * Amount of reads represented by each counted read, a power of 2.
+     */
+    private final int readSampleRate;
 
-    private static volatile long currentTimeMillis;
+    private volatile long currentTimeMillis;
+    private volatile boolean ticking;
+
+    private final LongAdder tickReads = new LongAdder();
+    private final LongAdder systemReads = new LongAdder();
+    private final AtomicLong lastCheckTime = new AtomicLong();
+    private volatile long lastReadCount;
+
+    private volatile Thread tickThread;
 
     static {
-        currentTimeMillis = System.currentTimeMillis();
-        Thread daemon = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                while (true) {
-                    currentTimeMillis = System.currentTimeMillis();
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(1);
-                    } catch (Throwable e) {
-
-                    }
-                }
-            }
-        });
+        INSTANCE.start();
+    }
+
+    TimeUtil(String mode, long tickThreshold) {
+        this(mode, tickThreshold, (int)Math.max(1, Math.min(MAX_READ_SAMPLE_RATE,
+            tickThreshold / MIN_SAMPLES_PER_THRESHOLD)));
+    }
+
+    TimeUtil(String mode, long tickThreshold, int readSampleRate) {
+        this.adaptive = SentinelConfig.TIME_TICK_MODE_ADAPTIVE.equals(mode);
+        this.systemClock = SentinelConfig.TIME_TICK_MODE_SYSTEM.equals(mode);
+        this.tickThreshold = tickThreshold;
+        this.readSampleRate = Integer.highestOneBit(readSampleRate);
+        long now = System.currentTimeMillis();
+        this.currentTimeMillis = now;
+        this.lastCheckTime.set(now);
+        this.ticking = !adaptive && !systemClock;
+    }
+
+    void start() {
+        if (systemClock) {
+            return;
+        }
+        Thread daemon = new Thread(this);
         daemon.setDaemon(true);
         daemon.setName("sentinel-time-tick-thread");
+        this.tickThread = daemon;
         daemon.start();
     }
 
+    @Override
+    public void run() {
+        while (true) {
+            if (!ticking) {
+                // Only in adaptive mode: the tick thread will be unparked once the read QPS is high enough.
+                LockSupport.park(this);
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            this.currentTimeMillis = now;
+            if (adaptive) {
+                checkState(now);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(1);
+            } catch (Throwable e) {
+
+            }
+        }
+    }
+
+    long read() {
+        if (!adaptive) {
+            return systemClock ? System.currentTimeMillis() : currentTimeMillis;
+        }
+        if (ticking) {
+            if (sampleRead()) {
+                tickReads.add(readSampleRate);
+            }
+            return currentTimeMillis;
+        }
+        if (sampleRead()) {
+            systemReads.add(readSampleRate);
+        }
+        long now = System.currentTimeMillis();
+        checkState(now);
+        return now;
+    }
+
+    private boolean sampleRead() {
+        return readSampleRate == 1 || (ThreadLocalRandom.current().nextInt() & (readSampleRate - 1)) == 0;
+    }
+
+    /**
+     * Check the read QPS and switch between the tick thread and the system clock if needed.
+     * Only one thread will do the check in each check interval.
+     *
+     * @param now current time in milliseconds
+     */
+    void checkState(long now) {
+        long lastCheck = lastCheckTime.get();
+        long elapsed = now - lastCheck;
+        if (elapsed < CHECK_INTERVAL_MS || !lastCheckTime.compareAndSet(lastCheck, now)) {
+            return;
+        }
+        long readCount = tickReads.sum() + systemReads.sum();
+        long qps = (readCount - lastReadCount) * 1000 / elapsed;
+        this.lastReadCount = readCount;
+
+        if (!ticking && qps >= tickThreshold) {
+            this.currentTimeMillis = now;
+            this.ticking = true;
+            Thread t = tickThread;
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
+            RecordLog.info("[TimeUtil] Switched to the tick thread, current read QPS: {}", qps);
+        } else if (ticking && qps < tickThreshold / 2) {
+            this.ticking = false;
+            RecordLog.info("[TimeUtil] Switched to the system clock, current read QPS: {}", qps);
+        }
+    }
+
     public static long currentTimeMillis() {
-        return currentTimeMillis;
+        return INSTANCE.read();
+    }
+
+    /**
+     * Check whether the time is currently served by the tick thread.
+     *
+     * @return true if the time is served by the tick thread, false if it's read from the system clock directly
+     * @since 1.8.2
+     */
+    public static boolean isTicking() {
+        return INSTANCE.ticking;
+    }
+
+    /**
+     * Get the estimated amount of reads served by the tick thread. Only recorded in adaptive mode.
+     *
+     * @return the estimated amount of reads served by the tick thread
+     * @since 1.8.2
+     */
+    public static long getTickReadCount() {
+        return INSTANCE.tickReads.sum();
+    }
+
+    /**
+     * Get the estimated amount of reads served by the system clock directly. Only recorded in adaptive mode.
+     *
+     * @return the estimated amount of reads served by the system clock
+     * @since 1.8.2
+     */
+    public static long getSystemReadCount() {
+        return INSTANCE.systemReads.sum();
+    }
+
+    long tickReads() {
+        return tickReads.sum();
+    }
+
+    long systemReads() {
+        return systemReads.sum();
+    }
+
+    boolean ticking() {
+        return ticking;
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.util.function.BiConsumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CtEntryRecyclerTest {
+
+    @Before
+    public void setUp() {
+        Constants.ENTRY_RECYCLE = true;
+    }
+
+    @After
+    public void tearDown() {
+        Constants.ENTRY_RECYCLE = false;
+    }
+
+    @Test
+    public void testReuseEntryAndContext() throws BlockException {
+        String resourceName = "testReuseEntryAndContext";
+        Entry entry = SphU.entry(resourceName);
+        Context context = ContextUtil.getContext();
+        assertTrue(entry instanceof CtEntry);
+        assertSame(context, ((CtEntry)entry).context);
+        entry.setError(new IllegalStateException());
+        entry.whenTerminate(new BiConsumer<Context, Entry>() {
+            @Override
+            public void accept(Context c, Entry e) {
+            }
+        });
+        entry.exit();
+        assertNull(ContextUtil.getContext());
+
+        Entry reused = SphU.entry(resourceName);
+        assertSame(entry, reused);
+        assertSame(context, ContextUtil.getContext());
+        assertSame(reused, context.getCurEntry());
+        assertEquals(resourceName, reused.getResourceWrapper().getName());
+        assertNull(reused.getError());
+        assertNull(((CtEntry)reused).exitHandlers);
+        assertNotNull(reused.getCurNode());
+
+        Entry nested = SphU.entry(resourceName + "-nested");
+        assertNotSame(reused, nested);
+        assertSame(reused, ((CtEntry)nested).parent);
+        nested.exit();
+        reused.exit();
+        assertNull(ContextUtil.getContext());
+    }
+
+    @Test
+    public void testReuseContextOnlyWithSameName() throws BlockException {
+        ContextUtil.enter("testReuseContextOnlyWithSameName", "originA");
+        Context context = ContextUtil.getContext();
+        ContextUtil.exit();
+
+        Context other = ContextUtil.enter("testReuseContextOnlyWithSameName-other");
+        assertNotSame(context, other);
+        ContextUtil.exit();
+
+        Context ctx1 = ContextUtil.enter("testReuseContextOnlyWithSameName", "originA");
+        ContextUtil.exit();
+        Context ctx2 = ContextUtil.enter("testReuseContextOnlyWithSameName", "originB");
+        assertSame(ctx1, ctx2);
+        assertEquals("originB", ctx2.getOrigin());
+        assertNull(ctx2.getCurEntry());
+        ContextUtil.exit();
+    }
+
+    @Test
+    public void testNoRecycleWhenDisabled() throws BlockException {
+        Constants.ENTRY_RECYCLE = false;
+        String resourceName = "testNoRecycleWhenDisabled";
+        Entry entry = SphU.entry(resourceName);
+        Context context = ContextUtil.getContext();
+        entry.exit();
+
+        Entry entry2 = SphU.entry(resourceName);
+        assertNotSame(entry, entry2);
+        assertNotSame(context, ContextUtil.getContext());
+        entry2.exit();
+    }
+
+    @Test
+    public void testDropEntryExitedInOtherThread() throws Exception {
+        final Entry entry = SphU.entry("testDropEntryExitedInOtherThread");
+        final Context context = ContextUtil.getContext();
+        final int pooledSize = CtEntryRecycler.current().pooledSize();
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ContextUtil.runOnContext(context, new Runnable() {
+                    @Override
+                    public void run() {
+                        entry.exit();
+                    }
+                });
+            }
+        });
+        t.start();
+        t.join();
+        assertEquals(pooledSize, CtEntryRecycler.current().pooledSize());
+        ContextUtil.exit();
+    }
+
+    @Test
+    public void testResourceCache() {
+        assertSame(CtEntryRecycler.resourceOf("testResourceCache", EntryType.IN, 0),
+            CtEntryRecycler.resourceOf("testResourceCache", EntryType.IN, 0));
+        assertNotSame(CtEntryRecycler.resourceOf("testResourceCache", EntryType.IN, 0),
+            CtEntryRecycler.resourceOf("testResourceCache", EntryType.OUT, 0));
+        assertEquals(1, CtEntryRecycler.resourceOf("testResourceCache", EntryType.OUT, 1).getResourceType());
+    }
+}
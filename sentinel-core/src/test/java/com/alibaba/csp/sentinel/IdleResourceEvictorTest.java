@@ -0,0 +1,120 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.EntranceNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link IdleResourceEvictor}.
+ */
+public class IdleResourceEvictorTest {
+
+    private final CtSph ctSph = new CtSph();
+
+    private EntranceNode entranceNode;
+
+    @Before
+    public void setUp() {
+        CtSph.resetChainMap();
+        ClusterBuilderSlot.getClusterNodeMap().clear();
+        entranceNode = new EntranceNode(new StringResourceWrapper("testIdleResourceEvictorContext", EntryType.IN),
+            new ClusterNode("testIdleResourceEvictorContext"));
+        Constants.ROOT.addChild(entranceNode);
+    }
+
+    @After
+    public void tearDown() {
+        Constants.ROOT.removeChild(entranceNode);
+        CtSph.resetChainMap();
+        ClusterBuilderSlot.getClusterNodeMap().clear();
+    }
+
+    private DefaultNode prepareResource(ResourceWrapper resource, DefaultNode parent) {
+        assertNotNull(ctSph.lookProcessChain(resource));
+        ClusterNode clusterNode = new ClusterNode(resource.getName());
+        ClusterBuilderSlot.getClusterNodeMap().put(resource, clusterNode);
+        DefaultNode node = new DefaultNode(resource, clusterNode);
+        parent.addChild(node);
+        return node;
+    }
+
+    @Test
+    public void testEvictIdleResources() {
+        ResourceWrapper idleResource = new StringResourceWrapper("testEvictIdleResource", EntryType.IN);
+        ResourceWrapper activeResource = new StringResourceWrapper("testEvictActiveResource", EntryType.IN);
+        ResourceWrapper childResource = new StringResourceWrapper("testEvictChildResource", EntryType.OUT);
+        DefaultNode idleNode = prepareResource(idleResource, entranceNode);
+        DefaultNode activeNode = prepareResource(activeResource, entranceNode);
+        DefaultNode childNode = prepareResource(childResource, idleNode);
+        activeNode.getClusterNode().increaseThreadNum();
+        childNode.getClusterNode().increaseThreadNum();
+
+        IdleResourceEvictor evictor = new IdleResourceEvictor();
+        long now = System.currentTimeMillis();
+        long timeoutMs = 30 * 1000;
+
+        // Observed idle for the first time.
+        assertEquals(0, evictor.evictIdleResources(now, timeoutMs));
+        assertEquals(0, evictor.evictIdleResources(now + timeoutMs - 1, timeoutMs));
+        assertEquals(1, evictor.evictIdleResources(now + timeoutMs, timeoutMs));
+
+        assertFalse(CtSph.getChainMap().containsKey(idleResource));
+        assertNull(ClusterBuilderSlot.getClusterNodeMap().get(idleResource));
+        assertTrue(CtSph.getChainMap().containsKey(activeResource));
+        assertTrue(CtSph.getChainMap().containsKey(childResource));
+
+        // The default node of the idle resource is removed, and its child is moved to the parent.
+        assertFalse(entranceNode.getChildList().contains(idleNode));
+        assertTrue(entranceNode.getChildList().contains(activeNode));
+        assertTrue(entranceNode.getChildList().contains(childNode));
+
+        // The resource will be recreated on next entry.
+        assertNotNull(ctSph.lookProcessChain(idleResource));
+        assertTrue(CtSph.getChainMap().containsKey(idleResource));
+    }
+
+    @Test
+    public void testNoEvictionIfResourceBecomesActive() {
+        ResourceWrapper resource = new StringResourceWrapper("testNoEvictionIfResourceBecomesActive", EntryType.IN);
+        DefaultNode node = prepareResource(resource, entranceNode);
+
+        IdleResourceEvictor evictor = new IdleResourceEvictor();
+        long now = System.currentTimeMillis();
+        long timeoutMs = 30 * 1000;
+        assertEquals(0, evictor.evictIdleResources(now, timeoutMs));
+
+        node.getClusterNode().increaseThreadNum();
+        assertEquals(0, evictor.evictIdleResources(now + timeoutMs, timeoutMs));
+        node.getClusterNode().decreaseThreadNum();
+
+        // Idle time is counted again from the latest observation.
+        assertEquals(0, evictor.evictIdleResources(now + timeoutMs * 2 - 1, timeoutMs));
+        assertEquals(0, evictor.evictIdleResources(now + timeoutMs * 3 - 2, timeoutMs));
+        assertEquals(1, evictor.evictIdleResources(now + timeoutMs * 3, timeoutMs));
+        assertFalse(entranceNode.getChildList().contains(node));
+    }
+}
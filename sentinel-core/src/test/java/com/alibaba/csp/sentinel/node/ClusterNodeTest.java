@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.node;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -125,4 +127,85 @@ public class ClusterNodeTest {
             }
         }
     }
+
+    @Test
+    public void testRtPercentiles() {
+        ClusterNode disabledNode = new ClusterNode("testRtPercentilesDisabled");
+        disabledNode.addRtAndSuccess(10, 1);
+        assertEquals(0, disabledNode.p99Rt());
+
+        SentinelConfig.setConfig(SentinelConfig.RT_HISTOGRAM_ENABLED, "true");
+        try {
+            ClusterNode clusterNode = new ClusterNode("testRtPercentiles");
+            assertEquals(0, clusterNode.p99Rt());
+            for (int rt = 1; rt <= 100; rt++) {
+                clusterNode.addRtAndSuccess(rt, 1);
+            }
+            assertTrue(clusterNode.p50Rt() >= 50 && clusterNode.p50Rt() <= 56);
+            assertTrue(clusterNode.p90Rt() >= 90 && clusterNode.p90Rt() <= 101);
+            assertTrue(clusterNode.p99Rt() >= 99 && clusterNode.p99Rt() <= 111);
+            assertTrue(clusterNode.p999Rt() >= 100 && clusterNode.p999Rt() <= 112);
+
+            DefaultNode defaultNode = new DefaultNode(null, clusterNode);
+            defaultNode.addRtAndSuccess(10, 1);
+            assertEquals(0, defaultNode.p99Rt());
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.RT_HISTOGRAM_ENABLED);
+        }
+    }
+
+    @Test
+    public void testEvictLeastFrequentOriginNodes() {
+        SentinelConfig.setConfig(SentinelConfig.ORIGIN_NODE_MAX_COUNT, "10");
+        try {
+            ClusterNode clusterNode = new ClusterNode("testEvictLeastFrequentOriginNodes");
+            for (int i = 0; i < 10; i++) {
+                Node node = clusterNode.getOrCreateOriginNode("origin" + i);
+                node.addPassRequest(i + 1);
+            }
+            // Origin in process should be kept even if it has the least requests.
+            Node busyNode = clusterNode.getOrCreateOriginNode("origin0");
+            busyNode.increaseThreadNum();
+            assertEquals(10, clusterNode.getOriginCountMap().size());
+
+            clusterNode.getOrCreateOriginNode("origin10");
+            // 1 over the limit, plus 1/10 of the limit.
+            assertEquals(9, clusterNode.getOriginCountMap().size());
+            assertTrue(clusterNode.getOriginCountMap().containsKey("origin0"));
+            assertTrue(clusterNode.getOriginCountMap().containsKey("origin10"));
+            assertFalse(clusterNode.getOriginCountMap().containsKey("origin1"));
+            assertFalse(clusterNode.getOriginCountMap().containsKey("origin2"));
+            assertTrue(clusterNode.getOriginCountMap().containsKey("origin3"));
+
+            // Evicted origin will be recreated with clean statistics.
+            Node recreated = clusterNode.getOrCreateOriginNode("origin1");
+            assertEquals(0, recreated.totalRequest());
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.ORIGIN_NODE_MAX_COUNT);
+        }
+    }
+
+    @Test
+    public void testCompactOriginNode() {
+        SentinelConfig.setConfig(SentinelConfig.ORIGIN_NODE_COMPACT_ENABLED, "true");
+        try {
+            ClusterNode clusterNode = new ClusterNode("testCompactOriginNode");
+            Node node = clusterNode.getOrCreateOriginNode("origin");
+            assertTrue(node instanceof CompactStatisticNode);
+
+            node.addPassRequest(3);
+            node.increaseBlockQps(2);
+            node.addRtAndSuccess(10, 1);
+            node.increaseExceptionQps(1);
+            assertEquals(3, node.passQps(), 0.01);
+            assertEquals(2, node.blockQps(), 0.01);
+            assertEquals(5, node.totalRequest());
+            assertEquals(2, node.blockRequest());
+            assertEquals(0, node.successQps(), 0.01);
+            assertEquals(0, node.totalException());
+            assertEquals(0, node.avgRt(), 0.01);
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.ORIGIN_NODE_COMPACT_ENABLED);
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.node.metric;
 
 import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 
 import org.junit.Test;
 
@@ -34,4 +35,45 @@ public class MetricNodeTest {
         assertEquals(2, node.getConcurrency());
         assertEquals(1, node.getSuccessQps());
     }
+
+    @Test
+    public void testRtPercentilesInString() {
+        MetricNode node = new MetricNode();
+        node.setTimestamp(1564382218000L);
+        node.setResource("foo");
+        node.setSuccessQps(10);
+        node.setRt(20);
+        node.setClassification(ResourceTypeConstants.COMMON_WEB);
+        node.setP50Rt(15);
+        node.setP90Rt(30);
+        node.setP99Rt(95);
+        node.setP999Rt(119);
+
+        // RT percentiles are only written when RT histogram is enabled.
+        String fatString = node.toFatString().trim();
+        assertEquals(11, fatString.split("\\|").length);
+        MetricNode fat = MetricNode.fromFatString(fatString);
+        assertEquals(ResourceTypeConstants.COMMON_WEB, fat.getClassification());
+        assertEquals(0, fat.getP99Rt());
+
+        SentinelConfig.setConfig(SentinelConfig.RT_HISTOGRAM_ENABLED, "true");
+        try {
+            fat = MetricNode.fromFatString(node.toFatString().trim());
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.RT_HISTOGRAM_ENABLED);
+        }
+        assertEquals(ResourceTypeConstants.COMMON_WEB, fat.getClassification());
+        assertEquals(15, fat.getP50Rt());
+        assertEquals(30, fat.getP90Rt());
+        assertEquals(95, fat.getP99Rt());
+        assertEquals(119, fat.getP999Rt());
+
+        MetricNode thin = MetricNode.fromThinString(node.toThinString());
+        assertEquals(ResourceTypeConstants.COMMON_WEB, thin.getClassification());
+        assertEquals(0, thin.getP99Rt());
+        thin = MetricNode.fromThinString(node.toThinString(true));
+        assertEquals(ResourceTypeConstants.COMMON_WEB, thin.getClassification());
+        assertEquals(15, thin.getP50Rt());
+        assertEquals(119, thin.getP999Rt());
+    }
 }
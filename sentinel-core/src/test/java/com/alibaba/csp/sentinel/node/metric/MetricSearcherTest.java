@@ -0,0 +1,133 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.util.PidUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetricSearcherTest {
+
+    private static final int SECONDS = 100;
+    private static final int RESOURCES = 3;
+
+    private File baseDir;
+    private long baseTime;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = Files.createTempDirectory("sentinel-metric-test").toFile();
+        baseTime = (System.currentTimeMillis() / 1000 + 1) * 1000;
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = baseDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        baseDir.delete();
+    }
+
+    private MetricSearcher writeMetrics(String format) throws Exception {
+        MetricWriter writer = new MetricWriter(baseDir.getAbsolutePath(), 1024 * 1024, 6, format);
+        try {
+            for (int i = 0; i < SECONDS; i++) {
+                List<MetricNode> nodes = new ArrayList<MetricNode>();
+                for (int j = 0; j < RESOURCES; j++) {
+                    MetricNode node = new MetricNode();
+                    node.setResource("res-" + j);
+                    node.setPassQps(i);
+                    node.setBlockQps(j);
+                    node.setRt(i + j);
+                    node.setConcurrency(j);
+                    node.setClassification(j);
+                    node.setP50Rt(i);
+                    node.setP999Rt(i + 100);
+                    nodes.add(node);
+                }
+                writer.write(baseTime + i * 1000, nodes);
+            }
+        } finally {
+            writer.close();
+        }
+        return new MetricSearcher(baseDir.getAbsolutePath(),
+            MetricWriter.formMetricFileName(SentinelConfig.getAppName(), PidUtil.getPid()));
+    }
+
+    private void verifySearch(MetricSearcher searcher) throws Exception {
+        List<MetricNode> nodes = searcher.find(baseTime + 50 * 1000, 4);
+        // The metrics of the same second can't be separated.
+        assertEquals(6, nodes.size());
+        assertEquals(baseTime + 50 * 1000, nodes.get(0).getTimestamp());
+        assertEquals(baseTime + 51 * 1000, nodes.get(5).getTimestamp());
+        assertEquals("res-2", nodes.get(5).getResource());
+        assertEquals(51, nodes.get(5).getPassQps());
+        assertEquals(2, nodes.get(5).getBlockQps());
+        assertEquals(53, nodes.get(5).getRt());
+        assertEquals(2, nodes.get(5).getConcurrency());
+        assertEquals(2, nodes.get(5).getClassification());
+        assertEquals(51, nodes.get(5).getP50Rt());
+        assertEquals(151, nodes.get(5).getP999Rt());
+
+        nodes = searcher.findByTimeAndResource(baseTime + 10 * 1000, baseTime + 20 * 1000, "res-1");
+        assertEquals(11, nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            assertEquals("res-1", nodes.get(i).getResource());
+            assertEquals(10 + i, nodes.get(i).getPassQps());
+        }
+
+        nodes = searcher.findByTimeAndResource(baseTime + 90 * 1000, baseTime + 200 * 1000, null);
+        assertEquals(10 * RESOURCES, nodes.size());
+
+        assertNull(searcher.find(baseTime + 200 * 1000, 10));
+    }
+
+    @Test
+    public void testSearchTextMetrics() throws Exception {
+        // RT percentiles are only written to text files when RT histogram is enabled.
+        SentinelConfig.setConfig(SentinelConfig.RT_HISTOGRAM_ENABLED, "true");
+        try {
+            verifySearch(writeMetrics(SentinelConfig.METRIC_FILE_FORMAT_TEXT));
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.RT_HISTOGRAM_ENABLED);
+        }
+    }
+
+    @Test
+    public void testSearchBinaryMetrics() throws Exception {
+        MetricSearcher searcher = writeMetrics(SentinelConfig.METRIC_FILE_FORMAT_BINARY);
+        List<String> files = MetricWriter.listMetricFiles(baseDir.getAbsolutePath() + File.separator,
+            MetricWriter.formMetricFileName(SentinelConfig.getAppName(), PidUtil.getPid()));
+        assertFalse(files.isEmpty());
+        assertTrue(BinaryMetricFormat.isBinaryFile(files.get(0)));
+        assertEquals(RESOURCES, BinaryMetricFormat.readNames(files.get(0)).size());
+
+        verifySearch(searcher);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.util.PidUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetricTimerListenerTest {
+
+    private File baseDir;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = Files.createTempDirectory("sentinel-metric-listener-test").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = baseDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        baseDir.delete();
+    }
+
+    @Test
+    public void testWriteMetricsOfPendingSeconds() throws Exception {
+        String resourceName = "testWriteMetricsOfPendingSeconds";
+        MetricWriter writer = new MetricWriter(baseDir.getAbsolutePath(), 1024 * 1024, 6,
+            SentinelConfig.METRIC_FILE_FORMAT_TEXT);
+        // The writer ignores the seconds before its creation.
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 10);
+
+        long time = TimeUtil.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            Entry entry = SphU.entry(resourceName);
+            entry.exit();
+        }
+        long second = time - time % 1000;
+        if (TimeUtil.currentTimeMillis() - TimeUtil.currentTimeMillis() % 1000 != second) {
+            // Crossed the boundary of seconds, the statistics are split.
+            writer.close();
+            return;
+        }
+
+        MetricTimerListener listener = new MetricTimerListener(writer);
+        try {
+            listener.writeMetricsBefore(second + 1000);
+            // Seconds already written should be skipped.
+            listener.writeMetricsBefore(second + 1000);
+        } finally {
+            writer.close();
+        }
+
+        MetricSearcher searcher = new MetricSearcher(baseDir.getAbsolutePath(),
+            MetricWriter.formMetricFileName(SentinelConfig.getAppName(), PidUtil.getPid()));
+        List<MetricNode> nodes = searcher.findByTimeAndResource(second, second, resourceName);
+        assertEquals(1, nodes.size());
+        MetricNode node = nodes.get(0);
+        assertEquals(second, node.getTimestamp());
+        assertEquals(3, node.getPassQps());
+        assertEquals(3, node.getSuccessQps());
+        // The total inbound node is written as well.
+        assertFalse(searcher.findByTimeAndResource(second, second, null).isEmpty());
+    }
+}
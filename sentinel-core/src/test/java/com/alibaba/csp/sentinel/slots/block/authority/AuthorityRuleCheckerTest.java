@@ -56,4 +56,35 @@ public class AuthorityRuleCheckerTest {
             ContextUtil.exit();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPassCheckWithParsedLimitApp() {
+        String origin = "app42";
+        ContextUtil.enter("entrance", origin);
+        try {
+            StringBuilder limitApp = new StringBuilder("app4");
+            for (int i = 100; i < 500; i++) {
+                limitApp.append(",app").append(i);
+            }
+            AuthorityRule blackRule = new AuthorityRule()
+                .setResource("testPassCheckWithParsedLimitApp")
+                .setLimitApp(limitApp.toString())
+                .as(AuthorityRule.class)
+                .setStrategy(RuleConstant.AUTHORITY_BLACK);
+            blackRule.setLimitAppSet(AuthorityRuleChecker.parseLimitApp(blackRule.getLimitApp()));
+
+            // "app4" and "app420" contain the origin, but only exact match counts.
+            assertTrue(AuthorityRuleChecker.passCheck(blackRule, ContextUtil.getContext()));
+            blackRule.setLimitApp(limitApp.append(',').append(origin).toString());
+            blackRule.setLimitAppSet(AuthorityRuleChecker.parseLimitApp(blackRule.getLimitApp()));
+            assertFalse(AuthorityRuleChecker.passCheck(blackRule, ContextUtil.getContext()));
+
+            // Changing limitApp drops the parsed origins.
+            blackRule.setLimitApp("appB");
+            assertNull(blackRule.getLimitAppSet());
+            assertTrue(AuthorityRuleChecker.passCheck(blackRule, ContextUtil.getContext()));
+        } finally {
+            ContextUtil.exit();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.alibaba.csp.sentinel.slots.block.authority;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
@@ -35,6 +37,7 @@ public class AuthorityRuleManagerTest {
         List<AuthorityRule> rules = AuthorityRuleManager.getRules();
         assertEquals(1, rules.size());
         assertEquals(rule, rules.get(0));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), rules.get(0).getLimitAppSet());
 
         AuthorityRuleManager.loadRules(Collections.singletonList(new AuthorityRule()));
         rules = AuthorityRuleManager.getRules();
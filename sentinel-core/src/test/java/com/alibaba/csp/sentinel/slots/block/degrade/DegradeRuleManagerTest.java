@@ -100,5 +100,8 @@ public class DegradeRuleManagerTest {
         assertFalse(DegradeRuleManager.isValidRule(rule5));
         assertFalse(DegradeRuleManager.isValidRule(rule6));
         assertFalse(DegradeRuleManager.isValidRule(rule7));
+        assertTrue(DegradeRuleManager.isValidRule(rule7.setStatIntervalMs(1000).setSampleCount(10)));
+        assertFalse(DegradeRuleManager.isValidRule(rule7.setSampleCount(3)));
+        assertFalse(DegradeRuleManager.isValidRule(rule7.setSampleCount(0)));
     }
 }
\ No newline at end of file
@@ -82,4 +82,38 @@ public class ExceptionCircuitBreakerTest extends AbstractTimeBasedTest {
         assertTrue(entryWithErrorIfPresent(resource, new IllegalArgumentException()));
         assertTrue(entryAndSleepFor(resource, 100));
     }
+
+    @Test
+    public void testSlidingBucketsKeepErrorsAcrossWindowEdge() {
+        String singleBucketResource = "testErrorsAcrossWindowEdgeInSingleBucket";
+        String slidingResource = "testErrorsAcrossWindowEdgeInSlidingBuckets";
+        DegradeRule singleBucketRule = new DegradeRule(singleBucketResource)
+            .setCount(2)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setStatIntervalMs(1000)
+            .setTimeWindow(10)
+            .setMinRequestAmount(1);
+        DegradeRule slidingRule = new DegradeRule(slidingResource)
+            .setCount(2)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT)
+            .setStatIntervalMs(1000)
+            .setSampleCount(10)
+            .setTimeWindow(10)
+            .setMinRequestAmount(1);
+        DegradeRuleManager.loadRules(Arrays.asList(singleBucketRule, slidingRule));
+
+        long time = 20 * 1000;
+        for (String resource : Arrays.asList(singleBucketResource, slidingResource)) {
+            // Two errors at the end of a statistic interval, and one error at the beginning of the next.
+            setCurrentMillis(time + 900);
+            assertTrue(entryWithErrorIfPresent(resource, new IllegalArgumentException()));
+            assertTrue(entryWithErrorIfPresent(resource, new IllegalArgumentException()));
+            setCurrentMillis(time + 1000);
+            assertTrue(entryWithErrorIfPresent(resource, new IllegalArgumentException()));
+            time += 10 * 1000;
+        }
+        // The single bucket has dropped the former errors at once, while the sliding buckets still keep them.
+        assertTrue(entryAndSleepFor(singleBucketResource, 10));
+        assertFalse(entryAndSleepFor(slidingResource, 10));
+    }
 }
\ No newline at end of file
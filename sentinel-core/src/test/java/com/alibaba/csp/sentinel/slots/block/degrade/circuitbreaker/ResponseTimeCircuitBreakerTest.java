@@ -55,4 +55,37 @@ public class ResponseTimeCircuitBreakerTest extends AbstractTimeBasedTest {
         assertTrue(entryAndSleepFor(resource, 20));
     }
 
+    @Test
+    public void testSlowRatioInSlidingBuckets() {
+        String resource = "testSlowRatioInSlidingBuckets";
+        DegradeRule rule = new DegradeRule(resource)
+                .setCount(10)
+                .setGrade(RuleConstant.DEGRADE_GRADE_RT)
+                .setMinRequestAmount(4)
+                .setSlowRatioThreshold(0.5)
+                .setStatIntervalMs(5000)
+                .setSampleCount(5)
+                .setTimeWindow(1);
+        DegradeRuleManager.loadRules(Collections.singletonList(rule));
+
+        setCurrentMillis(20 * 1000);
+        assertTrue(entryAndSleepFor(resource, 20));
+        assertTrue(entryAndSleepFor(resource, 20));
+        // Requests in later buckets are counted together with the former ones.
+        setCurrentMillis(22 * 1000);
+        assertTrue(entryAndSleepFor(resource, 1));
+        assertTrue(entryAndSleepFor(resource, 20));
+        // 3/4 requests are slow.
+        assertFalse(entryAndSleepFor(resource, 1));
+
+        sleep(1000);
+        // Half-open -> closed, all buckets are reset.
+        assertTrue(entryAndSleepFor(resource, 1));
+        assertTrue(entryAndSleepFor(resource, 20));
+        assertTrue(entryAndSleepFor(resource, 20));
+        assertTrue(entryAndSleepFor(resource, 20));
+        assertTrue(entryAndSleepFor(resource, 20));
+        assertFalse(entryAndSleepFor(resource, 1));
+    }
+
 }
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -26,11 +28,14 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.alibaba.csp.sentinel.AsyncEntry;
 import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.SphU;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * @author jialiang.linjl
@@ -255,4 +260,33 @@ public class FlowPartialIntegrationTest {
 
         ContextUtil.exit();
     }
+
+    @Test
+    public void testNonBlockingRateLimiter() throws BlockException {
+        FlowRule flowRule = new FlowRule("testNonBlockingRateLimiter")
+            .setGrade(RuleConstant.FLOW_GRADE_QPS)
+            .setCount(10)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setMaxQueueingTimeMs(1000);
+        FlowRuleManager.loadRules(Collections.singletonList(flowRule));
+
+        long start = TimeUtil.currentTimeMillis();
+        long lastWait = -1;
+        for (int i = 0; i < 5; i++) {
+            AsyncEntry entry = SphU.asyncEntryNonBlocking("testNonBlockingRateLimiter", EntryType.IN);
+            assertTrue(entry.isNonBlocking());
+            assertTrue(entry.getWaitInMs() > lastWait);
+            lastWait = entry.getWaitInMs();
+            entry.exit();
+        }
+        assertTrue(lastWait >= 300);
+        // The requests are paced by the caller, so the current thread never waits.
+        assertTrue(TimeUtil.currentTimeMillis() - start < lastWait);
+
+        Entry entry = SphU.entry("testNonBlockingRateLimiter");
+        assertFalse(entry.isNonBlocking());
+        assertEquals(0, entry.getWaitInMs());
+        entry.exit();
+        ContextUtil.exit();
+    }
 }
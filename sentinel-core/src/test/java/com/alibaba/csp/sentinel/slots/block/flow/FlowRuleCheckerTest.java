@@ -18,16 +18,22 @@ package com.alibaba.csp.sentinel.slots.block.flow;
 import java.util.Arrays;
 
 import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.TokenService;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -166,6 +172,55 @@ public class FlowRuleCheckerTest {
         assertTrue(checker.canPassCheck(rule, context, node, 1));
     }
 
+    @Test
+    public void testClusterRulesCheckedInOneBatch() throws Exception {
+        String resource = "testClusterRulesCheckedInOneBatch";
+        FlowRule rule1 = clusterRule(resource, 1L);
+        FlowRule rule2 = clusterRule(resource, 2L);
+        FlowRulePlan plan = FlowRulePlan.compile(FlowRuleUtil.buildFlowRuleMap(Arrays.asList(rule1, rule2))
+            .get(resource));
+        DefaultNode node = mock(DefaultNode.class);
+        when(node.getClusterNode()).thenReturn(mock(ClusterNode.class));
+        Context context = mock(Context.class);
+        when(context.getOrigin()).thenReturn("");
+        TokenService clusterService = mock(TokenService.class);
+        FlowRuleChecker checker = new FlowRuleChecker();
+
+        when(clusterService.requestBatchToken(any(long[].class), any(int[].class), anyBoolean())).thenAnswer(
+            new Answer<TokenResult[]>() {
+                @Override
+                public TokenResult[] answer(InvocationOnMock invocation) {
+                    long[] flowIds = invocation.getArgument(0);
+                    TokenResult[] results = new TokenResult[flowIds.length];
+                    for (int i = 0; i < flowIds.length; i++) {
+                        results[i] = new TokenResult(flowIds[i] == 2L ? TokenResultStatus.BLOCKED
+                            : TokenResultStatus.OK);
+                    }
+                    return results;
+                }
+            });
+        try {
+            checker.checkFlow(plan, clusterService, context, node, 2, false);
+            fail("should be blocked by the cluster rule of flow 2");
+        } catch (FlowException ex) {
+            assertSame(rule2, ex.getRule());
+        }
+        verify(clusterService).requestBatchToken(plan.clusterFlowIds(), new int[] {2, 2}, false);
+        verify(clusterService, never()).requestToken(anyLong(), anyInt(), anyBoolean());
+
+        // Fallback to local flow control when the batch request fails.
+        doThrow(new IllegalStateException("test")).when(clusterService)
+            .requestBatchToken(any(long[].class), any(int[].class), anyBoolean());
+        checker.checkFlow(plan, clusterService, context, node, 2, false);
+    }
+
+    private static FlowRule clusterRule(String resource, long flowId) {
+        return new FlowRule(resource).setCount(10)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig().setFlowId(flowId)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+    }
+
     @Before
     public void setUp() throws Exception {
         FlowRuleManager.loadRules(null);
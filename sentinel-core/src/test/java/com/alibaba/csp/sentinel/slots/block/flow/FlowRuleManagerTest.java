@@ -15,14 +15,20 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow;
 
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.AdaptiveConcurrencyController;
+
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Weihua
@@ -76,4 +82,28 @@ public class FlowRuleManagerTest {
         }
         latchEnd.await(10, TimeUnit.SECONDS);
     }
+
+    @Test
+    public void testAdaptiveConcurrencyRule() {
+        FlowRule rule = new FlowRule("testAdaptiveConcurrencyRule")
+            .setGrade(RuleConstant.FLOW_GRADE_THREAD)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY)
+            .setCount(100);
+        assertTrue(FlowRuleUtil.isValidRule(rule));
+
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+        List<FlowRule> rules = FlowRuleManager.getFlowRuleMap().get(rule.getResource());
+        assertEquals(1, rules.size());
+        assertTrue(rules.get(0).getRater() instanceof AdaptiveConcurrencyController);
+        FlowRuleManager.loadRules(new ArrayList<FlowRule>());
+
+        // Only available for thread grade in local mode.
+        rule.setCount(0.5);
+        assertFalse(FlowRuleUtil.isValidRule(rule));
+        rule.setCount(100).setClusterMode(true);
+        assertFalse(FlowRuleUtil.isValidRule(rule));
+        rule.setClusterMode(false);
+        rule.setGrade(RuleConstant.FLOW_GRADE_QPS);
+        assertFalse(FlowRuleUtil.isValidRule(rule));
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @since 1.8.2
+ */
+public class FlowRulePlanTest {
+
+    private static final String RESOURCE = "testFlowRulePlan";
+
+    @Test
+    public void testRulesOfOrigin() {
+        FlowRule ruleA = rule(1, "appA");
+        FlowRule ruleB = rule(2, "appB");
+        FlowRule ruleOther = rule(3, RuleConstant.LIMIT_APP_OTHER);
+        FlowRule ruleDefault = new FlowRule(RESOURCE).setCount(4);
+        FlowRulePlan plan = compile(ruleDefault, ruleOther, ruleB, ruleA);
+
+        // Rules of specific origins go first, then `other` and finally `default`.
+        assertEquals(Arrays.asList(ruleA, ruleDefault), rulesOf(plan, "appA"));
+        assertEquals(Arrays.asList(ruleB, ruleDefault), rulesOf(plan, "appB"));
+        assertEquals(Arrays.asList(ruleOther, ruleDefault), rulesOf(plan, "appC"));
+        assertEquals(Arrays.asList(ruleDefault), rulesOf(plan, ""));
+        assertEquals(Arrays.asList(ruleDefault), rulesOf(plan, null));
+        // `default` and `other` are named by rules, so they are never treated as other origins.
+        assertEquals(Arrays.asList(ruleDefault), rulesOf(plan, RuleConstant.LIMIT_APP_DEFAULT));
+        assertEquals(Arrays.asList(ruleDefault), rulesOf(plan, RuleConstant.LIMIT_APP_OTHER));
+    }
+
+    @Test
+    public void testClusterRulesKeptForAllOrigins() {
+        FlowRule clusterRule = rule(1, "appA")
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig().setFlowId(1L)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+        FlowRulePlan plan = compile(clusterRule);
+
+        assertEquals(Arrays.asList(clusterRule), rulesOf(plan, "appA"));
+        assertEquals(Arrays.asList(clusterRule), rulesOf(plan, "appB"));
+        assertEquals(Arrays.asList(clusterRule), rulesOf(plan, ""));
+    }
+
+    @Test
+    public void testClusterFlowIds() {
+        FlowRule localRule = rule(1, "appA");
+        FlowRule clusterRule1 = clusterRule(2, 11L);
+        FlowRule clusterRule2 = clusterRule(3, 12L);
+        FlowRulePlan plan = compile(localRule, clusterRule1, clusterRule2);
+
+        assertArrayEquals(new long[] {11L, 12L}, plan.clusterFlowIds());
+        for (FlowRulePlan.CompiledFlowRule compiled : plan.rulesOf("appA")) {
+            FlowRule rule = compiled.getRule();
+            if (rule.isClusterMode()) {
+                assertEquals((long) rule.getClusterConfig().getFlowId(),
+                    plan.clusterFlowIds()[compiled.getClusterIndex()]);
+            } else {
+                assertEquals(-1, compiled.getClusterIndex());
+            }
+        }
+        assertEquals(0, compile(localRule).clusterFlowIds().length);
+    }
+
+    @Test
+    public void testSelectRelateNode() {
+        String refResource = "testFlowRulePlan_refResource";
+        FlowRule rule = new FlowRule(RESOURCE).setCount(1)
+            .setStrategy(RuleConstant.STRATEGY_RELATE)
+            .setRefResource(refResource);
+        FlowRulePlan.CompiledFlowRule compiled = compile(rule).rulesOf("")[0];
+        DefaultNode node = mock(DefaultNode.class);
+        Context context = mock(Context.class);
+
+        assertNull(compiled.selectNode(context, node));
+        ClusterNode refCn = mock(ClusterNode.class);
+        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper(refResource, EntryType.OUT), refCn);
+        assertSame(refCn, compiled.selectNode(context, node));
+    }
+
+    @Test
+    public void testSameAsLegacySelection() {
+        List<FlowRule> rules = Arrays.asList(
+            rule(1, "appA"),
+            rule(2, "appA").setStrategy(RuleConstant.STRATEGY_CHAIN)
+                .setRefResource("entrance"),
+            rule(3, RuleConstant.LIMIT_APP_OTHER),
+            rule(4, RuleConstant.LIMIT_APP_OTHER)
+                .setStrategy(RuleConstant.STRATEGY_RELATE).setRefResource("relatedRes"),
+            new FlowRule(RESOURCE).setCount(5),
+            new FlowRule(RESOURCE).setCount(6).setStrategy(RuleConstant.STRATEGY_CHAIN).setRefResource("entrance"),
+            new FlowRule(RESOURCE).setCount(7).setStrategy(RuleConstant.STRATEGY_CHAIN)
+        );
+        FlowRuleManager.loadRules(rules);
+        FlowRulePlan plan = FlowRuleManager.getFlowRulePlan(RESOURCE);
+        List<FlowRule> sortedRules = FlowRuleManager.getFlowRuleMap().get(RESOURCE);
+        ClusterBuilderSlot.getClusterNodeMap().put(new StringResourceWrapper("relatedRes", EntryType.IN),
+            mock(ClusterNode.class));
+
+        DefaultNode node = mock(DefaultNode.class);
+        when(node.getClusterNode()).thenReturn(mock(ClusterNode.class));
+        for (String origin : Arrays.asList("appA", "appB", "", RuleConstant.LIMIT_APP_DEFAULT,
+            RuleConstant.LIMIT_APP_OTHER)) {
+            for (String contextName : Arrays.asList("entrance", "other_entrance")) {
+                Context context = mock(Context.class);
+                when(context.getOrigin()).thenReturn(origin);
+                when(context.getName()).thenReturn(contextName);
+                when(context.getOriginNode()).thenReturn(mock(DefaultNode.class));
+
+                List<Node> expected = new ArrayList<>();
+                for (FlowRule rule : sortedRules) {
+                    Node selected = FlowRuleChecker.selectNodeByRequesterAndStrategy(rule, context, node);
+                    if (selected != null) {
+                        expected.add(selected);
+                    }
+                }
+                List<Node> actual = new ArrayList<>();
+                for (FlowRulePlan.CompiledFlowRule compiled : plan.rulesOf(origin)) {
+                    Node selected = compiled.selectNode(context, node);
+                    if (selected != null) {
+                        actual.add(selected);
+                    }
+                }
+                assertEquals("origin: " + origin + ", context: " + contextName, expected, actual);
+            }
+        }
+    }
+
+    private static FlowRulePlan compile(FlowRule... rules) {
+        return FlowRulePlan.compile(FlowRuleUtil.buildFlowRuleMap(Arrays.asList(rules)).get(RESOURCE));
+    }
+
+    private static FlowRule rule(double count, String limitApp) {
+        FlowRule rule = new FlowRule(RESOURCE).setCount(count);
+        rule.setLimitApp(limitApp);
+        return rule;
+    }
+
+    private static FlowRule clusterRule(double count, long flowId) {
+        return new FlowRule(RESOURCE).setCount(count)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig().setFlowId(flowId)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+    }
+
+    private static List<FlowRule> rulesOf(FlowRulePlan plan, String origin) {
+        List<FlowRule> rules = new ArrayList<>();
+        for (FlowRulePlan.CompiledFlowRule compiled : plan.rulesOf(origin)) {
+            rules.add(compiled.getRule());
+        }
+        return rules;
+    }
+
+    @Before
+    public void setUp() {
+        FlowRuleManager.loadRules(null);
+        ClusterBuilderSlot.getClusterNodeMap().clear();
+    }
+
+    @After
+    public void tearDown() {
+        FlowRuleManager.loadRules(null);
+        ClusterBuilderSlot.getClusterNodeMap().clear();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+
+import com.alibaba.csp.sentinel.node.StatisticNode;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Simulation tests of {@link AdaptiveConcurrencyController} driven by the virtual clock.
+ *
+ * @since 1.8.2
+ */
+public class AdaptiveConcurrencyControllerTest extends AbstractTimeBasedTest {
+
+    private static final int BASE_RT = 10;
+
+    private long now = 1000000;
+
+    @Before
+    public void setUp() {
+        // The simulation reads the clock millions of times, so the invocations should not be recorded.
+        PowerMockito.mockStatic(TimeUtil.class, Mockito.withSettings().stubOnly().defaultAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                if ("currentTimeMillis".equals(invocation.getMethod().getName())) {
+                    return now;
+                }
+                return Mockito.RETURNS_DEFAULTS.answer(invocation);
+            }
+        }));
+    }
+
+    @Test
+    public void testPassWithoutNode() {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(10);
+        assertTrue(controller.canPass(null, 1));
+    }
+
+    @Test
+    public void testConvergeToCapacityWhenOverloaded() {
+        int capacity = 20;
+        Simulation simulation = new Simulation(new AdaptiveConcurrencyController(1000), 80);
+
+        simulation.run(capacity, 8000);
+
+        int limit = simulation.controller.getLimit();
+        assertTrue("limit should be near the capacity: " + limit, limit >= capacity / 2 && limit <= capacity * 3);
+        assertTrue("RT should be bounded: " + simulation.node.avgRt(), simulation.node.avgRt() <= BASE_RT * 3);
+    }
+
+    @Test
+    public void testGrowWhenLatencyIsFlat() {
+        int clients = 60;
+        Simulation simulation = new Simulation(new AdaptiveConcurrencyController(1000), clients);
+
+        simulation.run(Integer.MAX_VALUE, 6000);
+
+        assertTrue("limit should grow to admit all clients: " + simulation.controller.getLimit(),
+            simulation.controller.getLimit() >= clients);
+        assertEquals(clients, simulation.node.curThreadNum());
+    }
+
+    @Test
+    public void testLimitBoundedByMaxLimit() {
+        Simulation simulation = new Simulation(new AdaptiveConcurrencyController(30), 60);
+
+        simulation.run(Integer.MAX_VALUE, 3000);
+
+        assertEquals(30, simulation.controller.getLimit());
+        assertEquals(30, simulation.node.curThreadNum());
+    }
+
+    @Test
+    public void testRecoverAfterOverload() {
+        int clients = 60;
+        Simulation simulation = new Simulation(new AdaptiveConcurrencyController(1000), clients);
+
+        simulation.run(10, 5000);
+        assertTrue(simulation.controller.getLimit() < clients);
+
+        // The service has recovered, so the limit should rise again.
+        simulation.run(Integer.MAX_VALUE, 5000);
+        assertTrue("limit should recover: " + simulation.controller.getLimit(),
+            simulation.controller.getLimit() >= clients);
+    }
+
+    /**
+     * Closed-loop clients that retry every millisecond when blocked, against a service whose RT
+     * grows linearly with the concurrency beyond its capacity.
+     */
+    private class Simulation {
+
+        private final AdaptiveConcurrencyController controller;
+        private final StatisticNode node = new StatisticNode();
+        private final long[] finishTime;
+        private final long[] rt;
+
+        Simulation(AdaptiveConcurrencyController controller, int clients) {
+            this.controller = controller;
+            this.finishTime = new long[clients];
+            this.rt = new long[clients];
+        }
+
+        void run(int capacity, int durationMs) {
+            // Field accesses are intercepted by PowerMock, so keep the hot loop on local variables.
+            AdaptiveConcurrencyController controller = this.controller;
+            StatisticNode node = this.node;
+            long[] finishTime = this.finishTime;
+            long[] rt = this.rt;
+            long end = now + durationMs;
+            for (long time = now; time < end; time++) {
+                now = time;
+                for (int i = 0; i < finishTime.length; i++) {
+                    if (finishTime[i] > time) {
+                        continue;
+                    }
+                    if (finishTime[i] > 0) {
+                        node.addRtAndSuccess(rt[i], 1);
+                        node.decreaseThreadNum();
+                        finishTime[i] = 0;
+                    }
+                    if (controller.canPass(node, 1)) {
+                        node.increaseThreadNum();
+                        node.addPassRequest(1);
+                        int concurrency = node.curThreadNum();
+                        rt[i] = concurrency <= capacity ? BASE_RT : (long)BASE_RT * concurrency / capacity;
+                        finishTime[i] = time + rt[i];
+                    }
+                }
+            }
+            now = end;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -95,4 +96,28 @@ public class RateLimiterControllerTest {
             assertTrue(paceController.canPass(node, 0));
         }
     }
+
+    @Test
+    public void testPaceController_reserve() {
+        RateLimiterController paceController = new RateLimiterController(500, 10d);
+        Node node = mock(Node.class);
+
+        long start = TimeUtil.currentTimeMillis();
+        assertEquals(0, paceController.reserve(node, 1, false));
+        long lastWait = 0;
+        for (int i = 0; i < 4; i++) {
+            long waitInMs = paceController.reserve(node, 1, false);
+            assertTrue(waitInMs > lastWait && waitInMs <= 500);
+            lastWait = waitInMs;
+        }
+        // Reserving never sleeps.
+        assertTrue(TimeUtil.currentTimeMillis() - start < 100);
+
+        // Exceeds the max queueing time.
+        while (lastWait + 100 <= 500) {
+            lastWait = paceController.reserve(node, 1, false);
+            assertTrue(lastWait > 0);
+        }
+        assertTrue(paceController.reserve(node, 1, false) < 0);
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.CountDownLatch;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link PaddedMetricBucket}.
+ */
+public class PaddedMetricBucketTest {
+
+    @After
+    public void tearDown() {
+        SentinelConfig.setConfig(SentinelConfig.METRIC_BUCKET_TYPE, SentinelConfig.METRIC_BUCKET_TYPE_DEFAULT);
+        SentinelConfig.removeConfig(SentinelConfig.METRIC_BUCKET_STRIPE_COUNT);
+    }
+
+    @Test
+    public void testAddAndReset() {
+        PaddedMetricBucket bucket = new PaddedMetricBucket(4);
+        bucket.addPass(3);
+        bucket.addBlock(2);
+        bucket.addException(1);
+        bucket.addSuccess(5);
+        bucket.addOccupiedPass(7);
+        bucket.addRT(20);
+        bucket.addRT(8);
+
+        assertEquals(3, bucket.pass());
+        assertEquals(2, bucket.block());
+        assertEquals(1, bucket.exception());
+        assertEquals(5, bucket.success());
+        assertEquals(7, bucket.occupiedPass());
+        assertEquals(28, bucket.rt());
+        assertEquals(8, bucket.minRt());
+
+        bucket.reset();
+        for (MetricEvent event : MetricEvent.values()) {
+            assertEquals(0, bucket.get(event));
+        }
+        assertEquals(SentinelConfig.statisticMaxRt(), bucket.minRt());
+    }
+
+    @Test
+    public void testResetFromOtherBucket() {
+        MetricBucket source = new MetricBucket();
+        source.addPass(10);
+        source.addBlock(4);
+
+        PaddedMetricBucket bucket = new PaddedMetricBucket(2);
+        bucket.addPass(100);
+        bucket.addSuccess(100);
+        bucket.reset(source);
+
+        assertEquals(10, bucket.pass());
+        assertEquals(4, bucket.block());
+        assertEquals(0, bucket.success());
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        final PaddedMetricBucket bucket = new PaddedMetricBucket(8);
+        final int threadCount = 16;
+        final int addPerThread = 10000;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < addPerThread; j++) {
+                        bucket.addPass(1);
+                        bucket.addRT(2);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        assertEquals(threadCount * addPerThread, bucket.pass());
+        assertEquals(threadCount * addPerThread * 2, bucket.rt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalStripeCount() {
+        new PaddedMetricBucket(3);
+    }
+
+    @Test
+    public void testNewBucketByConfig() {
+        assertSame(MetricBucket.class, MetricBucketFactory.newBucket().getClass());
+
+        SentinelConfig.setConfig(SentinelConfig.METRIC_BUCKET_TYPE, SentinelConfig.METRIC_BUCKET_TYPE_PADDED);
+        SentinelConfig.setConfig(SentinelConfig.METRIC_BUCKET_STRIPE_COUNT, "5");
+        MetricBucket bucket = MetricBucketFactory.newBucket();
+        assertTrue(bucket instanceof PaddedMetricBucket);
+        assertEquals(8, ((PaddedMetricBucket)bucket).stripeCount());
+
+        SentinelConfig.setConfig(SentinelConfig.METRIC_BUCKET_STRIPE_COUNT, "-1");
+        assertEquals(1, SentinelConfig.metricBucketStripeCount());
+        SentinelConfig.setConfig(SentinelConfig.METRIC_BUCKET_STRIPE_COUNT, "1024");
+        assertEquals(SentinelConfig.MAX_METRIC_BUCKET_STRIPE_COUNT, SentinelConfig.metricBucketStripeCount());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RtHistogramTest {
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long rt = 0; rt <= SentinelConfig.statisticMaxRt(); rt++) {
+            int index = RtHistogram.indexOf(rt);
+            assertTrue(index < RtHistogram.bucketCount());
+            long highest = RtHistogram.highestValueOf(index);
+            assertTrue(highest >= rt);
+            // Relative error is no more than 1 / SUB_BUCKET_COUNT.
+            assertTrue(highest - rt <= rt / RtHistogram.SUB_BUCKET_COUNT);
+            if (index > 0) {
+                assertTrue(RtHistogram.highestValueOf(index - 1) < rt);
+            }
+        }
+        assertEquals(0, RtHistogram.indexOf(-1));
+    }
+
+    @Test
+    public void testPercentile() {
+        RtHistogram histogram = new RtHistogram();
+        assertEquals(0, histogram.percentile(0.99));
+        for (int rt = 1; rt <= 1000; rt++) {
+            histogram.add(rt);
+        }
+        assertEquals(500, histogram.percentile(0.5), 500 / RtHistogram.SUB_BUCKET_COUNT);
+        assertEquals(990, histogram.percentile(0.99), 990 / RtHistogram.SUB_BUCKET_COUNT);
+        assertEquals(1000, histogram.percentile(1), 1000 / RtHistogram.SUB_BUCKET_COUNT);
+        assertEquals(1, histogram.percentile(0.0001));
+
+        histogram.add(Long.MAX_VALUE);
+        assertEquals(SentinelConfig.statisticMaxRt(), histogram.percentile(1));
+
+        histogram.reset();
+        assertEquals(0, histogram.percentile(0.5));
+    }
+
+    @Test
+    public void testMetricBucketRecordRt() {
+        MetricBucket bucket = MetricBucketFactory.newBucket(true);
+        // The histogram is created on the first recorded RT.
+        assertNull(bucket.rtHistogram());
+        bucket.addRT(5);
+        bucket.addRT(7);
+        assertEquals(7, bucket.rtHistogram().percentile(1));
+        bucket.reset();
+        assertEquals(0, bucket.rtHistogram().percentile(1));
+
+        PaddedMetricBucket padded = new PaddedMetricBucket(4, true);
+        padded.addRT(5);
+        assertEquals(5, padded.rtHistogram().percentile(0.5));
+        padded.reset();
+        assertEquals(0, padded.rtHistogram().percentile(0.5));
+
+        MetricBucket noHistogram = MetricBucketFactory.newBucket();
+        noHistogram.addRT(5);
+        assertNull(noHistogram.rtHistogram());
+    }
+}
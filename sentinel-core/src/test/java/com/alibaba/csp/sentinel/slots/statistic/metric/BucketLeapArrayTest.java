@@ -215,4 +215,61 @@ public class BucketLeapArrayTest {
 
         assertEquals(1, leapArray.list().size());
     }
+
+    @Test
+    public void testLockFreeRotationNeverReusePublishedBucket() {
+        BucketLeapArray leapArray = new BucketLeapArray(sampleCount, intervalInMs, true);
+        assertTrue(leapArray.isLockFreeRotation());
+        long time = TimeUtil.currentTimeMillis();
+        long windowStart = time - time % windowLengthInMs;
+
+        WindowWrap<MetricBucket> first = leapArray.currentWindow(windowStart);
+        first.value().addPass(3);
+        WindowWrap<MetricBucket> second = leapArray.currentWindow(windowStart + windowLengthInMs);
+        second.value().addPass(2);
+
+        // Rotating the first bucket replaces it with a clean bucket instead of resetting it in place.
+        WindowWrap<MetricBucket> third = leapArray.currentWindow(windowStart + intervalInMs);
+        assertNotSame(first, third);
+        assertEquals(windowStart + intervalInMs, third.windowStart());
+        assertEquals(0L, third.value().pass());
+        assertEquals(3L, first.value().pass());
+
+        // The replaced bucket may still be held by other threads, so it is never reset or reused.
+        WindowWrap<MetricBucket> fourth = leapArray.currentWindow(windowStart + intervalInMs + windowLengthInMs);
+        assertNotSame(first, fourth);
+        assertNotSame(second, fourth);
+        assertEquals(windowStart + intervalInMs + windowLengthInMs, fourth.windowStart());
+        assertEquals(0L, fourth.value().pass());
+        assertEquals(windowStart, first.windowStart());
+        assertEquals(3L, first.value().pass());
+        assertEquals(2L, second.value().pass());
+    }
+
+    @Test
+    public void testLockFreeRotationMultiThread() throws Exception {
+        final BucketLeapArray leapArray = new BucketLeapArray(sampleCount, intervalInMs, true);
+        final long time = TimeUtil.currentTimeMillis();
+        final long windowStart = time - time % windowLengthInMs;
+        leapArray.currentWindow(windowStart).value().addPass(100);
+
+        final long nextTime = windowStart + intervalInMs;
+        final int nThreads = 16;
+        final CountDownLatch latch = new CountDownLatch(nThreads);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                leapArray.currentWindow(nextTime).value().addPass(1);
+                latch.countDown();
+            }
+        };
+        for (int i = 0; i < nThreads; i++) {
+            new Thread(task).start();
+        }
+        latch.await();
+
+        WindowWrap<MetricBucket> window = leapArray.currentWindow(nextTime);
+        assertEquals(nextTime, window.windowStart());
+        assertEquals(nThreads, window.value().pass());
+    }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.system;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 1.8.2
+ */
+public class CgroupStatusSamplerTest {
+
+    private static final long SECOND_NANOS = 1000 * 1000 * 1000L;
+
+    private File baseDir;
+    private File procDir;
+    private File cgroupDir;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = Files.createTempDirectory("sentinel-cgroup-test").toFile();
+        procDir = new File(baseDir, "proc");
+        cgroupDir = new File(baseDir, "cgroup");
+    }
+
+    @After
+    public void tearDown() {
+        delete(baseDir);
+    }
+
+    @Test
+    public void testSampleCgroupV2() throws Exception {
+        writeFile(procDir, "self/cgroup", "0::/system.slice/app.service\n");
+        writeFile(cgroupDir, "cgroup.controllers", "cpuset cpu io memory pids\n");
+        String dir = "system.slice/app.service/";
+        writeFile(cgroupDir, dir + "cpu.stat", "usage_usec 3000000\nuser_usec 2000000\nsystem_usec 1000000\n");
+        writeFile(cgroupDir, dir + "cpu.max", "200000 100000\n");
+        writeFile(cgroupDir, dir + "cpu.pressure",
+            "some avg10=25.00 avg60=10.00 avg300=5.00 total=12345\nfull avg10=0.00 avg60=0.00 avg300=0.00 total=0\n");
+
+        CgroupStatusSampler sampler = CgroupStatusSampler.detect(procDir, cgroupDir, 8);
+        assertNotNull(sampler);
+        sampler.sample(0);
+        assertEquals(-1, sampler.getCpuUsage(), 0.001);
+        assertEquals(-1, sampler.getLoad(), 0.001);
+
+        // One CPU second consumed in one second, with a quota of 2 CPUs.
+        writeFile(cgroupDir, dir + "cpu.stat", "usage_usec 4000000\nuser_usec 3000000\nsystem_usec 1000000\n");
+        sampler.sample(SECOND_NANOS);
+        assertEquals(0.5, sampler.getCpuUsage(), 0.001);
+        assertEquals(2 * (0.5 + 0.25), sampler.getLoad(), 0.001);
+    }
+
+    @Test
+    public void testSampleCgroupV2MountedAsRootWithoutQuota() throws Exception {
+        // In a container, the path in /proc/self/cgroup is the path in the host.
+        writeFile(procDir, "self/cgroup", "0::/kubepods/burstable/pod1234/abcd\n");
+        writeFile(cgroupDir, "cgroup.controllers", "cpu memory\n");
+        writeFile(cgroupDir, "cpu.stat", "usage_usec 0\n");
+        writeFile(cgroupDir, "cpu.max", "max 100000\n");
+        writeFile(procDir, "pressure/cpu", "some avg10=50.00 avg60=0.00 avg300=0.00 total=0\n");
+
+        CgroupStatusSampler sampler = CgroupStatusSampler.detect(procDir, cgroupDir, 4);
+        assertNotNull(sampler);
+        sampler.sample(0);
+        writeFile(cgroupDir, "cpu.stat", "usage_usec 1000000\n");
+        sampler.sample(SECOND_NANOS);
+        // Available processors are used without quota, and PSI of the system is used without PSI of the cgroup.
+        assertEquals(0.25, sampler.getCpuUsage(), 0.001);
+        assertEquals(4 * (0.25 + 0.5), sampler.getLoad(), 0.001);
+
+        // Usage is no more than the quota.
+        writeFile(cgroupDir, "cpu.stat", "usage_usec 11000000\n");
+        sampler.sample(2 * SECOND_NANOS);
+        assertEquals(1, sampler.getCpuUsage(), 0.001);
+    }
+
+    @Test
+    public void testSampleCgroupV1() throws Exception {
+        writeFile(procDir, "self/cgroup", "5:memory:/docker/abcd\n4:cpu,cpuacct:/docker/abcd\n3:cpuset:/docker/abcd\n");
+        writeFile(cgroupDir, "cpu/cpu.cfs_quota_us", "50000\n");
+        writeFile(cgroupDir, "cpu/cpu.cfs_period_us", "100000\n");
+        writeFile(cgroupDir, "cpuacct/cpuacct.usage", "1000000000\n");
+
+        CgroupStatusSampler sampler = CgroupStatusSampler.detect(procDir, cgroupDir, 8);
+        assertNotNull(sampler);
+        sampler.sample(0);
+        writeFile(cgroupDir, "cpuacct/cpuacct.usage", "1250000000\n");
+        sampler.sample(SECOND_NANOS);
+        // A quarter of CPU second consumed with a quota of half CPU, and no PSI available.
+        assertEquals(0.5, sampler.getCpuUsage(), 0.001);
+        assertEquals(0.5 * 0.5, sampler.getLoad(), 0.001);
+
+        // No quota.
+        writeFile(cgroupDir, "cpu/cpu.cfs_quota_us", "-1\n");
+        writeFile(cgroupDir, "cpuacct/cpuacct.usage", "3250000000\n");
+        sampler.sample(2 * SECOND_NANOS);
+        assertEquals(0.25, sampler.getCpuUsage(), 0.001);
+        assertEquals(8 * 0.25, sampler.getLoad(), 0.001);
+    }
+
+    @Test
+    public void testCgroupNotAvailable() throws Exception {
+        assertNull(CgroupStatusSampler.detect(procDir, cgroupDir, 8));
+
+        // No cpuacct controller.
+        writeFile(procDir, "self/cgroup", "5:memory:/docker/abcd\n4:cpu:/docker/abcd\n");
+        writeFile(cgroupDir, "cpu/cpu.cfs_quota_us", "-1\n");
+        assertNull(CgroupStatusSampler.detect(procDir, cgroupDir, 8));
+    }
+
+    private static void writeFile(File dir, String path, String content) throws Exception {
+        File file = new File(dir, path);
+        file.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                delete(f);
+            }
+        }
+        file.delete();
+    }
+}
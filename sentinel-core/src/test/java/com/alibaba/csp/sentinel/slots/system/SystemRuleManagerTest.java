@@ -20,7 +20,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 
@@ -99,6 +101,38 @@ public class SystemRuleManagerTest {
         assertTrue("The entry should be blocked under SystemRule maxCpuUsage=0", blocked);
     }
 
+    @Test
+    public void testCheckAgainstStatusSnapshot() throws Exception {
+        SentinelConfig.setConfig(SentinelConfig.SYSTEM_STATUS_SNAPSHOT_INTERVAL, "1000");
+        SystemRule rule = new SystemRule();
+        rule.setMaxThread(Constants.ENTRY_NODE.curThreadNum());
+        SystemRuleManager.loadRules(Collections.singletonList(rule));
+        StringResourceWrapper resource = new StringResourceWrapper("testCheckAgainstStatusSnapshot", EntryType.IN);
+
+        SystemRuleManager.checkSystem(resource);
+        Constants.ENTRY_NODE.increaseThreadNum();
+        try {
+            // The thread count is read from the snapshot taken by the former check.
+            SystemRuleManager.checkSystem(resource);
+            assertSame(SystemRuleManager.currentStatus(), SystemRuleManager.currentStatus());
+
+            // The interval takes effect when system rules are updated.
+            SentinelConfig.setConfig(SentinelConfig.SYSTEM_STATUS_SNAPSHOT_INTERVAL, "0");
+            SystemRuleManager.loadRules(new ArrayList<SystemRule>());
+            SystemRuleManager.loadRules(Collections.singletonList(rule));
+            boolean blocked = false;
+            try {
+                SystemRuleManager.checkSystem(resource);
+            } catch (SystemBlockException ex) {
+                blocked = true;
+                assertEquals("thread", ex.getLimitType());
+            }
+            assertTrue("The entry should be blocked when the statistics are read on every check", blocked);
+        } finally {
+            Constants.ENTRY_NODE.decreaseThreadNum();
+        }
+    }
+
     @Before
     public void setUp() throws Exception {
         SystemRuleManager.loadRules(new ArrayList<SystemRule>());
@@ -106,6 +140,7 @@ public class SystemRuleManagerTest {
 
     @After
     public void tearDown() throws Exception {
+        SentinelConfig.removeConfig(SentinelConfig.SYSTEM_STATUS_SNAPSHOT_INTERVAL);
         SystemRuleManager.loadRules(new ArrayList<SystemRule>());
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link TimeUtil}.
+ */
+public class TimeUtilTest {
+
+    @Test
+    public void testDefaultTickMode() throws Exception {
+        long before = System.currentTimeMillis();
+        Thread.sleep(5);
+        long now = TimeUtil.currentTimeMillis();
+        assertTrue(now >= before);
+        assertTrue(TimeUtil.isTicking());
+    }
+
+    @Test
+    public void testSystemMode() {
+        TimeUtil clock = new TimeUtil(SentinelConfig.TIME_TICK_MODE_SYSTEM, 1000);
+        assertFalse(clock.ticking());
+        long before = System.currentTimeMillis();
+        long now = clock.read();
+        assertTrue(now >= before && now <= System.currentTimeMillis());
+        assertEquals(0, clock.systemReads());
+        assertEquals(0, clock.tickReads());
+    }
+
+    @Test
+    public void testAdaptiveModeSwitchState() {
+        int threshold = 100;
+        // Count every read, so that the counts are exact.
+        TimeUtil clock = new TimeUtil(SentinelConfig.TIME_TICK_MODE_ADAPTIVE, threshold, 1);
+        long start = System.currentTimeMillis();
+        assertFalse(clock.ticking());
+
+        // Low read QPS: keep reading the system clock.
+        for (int i = 0; i < threshold / 2; i++) {
+            clock.read();
+        }
+        assertEquals(threshold / 2, clock.systemReads());
+        clock.checkState(start + 1000);
+        assertFalse(clock.ticking());
+
+        // High read QPS: switch to the tick thread.
+        for (int i = 0; i < threshold * 2; i++) {
+            clock.read();
+        }
+        clock.checkState(start + 2000);
+        assertTrue(clock.ticking());
+        assertEquals(start + 2000, clock.read());
+        assertEquals(1, clock.tickReads());
+
+        // A check within the check interval won't switch the state.
+        clock.checkState(start + 2500);
+        assertTrue(clock.ticking());
+
+        // Read QPS drops below half of the threshold: switch back to the system clock.
+        for (int i = 0; i < threshold / 4; i++) {
+            clock.read();
+        }
+        clock.checkState(start + 3000);
+        assertFalse(clock.ticking());
+        assertEquals(threshold / 2 + threshold * 2, clock.systemReads());
+        assertEquals(1 + threshold / 4, clock.tickReads());
+    }
+
+    @Test
+    public void testAdaptiveModeSampleReads() {
+        int threshold = 100000;
+        TimeUtil clock = new TimeUtil(SentinelConfig.TIME_TICK_MODE_ADAPTIVE, threshold);
+        long start = System.currentTimeMillis();
+
+        for (int i = 0; i < threshold * 2; i++) {
+            clock.read();
+        }
+        long reads = clock.systemReads();
+        assertEquals(0, reads % TimeUtil.MAX_READ_SAMPLE_RATE);
+        assertTrue(reads > threshold && reads < threshold * 3);
+        clock.checkState(start + 1000);
+        assertTrue(clock.ticking());
+    }
+}
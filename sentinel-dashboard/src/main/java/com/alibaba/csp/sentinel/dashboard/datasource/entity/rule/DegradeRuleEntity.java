@@ -38,6 +38,7 @@ public class DegradeRuleEntity implements RuleEntity {
     private Integer minRequestAmount;
     private Double slowRatioThreshold;
     private Integer statIntervalMs;
+    private Integer sampleCount;
 
     private Date gmtCreate;
     private Date gmtModified;
@@ -55,6 +56,7 @@ public class DegradeRuleEntity implements RuleEntity {
         entity.setMinRequestAmount(rule.getMinRequestAmount());
         entity.setSlowRatioThreshold(rule.getSlowRatioThreshold());
         entity.setStatIntervalMs(rule.getStatIntervalMs());
+        entity.setSampleCount(rule.getSampleCount());
         return entity;
     }
 
@@ -162,6 +164,15 @@ public class DegradeRuleEntity implements RuleEntity {
         return this;
     }
 
+    public Integer getSampleCount() {
+        return sampleCount;
+    }
+
+    public DegradeRuleEntity setSampleCount(Integer sampleCount) {
+        this.sampleCount = sampleCount;
+        return this;
+    }
+
     @Override
     public Date getGmtCreate() {
         return gmtCreate;
@@ -196,6 +207,9 @@ public class DegradeRuleEntity implements RuleEntity {
         if (statIntervalMs != null) {
             rule.setStatIntervalMs(statIntervalMs);
         }
+        if (sampleCount != null) {
+            rule.setSampleCount(sampleCount);
+        }
 
         return rule;
     }
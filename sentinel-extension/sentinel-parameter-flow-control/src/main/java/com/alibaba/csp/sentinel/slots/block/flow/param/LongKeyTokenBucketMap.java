@@ -0,0 +1,257 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Packed token buckets (see {@link PackedTokenBucket}) of integral parameter values ({@code long},
+ * {@code int}, {@code short} and {@code byte}), which are keyed by the value and its boxed type. So no boxed key,
+ * atomic or map node is kept for each value: a value takes a key, a bucket, a type byte and a flag byte
+ * in primitive arrays (about 19 bytes including the locks), compared with about 150 bytes in a
+ * {@link com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWrapper}.</p>
+ *
+ * <p>The map has a fixed capacity and is set-associative: a key can only reside in the 8 slots
+ * of the set its hash points to. Each set is guarded by its own spin lock, and when a set is full,
+ * an entry is evicted with the CLOCK (second chance) algorithm: a new entry is kept unreferenced,
+ * and is marked referenced when it's hit again, so the one-off values are evicted before the hot ones.</p>
+ *
+ * <p>As with the default storage, numbers of different types but equal values (e.g. {@code 7} and {@code 7L})
+ * are kept apart. Strings are not supported: the values of hot parameters are often client-controlled, and a hash
+ * of a string can be collided on purpose to use up the tokens of another value, so strings are left to the
+ * default storage which compares the values with {@code equals}.</p>
+ *
+ * <p>The arrays are allocated on the first access, so a rule never seeing such values takes no memory.</p>
+ *
+ * @since 1.8.2
+ */
+final class LongKeyTokenBucketMap {
+
+    private static final int WAYS = 8;
+    private static final int MAX_SET_COUNT = 1 << 27;
+
+    private static final byte OCCUPIED = 1;
+    private static final byte REFERENCED = 2;
+
+    private static final byte NOT_SUPPORTED = 0;
+    private static final byte TYPE_LONG = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_SHORT = 3;
+    private static final byte TYPE_BYTE = 4;
+
+    private final int setCount;
+
+    private volatile Table table;
+
+    /**
+     * @param capacity max amount of values to keep
+     */
+    LongKeyTokenBucketMap(long capacity) {
+        AssertUtil.isTrue(capacity > 0, "capacity should be positive");
+        long sets = (capacity + WAYS - 1) / WAYS;
+        int setCount = 1;
+        while (setCount < sets && setCount < MAX_SET_COUNT) {
+            setCount <<= 1;
+        }
+        this.setCount = setCount;
+    }
+
+    static boolean isSupportedKey(Object value) {
+        return typeOf(value) != NOT_SUPPORTED;
+    }
+
+    private static byte typeOf(Object value) {
+        if (value instanceof Long) {
+            return TYPE_LONG;
+        } else if (value instanceof Integer) {
+            return TYPE_INT;
+        } else if (value instanceof Short) {
+            return TYPE_SHORT;
+        } else if (value instanceof Byte) {
+            return TYPE_BYTE;
+        }
+        return NOT_SUPPORTED;
+    }
+
+    /**
+     * Try to consume {@code acquireCount} tokens from the bucket of given value,
+     * see {@link PackedTokenBucket#tryAcquire}.
+     *
+     * @param value        a supported value, see {@link #isSupportedKey(Object)}
+     * @param acquireCount count to acquire, no more than {@code maxCount}
+     * @return true if the tokens are consumed, otherwise false
+     */
+    boolean tryAcquire(/*@Supported*/ Object value, long currentTime, int acquireCount, long tokenCount,
+                       long maxCount, long durationMs) {
+        long key = ((Number)value).longValue();
+        byte type = typeOf(value);
+        Table t = table();
+        int set = t.setOf(key);
+        t.lock(set);
+        try {
+            int slot = t.find(set, key, type);
+            if (slot < 0) {
+                slot = t.claim(set);
+                t.keys[slot] = key;
+                t.types[slot] = type;
+                t.buckets[slot] = PackedTokenBucket.newBucket(currentTime, acquireCount, maxCount);
+                t.flags[slot] = OCCUPIED;
+                return true;
+            }
+            t.flags[slot] = OCCUPIED | REFERENCED;
+            long newBucket = PackedTokenBucket.tryAcquire(t.buckets[slot], currentTime, acquireCount, tokenCount,
+                maxCount, durationMs);
+            if (newBucket == PackedTokenBucket.REJECTED) {
+                return false;
+            }
+            t.buckets[slot] = newBucket;
+            return true;
+        } finally {
+            t.unlock(set);
+        }
+    }
+
+    /**
+     * Get the packed bucket of given value.
+     *
+     * @param value a supported value, see {@link #isSupportedKey(Object)}
+     * @return the packed bucket, or {@link PackedTokenBucket#REJECTED} if absent
+     */
+    long get(/*@Supported*/ Object value) {
+        Table t = table;
+        if (t == null) {
+            return PackedTokenBucket.REJECTED;
+        }
+        long key = ((Number)value).longValue();
+        int set = t.setOf(key);
+        t.lock(set);
+        try {
+            int slot = t.find(set, key, typeOf(value));
+            return slot < 0 ? PackedTokenBucket.REJECTED : t.buckets[slot];
+        } finally {
+            t.unlock(set);
+        }
+    }
+
+    /**
+     * Get the amount of kept values. The result is approximate under concurrent updates.
+     */
+    int size() {
+        Table t = table;
+        if (t == null) {
+            return 0;
+        }
+        int size = 0;
+        for (byte flag : t.flags) {
+            if ((flag & OCCUPIED) != 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    int capacity() {
+        return setCount * WAYS;
+    }
+
+    private Table table() {
+        Table t = table;
+        if (t == null) {
+            synchronized (this) {
+                t = table;
+                if (t == null) {
+                    table = t = new Table(setCount);
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Slots of all sets. The plain arrays of a set are only accessed with the lock of the set held.
+     */
+    private static final class Table {
+
+        private final int setMask;
+        private final long[] keys;
+        private final long[] buckets;
+        private final byte[] types;
+        private final byte[] flags;
+        private final byte[] clockHands;
+        private final AtomicIntegerArray locks;
+
+        Table(int setCount) {
+            this.setMask = setCount - 1;
+            this.keys = new long[setCount * WAYS];
+            this.buckets = new long[setCount * WAYS];
+            this.types = new byte[setCount * WAYS];
+            this.flags = new byte[setCount * WAYS];
+            this.clockHands = new byte[setCount];
+            this.locks = new AtomicIntegerArray(setCount);
+        }
+
+        int setOf(long key) {
+            // Fibonacci hashing, so that sequential keys are spread over the sets.
+            return (int)((key * 0x9E3779B97F4A7C15L) >>> 32) & setMask;
+        }
+
+        void lock(int set) {
+            while (!locks.compareAndSet(set, 0, 1)) {
+                Thread.yield();
+            }
+        }
+
+        void unlock(int set) {
+            locks.set(set, 0);
+        }
+
+        int find(int set, long key, byte type) {
+            int base = set * WAYS;
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if ((flags[slot] & OCCUPIED) != 0 && keys[slot] == key && types[slot] == type) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Find a free slot in given set, or evict one with the CLOCK algorithm if the set is full.
+         */
+        int claim(int set) {
+            int base = set * WAYS;
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if ((flags[slot] & OCCUPIED) == 0) {
+                    return slot;
+                }
+            }
+            int hand = clockHands[set];
+            while (true) {
+                int slot = base + hand;
+                hand = (hand + 1) & (WAYS - 1);
+                if ((flags[slot] & REFERENCED) != 0) {
+                    // Give it a second chance.
+                    flags[slot] = OCCUPIED;
+                } else {
+                    clockHands[set] = (byte)hand;
+                    return slot;
+                }
+            }
+        }
+    }
+}
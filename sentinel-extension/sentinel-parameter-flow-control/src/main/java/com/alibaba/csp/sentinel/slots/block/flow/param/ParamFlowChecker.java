@@ -127,10 +127,12 @@ public final class ParamFlowChecker {
     static boolean passDefaultLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
                                          Object value) {
         ParameterMetric metric = getParameterMetric(resourceWrapper);
+        HeavyHitterSketch sketch = metric == null ? null : metric.getRuleSketch(rule);
+        CacheMap<Object, AtomicLong> tokenBuckets = metric == null ? null : metric.getRuleTokenBucket(rule);
         CacheMap<Object, AtomicLong> tokenCounters = metric == null ? null : metric.getRuleTokenCounter(rule);
         CacheMap<Object, AtomicLong> timeCounters = metric == null ? null : metric.getRuleTimeCounter(rule);
 
-        if (tokenCounters == null || timeCounters == null) {
+        if (sketch == null && tokenBuckets == null && (tokenCounters == null || timeCounters == null)) {
             return true;
         }
 
@@ -149,6 +151,19 @@ public final class ParamFlowChecker {
         if (acquireCount > maxCount) {
             return false;
         }
+        if (sketch != null) {
+            // Approximate rules admit at most maxCount per statistic window of each value.
+            return sketch.tryAcquire(value, TimeUtil.currentTimeMillis(), acquireCount, maxCount);
+        }
+        if (tokenBuckets != null) {
+            LongKeyTokenBucketMap longKeyBuckets = metric.getRuleLongKeyTokenBucket(rule);
+            if (longKeyBuckets != null && LongKeyTokenBucketMap.isSupportedKey(value)) {
+                // Integral values are kept in the primitive map, without boxed keys and atomics.
+                return longKeyBuckets.tryAcquire(value, TimeUtil.currentTimeMillis(),
+                    acquireCount, tokenCount, maxCount, rule.getDurationInSec() * 1000);
+            }
+            return passPackedTokenBucketCheck(tokenBuckets, rule, acquireCount, value, tokenCount, maxCount);
+        }
 
         while (true) {
             long currentTime = TimeUtil.currentTimeMillis();
@@ -188,8 +203,10 @@ public final class ParamFlowChecker {
                 AtomicLong oldQps = tokenCounters.get(value);
                 if (oldQps != null) {
                     long oldQpsValue = oldQps.get();
-                    if (oldQpsValue - acquireCount >= 0) {
-                        if (oldQps.compareAndSet(oldQpsValue, oldQpsValue - acquireCount)) {
+                    // The counter may be migrated from a rule of higher threshold, so never exceed the new capacity.
+                    long restQps = Math.min(oldQpsValue, maxCount);
+                    if (restQps - acquireCount >= 0) {
+                        if (oldQps.compareAndSet(oldQpsValue, restQps - acquireCount)) {
                             return true;
                         }
                     } else {
@@ -201,6 +218,39 @@ public final class ParamFlowChecker {
         }
     }
 
+    /**
+     * The same simplified token bucket algorithm as the default one, while the last refill time
+     * and the rest tokens are updated together with one CAS on the packed bucket.
+     */
+    private static boolean passPackedTokenBucketCheck(CacheMap<Object, AtomicLong> tokenBuckets, ParamFlowRule rule,
+                                                      int acquireCount, Object value, long tokenCount,
+                                                      long maxCount) {
+        long durationMs = rule.getDurationInSec() * 1000;
+        while (true) {
+            long currentTime = TimeUtil.currentTimeMillis();
+
+            AtomicLong bucket = tokenBuckets.get(value);
+            if (bucket == null) {
+                bucket = tokenBuckets.putIfAbsent(value,
+                    new AtomicLong(PackedTokenBucket.newBucket(currentTime, acquireCount, maxCount)));
+                if (bucket == null) {
+                    // Token never added, just replenish the tokens and consume {@code acquireCount} immediately.
+                    return true;
+                }
+            }
+
+            long oldBucket = bucket.get();
+            long newBucket = PackedTokenBucket.tryAcquire(oldBucket, currentTime, acquireCount, tokenCount,
+                maxCount, durationMs);
+            if (newBucket == PackedTokenBucket.REJECTED) {
+                return false;
+            }
+            if (bucket.compareAndSet(oldBucket, newBucket)) {
+                return true;
+            }
+        }
+    }
+
     static boolean passThrottleLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
                                           Object value) {
         ParameterMetric metric = getParameterMetric(resourceWrapper);
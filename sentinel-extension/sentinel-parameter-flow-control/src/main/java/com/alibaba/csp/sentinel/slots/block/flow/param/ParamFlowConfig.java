@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+/**
+ * Configuration of parameter flow control.
+ *
+ * @since 1.8.2
+ */
+public final class ParamFlowConfig {
+
+    /**
+     * Whether to keep the token bucket of each parameter value in one packed {@code long},
+     * see {@link PackedTokenBucket}. Integral values are then kept in primitive arrays
+     * rather than boxed in cache maps, see {@link LongKeyTokenBucketMap}. Disabled by default.
+     */
+    public static final String PACKED_TOKEN_BUCKET_ENABLED = "csp.sentinel.param.flow.packed.token.bucket.enabled";
+
+    private static final String ENABLED = "true";
+
+    public static boolean isPackedTokenBucketEnabled() {
+        return ENABLED.equalsIgnoreCase(SentinelConfig.getConfig(PACKED_TOKEN_BUCKET_ENABLED));
+    }
+
+    private ParamFlowConfig() {}
+}
@@ -63,6 +63,14 @@ public class ParamFlowRule extends AbstractRule {
     private int burstCount = 0;
     private long durationInSec = 1;
 
+    /**
+     * Whether to count the parameter values approximately in fixed memory with a count-min sketch,
+     * for parameters of very high cardinality. Only available for QPS rules of default behavior.
+     *
+     * @since 1.8.2
+     */
+    private boolean approximate = false;
+
     /**
      * Original exclusion items of parameters.
      */
@@ -118,6 +126,15 @@ public class ParamFlowRule extends AbstractRule {
         return this;
     }
 
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public ParamFlowRule setApproximate(boolean approximate) {
+        this.approximate = approximate;
+        return this;
+    }
+
     public int getGrade() {
         return grade;
     }
@@ -202,6 +219,7 @@ public class ParamFlowRule extends AbstractRule {
         if (maxQueueingTimeMs != that.maxQueueingTimeMs) { return false; }
         if (burstCount != that.burstCount) { return false; }
         if (durationInSec != that.durationInSec) { return false; }
+        if (approximate != that.approximate) { return false; }
         if (clusterMode != that.clusterMode) { return false; }
         if (!Objects.equals(paramIdx, that.paramIdx)) { return false; }
         if (!Objects.equals(paramFlowItemList, that.paramFlowItemList)) { return false; }
@@ -220,6 +238,7 @@ public class ParamFlowRule extends AbstractRule {
         result = 31 * result + maxQueueingTimeMs;
         result = 31 * result + burstCount;
         result = 31 * result + (int)(durationInSec ^ (durationInSec >>> 32));
+        result = 31 * result + (approximate ? 1 : 0);
         result = 31 * result + (paramFlowItemList != null ? paramFlowItemList.hashCode() : 0);
         result = 31 * result + (clusterMode ? 1 : 0);
         result = 31 * result + (clusterConfig != null ? clusterConfig.hashCode() : 0);
@@ -236,6 +255,7 @@ public class ParamFlowRule extends AbstractRule {
             ", maxQueueingTimeMs=" + maxQueueingTimeMs +
             ", burstCount=" + burstCount +
             ", durationInSec=" + durationInSec +
+            ", approximate=" + approximate +
             ", paramFlowItemList=" + paramFlowItemList +
             ", clusterMode=" + clusterMode +
             ", clusterConfig=" + clusterConfig +
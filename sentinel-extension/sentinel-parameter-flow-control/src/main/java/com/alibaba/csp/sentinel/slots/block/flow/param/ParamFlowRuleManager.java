@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,7 +36,7 @@ import com.alibaba.csp.sentinel.util.AssertUtil;
  */
 public final class ParamFlowRuleManager {
 
-    private static final Map<String, List<ParamFlowRule>> PARAM_FLOW_RULES = new ConcurrentHashMap<>();
+    private static volatile Map<String, List<ParamFlowRule>> paramFlowRules = new ConcurrentHashMap<>();
 
     private final static RulePropertyListener PROPERTY_LISTENER = new RulePropertyListener();
     private static SentinelProperty<List<ParamFlowRule>> currentProperty = new DynamicSentinelProperty<>();
@@ -75,11 +76,11 @@ public final class ParamFlowRuleManager {
     }
 
     public static List<ParamFlowRule> getRulesOfResource(String resourceName) {
-        return new ArrayList<>(PARAM_FLOW_RULES.get(resourceName));
+        return new ArrayList<>(paramFlowRules.get(resourceName));
     }
 
     public static boolean hasRules(String resourceName) {
-        List<ParamFlowRule> rules = PARAM_FLOW_RULES.get(resourceName);
+        List<ParamFlowRule> rules = paramFlowRules.get(resourceName);
         return rules != null && !rules.isEmpty();
     }
 
@@ -90,7 +91,7 @@ public final class ParamFlowRuleManager {
      */
     public static List<ParamFlowRule> getRules() {
         List<ParamFlowRule> rules = new ArrayList<>();
-        for (Map.Entry<String, List<ParamFlowRule>> entry : PARAM_FLOW_RULES.entrySet()) {
+        for (Map.Entry<String, List<ParamFlowRule>> entry : paramFlowRules.entrySet()) {
             rules.addAll(entry.getValue());
         }
         return rules;
@@ -100,25 +101,29 @@ public final class ParamFlowRuleManager {
 
         @Override
         public void configUpdate(List<ParamFlowRule> list) {
-            Map<String, List<ParamFlowRule>> rules = aggregateAndPrepareParamRules(list);
-            if (rules != null) {
-                PARAM_FLOW_RULES.clear();
-                PARAM_FLOW_RULES.putAll(rules);
-            }
-            RecordLog.info("[ParamFlowRuleManager] Parameter flow rules received: {}", PARAM_FLOW_RULES);
+            applyParamRules(list);
         }
 
         @Override
         public void configLoad(List<ParamFlowRule> list) {
-            Map<String, List<ParamFlowRule>> rules = aggregateAndPrepareParamRules(list);
+            applyParamRules(list);
+        }
+
+        private void applyParamRules(List<ParamFlowRule> list) {
+            Map<String, List<ParamFlowRule>> migratedRules = new HashMap<>();
+            Map<String, List<ParamFlowRule>> rules = aggregateAndPrepareParamRules(list, migratedRules);
             if (rules != null) {
-                PARAM_FLOW_RULES.clear();
-                PARAM_FLOW_RULES.putAll(rules);
+                // Replace the rules as a whole, so that there is no moment without any rule.
+                paramFlowRules = rules;
+            }
+            for (Map.Entry<String, List<ParamFlowRule>> entry : migratedRules.entrySet()) {
+                ParameterMetricStorage.releaseMigratedRulesFor(entry.getKey(), entry.getValue());
             }
-            RecordLog.info("[ParamFlowRuleManager] Parameter flow rules received: {}", PARAM_FLOW_RULES);
+            RecordLog.info("[ParamFlowRuleManager] Parameter flow rules received: {}", paramFlowRules);
         }
 
-        private Map<String, List<ParamFlowRule>> aggregateAndPrepareParamRules(List<ParamFlowRule> list) {
+        private Map<String, List<ParamFlowRule>> aggregateAndPrepareParamRules(List<ParamFlowRule> list,
+                                                                               Map<String, List<ParamFlowRule>> migratedRules) {
             Map<String, List<ParamFlowRule>> newRuleMap = ParamFlowRuleUtil.buildParamRuleMap(list);
             if (newRuleMap == null || newRuleMap.isEmpty()) {
                 // No parameter flow rules, so clear all the metrics.
@@ -127,21 +132,17 @@ public final class ParamFlowRuleManager {
                 return newRuleMap;
             }
 
-            // Clear unused parameter metrics.
-            for (Map.Entry<String, List<ParamFlowRule>> entry : PARAM_FLOW_RULES.entrySet()) {
+            // Clear unused parameter metrics, and migrate the metrics of modified rules.
+            for (Map.Entry<String, List<ParamFlowRule>> entry : paramFlowRules.entrySet()) {
                 String resource = entry.getKey();
                 if (!newRuleMap.containsKey(resource)) {
                     ParameterMetricStorage.clearParamMetricForResource(resource);
                     continue;
                 }
-                List<ParamFlowRule> newRuleList = newRuleMap.get(resource);
-                List<ParamFlowRule> oldRuleList = new ArrayList<>(entry.getValue());
-                oldRuleList.removeAll(newRuleList);
-                for (ParamFlowRule rule : oldRuleList) {
-                    ParameterMetric parameterMetric = ParameterMetricStorage.getParamMetricForResource(resource);
-                    if (parameterMetric != null) {
-                        parameterMetric.clearForRule(rule);
-                    }
+                List<ParamFlowRule> migrated = ParameterMetricStorage.migrateParamMetricsFor(resource,
+                    entry.getValue(), newRuleMap.get(resource));
+                if (!migrated.isEmpty()) {
+                    migratedRules.put(resource, migrated);
                 }
             }
 
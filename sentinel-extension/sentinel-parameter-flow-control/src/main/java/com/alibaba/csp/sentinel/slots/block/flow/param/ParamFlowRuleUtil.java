@@ -48,7 +48,16 @@ public final class ParamFlowRuleUtil {
             && rule.getGrade() >= 0 && rule.getParamIdx() != null
             && rule.getBurstCount() >= 0 && rule.getControlBehavior() >= 0
             && rule.getDurationInSec() > 0 && rule.getMaxQueueingTimeMs() >= 0
-            && checkCluster(rule);
+            && checkCluster(rule) && checkApproximate(rule);
+    }
+
+    private static boolean checkApproximate(/*@PreChecked*/ ParamFlowRule rule) {
+        if (!rule.isApproximate()) {
+            return true;
+        }
+        // The sketch only counts requests of local QPS rules in default (fast-reject) behavior.
+        return rule.getGrade() == RuleConstant.FLOW_GRADE_QPS && !rule.isClusterMode()
+            && rule.getControlBehavior() != RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER;
     }
 
     private static boolean checkCluster(/*@PreChecked*/ ParamFlowRule rule) {
@@ -38,21 +38,62 @@ public class ParameterMetric {
     private static final int BASE_PARAM_MAX_CAPACITY = 4000;
     private static final int TOTAL_MAX_CAPACITY = 20_0000;
 
+    /**
+     * Lock for the writers. The maps below are copy-on-write, so that they are read without locking.
+     */
     private final Object lock = new Object();
 
+    /**
+     * Whether to keep the token bucket of QPS rules in one packed {@code long} per parameter value.
+     *
+     * @since 1.8.2
+     */
+    private final boolean packedTokenBucket;
+
     /**
      * Format: (rule, (value, timeRecorder))
      *
      * @since 1.6.0
      */
-    private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTimeCounters = new HashMap<>();
+    private volatile Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTimeCounters = new HashMap<>();
     /**
      * Format: (rule, (value, tokenCounter))
      *
      * @since 1.6.0
      */
-    private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTokenCounter = new HashMap<>();
-    private final Map<Integer, CacheMap<Object, AtomicInteger>> threadCountMap = new HashMap<>();
+    private volatile Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTokenCounter = new HashMap<>();
+    /**
+     * Format: (rule, (value, packedTokenBucket)), see {@link PackedTokenBucket}
+     *
+     * @since 1.8.2
+     */
+    private volatile Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTokenBuckets = new HashMap<>();
+    /**
+     * Format: (rule, (integral value, packedTokenBucket)), see {@link LongKeyTokenBucketMap}
+     *
+     * @since 1.8.2
+     */
+    private volatile Map<ParamFlowRule, LongKeyTokenBucketMap> ruleLongKeyTokenBuckets = new HashMap<>();
+    /**
+     * Format: (rule, sketch) for approximate rules, see {@link HeavyHitterSketch}
+     *
+     * @since 1.8.2
+     */
+    private volatile Map<ParamFlowRule, HeavyHitterSketch> ruleSketches = new HashMap<>();
+    private volatile Map<Integer, CacheMap<Object, AtomicInteger>> threadCountMap = new HashMap<>();
+
+    public ParameterMetric() {
+        this(ParamFlowConfig.isPackedTokenBucketEnabled());
+    }
+
+    /**
+     * @param packedTokenBucket whether to keep the token bucket of QPS rules in one packed {@code long}
+     *                          per parameter value
+     * @since 1.8.2
+     */
+    public ParameterMetric(boolean packedTokenBucket) {
+        this.packedTokenBucket = packedTokenBucket;
+    }
 
     /**
      * Get the token counter for given parameter rule.
@@ -76,28 +117,189 @@ public class ParameterMetric {
         return ruleTimeCounters.get(rule);
     }
 
+    /**
+     * Get the packed token buckets for given parameter rule, see {@link PackedTokenBucket}.
+     *
+     * @param rule valid parameter rule
+     * @return the associated token buckets, or null if the rule is not served by packed token buckets
+     * @since 1.8.2
+     */
+    public CacheMap<Object, AtomicLong> getRuleTokenBucket(ParamFlowRule rule) {
+        return ruleTokenBuckets.get(rule);
+    }
+
+    /**
+     * Get the packed token buckets of numeric and string values for given parameter rule.
+     *
+     * @param rule valid parameter rule
+     * @return the associated token buckets, or null if the rule is not served by packed token buckets
+     * @since 1.8.2
+     */
+    LongKeyTokenBucketMap getRuleLongKeyTokenBucket(ParamFlowRule rule) {
+        return ruleLongKeyTokenBuckets.get(rule);
+    }
+
+    /**
+     * Get the approximate counters for given parameter rule.
+     *
+     * @param rule valid parameter rule
+     * @return the associated sketch, or null if the rule is not approximate
+     * @since 1.8.2
+     */
+    HeavyHitterSketch getRuleSketch(ParamFlowRule rule) {
+        return ruleSketches.get(rule);
+    }
+
     public void clear() {
         synchronized (lock) {
-            threadCountMap.clear();
-            ruleTimeCounters.clear();
-            ruleTokenCounter.clear();
+            threadCountMap = new HashMap<>();
+            ruleTimeCounters = new HashMap<>();
+            ruleTokenCounter = new HashMap<>();
+            ruleTokenBuckets = new HashMap<>();
+            ruleLongKeyTokenBuckets = new HashMap<>();
+            ruleSketches = new HashMap<>();
         }
     }
 
     public void clearForRule(ParamFlowRule rule) {
         synchronized (lock) {
-            ruleTimeCounters.remove(rule);
-            ruleTokenCounter.remove(rule);
-            threadCountMap.remove(rule.getParamIdx());
+            clearCountersForRule(rule);
+            threadCountMap = copyAndRemove(threadCountMap, rule.getParamIdx());
         }
     }
 
+    /**
+     * Clear the counters of given rule, but keep the thread counts of its parameter index,
+     * which may be shared by other rules.
+     *
+     * @param rule the rule to clear
+     * @since 1.8.2
+     */
+    void clearCountersForRule(ParamFlowRule rule) {
+        synchronized (lock) {
+            ruleTimeCounters = copyAndRemove(ruleTimeCounters, rule);
+            ruleTokenCounter = copyAndRemove(ruleTokenCounter, rule);
+            ruleTokenBuckets = copyAndRemove(ruleTokenBuckets, rule);
+            ruleLongKeyTokenBuckets = copyAndRemove(ruleLongKeyTokenBuckets, rule);
+            ruleSketches = copyAndRemove(ruleSketches, rule);
+        }
+    }
+
+    /**
+     * <p>Let {@code newRule} share the counters of {@code oldRule}, so that the throttling state of parameter
+     * values is kept when a rule is modified. The counters can be shared only if both rules have the same
+     * parameter index, grade and statistic duration, and are kept in the same kind of storage.
+     * If the new rule has a lower threshold, the rest tokens of each value are clamped to the new capacity
+     * when the value is checked next time.</p>
+     *
+     * <p>The counters of {@code oldRule} are not removed, as it may still be in use until the new rules
+     * take effect. They should be removed by {@link #clearCountersForRule(ParamFlowRule)} afterwards.</p>
+     *
+     * @param oldRule the rule to migrate from
+     * @param newRule the rule to migrate to
+     * @return true if the counters are shared, otherwise false
+     * @since 1.8.2
+     */
+    boolean migrateRule(ParamFlowRule oldRule, ParamFlowRule newRule) {
+        if (!isSameIdentity(oldRule, newRule)) {
+            return false;
+        }
+        synchronized (lock) {
+            if (ruleTimeCounters.containsKey(newRule) || ruleTokenBuckets.containsKey(newRule)
+                || ruleSketches.containsKey(newRule)) {
+                // Already initialized by the new rule itself.
+                return false;
+            }
+            boolean migrated = false;
+            if (ruleTimeCounters.containsKey(oldRule)) {
+                ruleTimeCounters = copyAndPut(ruleTimeCounters, newRule, ruleTimeCounters.get(oldRule));
+                migrated = true;
+            }
+            if (ruleTokenCounter.containsKey(oldRule)) {
+                ruleTokenCounter = copyAndPut(ruleTokenCounter, newRule, ruleTokenCounter.get(oldRule));
+                migrated = true;
+            }
+            if (ruleLongKeyTokenBuckets.containsKey(oldRule)) {
+                ruleLongKeyTokenBuckets = copyAndPut(ruleLongKeyTokenBuckets, newRule,
+                    ruleLongKeyTokenBuckets.get(oldRule));
+                migrated = true;
+            }
+            if (ruleTokenBuckets.containsKey(oldRule)) {
+                ruleTokenBuckets = copyAndPut(ruleTokenBuckets, newRule, ruleTokenBuckets.get(oldRule));
+                migrated = true;
+            }
+            if (ruleSketches.containsKey(oldRule)) {
+                ruleSketches = copyAndPut(ruleSketches, newRule, ruleSketches.get(oldRule));
+                migrated = true;
+            }
+            return migrated;
+        }
+    }
+
+    private boolean isSameIdentity(ParamFlowRule oldRule, ParamFlowRule newRule) {
+        if (oldRule.getParamIdx() == null || !oldRule.getParamIdx().equals(newRule.getParamIdx())
+            || oldRule.getGrade() != newRule.getGrade() || oldRule.getDurationInSec() != newRule.getDurationInSec()) {
+            return false;
+        }
+        // The counters are interpreted differently in different kinds of storage or control behaviors.
+        return oldRule.getControlBehavior() == newRule.getControlBehavior()
+            && oldRule.isApproximate() == newRule.isApproximate()
+            && (!packedTokenBucket || PackedTokenBucket.isApplicable(oldRule) == PackedTokenBucket.isApplicable(newRule));
+    }
+
+    private static <K, V> Map<K, V> copyAndPut(Map<K, V> map, K key, V value) {
+        Map<K, V> newMap = new HashMap<>(map);
+        newMap.put(key, value);
+        return newMap;
+    }
+
+    private static <K, V> Map<K, V> copyAndRemove(Map<K, V> map, K key) {
+        if (!map.containsKey(key)) {
+            return map;
+        }
+        Map<K, V> newMap = new HashMap<>(map);
+        newMap.remove(key);
+        return newMap;
+    }
+
     public void initialize(ParamFlowRule rule) {
+        if (rule.isApproximate()) {
+            // The sketch takes fixed memory, so there is no per-value counter at all.
+            if (!ruleSketches.containsKey(rule)) {
+                synchronized (lock) {
+                    if (ruleSketches.get(rule) == null) {
+                        ruleSketches = copyAndPut(ruleSketches, rule, new HeavyHitterSketch(rule.getDurationInSec()));
+                    }
+                }
+            }
+            initThreadCountMap(rule);
+            return;
+        }
+
+        if (packedTokenBucket && PackedTokenBucket.isApplicable(rule)) {
+            // One packed token bucket per value replaces both the time and token counters.
+            if (!ruleTokenBuckets.containsKey(rule)) {
+                synchronized (lock) {
+                    if (ruleTokenBuckets.get(rule) == null) {
+                        long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
+                        // Put the long-key map first, as the checker looks it up after the object-key map.
+                        ruleLongKeyTokenBuckets = copyAndPut(ruleLongKeyTokenBuckets, rule,
+                            new LongKeyTokenBucketMap(size));
+                        ruleTokenBuckets = copyAndPut(ruleTokenBuckets, rule,
+                            new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
+                    }
+                }
+            }
+            initThreadCountMap(rule);
+            return;
+        }
+
         if (!ruleTimeCounters.containsKey(rule)) {
             synchronized (lock) {
                 if (ruleTimeCounters.get(rule) == null) {
                     long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
-                    ruleTimeCounters.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
+                    ruleTimeCounters = copyAndPut(ruleTimeCounters, rule,
+                        new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
                 }
             }
         }
@@ -106,15 +308,20 @@ public class ParameterMetric {
             synchronized (lock) {
                 if (ruleTokenCounter.get(rule) == null) {
                     long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
-                    ruleTokenCounter.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
+                    ruleTokenCounter = copyAndPut(ruleTokenCounter, rule,
+                        new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
                 }
             }
         }
 
+        initThreadCountMap(rule);
+    }
+
+    private void initThreadCountMap(ParamFlowRule rule) {
         if (!threadCountMap.containsKey(rule.getParamIdx())) {
             synchronized (lock) {
                 if (threadCountMap.get(rule.getParamIdx()) == null) {
-                    threadCountMap.put(rule.getParamIdx(),
+                    threadCountMap = copyAndPut(threadCountMap, rule.getParamIdx(),
                         new ConcurrentLinkedHashMapWrapper<Object, AtomicInteger>(THREAD_COUNT_MAX_CAPACITY));
                 }
             }
@@ -264,4 +471,16 @@ public class ParameterMetric {
     Map<ParamFlowRule, CacheMap<Object, AtomicLong>> getRuleTimeCounterMap() {
         return ruleTimeCounters;
     }
+
+    Map<ParamFlowRule, CacheMap<Object, AtomicLong>> getRuleTokenBucketMap() {
+        return ruleTokenBuckets;
+    }
+
+    Map<ParamFlowRule, LongKeyTokenBucketMap> getRuleLongKeyTokenBucketMap() {
+        return ruleLongKeyTokenBuckets;
+    }
+
+    Map<ParamFlowRule, HeavyHitterSketch> getRuleSketchMap() {
+        return ruleSketches;
+    }
 }
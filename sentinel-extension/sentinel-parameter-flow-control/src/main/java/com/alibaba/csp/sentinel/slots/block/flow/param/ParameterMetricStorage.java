@@ -15,8 +15,12 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
@@ -28,12 +32,7 @@ import com.alibaba.csp.sentinel.util.StringUtil;
  */
 public final class ParameterMetricStorage {
 
-    private static final Map<String, ParameterMetric> metricsMap = new ConcurrentHashMap<>();
-
-    /**
-     * Lock for a specific resource.
-     */
-    private static final Object LOCK = new Object();
+    private static final ConcurrentMap<String, ParameterMetric> metricsMap = new ConcurrentHashMap<>();
 
     /**
      * Init the parameter metric and index map for given resource.
@@ -50,17 +49,84 @@ public final class ParameterMetricStorage {
         ParameterMetric metric;
         // Assume that the resource is valid.
         if ((metric = metricsMap.get(resourceName)) == null) {
-            synchronized (LOCK) {
-                if ((metric = metricsMap.get(resourceName)) == null) {
-                    metric = new ParameterMetric();
-                    metricsMap.put(resourceWrapper.getName(), metric);
-                    RecordLog.info("[ParameterMetricStorage] Creating parameter metric for: {}", resourceWrapper.getName());
-                }
+            // An empty metric is cheap to create, so just let the first one win rather than locking all resources.
+            ParameterMetric newMetric = new ParameterMetric();
+            if ((metric = metricsMap.putIfAbsent(resourceName, newMetric)) == null) {
+                metric = newMetric;
+                RecordLog.info("[ParameterMetricStorage] Creating parameter metric for: {}", resourceName);
             }
         }
         metric.initialize(rule);
     }
 
+    /**
+     * <p>Prepare the parameter metric of given resource for its new rules, before the new rules take effect.</p>
+     *
+     * <p>A modified rule takes over the counters of the removed rule having the same parameter index, grade and
+     * statistic duration (see {@link ParameterMetric#migrateRule(ParamFlowRule, ParamFlowRule)}), so that the
+     * throttling state of parameter values is not reset. The counters of other removed rules are cleared.</p>
+     *
+     * @param resourceName resource name
+     * @param oldRules     current rules of the resource
+     * @param newRules     new rules of the resource
+     * @return removed rules whose counters are taken over, which should be released by
+     * {@link #releaseMigratedRulesFor(String, List)} after the new rules take effect
+     * @since 1.8.2
+     */
+    public static List<ParamFlowRule> migrateParamMetricsFor(String resourceName, List<ParamFlowRule> oldRules,
+                                                             List<ParamFlowRule> newRules) {
+        ParameterMetric metric = getParamMetricForResource(resourceName);
+        if (metric == null || oldRules == null) {
+            return new ArrayList<>();
+        }
+        List<ParamFlowRule> removedRules = new ArrayList<>(oldRules);
+        List<ParamFlowRule> addedRules = new ArrayList<>();
+        if (newRules != null) {
+            removedRules.removeAll(newRules);
+            addedRules.addAll(newRules);
+            addedRules.removeAll(oldRules);
+        }
+
+        List<ParamFlowRule> migratedRules = new ArrayList<>();
+        for (ParamFlowRule rule : removedRules) {
+            boolean migrated = false;
+            for (Iterator<ParamFlowRule> it = addedRules.iterator(); it.hasNext(); ) {
+                if (metric.migrateRule(rule, it.next())) {
+                    it.remove();
+                    migrated = true;
+                    break;
+                }
+            }
+            if (migrated) {
+                migratedRules.add(rule);
+            } else {
+                metric.clearForRule(rule);
+            }
+        }
+        if (!migratedRules.isEmpty()) {
+            RecordLog.info("[ParameterMetricStorage] Migrating parameter metric of modified rules for: {}",
+                resourceName);
+        }
+        return migratedRules;
+    }
+
+    /**
+     * Release the counters of removed rules taken over by new rules, after the new rules take effect.
+     *
+     * @param resourceName  resource name
+     * @param migratedRules rules returned by {@link #migrateParamMetricsFor(String, List, List)}
+     * @since 1.8.2
+     */
+    public static void releaseMigratedRulesFor(String resourceName, List<ParamFlowRule> migratedRules) {
+        ParameterMetric metric = getParamMetricForResource(resourceName);
+        if (metric == null || migratedRules == null) {
+            return;
+        }
+        for (ParamFlowRule rule : migratedRules) {
+            metric.clearCountersForRule(rule);
+        }
+    }
+
     public static ParameterMetric getParamMetric(ResourceWrapper resourceWrapper) {
         if (resourceWrapper == null || resourceWrapper.getName() == null) {
             return null;
@@ -0,0 +1,157 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link HeavyHitterSketch}.
+ *
+ * @since 1.8.2
+ */
+public class HeavyHitterSketchTest {
+
+    private static final long WINDOW_MS = 1000;
+
+    @Test
+    public void testTryAcquire() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(1);
+        long time = 100000;
+        assertTrue(sketch.tryAcquire("a", time, 2, 5));
+        assertEquals(2, sketch.estimate("a", time));
+        assertTrue(sketch.tryAcquire("a", time, 3, 5));
+        assertFalse(sketch.tryAcquire("a", time + 1, 1, 5));
+        // Rejected requests are not counted.
+        assertEquals(5, sketch.estimate("a", time));
+        assertTrue(sketch.tryAcquire("b", time, 5, 5));
+        assertFalse(sketch.tryAcquire("c", time, 6, 5));
+        assertEquals(0, sketch.estimate("c", time));
+    }
+
+    @Test
+    public void testWindowRotation() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(1);
+        long time = 100000;
+        assertTrue(sketch.tryAcquire("a", time, 5, 5));
+        assertFalse(sketch.tryAcquire("a", time + WINDOW_MS - 1, 1, 5));
+        assertEquals(1, sketch.hotValueCount());
+
+        assertTrue(sketch.tryAcquire("a", time + WINDOW_MS, 5, 5));
+        assertFalse(sketch.tryAcquire("a", time + WINDOW_MS, 1, 5));
+        // Windows skipped entirely.
+        assertTrue(sketch.tryAcquire("a", time + WINDOW_MS * 5, 5, 5));
+        assertEquals(0, sketch.estimate("b", time + WINDOW_MS * 5));
+        // Time going back is counted in the current window.
+        assertFalse(sketch.tryAcquire("a", time, 1, 5));
+    }
+
+    @Test
+    public void testPromoteHotValues() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(HeavyHitterSketch.DEFAULT_DEPTH,
+            HeavyHitterSketch.DEFAULT_WIDTH, 2, WINDOW_MS);
+        long time = 100000;
+        for (int i = 0; i < 4; i++) {
+            assertTrue(sketch.tryAcquire("v" + i, time, 4, 10));
+        }
+        assertEquals(0, sketch.hotValueCount());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(sketch.tryAcquire("v" + i, time, 1, 10));
+        }
+        assertEquals(2, sketch.hotValueCount());
+        // Hot values and the others are limited alike.
+        for (int i = 0; i < 4; i++) {
+            assertTrue(sketch.tryAcquire("v" + i, time, 5, 10));
+            assertFalse(sketch.tryAcquire("v" + i, time, 1, 10));
+            assertEquals(10, sketch.estimate("v" + i, time));
+        }
+
+        assertTrue(sketch.tryAcquire("v0", time + WINDOW_MS, 1, 10));
+        assertEquals(0, sketch.hotValueCount());
+    }
+
+    @Test
+    public void testErrorBoundsAgainstExactCounting() {
+        // Default sketch: 20 hot values in a long tail of 20k values.
+        verifyErrorBounds(new HeavyHitterSketch(1), HeavyHitterSketch.DEFAULT_DEPTH,
+            HeavyHitterSketch.DEFAULT_WIDTH, 20000, 20, 100000, 1000);
+        // A tiny sketch overloaded by the long tail, where the early rejection does happen.
+        verifyErrorBounds(new HeavyHitterSketch(3, 64, 4, WINDOW_MS), 3, 64, 2000, 8, 6000, 60);
+    }
+
+    /**
+     * Feed one window of requests to the sketch and an exact counter, and verify that:
+     * <ul>
+     *   <li>no value is admitted beyond the threshold;</li>
+     *   <li>the values rejected earlier than {@code threshold - e / width * N} are no more than {@code e^-depth}
+     *   (plus some slack for the randomness of the test).</li>
+     * </ul>
+     */
+    private void verifyErrorBounds(HeavyHitterSketch sketch, int depth, int width, int coldValueCount,
+                                   int hotValueCount, int coldRequestCount, int threshold) {
+        Random random = new Random(42);
+        List<String> requests = new ArrayList<>();
+        for (int i = 0; i < coldRequestCount; i++) {
+            requests.add("cold-" + random.nextInt(coldValueCount));
+        }
+        for (int i = 0; i < hotValueCount; i++) {
+            for (int j = 0; j < threshold * 3; j++) {
+                requests.add("hot-" + i);
+            }
+        }
+        Collections.shuffle(requests, random);
+
+        long time = 100000;
+        Map<String, Integer> demands = new HashMap<>();
+        Map<String, Integer> passes = new HashMap<>();
+        long total = 0;
+        for (String value : requests) {
+            Integer demand = demands.get(value);
+            demands.put(value, demand == null ? 1 : demand + 1);
+            if (sketch.tryAcquire(value, time, 1, threshold)) {
+                Integer pass = passes.get(value);
+                passes.put(value, pass == null ? 1 : pass + 1);
+                total++;
+            }
+        }
+
+        double maxError = Math.E / width * total;
+        int earlyRejected = 0;
+        for (Map.Entry<String, Integer> e : demands.entrySet()) {
+            Integer pass = passes.get(e.getKey());
+            int passCount = pass == null ? 0 : pass;
+            // The exact counting admits min(demand, threshold).
+            int exactPassCount = Math.min(e.getValue(), threshold);
+            assertTrue(passCount <= exactPassCount);
+            if (passCount < exactPassCount - maxError) {
+                earlyRejected++;
+            }
+        }
+        double allowed = Math.exp(-depth) + 0.01;
+        assertTrue("early rejected: " + earlyRejected + " of " + demands.size(),
+            earlyRejected <= allowed * demands.size());
+    }
+}
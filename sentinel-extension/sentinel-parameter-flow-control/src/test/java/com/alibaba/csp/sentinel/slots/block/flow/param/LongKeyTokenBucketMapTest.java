@@ -0,0 +1,134 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link LongKeyTokenBucketMap}.
+ *
+ * @since 1.8.2
+ */
+public class LongKeyTokenBucketMapTest {
+
+    private static final long DURATION_MS = 1000;
+
+    @Test
+    public void testSupportedKeys() {
+        assertTrue(LongKeyTokenBucketMap.isSupportedKey(1L));
+        assertTrue(LongKeyTokenBucketMap.isSupportedKey(1));
+        assertTrue(LongKeyTokenBucketMap.isSupportedKey((short)1));
+        assertTrue(LongKeyTokenBucketMap.isSupportedKey((byte)1));
+        // Strings are left to the object map, as their hashes could be collided on purpose.
+        assertFalse(LongKeyTokenBucketMap.isSupportedKey("abc"));
+        assertFalse(LongKeyTokenBucketMap.isSupportedKey(1.0d));
+        assertFalse(LongKeyTokenBucketMap.isSupportedKey(new Object()));
+    }
+
+    @Test
+    public void testNumbersOfDifferentTypes() {
+        LongKeyTokenBucketMap map = new LongKeyTokenBucketMap(100);
+        long time = 100000;
+        assertTrue(map.tryAcquire(7L, time, 5, 5, 5, DURATION_MS));
+        assertFalse(map.tryAcquire(7L, time, 1, 5, 5, DURATION_MS));
+        // Equal values of different types do not share the bucket, just like the default storage.
+        assertTrue(map.tryAcquire(7, time, 2, 5, 5, DURATION_MS));
+        assertTrue(map.tryAcquire((short)7, time, 3, 5, 5, DURATION_MS));
+        assertTrue(map.tryAcquire((byte)7, time, 4, 5, 5, DURATION_MS));
+        assertEquals(0, PackedTokenBucket.tokensOf(map.get(7L)));
+        assertEquals(3, PackedTokenBucket.tokensOf(map.get(7)));
+        assertEquals(2, PackedTokenBucket.tokensOf(map.get((short)7)));
+        assertEquals(1, PackedTokenBucket.tokensOf(map.get((byte)7)));
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    public void testTryAcquire() {
+        LongKeyTokenBucketMap map = new LongKeyTokenBucketMap(100);
+        long time = 100000;
+        assertEquals(0, map.size());
+        assertEquals(PackedTokenBucket.REJECTED, map.get(1));
+
+        assertTrue(map.tryAcquire(1, time, 2, 5, 5, DURATION_MS));
+        assertEquals(3, PackedTokenBucket.tokensOf(map.get(1)));
+        assertTrue(map.tryAcquire(1, time, 3, 5, 5, DURATION_MS));
+        assertFalse(map.tryAcquire(1, time, 1, 5, 5, DURATION_MS));
+        // Other keys are not affected.
+        assertTrue(map.tryAcquire(2, time, 1, 5, 5, DURATION_MS));
+        assertEquals(2, map.size());
+
+        assertFalse(map.tryAcquire(1, time + DURATION_MS, 1, 5, 5, DURATION_MS));
+        assertTrue(map.tryAcquire(1, time + DURATION_MS + 1, 5, 5, 5, DURATION_MS));
+        assertEquals(time + DURATION_MS + 1, PackedTokenBucket.timeOf(map.get(1)));
+    }
+
+    @Test
+    public void testClockEviction() {
+        // A single set of 8 slots.
+        LongKeyTokenBucketMap map = new LongKeyTokenBucketMap(8);
+        assertEquals(8, map.capacity());
+        long time = 100000;
+        for (long key = 0; key < 8; key++) {
+            assertTrue(map.tryAcquire(key, time, 1, 5, 5, DURATION_MS));
+        }
+        // Hit the even keys again, so only the odd keys can be evicted.
+        for (long key = 0; key < 8; key += 2) {
+            assertTrue(map.tryAcquire(key, time, 1, 5, 5, DURATION_MS));
+        }
+        for (long key = 8; key < 12; key++) {
+            assertTrue(map.tryAcquire(key, time, 1, 5, 5, DURATION_MS));
+        }
+        assertEquals(8, map.size());
+        for (long key = 0; key < 8; key++) {
+            if (key % 2 == 0) {
+                assertEquals(3, PackedTokenBucket.tokensOf(map.get(key)));
+            } else {
+                assertEquals(PackedTokenBucket.REJECTED, map.get(key));
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentTryAcquire() throws Exception {
+        final LongKeyTokenBucketMap map = new LongKeyTokenBucketMap(1000);
+        final long maxCount = 1000;
+        final int threadCount = 8;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        final AtomicInteger passCount = new AtomicInteger();
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 500; j++) {
+                        if (map.tryAcquire(42, 100000, 1, maxCount, maxCount, DURATION_MS)) {
+                            passCount.incrementAndGet();
+                        }
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        assertEquals(maxCount, passCount.get());
+    }
+}
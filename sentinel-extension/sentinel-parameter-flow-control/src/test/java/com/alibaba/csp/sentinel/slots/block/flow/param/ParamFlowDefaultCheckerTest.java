@@ -17,8 +17,11 @@ package com.alibaba.csp.sentinel.slots.block.flow.param;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
@@ -323,6 +326,121 @@ public class ParamFlowDefaultCheckerTest extends AbstractTimeBasedTest {
         assertEquals(successCount.get(), threshold);
     }
 
+    @Test
+    public void testPackedTokenBucketMatchesDefaultStorage() {
+        ParamFlowRule rule = new ParamFlowRule("testPackedTokenBucketMatchesDefaultStorage")
+            .setCount(5)
+            .setBurstCount(3)
+            .setDurationInSec(2)
+            .setParamIdx(0);
+        ResourceWrapper defaultResource = new StringResourceWrapper("defaultStorage", EntryType.IN);
+        ResourceWrapper packedResource = new StringResourceWrapper("packedStorage", EntryType.IN);
+        ParameterMetric defaultMetric = new ParameterMetric(false);
+        defaultMetric.initialize(rule);
+        ParameterMetricStorage.getMetricsMap().put(defaultResource.getName(), defaultMetric);
+        ParameterMetric packedMetric = new ParameterMetric(true);
+        packedMetric.initialize(rule);
+        assertNotNull(packedMetric.getRuleTokenBucket(rule));
+        ParameterMetricStorage.getMetricsMap().put(packedResource.getName(), packedMetric);
+
+        setCurrentMillis(System.currentTimeMillis());
+        Random random = new Random(17);
+        for (int i = 0; i < 2000; i++) {
+            // Integral values are kept in the long-key map, while other values are kept in the object map.
+            // Equal numbers of different types are different values in both storages.
+            Object[] values = new Object[] {"value" + random.nextInt(3), (long)random.nextInt(3),
+                random.nextInt(3), (double)random.nextInt(3)};
+            Object value = values[random.nextInt(values.length)];
+            int acquireCount = 1 + random.nextInt(3);
+            assertEquals(ParamFlowChecker.passSingleValueCheck(defaultResource, rule, acquireCount, value),
+                ParamFlowChecker.passSingleValueCheck(packedResource, rule, acquireCount, value));
+            sleep(random.nextInt(300));
+        }
+    }
+
+    @Test
+    public void testPackedTokenBucketWithLongInterval() {
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper("testPackedTokenBucketWithLongInterval",
+            EntryType.IN);
+        ParamFlowRule rule = new ParamFlowRule(resourceWrapper.getName())
+            .setCount(PackedTokenBucket.MAX_TOKENS)
+            .setParamIdx(0);
+        ParameterMetric metric = new ParameterMetric(true);
+        metric.initialize(rule);
+        ParameterMetricStorage.getMetricsMap().put(resourceWrapper.getName(), metric);
+
+        setCurrentMillis(System.currentTimeMillis());
+        String valueA = "valueA";
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, (int)PackedTokenBucket.MAX_TOKENS,
+            valueA));
+
+        sleep(1000 * 60 * 60 * 24);
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, (int)PackedTokenBucket.MAX_TOKENS,
+            valueA));
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+    }
+
+    @Test
+    public void testApproximateRule() {
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper("testApproximateRule", EntryType.IN);
+        String hotValue = "hot";
+        ParamFlowItem item = ParamFlowItem.newItem(hotValue, 10);
+        ParamFlowRule rule = new ParamFlowRule(resourceWrapper.getName())
+            .setCount(3)
+            .setBurstCount(2)
+            .setParamIdx(0)
+            .setApproximate(true)
+            .setParamFlowItemList(Collections.singletonList(item));
+        ParamFlowRuleUtil.fillExceptionFlowItems(rule);
+        ParameterMetric metric = new ParameterMetric();
+        metric.initialize(rule);
+        ParameterMetricStorage.getMetricsMap().put(resourceWrapper.getName(), metric);
+
+        // Align to the beginning of a window.
+        setCurrentMillis(System.currentTimeMillis() / 1000 * 1000);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, "cold"));
+        }
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, "cold"));
+        for (int i = 0; i < 12; i++) {
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, hotValue));
+        }
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, hotValue));
+
+        sleep(1000);
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 5, "cold"));
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 12, hotValue));
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, hotValue));
+    }
+
+    @Test
+    public void testLowerThresholdAfterMigration() {
+        setCurrentMillis(System.currentTimeMillis());
+        for (boolean packed : new boolean[] {false, true}) {
+            for (Object value : new Object[] {"valueA", 7L}) {
+                ResourceWrapper resourceWrapper = new StringResourceWrapper(
+                    "testLowerThresholdAfterMigration" + packed + value, EntryType.IN);
+                ParamFlowRule oldRule = new ParamFlowRule(resourceWrapper.getName())
+                    .setCount(10)
+                    .setParamIdx(0);
+                ParameterMetric metric = new ParameterMetric(packed);
+                metric.initialize(oldRule);
+                ParameterMetricStorage.getMetricsMap().put(resourceWrapper.getName(), metric);
+                assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, oldRule, 5, value));
+
+                // The threshold is lowered, while 5 tokens are left of the former threshold.
+                ParamFlowRule newRule = new ParamFlowRule(resourceWrapper.getName())
+                    .setCount(3)
+                    .setParamIdx(0);
+                assertTrue(metric.migrateRule(oldRule, newRule));
+                assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, newRule, 3, value));
+                // The rest tokens never exceed the new threshold.
+                assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, newRule, 1, value));
+            }
+        }
+    }
+
     @Before
     public void setUp() throws Exception {
         ParameterMetricStorage.getMetricsMap().clear();
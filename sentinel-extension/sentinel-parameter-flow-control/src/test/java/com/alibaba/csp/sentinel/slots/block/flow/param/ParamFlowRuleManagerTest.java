@@ -18,8 +18,10 @@ package com.alibaba.csp.sentinel.slots.block.flow.param;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
 
 import org.junit.After;
 import org.junit.Before;
@@ -95,6 +97,42 @@ public class ParamFlowRuleManagerTest {
         assertNull(metric2.getRuleTimeCounter(ruleA2));
     }
 
+    @Test
+    public void testLoadParamRulesMigratingMetricsOfModifiedRule() {
+        final String resA = "resA";
+        ParamFlowRule ruleA1 = new ParamFlowRule(resA)
+            .setCount(1)
+            .setParamIdx(0);
+        ParamFlowRule ruleA2 = new ParamFlowRule(resA)
+            .setCount(2)
+            .setParamIdx(1);
+
+        ParamFlowRuleManager.loadRules(Arrays.asList(ruleA1, ruleA2));
+        ParameterMetric metric = new ParameterMetric();
+        metric.initialize(ruleA1);
+        metric.initialize(ruleA2);
+        ParameterMetricStorage.getMetricsMap().put(resA, metric);
+        CacheMap<Object, AtomicLong> tokenCounter = metric.getRuleTokenCounter(ruleA1);
+
+        // Only the threshold of ruleA1 is modified, while the statistic duration of ruleA2 is modified.
+        ParamFlowRule newRuleA1 = new ParamFlowRule(resA)
+            .setCount(5)
+            .setParamIdx(0);
+        ParamFlowRule newRuleA2 = new ParamFlowRule(resA)
+            .setCount(2)
+            .setParamIdx(1)
+            .setDurationInSec(2);
+        ParamFlowRuleManager.loadRules(Arrays.asList(newRuleA1, newRuleA2));
+
+        assertSame(metric, ParameterMetricStorage.getParamMetricForResource(resA));
+        assertSame(tokenCounter, metric.getRuleTokenCounter(newRuleA1));
+        assertNotNull(metric.getRuleTimeCounter(newRuleA1));
+        assertNull(metric.getRuleTokenCounter(ruleA1));
+        assertNull(metric.getRuleTimeCounter(ruleA1));
+        assertNull(metric.getRuleTokenCounter(newRuleA2));
+        assertNull(metric.getRuleTokenCounter(ruleA2));
+    }
+
 
     @Test
     public void testLoadParamRulesAndGet() {
@@ -5,6 +5,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -43,6 +45,28 @@ public class ParamFlowRuleUtilTest {
         assertTrue(ParamFlowRuleUtil.isValidRule(goodRule));
     }
 
+    @Test
+    public void testCheckValidApproximateRule() {
+        ParamFlowRule qpsRule = new ParamFlowRule("abc")
+            .setCount(10)
+            .setParamIdx(1)
+            .setApproximate(true);
+        assertTrue(ParamFlowRuleUtil.isValidRule(qpsRule));
+
+        ParamFlowRule threadRule = new ParamFlowRule("abc")
+            .setCount(10)
+            .setParamIdx(1)
+            .setGrade(RuleConstant.FLOW_GRADE_THREAD)
+            .setApproximate(true);
+        ParamFlowRule throttleRule = new ParamFlowRule("abc")
+            .setCount(10)
+            .setParamIdx(1)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setApproximate(true);
+        assertFalse(ParamFlowRuleUtil.isValidRule(threadRule));
+        assertFalse(ParamFlowRuleUtil.isValidRule(throttleRule));
+    }
+
     @Test
     public void testParseHotParamExceptionItemsFailure() {
         String valueB = "Sentinel";
@@ -16,8 +16,10 @@
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -76,6 +78,121 @@ public class ParameterMetricTest {
         assertEquals(0, metric.getRuleTokenCounterMap().size());
     }
 
+    @Test
+    public void testInitPackedTokenBucket() {
+        ParameterMetric metric = new ParameterMetric(true);
+
+        ParamFlowRule rule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setCount(10);
+        metric.initialize(rule);
+        CacheMap<Object, AtomicLong> tokenBuckets = metric.getRuleTokenBucket(rule);
+        assertNotNull(tokenBuckets);
+        assertNotNull(metric.getRuleLongKeyTokenBucket(rule));
+        assertNull(metric.getRuleTimeCounter(rule));
+        assertNull(metric.getRuleTokenCounter(rule));
+        assertNotNull(metric.getThreadCountMap().get(rule.getParamIdx()));
+        metric.initialize(rule);
+        assertSame(tokenBuckets, metric.getRuleTokenBucket(rule));
+
+        // Rate limiter rules and rules exceeding the token bits fall back to the default counters.
+        ParamFlowRule throttleRule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
+        metric.initialize(throttleRule);
+        assertNull(metric.getRuleTokenBucket(throttleRule));
+        assertNotNull(metric.getRuleTimeCounter(throttleRule));
+
+        ParamFlowRule largeRule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setCount(PackedTokenBucket.MAX_TOKENS)
+            .setBurstCount(1);
+        metric.initialize(largeRule);
+        assertNull(metric.getRuleTokenBucket(largeRule));
+        assertNotNull(metric.getRuleTokenCounter(largeRule));
+
+        metric.clearForRule(rule);
+        assertNull(metric.getRuleTokenBucket(rule));
+        assertNull(metric.getRuleLongKeyTokenBucket(rule));
+        metric.initialize(rule);
+        metric.clear();
+        assertEquals(0, metric.getRuleTokenBucketMap().size());
+        assertEquals(0, metric.getRuleLongKeyTokenBucketMap().size());
+    }
+
+    @Test
+    public void testMigrateRule() {
+        ParameterMetric metric = new ParameterMetric(false);
+        ParamFlowRule rule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setCount(10);
+        metric.initialize(rule);
+        CacheMap<Object, AtomicLong> tokenCounter = metric.getRuleTokenCounter(rule);
+        CacheMap<Object, AtomicInteger> threadCount = metric.getThreadCountMap().get(rule.getParamIdx());
+
+        ParamFlowRule otherIdxRule = new ParamFlowRule("abc")
+            .setParamIdx(2)
+            .setCount(20);
+        ParamFlowRule otherDurationRule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setCount(20)
+            .setDurationInSec(2);
+        ParamFlowRule otherBehaviorRule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setCount(20)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
+        ParamFlowRule approximateRule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setCount(20)
+            .setApproximate(true);
+        assertFalse(metric.migrateRule(rule, otherIdxRule));
+        assertFalse(metric.migrateRule(rule, otherDurationRule));
+        assertFalse(metric.migrateRule(rule, otherBehaviorRule));
+        assertFalse(metric.migrateRule(rule, approximateRule));
+        assertNull(metric.getRuleTokenCounter(otherIdxRule));
+
+        ParamFlowRule newRule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setCount(20);
+        assertTrue(metric.migrateRule(rule, newRule));
+        assertSame(tokenCounter, metric.getRuleTokenCounter(newRule));
+        // The old rule keeps its counters until released.
+        assertSame(tokenCounter, metric.getRuleTokenCounter(rule));
+        // Never overwrite the counters already taken.
+        assertFalse(metric.migrateRule(rule, newRule));
+
+        metric.clearCountersForRule(rule);
+        assertNull(metric.getRuleTokenCounter(rule));
+        assertNull(metric.getRuleTimeCounter(rule));
+        assertSame(tokenCounter, metric.getRuleTokenCounter(newRule));
+        assertSame(threadCount, metric.getThreadCountMap().get(newRule.getParamIdx()));
+    }
+
+    @Test
+    public void testInitApproximateRule() {
+        ParameterMetric metric = new ParameterMetric(true);
+
+        ParamFlowRule rule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setCount(10)
+            .setApproximate(true);
+        metric.initialize(rule);
+        HeavyHitterSketch sketch = metric.getRuleSketch(rule);
+        assertNotNull(sketch);
+        assertNull(metric.getRuleTokenBucket(rule));
+        assertNull(metric.getRuleTimeCounter(rule));
+        assertNull(metric.getRuleTokenCounter(rule));
+        assertNotNull(metric.getThreadCountMap().get(rule.getParamIdx()));
+        metric.initialize(rule);
+        assertSame(sketch, metric.getRuleSketch(rule));
+
+        metric.clearForRule(rule);
+        assertNull(metric.getRuleSketch(rule));
+        metric.initialize(rule);
+        metric.clear();
+        assertEquals(0, metric.getRuleSketchMap().size());
+    }
+
     @Test
     public void testAddAndDecreaseThreadCountCommon() {
         testAddAndDecreaseThreadCount(PARAM_TYPE_NORMAL);
@@ -39,7 +39,8 @@ import com.alibaba.csp.sentinel.util.TimeUtil;
  * @author Eric Zhao
  */
 @CommandMapping(name = "metric", desc = "get and aggregate metrics, accept param: "
-    + "startTime={startTime}&endTime={endTime}&maxLines={maxLines}&identify={resourceName}")
+    + "startTime={startTime}&endTime={endTime}&maxLines={maxLines}&identify={resourceName}"
+    + "&rtPercentiles={true|false}")
 public class SendMetricCommandHandler implements CommandHandler<String> {
 
     private volatile MetricSearcher searcher;
@@ -65,6 +66,8 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
         String endTimeStr = request.getParam("endTime");
         String maxLinesStr = request.getParam("maxLines");
         String identity = request.getParam("identity");
+        // RT percentiles are appended to each line only on demand, for compatibility with the old parsers.
+        boolean withRtPercentiles = Boolean.parseBoolean(request.getParam("rtPercentiles"));
         long startTime = -1;
         int maxLines = 6000;
         if (StringUtil.isNotBlank(startTimeStr)) {
@@ -96,7 +99,7 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
         }
         StringBuilder sb = new StringBuilder();
         for (MetricNode node : list) {
-            sb.append(node.toThinString()).append("\n");
+            sb.append(node.toThinString(withRtPercentiles)).append("\n");
         }
         return CommandResponse.ofSuccess(sb.toString());
     }